@@ -3,8 +3,8 @@ package org.example.AST;
 /**
  * Classe base abstrata para todos os nós da Árvore Sintática Abstrata (AST).
  * Contém informações comuns a todos os nós, como localização no código fonte
- * (linha e coluna) e define os métodos abstratos para o Padrão Visitor e
- * para a visualização da árvore.
+ * (linha e coluna) e define o método abstrato para o Padrão Visitor e
+ * os pontos de entrada para a visualização da árvore.
  */
 public abstract class ASTNode {
 
@@ -42,13 +42,34 @@ public abstract class ASTNode {
     public abstract ASTResult accept(ASTVisitor visitor) throws Exception;
 
     /**
-     * Método abstrato para imprimir a estrutura da Árvore Sintática Abstrata (AST).
-     * Cada nó concreto deve implementar este método para se auto-imprimir,
-     * e então chamar recursivamente o mesmo método em seus filhos, ajustando
-     * o prefixo de indentação.
+     * Imprime a estrutura da Árvore Sintática Abstrata (AST) a partir deste nó.
+     * Mantido por compatibilidade: coleta a saída da {@link ImpressoraAST} em um
+     * StringBuilder, com o prefixo no início de cada linha.
      *
      * @param prefix O prefixo de indentação a ser usado para este nó e seus filhos.
      * @return Uma String formatada representando a subárvore.
      */
-    public abstract String imprimirArvore(String prefix);
+    public String imprimirArvore(String prefix) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            new ImpressoraAST(sb).imprimir(this);
+        } catch (Exception e) {
+            // Um StringBuilder não lança IOException; só uma falha inesperada chega aqui
+            throw new IllegalStateException("Falha ao imprimir a AST: " + e.getMessage(), e);
+        }
+        if (prefix.isEmpty()) {
+            return sb.toString();
+        }
+        // A saída sempre termina em '\n': prefixa a primeira linha e as que seguem cada quebra
+        String linhas = sb.substring(0, sb.length() - 1);
+        return prefix + linhas.replace("\n", "\n" + prefix) + "\n";
+    }
+
+    /**
+     * Imprime a AST a partir deste nó diretamente em um Appendable (ex: System.out),
+     * respeitando os limites de profundidade e de número de nós.
+     */
+    public void imprimirArvore(Appendable saida, int profundidadeMaxima, int limiteNos) throws Exception {
+        new ImpressoraAST(saida, profundidadeMaxima, limiteNos).imprimir(this);
+    }
 }
\ No newline at end of file
@@ -9,24 +9,24 @@ import org.example.TipoDado;
  */
 public class ASTResult {
     private final TipoDado tipo;
-    private final String endereco; // Onde o resultado da expressão foi armazenado (ID ou T1)
+    private final int operando; // Operando do IR onde o resultado da expressão foi armazenado (variável, T1, constante)
 
     // Construtor usado pelo ASTSemanticAnalyzer (fase 1)
     public ASTResult(TipoDado tipo) {
-        this(tipo, null);
+        this(tipo, 0); // 0 = ProgramaIR.NENHUM
     }
 
     // Construtor usado pelo C3EGenerator (fase 2)
-    public ASTResult(TipoDado tipo, String endereco) {
+    public ASTResult(TipoDado tipo, int operando) {
         this.tipo = tipo;
-        this.endereco = endereco;
+        this.operando = operando;
     }
 
     public TipoDado getTipo() {
         return tipo;
     }
 
-    public String getEndereco() {
-        return endereco;
+    public int getOperando() {
+        return operando;
     }
 }
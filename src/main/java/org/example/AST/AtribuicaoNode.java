@@ -20,32 +20,4 @@ public class AtribuicaoNode extends ASTNode {
     public ASTResult accept(ASTVisitor visitor) throws Exception {
         return visitor.visit(this);
     }
-
-    /** Te amoooooooo vida
-     * Implementa a visualização da AST para o nó de Atribuição.
-     * Imprime o nó e chama recursivamente para o identificador (LHS) e a expressão (RHS).
-     *
-     * @param prefix Prefixo de indentação.
-     * @return Uma String formatada representando a subárvore.
-     */
-    @Override
-    public String imprimirArvore(String prefix) {
-        StringBuilder sb = new StringBuilder();
-
-        // 1. Imprime o próprio nó AtribuicaoNode
-        sb.append(prefix).append("└── AtribuicaoNode (=)\n");
-
-        // Novo prefixo para os filhos
-        String novoPrefix = prefix + (prefix.contains("└──") ? "    " : "│   ");
-
-        // 2. Imprime o Identificador (LHS)
-        sb.append(novoPrefix).append("└── LHS (Identificador):\n");
-        sb.append(identificador.imprimirArvore(novoPrefix + "    "));
-
-        // 3. Imprime a Expressão (RHS)
-        sb.append(novoPrefix).append("└── RHS (Expressão):\n");
-        sb.append(expressaoRHS.imprimirArvore(novoPrefix + "    "));
-
-        return sb.toString();
-    }
 }
\ No newline at end of file
@@ -27,34 +27,4 @@ public class CondicaoBinariaNode extends ASTNode {
     public ASTResult accept(ASTVisitor visitor) throws Exception {
         return visitor.visit(this);
     }
-
-    /**
-     * Implementa a visualização da AST para o nó de Condição Binária.
-     * Imprime o nó e chama recursivamente para os dois operandos filhos.
-     *
-     * @param prefix Prefixo de indentação.
-     * @return Uma String formatada representando a subárvore.
-     */
-    @Override
-    public String imprimirArvore(String prefix) {
-        StringBuilder sb = new StringBuilder();
-
-        // 1. Imprime o próprio nó, destacando o operador lógico
-        sb.append(prefix).append("└── CondicaoBinariaNode (Op Lógico: ").append(operador.getLexema()).append(")\n");
-
-        // Novo prefixo para os filhos
-        String novoPrefix = prefix + (prefix.contains("└──") ? "    " : "│   ");
-
-        // 2. Imprime o Operando 1 (Esquerda)
-        sb.append(novoPrefix).append("└── Operando 1 (Esquerda):\n");
-        // Chama recursivamente no Operando 1, ajustando a indentação
-        sb.append(operando1.imprimirArvore(novoPrefix + "    "));
-
-        // 3. Imprime o Operando 2 (Direita)
-        sb.append(novoPrefix).append("└── Operando 2 (Direita):\n");
-        // Chama recursivamente no Operando 2, ajustando a indentação
-        sb.append(operando2.imprimirArvore(novoPrefix + "    "));
-
-        return sb.toString();
-    }
 }
\ No newline at end of file
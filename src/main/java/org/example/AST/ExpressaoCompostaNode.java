@@ -60,27 +60,6 @@ public class ExpressaoCompostaNode extends ASTNode {
         return visitor.visit(this);
     }
 
-
-    @Override
-    public String imprimirArvore(String prefixo) {
-        // Constrói a string do nó atual
-        StringBuilder sb = new StringBuilder();
-
-        sb.append(prefixo).append("├── ExpressaoCompostaNode (").append(getOperadorComposto().getLexema()).append(")\n");
-
-        String novoPrefixo = prefixo + "│   ";
-
-        // Concatena a Condição Esquerda (usando o valor retornado pelo filho)
-        sb.append(novoPrefixo).append("├── Condicao Esquerda:\n");
-        sb.append(getCondicaoEsquerda().imprimirArvore(novoPrefixo + "│   "));
-
-        // Concatena a Condição Direita (usando o valor retornado pelo filho)
-        sb.append(novoPrefixo).append("└── Condicao Direita:\n");
-        sb.append(getCondicaoDireita().imprimirArvore(novoPrefixo + "    "));
-
-        // Retorna a string final
-        return sb.toString();
-    }
     // Você deve adicionar aqui a lógica para Geração de Código Intermediário
     // no futuro (Etapa 2 do projeto).
     // Exemplo:
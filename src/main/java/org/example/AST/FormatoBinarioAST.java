@@ -0,0 +1,512 @@
+package org.example.AST;
+
+import org.example.EntradaTabelaSimbolos;
+import org.example.TabelaSimbolos;
+import org.example.TipoDado;
+import org.example.TipoToken;
+import org.example.Token;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * FormatoBinarioAST.java
+ * Codificação binária compacta de um ProgramaNode + TabelaSimbolos, usada como
+ * cache entre compilações: o arquivo é gravado após a análise sintática e pode
+ * ser mapeado em memória de volta sem refazer as análises léxica e sintática.
+ *
+ * Layout do arquivo:
+ *   "MLPA" | versão (byte) | assinatura do fonte (8 bytes)
+ *   tabela de strings: varint n, n x (varint bytes, UTF-8)
+ *   tabela de símbolos: varint n, n x (varint lexema, varint tipo, varint escopo)
+ *   nós da AST em pré-ordem: byte tipo do nó, zigzag linha, zigzag coluna, campos
+ *
+ * Inteiros usam varint (LEB128) e linha/coluna usam zigzag, pois tokens
+ * sintéticos usam -1. Strings (lexemas, escopos) são referenciadas pelo índice
+ * na tabela de strings. Os tipos de token e de dado são gravados pelo nome da
+ * constante, também via tabela de strings, para que reordenar ou acrescentar
+ * constantes em TipoToken/TipoDado não faça um cache antigo decodificar para
+ * o tipo errado: um nome desconhecido é um "Erro de Cache".
+ */
+public final class FormatoBinarioAST {
+
+    private static final byte[] MAGICO = {'M', 'L', 'P', 'A'};
+    private static final byte VERSAO = 2;
+
+    // Tipos de nó (um byte cada)
+    private static final byte NO_PROGRAMA = 1;
+    private static final byte NO_CONDICIONAL = 2;
+    private static final byte NO_ITERATIVO = 3;
+    private static final byte NO_ATRIBUICAO = 4;
+    private static final byte NO_LEIA = 5;
+    private static final byte NO_ESCREVA = 6;
+    private static final byte NO_EXPRESSAO_BINARIA = 7;
+    private static final byte NO_CONDICAO_BINARIA = 8;
+    private static final byte NO_IDENTIFICADOR = 9;
+    private static final byte NO_LITERAL = 10;
+    private static final byte NO_EXPRESSAO_COMPOSTA = 11;
+    private static final byte NO_NOT = 12;
+
+    private FormatoBinarioAST() {
+    }
+
+    /**
+     * Resultado da leitura do cache: a AST e a Tabela de Símbolos reconstruídas.
+     */
+    public static final class ASTSerializada {
+        private final ProgramaNode programa;
+        private final TabelaSimbolos tabelaSimbolos;
+        private final long assinaturaFonte;
+
+        ASTSerializada(ProgramaNode programa, TabelaSimbolos tabelaSimbolos, long assinaturaFonte) {
+            this.programa = programa;
+            this.tabelaSimbolos = tabelaSimbolos;
+            this.assinaturaFonte = assinaturaFonte;
+        }
+
+        public ProgramaNode getPrograma() { return programa; }
+        public TabelaSimbolos getTabelaSimbolos() { return tabelaSimbolos; }
+        public long getAssinaturaFonte() { return assinaturaFonte; }
+    }
+
+    /**
+     * Calcula a assinatura do código fonte (tamanho + CRC32), gravada no cabeçalho
+     * para invalidar o cache quando o fonte muda.
+     */
+    public static long assinatura(String codigoFonte) {
+        byte[] bytes = codigoFonte.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return ((long) bytes.length << 32) | crc.getValue();
+    }
+
+    // =====================================================================
+    //  ESCRITA
+    // =====================================================================
+
+    /**
+     * Codifica a AST e a Tabela de Símbolos em um array de bytes.
+     */
+    public static byte[] codificar(ProgramaNode programa, TabelaSimbolos tabelaSimbolos,
+                                   long assinaturaFonte) throws Exception {
+        Escritor escritor = new Escritor();
+
+        // Entradas em ordem estável, para que o mesmo fonte gere o mesmo arquivo
+        List<EntradaTabelaSimbolos> entradas = new ArrayList<>(tabelaSimbolos.getEntradas());
+        entradas.sort(Comparator.comparing(EntradaTabelaSimbolos::getEscopo)
+                .thenComparing(EntradaTabelaSimbolos::getLexema));
+
+        Buffer simbolos = new Buffer();
+        simbolos.varint(entradas.size());
+        for (EntradaTabelaSimbolos entrada : entradas) {
+            simbolos.varint(escritor.indiceString(entrada.getLexema()));
+            simbolos.varint(escritor.indiceString(entrada.getTipo().name()));
+            simbolos.varint(escritor.indiceString(entrada.getEscopo()));
+        }
+
+        programa.accept(escritor);
+
+        Buffer arquivo = new Buffer();
+        arquivo.bytes(MAGICO, MAGICO.length);
+        arquivo.byte_(VERSAO);
+        arquivo.int64(assinaturaFonte);
+        arquivo.varint(escritor.strings.size());
+        for (String s : escritor.strings.keySet()) {
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            arquivo.varint(utf8.length);
+            arquivo.bytes(utf8, utf8.length);
+        }
+        arquivo.bytes(simbolos.dados, simbolos.tamanho);
+        arquivo.bytes(escritor.nos.dados, escritor.nos.tamanho);
+        return Arrays.copyOf(arquivo.dados, arquivo.tamanho);
+    }
+
+    /**
+     * Grava o cache binário no caminho informado.
+     */
+    public static void gravar(Path destino, ProgramaNode programa, TabelaSimbolos tabelaSimbolos,
+                              long assinaturaFonte) throws Exception {
+        Files.write(destino, codificar(programa, tabelaSimbolos, assinaturaFonte));
+    }
+
+    /** Buffer de bytes crescente com codificação varint. */
+    private static final class Buffer {
+        byte[] dados = new byte[256];
+        int tamanho = 0;
+
+        void byte_(int b) {
+            if (tamanho == dados.length) {
+                dados = Arrays.copyOf(dados, dados.length * 2);
+            }
+            dados[tamanho++] = (byte) b;
+        }
+
+        void bytes(byte[] origem, int n) {
+            if (tamanho + n > dados.length) {
+                dados = Arrays.copyOf(dados, Math.max(dados.length * 2, tamanho + n));
+            }
+            System.arraycopy(origem, 0, dados, tamanho, n);
+            tamanho += n;
+        }
+
+        void varint(int valor) {
+            while ((valor & ~0x7F) != 0) {
+                byte_((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            byte_(valor);
+        }
+
+        void zigzag(int valor) {
+            varint((valor << 1) ^ (valor >> 31));
+        }
+
+        void int64(long valor) {
+            for (int i = 7; i >= 0; i--) {
+                byte_((int) (valor >>> (i * 8)));
+            }
+        }
+    }
+
+    /** Visitor que serializa os nós em pré-ordem, internando as strings. */
+    private static final class Escritor implements ASTVisitor {
+        final Map<String, Integer> strings = new LinkedHashMap<>();
+        final Buffer nos = new Buffer();
+
+        int indiceString(String s) {
+            Integer indice = strings.get(s);
+            if (indice == null) {
+                indice = strings.size();
+                strings.put(s, indice);
+            }
+            return indice;
+        }
+
+        private void cabecalho(byte tipo, ASTNode node) {
+            nos.byte_(tipo);
+            nos.zigzag(node.getLinha());
+            nos.zigzag(node.getColuna());
+        }
+
+        private void token(Token token) {
+            nos.varint(indiceString(token.getTipo().name()));
+            nos.varint(indiceString(token.getLexema()));
+            nos.zigzag(token.getLinha());
+            nos.zigzag(token.getColuna());
+        }
+
+        @Override
+        public ASTResult visit(ProgramaNode node) throws Exception {
+            cabecalho(NO_PROGRAMA, node);
+            nos.varint(node.getComandos().size());
+            for (ASTNode comando : node.getComandos()) {
+                comando.accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public ASTResult visit(CondicionalNode node) throws Exception {
+            cabecalho(NO_CONDICIONAL, node);
+            nos.byte_(node.getComandoSenao() != null ? 1 : 0);
+            node.getCondicao().accept(this);
+            node.getComandoEntao().accept(this);
+            if (node.getComandoSenao() != null) {
+                node.getComandoSenao().accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public ASTResult visit(IterativoNode node) throws Exception {
+            cabecalho(NO_ITERATIVO, node);
+            node.getCondicao().accept(this);
+            node.getComandoCorpo().accept(this);
+            return null;
+        }
+
+        @Override
+        public ASTResult visit(AtribuicaoNode node) throws Exception {
+            cabecalho(NO_ATRIBUICAO, node);
+            node.getIdentificador().accept(this);
+            node.getExpressaoRHS().accept(this);
+            return null;
+        }
+
+        @Override
+        public ASTResult visit(ComandoLeiaNode node) throws Exception {
+            cabecalho(NO_LEIA, node);
+            node.getIdentificador().accept(this);
+            return null;
+        }
+
+        @Override
+        public ASTResult visit(ComandoEscrevaNode node) throws Exception {
+            cabecalho(NO_ESCREVA, node);
+            node.getExpressao().accept(this);
+            return null;
+        }
+
+        @Override
+        public ASTResult visit(ExpressaoBinariaNode node) throws Exception {
+            cabecalho(NO_EXPRESSAO_BINARIA, node);
+            token(node.getOperador());
+            node.getOperando1().accept(this);
+            node.getOperando2().accept(this);
+            return null;
+        }
+
+        @Override
+        public ASTResult visit(CondicaoBinariaNode node) throws Exception {
+            cabecalho(NO_CONDICAO_BINARIA, node);
+            token(node.getOperador());
+            node.getOperando1().accept(this);
+            node.getOperando2().accept(this);
+            return null;
+        }
+
+        @Override
+        public ASTResult visit(IdentificadorNode node) throws Exception {
+            cabecalho(NO_IDENTIFICADOR, node);
+            nos.varint(indiceString(node.getLexema()));
+            // 0 = tipo ainda não resolvido pela análise semântica; senão, índice do nome + 1
+            TipoDado tipo = node.getTipoDeclarado();
+            nos.varint(tipo == null ? 0 : indiceString(tipo.name()) + 1);
+            return null;
+        }
+
+        @Override
+        public ASTResult visit(LiteralNode node) throws Exception {
+            nos.byte_(NO_LITERAL);
+            token(node.getToken());
+            return null;
+        }
+
+        @Override
+        public ASTResult visit(ExpressaoCompostaNode node) throws Exception {
+            cabecalho(NO_EXPRESSAO_COMPOSTA, node);
+            token(node.getOperadorComposto());
+            node.getCondicaoEsquerda().accept(this);
+            node.getCondicaoDireita().accept(this);
+            return null;
+        }
+
+        @Override
+        public ASTResult visit(NotNode node) throws Exception {
+            cabecalho(NO_NOT, node);
+            node.getCondicao().accept(this);
+            return null;
+        }
+    }
+
+    // =====================================================================
+    //  LEITURA
+    // =====================================================================
+
+    /**
+     * Lê apenas a assinatura do fonte gravada no cabeçalho, sem decodificar a AST.
+     * Retorna null se o arquivo não for um cache válido desta versão.
+     */
+    public static Long lerAssinatura(Path origem) throws IOException {
+        try (FileChannel canal = FileChannel.open(origem, StandardOpenOption.READ)) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(MAGICO.length + 1 + 8);
+            while (cabecalho.hasRemaining() && canal.read(cabecalho) > 0) {
+                // lê o cabeçalho completo
+            }
+            cabecalho.flip();
+            return cabecalhoValido(cabecalho) ? cabecalho.getLong() : null;
+        }
+    }
+
+    /**
+     * Mapeia o arquivo em memória e reconstrói a AST e a Tabela de Símbolos.
+     */
+    public static ASTSerializada carregar(Path origem) throws Exception {
+        try (FileChannel canal = FileChannel.open(origem, StandardOpenOption.READ)) {
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            return decodificar(mapa);
+        }
+    }
+
+    /**
+     * Decodifica um cache já em memória (array ou buffer mapeado).
+     */
+    public static ASTSerializada decodificar(ByteBuffer buffer) throws Exception {
+        if (!cabecalhoValido(buffer)) {
+            throw new Exception("Erro de Cache: arquivo não é uma AST serializada (versão " + VERSAO + ").");
+        }
+        long assinaturaFonte = buffer.getLong();
+
+        Leitor leitor = new Leitor(buffer);
+        int totalStrings = leitor.varint();
+        leitor.strings = new String[totalStrings];
+        for (int i = 0; i < totalStrings; i++) {
+            int n = leitor.varint();
+            byte[] utf8 = new byte[n];
+            buffer.get(utf8);
+            leitor.strings[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        TabelaSimbolos tabelaSimbolos = new TabelaSimbolos();
+        int totalSimbolos = leitor.varint();
+        for (int i = 0; i < totalSimbolos; i++) {
+            String lexema = leitor.string();
+            TipoDado tipo = leitor.constante(TipoDado.class, leitor.varint());
+            String escopo = leitor.string();
+            tabelaSimbolos.inserirEntrada(new EntradaTabelaSimbolos(lexema, tipo, escopo));
+        }
+
+        ASTNode raiz = leitor.no();
+        if (!(raiz instanceof ProgramaNode)) {
+            throw new Exception("Erro de Cache: a raiz da AST serializada não é um ProgramaNode.");
+        }
+        return new ASTSerializada((ProgramaNode) raiz, tabelaSimbolos, assinaturaFonte);
+    }
+
+    private static boolean cabecalhoValido(ByteBuffer buffer) {
+        if (buffer.remaining() < MAGICO.length + 1 + 8) {
+            return false;
+        }
+        for (byte b : MAGICO) {
+            if (buffer.get() != b) {
+                return false;
+            }
+        }
+        return buffer.get() == VERSAO;
+    }
+
+    /** Decodificador recursivo dos nós em pré-ordem. */
+    private static final class Leitor {
+        private final ByteBuffer buffer;
+        String[] strings;
+
+        Leitor(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        int varint() {
+            int valor = 0;
+            int deslocamento = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                valor |= (b & 0x7F) << deslocamento;
+                deslocamento += 7;
+            } while ((b & 0x80) != 0);
+            return valor;
+        }
+
+        int zigzag() {
+            int v = varint();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        String string() throws Exception {
+            return stringNoIndice(varint());
+        }
+
+        private String stringNoIndice(int indice) throws Exception {
+            if (indice < 0 || indice >= strings.length) {
+                throw new Exception("Erro de Cache: referência a string inexistente (" + indice + ").");
+            }
+            return strings[indice];
+        }
+
+        /** Constante do enum gravada pelo nome (índice na tabela de strings). */
+        <E extends Enum<E>> E constante(Class<E> tipo, int indiceNome) throws Exception {
+            String nome = stringNoIndice(indiceNome);
+            try {
+                return Enum.valueOf(tipo, nome);
+            } catch (IllegalArgumentException e) {
+                throw new Exception("Erro de Cache: " + tipo.getSimpleName() + " desconhecido (" + nome + ").");
+            }
+        }
+
+        Token token() throws Exception {
+            TipoToken tipo = constante(TipoToken.class, varint());
+            String lexema = string();
+            int linha = zigzag();
+            int coluna = zigzag();
+            return new Token(tipo, lexema, linha, coluna);
+        }
+
+        ASTNode no() throws Exception {
+            byte tipo = buffer.get();
+            if (tipo == NO_LITERAL) {
+                return new LiteralNode(token());
+            }
+            int linha = zigzag();
+            int coluna = zigzag();
+
+            switch (tipo) {
+                case NO_PROGRAMA: {
+                    int n = varint();
+                    List<ASTNode> comandos = new ArrayList<>(n);
+                    for (int i = 0; i < n; i++) {
+                        comandos.add(no());
+                    }
+                    return new ProgramaNode(comandos, linha, coluna);
+                }
+                case NO_CONDICIONAL: {
+                    boolean temSenao = buffer.get() != 0;
+                    ASTNode condicao = no();
+                    ASTNode entao = no();
+                    ASTNode senao = temSenao ? no() : null;
+                    return new CondicionalNode(condicao, entao, senao, linha, coluna);
+                }
+                case NO_ITERATIVO: {
+                    ASTNode condicao = no();
+                    return new IterativoNode(condicao, no(), linha, coluna);
+                }
+                case NO_ATRIBUICAO: {
+                    IdentificadorNode identificador = (IdentificadorNode) no();
+                    return new AtribuicaoNode(identificador, no(), linha, coluna);
+                }
+                case NO_LEIA:
+                    return new ComandoLeiaNode((IdentificadorNode) no(), linha, coluna);
+                case NO_ESCREVA:
+                    return new ComandoEscrevaNode(no(), linha, coluna);
+                case NO_EXPRESSAO_BINARIA: {
+                    Token operador = token();
+                    ASTNode operando1 = no();
+                    return new ExpressaoBinariaNode(operando1, operador, no(), linha, coluna);
+                }
+                case NO_CONDICAO_BINARIA: {
+                    Token operador = token();
+                    ASTNode operando1 = no();
+                    return new CondicaoBinariaNode(operando1, operador, no(), linha, coluna);
+                }
+                case NO_IDENTIFICADOR: {
+                    IdentificadorNode identificador = new IdentificadorNode(string(), linha, coluna);
+                    int tipoDeclarado = varint();
+                    if (tipoDeclarado != 0) {
+                        identificador.setTipoDeclarado(constante(TipoDado.class, tipoDeclarado - 1));
+                    }
+                    return identificador;
+                }
+                case NO_EXPRESSAO_COMPOSTA: {
+                    Token operador = token();
+                    ASTNode esquerda = no();
+                    return new ExpressaoCompostaNode(esquerda, operador, no(), linha, coluna);
+                }
+                case NO_NOT:
+                    return new NotNode(no(), linha, coluna);
+                default:
+                    throw new Exception("Erro de Cache: tipo de nó desconhecido (" + tipo + ").");
+            }
+        }
+    }
+}
@@ -26,17 +26,4 @@ public class IdentificadorNode extends ASTNode {
     public ASTResult accept(ASTVisitor visitor) throws Exception {
         return visitor.visit(this);
     }
-
-    /**
-     * Implementa a visualização da AST para o nó Identificador.
-     * Como é um nó folha (não tem filhos AST), ele apenas imprime sua informação.
-     *
-     * @param prefix Prefixo de indentação.
-     * @return Uma String formatada representando o nó.
-     */
-    @Override
-    public String imprimirArvore(String prefix) {
-        String tipoInfo = (tipoDeclarado != null) ? " (Tipo: " + tipoDeclarado + ")" : "";
-        return prefix + "└── IdentificadorNode: " + lexema + tipoInfo + "\n";
-    }
 }
\ No newline at end of file
@@ -0,0 +1,240 @@
+package org.example.AST;
+
+import org.example.TipoDado;
+
+import java.io.IOException;
+
+/**
+ * ImpressoraAST.java
+ * Visitor que imprime a Árvore Sintática Abstrata (AST) diretamente em um
+ * {@link Appendable} (PrintStream, Writer, StringBuilder...), sem montar
+ * Strings intermediárias por subárvore.
+ *
+ * A indentação é uma pilha compartilhada (um único StringBuilder que cresce ao
+ * descer na árvore e é truncado ao subir), então o custo total é linear no
+ * tamanho da saída. Limites de profundidade e de número de nós evitam que a
+ * impressão de uma AST muito grande domine o tempo de compilação.
+ */
+public class ImpressoraAST implements ASTVisitor {
+
+    public static final int SEM_LIMITE = Integer.MAX_VALUE;
+
+    private static final String RAMO_MEIO = "├── ";
+    private static final String RAMO_FIM = "└── ";
+    private static final String CONTINUA = "│   ";
+    private static final String VAZIO = "    ";
+
+    private final Appendable saida;
+    private final int profundidadeMaxima;
+    private final int limiteNos;
+
+    // Pilha de indentação compartilhada por toda a impressão
+    private final StringBuilder indentacao;
+
+    // Estado do nó que está sendo impresso (conector e rótulo da aresta)
+    private String conectorAtual = "";
+    private String rotuloAtual = "";
+    private int profundidade = 0;
+    private int nosImpressos = 0;
+    private boolean truncada = false;
+
+    public ImpressoraAST(Appendable saida) {
+        this(saida, SEM_LIMITE, SEM_LIMITE);
+    }
+
+    /**
+     * @param saida              Destino da impressão.
+     * @param profundidadeMaxima Níveis abaixo da raiz a serem impressos (subárvores mais fundas viram "...").
+     * @param limiteNos          Número máximo de nós impressos antes de interromper a impressão.
+     */
+    public ImpressoraAST(Appendable saida, int profundidadeMaxima, int limiteNos) {
+        this.saida = saida;
+        this.profundidadeMaxima = profundidadeMaxima;
+        this.limiteNos = limiteNos;
+        this.indentacao = new StringBuilder();
+    }
+
+    /**
+     * Imprime a (sub)árvore a partir do nó informado.
+     * Se algum limite foi atingido, uma linha de aviso é adicionada ao final.
+     */
+    public void imprimir(ASTNode raiz) throws Exception {
+        raiz.accept(this);
+        if (truncada) {
+            saida.append(indentacao).append("... (AST truncada: ").append(String.valueOf(nosImpressos))
+                    .append(" nós impressos)\n");
+        }
+    }
+
+    public int getNosImpressos() {
+        return nosImpressos;
+    }
+
+    public boolean isTruncada() {
+        return truncada;
+    }
+
+    // --- Suporte à impressão ---
+
+    /**
+     * Imprime a linha do nó atual. Retorna false se o limite de nós foi atingido,
+     * caso em que o nó (e seus filhos) não devem ser impressos.
+     */
+    private boolean cabecalho(String descricao) throws IOException {
+        if (nosImpressos >= limiteNos) {
+            truncada = true;
+            return false;
+        }
+        nosImpressos++;
+        saida.append(indentacao).append(conectorAtual).append(rotuloAtual).append(descricao).append('\n');
+        return true;
+    }
+
+    /**
+     * Imprime um filho com o rótulo da aresta (ex: "LHS: "), empilhando a indentação.
+     */
+    private void filho(String rotulo, ASTNode node, boolean ultimo) throws Exception {
+        if (node == null || truncada) {
+            return;
+        }
+
+        // Empilha a indentação do pai (a raiz da impressão não tem conector)
+        int tamanhoAnterior = indentacao.length();
+        if (!conectorAtual.isEmpty()) {
+            indentacao.append(RAMO_FIM.equals(conectorAtual) ? VAZIO : CONTINUA);
+        }
+        String conectorPai = conectorAtual;
+        String rotuloPai = rotuloAtual;
+
+        conectorAtual = ultimo ? RAMO_FIM : RAMO_MEIO;
+        rotuloAtual = rotulo;
+        profundidade++;
+
+        if (profundidade > profundidadeMaxima) {
+            if (nosImpressos < limiteNos) {
+                saida.append(indentacao).append(conectorAtual).append(rotulo).append("...\n");
+            }
+        } else {
+            node.accept(this);
+        }
+
+        // Desempilha
+        profundidade--;
+        conectorAtual = conectorPai;
+        rotuloAtual = rotuloPai;
+        indentacao.setLength(tamanhoAnterior);
+    }
+
+    private static String tipoInfo(TipoDado tipo) {
+        return (tipo != null) ? " (Tipo: " + tipo + ")" : "";
+    }
+
+    // --- NÓS DE ESTRUTURA ---
+
+    @Override
+    public ASTResult visit(ProgramaNode node) throws Exception {
+        if (cabecalho("ProgramaNode (Raiz)")) {
+            int total = node.getComandos().size();
+            for (int i = 0; i < total; i++) {
+                filho("", node.getComandos().get(i), i == total - 1);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public ASTResult visit(CondicionalNode node) throws Exception {
+        if (cabecalho("CondicionalNode (SE/SENAO)")) {
+            boolean temSenao = node.getComandoSenao() != null;
+            filho("Condição: ", node.getCondicao(), false);
+            filho("ENTÃO: ", node.getComandoEntao(), !temSenao);
+            filho("SENÃO: ", node.getComandoSenao(), true);
+        }
+        return null;
+    }
+
+    @Override
+    public ASTResult visit(IterativoNode node) throws Exception {
+        if (cabecalho("IterativoNode (ENQUANTO)")) {
+            filho("Condição do Loop: ", node.getCondicao(), false);
+            filho("Corpo: ", node.getComandoCorpo(), true);
+        }
+        return null;
+    }
+
+    // --- NÓS DE COMANDO ---
+
+    @Override
+    public ASTResult visit(AtribuicaoNode node) throws Exception {
+        if (cabecalho("AtribuicaoNode (=)")) {
+            filho("LHS: ", node.getIdentificador(), false);
+            filho("RHS: ", node.getExpressaoRHS(), true);
+        }
+        return null;
+    }
+
+    @Override
+    public ASTResult visit(ComandoLeiaNode node) throws Exception {
+        if (cabecalho("ComandoLeiaNode (leia)")) {
+            filho("", node.getIdentificador(), true);
+        }
+        return null;
+    }
+
+    @Override
+    public ASTResult visit(ComandoEscrevaNode node) throws Exception {
+        if (cabecalho("ComandoEscrevaNode (escreva)")) {
+            filho("", node.getExpressao(), true);
+        }
+        return null;
+    }
+
+    // --- NÓS DE EXPRESSÃO E VALOR ---
+
+    @Override
+    public ASTResult visit(ExpressaoBinariaNode node) throws Exception {
+        if (cabecalho("ExpressaoBinariaNode (Op: " + node.getOperador().getLexema() + ")")) {
+            filho("Esquerda: ", node.getOperando1(), false);
+            filho("Direita: ", node.getOperando2(), true);
+        }
+        return null;
+    }
+
+    @Override
+    public ASTResult visit(CondicaoBinariaNode node) throws Exception {
+        if (cabecalho("CondicaoBinariaNode (Op Lógico: " + node.getOperador().getLexema() + ")")) {
+            filho("Esquerda: ", node.getOperando1(), false);
+            filho("Direita: ", node.getOperando2(), true);
+        }
+        return null;
+    }
+
+    @Override
+    public ASTResult visit(IdentificadorNode node) throws Exception {
+        cabecalho("IdentificadorNode: " + node.getLexema() + tipoInfo(node.getTipoDeclarado()));
+        return null;
+    }
+
+    @Override
+    public ASTResult visit(LiteralNode node) throws Exception {
+        cabecalho("LiteralNode (Valor: " + node.getValor() + ")" + tipoInfo(node.getTipoInferido()));
+        return null;
+    }
+
+    @Override
+    public ASTResult visit(ExpressaoCompostaNode node) throws Exception {
+        if (cabecalho("ExpressaoCompostaNode (" + node.getOperadorComposto().getLexema() + ")")) {
+            filho("Condicao Esquerda: ", node.getCondicaoEsquerda(), false);
+            filho("Condicao Direita: ", node.getCondicaoDireita(), true);
+        }
+        return null;
+    }
+
+    @Override
+    public ASTResult visit(NotNode node) throws Exception {
+        if (cabecalho("NotNode (NOT)")) {
+            filho("", node.getCondicao(), true);
+        }
+        return null;
+    }
+}
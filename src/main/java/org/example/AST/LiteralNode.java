@@ -15,6 +15,7 @@ public class LiteralNode extends ASTNode {
         this.token = token;
     }
 
+    public Token getToken() { return token; }
     public String getValor() { return token.getLexema(); }
 
     // Infere o TipoDado do literal (assumindo que literais de ponto flutuante contêm '.')
@@ -26,20 +27,4 @@ public class LiteralNode extends ASTNode {
     public ASTResult accept(ASTVisitor visitor) throws Exception {
         return visitor.visit(this);
     }
-
-    /**
-     * Implementa a visualização da AST para o nó Literal.
-     * Como é um nó folha, ele apenas imprime seu valor e tipo inferido.
-     *
-     * @param prefix Prefixo de indentação.
-     * @return Uma String formatada representando o nó.
-     */
-    @Override
-    public String imprimirArvore(String prefix) {
-        String valor = getValor();
-        TipoDado tipo = getTipoInferido();
-        String tipoInfo = (tipo != null) ? " (Tipo: " + tipo + ")" : "";
-
-        return prefix + "└── LiteralNode (Valor: " + valor + ")" + tipoInfo + "\n";
-    }
 }
\ No newline at end of file
@@ -20,24 +20,4 @@ public class NotNode extends ASTNode {
     public ASTResult accept(ASTVisitor visitor) throws Exception {
         return visitor.visit(this);
     }
-
-    @Override
-    public String imprimirArvore(String prefix) {
-        StringBuilder sb = new StringBuilder();
-
-        // Linha do próprio nó NOT
-        sb.append(prefix)
-                .append("NOT (linha ")
-                .append(linha)
-                .append(", coluna ")
-                .append(coluna)
-                .append(")\n");
-
-        // Imprime a subárvore da condição com indentação extra
-        if (condicao != null) {
-            sb.append(condicao.imprimirArvore(prefix + "  "));
-        }
-
-        return sb.toString();
-    }
 }
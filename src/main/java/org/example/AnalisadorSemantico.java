@@ -8,7 +8,12 @@ public class AnalisadorSemantico {
     private final TabelaSimbolos tabelaSimbolos;
 
     public AnalisadorSemantico() {
-        this.tabelaSimbolos = new TabelaSimbolos();
+        this(new TabelaSimbolos());
+    }
+
+    // Usado quando a Tabela de Símbolos já existe (ex: AST carregada do cache)
+    public AnalisadorSemantico(TabelaSimbolos tabelaSimbolos) {
+        this.tabelaSimbolos = tabelaSimbolos;
     }
 
     public TabelaSimbolos getTabelaSimbolos() {
@@ -0,0 +1,236 @@
+package org.example.Assembly;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+import org.example.Otimizacao.GrafoFluxoControle;
+import org.example.Otimizacao.Vivacidade;
+import org.example.TipoDado;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * AlocadorRegistros.java
+ * Alocação de registradores por varredura linear (linear scan) para o
+ * {@link AssemblyGenerator}.
+ *
+ * Cada nome INTEIRO/BOOLEANO (temporário ou variável) que aparece no código
+ * tem um intervalo de vida [início, fim] na ordem das instruções: as posições
+ * em que aparece, alargadas até o início dos blocos em que está vivo na entrada
+ * e até o fim dos blocos em que está vivo na saída ({@link Vivacidade}). Nomes
+ * que nenhuma instrução usa (ex: versões da forma SSA eliminadas) não disputam
+ * registradores. Os intervalos são percorridos por início; os que já terminaram
+ * liberam o registrador.
+ *
+ * Sem registrador livre, um intervalo entre os ativos e o atual fica na memória
+ * pelo intervalo inteiro (derramamento). Sai o de menor densidade: peso
+ * dividido pelo comprimento do intervalo. O peso soma os usos e definições,
+ * cada um valendo 10 vezes mais por nível de laço, para que variáveis quentes
+ * fiquem em registradores. Dividir pelo comprimento dá prioridade aos
+ * temporários: o valor final de uma variável é observável, então o intervalo
+ * dela vai até o fim do programa e prenderia o registrador muito depois do
+ * último uso, enquanto um temporário o devolve logo. Em empate, sai a
+ * variável e depois o que termina mais tarde.
+ *
+ * Registradores alocáveis: EBX, ESI, EDI e EBP, preservados por printf/scanf
+ * (cdecl). EAX, ECX e EDX ficam de rascunho para IMUL/IDIV, deslocamentos e
+ * chamadas.
+ *
+ * Se a vivacidade não cabe em {@link #LIMITE_PALAVRAS_VIVACIDADE} (muitos
+ * blocos vezes muitos nomes vivos entre blocos), nada é alocado e todos os
+ * nomes ficam na memória, como no gerador sem alocação.
+ */
+public final class AlocadorRegistros {
+
+    static final String[] REGISTRADORES = {"EBX", "ESI", "EDI", "EBP"};
+
+    private static final int PROFUNDIDADE_MAXIMA_PESO = 6;
+
+    /** Palavras de 64 bits por conjunto de vivacidade (4 conjuntos por bloco: ~128 MB). */
+    static final long LIMITE_PALAVRAS_VIVACIDADE = 4_000_000L;
+
+    private final ProgramaIR ir;
+    private final String[] registradorDoNome;   // índice denso -> registrador (null: memória)
+    private final BitSet vivasNoInicio;
+    private int alocados;
+    private int derramados;
+
+    public AlocadorRegistros(ProgramaIR ir) {
+        this.ir = ir;
+        registradorDoNome = new String[ir.totalNomes()];
+        vivasNoInicio = new BitSet();
+        if (ir.tamanho() == 0) {
+            return;
+        }
+        GrafoFluxoControle cfg = new GrafoFluxoControle(ir);
+        if (Vivacidade.palavrasNecessarias(ir, cfg) > LIMITE_PALAVRAS_VIVACIDADE) {
+            return;
+        }
+        Vivacidade vivacidade = new Vivacidade(ir, cfg);
+        for (int n = vivacidade.proximaVivaNaEntrada(0, 0); n >= 0; n = vivacidade.proximaVivaNaEntrada(0, n + 1)) {
+            vivasNoInicio.set(n);
+        }
+        alocar(intervalos(cfg, vivacidade));
+    }
+
+    /** Registrador do operando, ou null se ele fica na memória (ou não é nome). */
+    public String registrador(int operando) {
+        int indice = ProgramaIR.ehNome(operando) ? ir.indiceDenso(operando) : -1;
+        return indice >= 0 && indice < registradorDoNome.length ? registradorDoNome[indice] : null;
+    }
+
+    /** Indica se o nome está vivo no início do programa (precisa ser carregado da memória). */
+    public boolean vivoNoInicio(int operando) {
+        return ProgramaIR.ehNome(operando) && vivasNoInicio.get(ir.indiceDenso(operando));
+    }
+
+    public int getAlocados() {
+        return alocados;
+    }
+
+    /** Nomes alocáveis que aparecem no código e ficaram na memória (uma posição em '.data' cada). */
+    public int getDerramados() {
+        return derramados;
+    }
+
+    private static final class Intervalo {
+        final int nome;
+        final boolean variavel;
+        int inicio = Integer.MAX_VALUE;
+        int fim = -1;
+        long peso;
+        boolean referenciado;
+
+        Intervalo(int nome, boolean variavel) {
+            this.nome = nome;
+            this.variavel = variavel;
+        }
+
+        void incluir(int posicao) {
+            inicio = Math.min(inicio, posicao);
+            fim = Math.max(fim, posicao);
+        }
+    }
+
+    private List<Intervalo> intervalos(GrafoFluxoControle cfg, Vivacidade vivacidade) {
+        Intervalo[] porNome = new Intervalo[ir.totalNomes()];
+        for (int b = 0; b < cfg.getTotalBlocos(); b++) {
+            long peso = 1;
+            for (int p = Math.min(cfg.profundidadeLaco(b), PROFUNDIDADE_MAXIMA_PESO); p > 0; p--) {
+                peso *= 10;
+            }
+            for (int n = vivacidade.proximaVivaNaEntrada(b, 0); n >= 0; n = vivacidade.proximaVivaNaEntrada(b, n + 1)) {
+                intervalo(porNome, n).incluir(cfg.inicio(b));
+            }
+            for (int n = vivacidade.proximaVivaNaSaida(b, 0); n >= 0; n = vivacidade.proximaVivaNaSaida(b, n + 1)) {
+                intervalo(porNome, n).incluir(cfg.fim(b));
+            }
+            for (int i = cfg.inicio(b); i < cfg.fim(b); i++) {
+                Opcode op = ir.opcode(i);
+                int lidos = op.numeroOperandosLidos();
+                if (lidos >= 1) {
+                    usar(porNome, ir.operando1(i), i, peso);
+                }
+                if (lidos == 2) {
+                    usar(porNome, ir.operando2(i), i, peso);
+                }
+                if (op.defineDestino()) {
+                    usar(porNome, ir.destino(i), i, peso);
+                }
+            }
+        }
+        List<Intervalo> intervalos = new ArrayList<>();
+        for (int n = 0; n < porNome.length; n++) {
+            if (porNome[n] != null && porNome[n].referenciado && alocavel(ir.operandoDenso(n))) {
+                intervalos.add(porNome[n]);
+            }
+        }
+        intervalos.sort(Comparator.comparingInt((Intervalo intervalo) -> intervalo.inicio)
+                .thenComparingInt(intervalo -> intervalo.nome));
+        return intervalos;
+    }
+
+    private Intervalo intervalo(Intervalo[] porNome, int indice) {
+        if (porNome[indice] == null) {
+            porNome[indice] = new Intervalo(indice, ProgramaIR.ehVariavel(ir.operandoDenso(indice)));
+        }
+        return porNome[indice];
+    }
+
+    private void usar(Intervalo[] porNome, int operando, int posicao, long peso) {
+        if (ProgramaIR.ehNome(operando)) {
+            Intervalo intervalo = intervalo(porNome, ir.indiceDenso(operando));
+            intervalo.incluir(posicao);
+            intervalo.peso += peso;
+            intervalo.referenciado = true;
+        }
+    }
+
+    /** Só valores de 32 bits inteiros vão para registradores (REAL e CARACTER ficam na memória). */
+    private boolean alocavel(int operando) {
+        TipoDado tipo = ir.tipo(operando);
+        return tipo == TipoDado.INTEIRO || tipo == TipoDado.BOOLEANO;
+    }
+
+    private void alocar(List<Intervalo> intervalos) {
+        List<Intervalo> ativos = new ArrayList<>();   // ordenados por fim
+        List<String> livres = new ArrayList<>(List.of(REGISTRADORES));
+        for (Intervalo atual : intervalos) {
+            while (!ativos.isEmpty() && ativos.get(0).fim < atual.inicio) {
+                livres.add(registradorDoNome[ativos.remove(0).nome]);
+            }
+            livres.sort(Comparator.comparingInt(AlocadorRegistros::ordem));
+
+            if (livres.isEmpty()) {
+                Intervalo vitima = atual;
+                for (Intervalo ativo : ativos) {
+                    if (derramarAntes(ativo, vitima)) {
+                        vitima = ativo;
+                    }
+                }
+                if (vitima == atual) {
+                    continue;
+                }
+                livres.add(registradorDoNome[vitima.nome]);
+                registradorDoNome[vitima.nome] = null;
+                ativos.remove(vitima);
+                alocados--;
+            }
+            registradorDoNome[atual.nome] = livres.remove(0);
+            alocados++;
+            int posicao = 0;
+            while (posicao < ativos.size() && ativos.get(posicao).fim <= atual.fim) {
+                posicao++;
+            }
+            ativos.add(posicao, atual);
+        }
+        // Cada nome derramado ocupa uma posição de memória, mesmo que tenha sido despejado mais de uma vez
+        for (Intervalo intervalo : intervalos) {
+            if (registradorDoNome[intervalo.nome] == null) {
+                derramados++;
+            }
+        }
+    }
+
+    /**
+     * Ordem de derramamento: menor peso por instrução do intervalo (comparado
+     * sem divisão), depois variáveis antes de temporários e o que termina mais tarde.
+     */
+    private static boolean derramarAntes(Intervalo a, Intervalo b) {
+        long densidadeA = a.peso * (b.fim - b.inicio + 1L);
+        long densidadeB = b.peso * (a.fim - a.inicio + 1L);
+        if (densidadeA != densidadeB) {
+            return densidadeA < densidadeB;
+        }
+        if (a.variavel != b.variavel) {
+            return a.variavel;
+        }
+        return a.fim > b.fim;
+    }
+
+    private static int ordem(String registrador) {
+        return List.of(REGISTRADORES).indexOf(registrador);
+    }
+}
@@ -1,26 +1,47 @@
 package org.example.Assembly;
 
-import org.example.C3E.InstrucaoC3E;
-import org.example.TabelaSimbolos;
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+import org.example.TipoDado;
+
+import java.util.BitSet;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
 
 /**
  * AssemblyGenerator.java
  * Classe responsável por traduzir o Código de 3 Endereços (C3E) em
  * código de máquina (Assembly x86/NASM).
+ *
+ * A tradução é feita sobre o IR compacto (ProgramaIR): cada instrução é
+ * despachada pelo seu Opcode e os operandos já chegam resolvidos (variável,
+ * temporário, constante ou rótulo), sem reinterpretar a forma textual.
+ *
+ * Atribuições, aritméticas e operações de bits são escolhidas pelo
+ * {@link SeletorInstrucoes} (padrões com custo); o Assembly começa com o
+ * relatório de custo estático do programa ({@link #getRelatorioCustos()}).
+ * Uma comparação cujo resultado só alimenta o JMPFALSE/JMPTRUE seguinte
+ * vira CMP + Jcc; o booleano só é materializado (SETcc + MOVZX) quando é
+ * guardado ou usado como valor.
+ *
+ * Os nomes inteiros vão para registradores pelo {@link AlocadorRegistros};
+ * os derramados (e os REAL/CARACTER) continuam em '.data'. As variáveis em
+ * registrador são carregadas no início, se já são lidas antes de escritas, e
+ * gravadas de volta na memória no fim do programa.
  */
 public class AssemblyGenerator {
 
-    private final List<InstrucaoC3E> codigoC3E;
-    private final TabelaSimbolos tabelaSimbolos;
+    private final ProgramaIR ir;
     private final List<String> codigoAssembly;
+    private AlocadorRegistros alocador;
+    private SeletorInstrucoes seletor;
+    private final List<String> relatorioCustos = new ArrayList<>();
 
     private static final String FORMATO_NUMERICO = "_num_format";
 
-    public AssemblyGenerator(List<InstrucaoC3E> codigoC3E, TabelaSimbolos tabelaSimbolos) {
-        this.codigoC3E = codigoC3E;
-        this.tabelaSimbolos = tabelaSimbolos;
+    public AssemblyGenerator(ProgramaIR ir) {
+        this.ir = ir;
         this.codigoAssembly = new ArrayList<>();
     }
 
@@ -28,213 +49,307 @@ public class AssemblyGenerator {
         return codigoAssembly;
     }
 
+    /** Custo estático estimado do programa e padrões usados pelo seletor (disponível após gerarCodigo). */
+    public List<String> getRelatorioCustos() {
+        return relatorioCustos;
+    }
+
     public void gerarCodigo() {
+        alocador = new AlocadorRegistros(ir);
+        seletor = new SeletorInstrucoes(ir, alocador);
         emitirDiretivas();
+        emitirCargaInicial();
 
-        for (InstrucaoC3E instrucao : codigoC3E) {
-            traduzirInstrucao(instrucao);
+        for (int i = 0; i < ir.tamanho(); ) {
+            i += traduzirInstrucao(i);
         }
 
         emitirFinalizacao();
+        emitirRelatorioCustos();
     }
 
-    private boolean isLiteral(String s) {
-        if (s == null) return false;
-        try {
-            Integer.parseInt(s);
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
-        }
+    // Valor de um operando como origem: registrador alocado, imediato para literais inteiros, memória para o resto
+    private String getValor(int operando) {
+        return seletor.valor(operando);
     }
 
-    private String getValor(String operando) {
-        if (isLiteral(operando)) {
-            return operando;
-        } else {
-            return "[" + operando + "]";
+    // Local de um destino: registrador alocado ou memória
+    private String getLocal(int operando) {
+        return seletor.local(operando);
+    }
+
+    private void emitirRelatorioCustos() {
+        int custoTotal = CustosX86.custo(codigoAssembly);
+        relatorioCustos.add("Custo estático estimado: " + custoTotal);
+        relatorioCustos.add("Atribuições e aritméticas: " + seletor.getCustoSelecionado()
+                + " (forma geral por EAX: " + seletor.getCustoGeral() + ")");
+        for (Map.Entry<String, int[]> padrao : seletor.getPadroes().entrySet()) {
+            relatorioCustos.add(String.format("  %-40s %4dx  custo %d",
+                    padrao.getKey(), padrao.getValue()[0], padrao.getValue()[1]));
+        }
+        // Logo depois do cabeçalho, como comentário
+        List<String> comentario = new ArrayList<>();
+        for (String linha : relatorioCustos) {
+            comentario.add("; " + linha);
         }
+        codigoAssembly.addAll(2, comentario);
     }
 
     private void emitirDiretivas() {
         codigoAssembly.add("; Código Assembly Gerado para Mini-Linguagem Portugol (NASM x86)");
+        codigoAssembly.add("; Registradores: " + descreverAlocacao());
         codigoAssembly.add("\nsection .data");
         codigoAssembly.add(FORMATO_NUMERICO + " db \"%d\", 0");
         codigoAssembly.add("_temp_read_buffer" + " resb 32");
-        codigoAssembly.add("a: dd 0");
-        codigoAssembly.add("T1: dd 0");
-        codigoAssembly.add("T2: dd 0");
+
+        // Uma posição de memória para cada variável e temporário fora de registrador que
+        // aparece no código (versões criadas pela forma SSA e depois reagrupadas não ocupam espaço)
+        BitSet referenciados = nomesReferenciados();
+        for (int n = referenciados.nextSetBit(0); n >= 0; n = referenciados.nextSetBit(n + 1)) {
+            int operando = ir.operandoDenso(n);
+            if (ProgramaIR.ehVariavel(operando) || alocador.registrador(operando) == null) {
+                emitirDeclaracao(ir.nome(operando), ir.tipo(operando));
+            }
+        }
+
         codigoAssembly.add("\nsection .text");
         codigoAssembly.add("global _start");
         codigoAssembly.add("extern printf, scanf");
         codigoAssembly.add("\n_start:");
     }
 
+    private String descreverAlocacao() {
+        StringBuilder descricao = new StringBuilder();
+        BitSet referenciados = nomesReferenciados();
+        for (int n = referenciados.nextSetBit(0); n >= 0; n = referenciados.nextSetBit(n + 1)) {
+            String registrador = alocador.registrador(ir.operandoDenso(n));
+            if (registrador != null) {
+                descricao.append(descricao.length() == 0 ? "" : ", ")
+                        .append(ir.nome(ir.operandoDenso(n))).append("=").append(registrador);
+            }
+        }
+        return (descricao.length() == 0 ? "nenhum" : descricao)
+                + " (" + alocador.getDerramados() + " derramado(s))";
+    }
+
+    // Variáveis em registrador que o programa lê antes de escrever começam com o valor da memória (zero)
+    private void emitirCargaInicial() {
+        BitSet referenciados = nomesReferenciados();
+        for (int n = referenciados.nextSetBit(0); n >= 0; n = referenciados.nextSetBit(n + 1)) {
+            int operando = ir.operandoDenso(n);
+            if (ProgramaIR.ehVariavel(operando) && alocador.registrador(operando) != null && alocador.vivoNoInicio(operando)) {
+                codigoAssembly.add("MOV " + alocador.registrador(operando) + ", [" + ir.nome(operando) + "]");
+            }
+        }
+    }
+
+    private BitSet nomesReferenciados() {
+        BitSet referenciados = new BitSet(ir.totalNomes());
+        for (int i = 0; i < ir.tamanho(); i++) {
+            int[] operandos = {ir.destino(i), ir.operando1(i), ir.operando2(i)};
+            for (int operando : operandos) {
+                if (ProgramaIR.ehNome(operando)) {
+                    referenciados.set(ir.indiceDenso(operando));
+                }
+            }
+        }
+        return referenciados;
+    }
+
+    private void emitirDeclaracao(String nome, TipoDado tipo) {
+        // CARACTER ocupa 1 byte (db); os demais tipos ocupam 4 bytes (dd)
+        codigoAssembly.add(nome + (tipo == TipoDado.CARACTER ? ": db 0" : ": dd 0"));
+    }
+
     private void emitirFinalizacao() {
+        // O valor final das variáveis fica na memória, como sem alocação
+        BitSet referenciados = nomesReferenciados();
+        for (int n = referenciados.nextSetBit(0); n >= 0; n = referenciados.nextSetBit(n + 1)) {
+            int operando = ir.operandoDenso(n);
+            if (ProgramaIR.ehVariavel(operando) && alocador.registrador(operando) != null) {
+                codigoAssembly.add("MOV [" + ir.nome(operando) + "], " + alocador.registrador(operando));
+            }
+        }
+
         codigoAssembly.add("\n; Finaliza o programa (System call exit)");
         codigoAssembly.add("MOV EAX, 1");
         codigoAssembly.add("XOR EBX, EBX");
         codigoAssembly.add("INT 0x80");
     }
 
-    private void traduzirInstrucao(InstrucaoC3E instrucao) {
-        String operador = instrucao.getOperador();
-        String instrucaoString = instrucao.toString();
+    /** Traduz a instrução i; retorna quantas instruções do IR foram consumidas. */
+    private int traduzirInstrucao(int i) {
+        Opcode opcode = ir.opcode(i);
+        if (opcode == Opcode.NOP) {
+            return 1;
+        }
 
-        codigoAssembly.add("\n; C3E: " + instrucaoString);
+        codigoAssembly.add("\n; C3E: " + ir.paraInstrucaoC3E(i));
 
-        // --- PRÉ-PROCESSAMENTO ROBUSTO PARA FLUXO DE CONTROLE ---
-        if (instrucaoString.startsWith("JMPFALSE ")) {
-            operador = "JMPFALSE";
-        } else if (instrucaoString.startsWith("JMP ")) {
-            operador = "JMP";
-        } else if (instrucaoString.endsWith(":") || (operador == null || operador.isEmpty()) && instrucao.getResultado() != null && instrucao.getResultado().startsWith("L")) {
-            operador = "LABEL";
+        if (SeletorInstrucoes.trata(opcode)) {
+            if (seletor.fundeComSeguinte(i)) {
+                codigoAssembly.add("; C3E: " + ir.paraInstrucaoC3E(i + 1));
+            }
+            return seletor.selecionar(i, codigoAssembly);
         }
-        // --- FIM PRÉ-PROCESSAMENTO ---
 
-        switch (operador) {
-            case "JMP":
-                traduzirJMP(instrucao);
-                break;
-            case "JMPFALSE":
-                traduzirJMPFALSE(instrucao);
+        switch (opcode) {
+            case JMP:
+                traduzirJMP(i);
                 break;
-            case "LABEL":
-                String rotulo = instrucao.getResultado();
-                if (!rotulo.endsWith(":")) {
-                    rotulo += ":";
-                }
-                codigoAssembly.add(rotulo);
+            case JMPFALSE:
+            case JMPTRUE:
+                traduzirSaltoCondicional(i);
                 break;
-            case "+":
-            case "-":
-            case "*":
-            case "/":
-            case "RESTO":
-                traduzirAritmetica(instrucao);
+            case JMPEQ:
+            case JMPNE:
+            case JMPLT:
+            case JMPLE:
+            case JMPGT:
+            case JMPGE:
+                traduzirSaltoComparacao(i);
                 break;
-            case "=":
-                traduzirAtribuicao(instrucao);
+            case ROTULO:
+                codigoAssembly.add(ir.nome(ir.destino(i)) + ":");
                 break;
-            case "CMPGT":
-            case "CMPLT":
-            case "CMPEQ":
-            case "CMPNE":
-            case "CMPGE":
-            case "CMPLE":
-                traduzirComparacao(instrucao);
+            case CMPGT:
+            case CMPLT:
+            case CMPEQ:
+            case CMPNE:
+            case CMPGE:
+            case CMPLE:
+                if (seletor.comparacaoFundeComSalto(i)) {
+                    codigoAssembly.add("; C3E: " + ir.paraInstrucaoC3E(i + 1));
+                    traduzirComparacaoComSalto(i);
+                    return 2;
+                }
+                traduzirComparacao(i);
                 break;
-            case "READ":
-                traduzirRead(instrucao);
+            case READ:
+                traduzirRead(i);
                 break;
-            case "WRITE":
-                traduzirWrite(instrucao);
+            case WRITE:
+                traduzirWrite(i);
                 break;
             default:
-                codigoAssembly.add("; ERRO: Operador C3E não reconhecido: " + operador);
+                codigoAssembly.add("; ERRO: Operador C3E não reconhecido: " + opcode);
                 break;
         }
+        return 1;
     }
 
-    private void traduzirJMP(InstrucaoC3E instrucao) {
-        codigoAssembly.add("JMP " + instrucao.getOperando1());
+    private void traduzirJMP(int i) {
+        codigoAssembly.add("JMP " + ir.nome(ir.destino(i)));
     }
 
-    private void traduzirJMPFALSE(InstrucaoC3E instrucao) {
-        // C3E: JMPFALSE L2 T1
-        // O erro anterior mostra que o C3E preencheu os campos de forma inconsistente.
+    private void traduzirSaltoCondicional(int i) {
+        // C3E: JMPFALSE L2 T1 -> salta para L2 se T1 == 0 (JMPTRUE: se T1 != 0)
+        String rotulo = ir.nome(ir.destino(i));
 
-        // CORREÇÃO: Forçamos a variável de condição a ser T1 e o rótulo de destino a ser L2,
-        // pois este é o comportamento esperado para o código-fonte original.
-        String condicaoFinal = "T1";
-        String rotuloFinal = "L2";
+        // 1. Testar a condição (registrador: TEST; memória: CMP com 0 direto)
+        String condicao = alocador.registrador(ir.operando1(i));
+        if (condicao != null) {
+            codigoAssembly.add("TEST " + condicao + ", " + condicao);
+        } else if (ehImediato(ir.operando1(i))) {
+            codigoAssembly.add("MOV EAX, " + getValor(ir.operando1(i)));
+            codigoAssembly.add("TEST EAX, EAX");
+        } else {
+            codigoAssembly.add("CMP DWORD " + getValor(ir.operando1(i)) + ", 0");
+        }
+        // 2. JE (Falso) / JNE (Verdadeiro)
+        codigoAssembly.add((ir.opcode(i) == Opcode.JMPFALSE ? "JE " : "JNE ") + rotulo);
+    }
 
-        // 1. Mover o resultado da condição para EAX
-        codigoAssembly.add("MOV EAX, [" + condicaoFinal + "]");
-        // 2. Comparar com 0
-        codigoAssembly.add("CMP EAX, 0");
-        // 3. JE (Jump if Equal): Salta se for igual a 0 (Falso)
-        codigoAssembly.add("JE " + rotuloFinal);
+    private void traduzirSaltoComparacao(int i) {
+        // C3E: JMPLT L2 a b -> salta para L2 se a < b, sem materializar o booleano
+        Opcode comparacao = emitirCMP(ir.opcode(i).comparacaoDoSalto(), ir.operando1(i), ir.operando2(i));
+        codigoAssembly.add("J" + condicaoX86(comparacao) + " " + ir.nome(ir.destino(i)));
     }
 
-    private void traduzirAtribuicao(InstrucaoC3E instrucao) {
-        String resultado = instrucao.getResultado();
-        String op1 = instrucao.getOperando1();
-        try {
-            Integer.parseInt(op1);
-            codigoAssembly.add("MOV EAX, " + op1);
-        } catch (NumberFormatException e) {
-            codigoAssembly.add("MOV EAX, [" + op1 + "]");
+    // C3E: T1 = a < b; JMPFALSE L2 T1 -> CMP a, b; JGE L2 (T1 não é materializado)
+    private void traduzirComparacaoComSalto(int i) {
+        Opcode comparacao = ir.opcode(i);
+        if (ir.opcode(i + 1) == Opcode.JMPFALSE) {
+            comparacao = comparacao.comparacaoNegada();
         }
-        codigoAssembly.add("MOV [" + resultado + "], EAX");
+        comparacao = emitirCMP(comparacao, ir.operando1(i), ir.operando2(i));
+        codigoAssembly.add("J" + condicaoX86(comparacao) + " " + ir.nome(ir.destino(i + 1)));
     }
 
-    private void traduzirAritmetica(InstrucaoC3E instrucao) {
-        String resultado = instrucao.getResultado();
-        String op1 = instrucao.getOperando1();
-        String operador = instrucao.getOperador();
-        String op2 = instrucao.getOperando2();
-        codigoAssembly.add("MOV EAX, [" + op1 + "]");
-        String valorOp2 = getValor(op2);
-        switch (operador) {
-            case "+":
-                codigoAssembly.add("ADD EAX, " + valorOp2);
-                break;
-            case "-":
-                codigoAssembly.add("SUB EAX, " + valorOp2);
-                break;
-            case "*":
-                codigoAssembly.add("IMUL DWORD [" + op2 + "]");
-                break;
-            case "/":
-                codigoAssembly.add("XOR EDX, EDX");
-                codigoAssembly.add("IDIV DWORD [" + op2 + "]");
-                break;
-            case "RESTO":
-                codigoAssembly.add("XOR EDX, EDX");
-                codigoAssembly.add("IDIV DWORD [" + op2 + "]");
-                codigoAssembly.add("MOV EAX, EDX");
-                break;
+    private void traduzirComparacao(int i) {
+        // SETcc depois do CMP (nada entre os dois altera as flags) e extensão com zero
+        Opcode comparacao = emitirCMP(ir.opcode(i), ir.operando1(i), ir.operando2(i));
+        codigoAssembly.add("SET" + condicaoX86(comparacao) + " AL");
+        String destino = alocador.registrador(ir.destino(i));
+        if (destino != null) {
+            codigoAssembly.add("MOVZX " + destino + ", AL");
+        } else {
+            codigoAssembly.add("MOVZX EAX, AL");
+            codigoAssembly.add("MOV " + getLocal(ir.destino(i)) + ", EAX");
         }
-        codigoAssembly.add("MOV [" + resultado + "], EAX");
     }
 
-    private void traduzirComparacao(InstrucaoC3E instrucao) {
-        String operadorC3E = instrucao.getOperador();
-        String resultado = instrucao.getResultado();
-        String op1 = instrucao.getOperando1();
-        String op2 = instrucao.getOperando2();
-        codigoAssembly.add("MOV EAX, [" + op1 + "]");
-        String valorOp2 = getValor(op2);
-        codigoAssembly.add("CMP EAX, " + valorOp2);
-        codigoAssembly.add("XOR EAX, EAX");
-        switch (operadorC3E) {
-            case "CMPGT": codigoAssembly.add("SETG AL"); break;
-            case "CMPLT": codigoAssembly.add("SETL AL"); break;
-            case "CMPEQ": codigoAssembly.add("SETE AL"); break;
-            case "CMPNE": codigoAssembly.add("SETNE AL"); break;
-            case "CMPGE": codigoAssembly.add("SETGE AL"); break;
-            case "CMPLE": codigoAssembly.add("SETLE AL"); break;
+    /**
+     * Emite o CMP de 'a OP b' e devolve a comparação que as flags representam:
+     * com o imediato à esquerda os operandos são trocados (e a comparação
+     * espelhada); EAX só é usado quando o CMP não aceita a combinação.
+     */
+    private Opcode emitirCMP(Opcode comparacao, int a, int b) {
+        if (ehImediato(a) && !ehImediato(b)) {
+            int troca = a;
+            a = b;
+            b = troca;
+            comparacao = comparacao.comparacaoEspelhada();
+        }
+        String esquerdo = getValor(a);
+        boolean esquerdoNaMemoria = alocador.registrador(a) == null && !ehImediato(a);
+        boolean direitoNaMemoria = alocador.registrador(b) == null && !ehImediato(b);
+        if (ehImediato(a) || (esquerdoNaMemoria && direitoNaMemoria)) {
+            codigoAssembly.add("MOV EAX, " + esquerdo);
+            esquerdo = "EAX";
+        } else if (esquerdoNaMemoria) {
+            esquerdo = "DWORD " + esquerdo;
         }
-        codigoAssembly.add("MOV [" + resultado + "], EAX");
+        codigoAssembly.add("CMP " + esquerdo + ", " + getValor(b));
+        return comparacao;
     }
 
-    private void traduzirRead(InstrucaoC3E instrucao) {
-        String destino = instrucao.getOperando1();
+    private boolean ehImediato(int operando) {
+        return ProgramaIR.ehConstante(operando) && ir.tipo(operando) != TipoDado.REAL;
+    }
+
+    // Sufixo de Jcc/SETcc da comparação (com sinal)
+    private static String condicaoX86(Opcode comparacao) {
+        return switch (comparacao) {
+            case CMPEQ -> "E";
+            case CMPNE -> "NE";
+            case CMPLT -> "L";
+            case CMPLE -> "LE";
+            case CMPGT -> "G";
+            case CMPGE -> "GE";
+            default -> throw new IllegalArgumentException("Não é comparação: " + comparacao);
+        };
+    }
+
+    private void traduzirRead(int i) {
+        String destino = ir.nome(ir.destino(i));
         codigoAssembly.add("; Chamada de scanf para ler um inteiro");
         codigoAssembly.add("PUSH DWORD " + destino);
         codigoAssembly.add("PUSH DWORD " + FORMATO_NUMERICO);
         codigoAssembly.add("CALL scanf");
         codigoAssembly.add("ADD ESP, 8");
+        String registrador = alocador.registrador(ir.destino(i));
+        if (registrador != null) {
+            codigoAssembly.add("MOV " + registrador + ", [" + destino + "]");
+        }
     }
 
-    private void traduzirWrite(InstrucaoC3E instrucao) {
-        String origem = instrucao.getOperando1();
+    private void traduzirWrite(int i) {
         codigoAssembly.add("; Chamada de printf para escrever um inteiro");
-        codigoAssembly.add("PUSH DWORD [" + origem + "]");
+        String valor = getValor(ir.operando1(i));
+        codigoAssembly.add("PUSH " + (alocador.registrador(ir.operando1(i)) != null ? valor : "DWORD " + valor));
         codigoAssembly.add("PUSH DWORD " + FORMATO_NUMERICO);
         codigoAssembly.add("CALL printf");
         codigoAssembly.add("ADD ESP, 8");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+package org.example.Assembly;
+
+import java.util.List;
+
+/**
+ * CustosX86.java
+ * Modelo de custo estático das instruções x86 emitidas, usado pelo
+ * {@link SeletorInstrucoes} para escolher entre padrões e no relatório de
+ * custo do programa. Os valores são aproximados (ciclos de um núcleo simples):
+ *   - operação de registrador ou imediato: 1 (deslocamento por CL: 2)
+ *   - cada acesso à memória (leitura ou escrita): +3
+ *   - IMUL: 3; IDIV: 25; CALL: 50
+ * LEA não acessa a memória, apesar dos colchetes.
+ */
+final class CustosX86 {
+
+    private CustosX86() {
+    }
+
+    /** Custo de uma linha de Assembly (comentários, rótulos e linhas vazias custam 0). */
+    static int custo(String linha) {
+        String instrucao = linha.trim();
+        int comentario = instrucao.indexOf(';');
+        if (comentario >= 0) {
+            instrucao = instrucao.substring(0, comentario).trim();
+        }
+        if (instrucao.isEmpty() || instrucao.endsWith(":")) {
+            return 0;
+        }
+        int espaco = instrucao.indexOf(' ');
+        String mnemonico = espaco < 0 ? instrucao : instrucao.substring(0, espaco);
+        String operandos = espaco < 0 ? "" : instrucao.substring(espaco + 1);
+
+        int custo;
+        switch (mnemonico) {
+            case "IMUL":
+                custo = 3;
+                break;
+            case "IDIV":
+                custo = 25;
+                break;
+            case "CALL":
+                custo = 50;
+                break;
+            case "INT":
+                return 0;
+            case "LEA":
+                return 1;
+            case "SHL":
+            case "SAR":
+            case "SHR":
+                custo = operandos.endsWith("CL") ? 2 : 1;
+                break;
+            default:
+                custo = 1;
+        }
+        if (!operandos.contains("[")) {
+            return custo;
+        }
+        // Destino na memória: leitura e escrita (MOV só escreve; CMP, TEST, PUSH, IMUL e IDIV só leem)
+        int virgula = operandos.indexOf(',');
+        boolean destinoMemoria = virgula < 0 || operandos.indexOf('[') < virgula;
+        boolean soAcessaUmaVez = List.of("MOV", "CMP", "TEST", "PUSH", "IMUL", "IDIV").contains(mnemonico);
+        return custo + (destinoMemoria && !soAcessaUmaVez ? 6 : 3);
+    }
+
+    static int custo(List<String> linhas) {
+        int total = 0;
+        for (String linha : linhas) {
+            total += custo(linha);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,427 @@
+package org.example.Assembly;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+import org.example.TipoDado;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * SeletorInstrucoes.java
+ * Seleção de instruções por casamento de padrões com custo, para as
+ * atribuições, aritméticas e operações de bits do {@link AssemblyGenerator}.
+ *
+ * Cada instrução do IR é uma árvore 'destino = a OP b' cujas folhas estão em
+ * registrador, na memória ou são imediatos. Quando um temporário é lido uma
+ * única vez, na cópia logo a seguir ('T = a OP b; x = T'), as duas formam uma
+ * árvore só, com x como destino, e T não é materializado. Para cada árvore são
+ * gerados os padrões aplicáveis (forma geral por EAX, dois endereços no
+ * registrador do destino, leitura-modificação-escrita na memória, INC/DEC,
+ * LEA, IMUL com imediato...) e fica o de menor custo pelo {@link CustosX86};
+ * em empate, o primeiro da lista.
+ */
+final class SeletorInstrucoes {
+
+    /** Padrão candidato: nome (para o relatório) e as linhas de Assembly. */
+    private static final class Candidato {
+        final String padrao;
+        final List<String> linhas;
+        final int custo;
+
+        Candidato(String padrao, List<String> linhas) {
+            this.padrao = padrao;
+            this.linhas = linhas;
+            this.custo = CustosX86.custo(linhas);
+        }
+    }
+
+    private final ProgramaIR ir;
+    private final AlocadorRegistros alocador;
+    private final int[] leituras;                              // índice denso -> vezes em que é lido
+    private final Map<String, int[]> padroes = new TreeMap<>(); // padrão -> {vezes, custo}
+    private int custoSelecionado;
+    private int custoGeral;
+
+    SeletorInstrucoes(ProgramaIR ir, AlocadorRegistros alocador) {
+        this.ir = ir;
+        this.alocador = alocador;
+        this.leituras = new int[ir.totalNomes()];
+        for (int i = 0; i < ir.tamanho(); i++) {
+            int lidos = ir.opcode(i).numeroOperandosLidos();
+            if (lidos >= 1 && ProgramaIR.ehNome(ir.operando1(i))) {
+                leituras[ir.indiceDenso(ir.operando1(i))]++;
+            }
+            if (lidos == 2 && ProgramaIR.ehNome(ir.operando2(i))) {
+                leituras[ir.indiceDenso(ir.operando2(i))]++;
+            }
+        }
+    }
+
+    /** Indica se o opcode é traduzido pelo seletor. */
+    static boolean trata(Opcode opcode) {
+        switch (opcode) {
+            case COPIA:
+            case ADD:
+            case SUB:
+            case MUL:
+            case DIV:
+            case RESTO:
+            case SHL:
+            case SAR:
+            case SHR:
+            case AND:
+            case MULHI:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /** Indica se a instrução i e a cópia seguinte formam uma árvore só. */
+    boolean fundeComSeguinte(int i) {
+        return lidoSoPeloSeguinte(i, Opcode.COPIA)
+                && ir.tipo(ir.destino(i + 1)) == ir.tipo(ir.destino(i));
+    }
+
+    /**
+     * Indica se a comparação i só alimenta o JMPFALSE/JMPTRUE seguinte
+     * ('T = a CMPLT b; JMPFALSE L T'): vira CMP + Jcc, sem materializar T.
+     */
+    boolean comparacaoFundeComSalto(int i) {
+        return ir.opcode(i).ehComparacao()
+                && (lidoSoPeloSeguinte(i, Opcode.JMPFALSE) || lidoSoPeloSeguinte(i, Opcode.JMPTRUE));
+    }
+
+    /** O destino de i é um temporário lido uma única vez, como operando1 da instrução i + 1 (do opcode dado). */
+    private boolean lidoSoPeloSeguinte(int i, Opcode seguinte) {
+        int temporario = ir.destino(i);
+        return i + 1 < ir.tamanho()
+                && ir.opcode(i + 1) == seguinte
+                && ir.operando1(i + 1) == temporario
+                && ProgramaIR.ehTemporario(temporario)
+                && leituras[ir.indiceDenso(temporario)] == 1;
+    }
+
+    /**
+     * Traduz a instrução i (e a cópia seguinte, se {@link #fundeComSeguinte}).
+     * @return quantas instruções do IR foram consumidas
+     */
+    int selecionar(int i, List<String> codigo) {
+        Opcode opcode = ir.opcode(i);
+        boolean fundida = fundeComSeguinte(i);
+        int destino = fundida ? ir.destino(i + 1) : ir.destino(i);
+        List<Candidato> candidatos = candidatos(opcode, destino, ir.operando1(i), ir.operando2(i));
+
+        Candidato melhor = candidatos.get(0);
+        for (Candidato candidato : candidatos) {
+            if (candidato.custo < melhor.custo) {
+                melhor = candidato;
+            }
+        }
+        // Referência do relatório: forma geral, com T materializado e copiado
+        int geral = fundida
+                ? geral(opcode, ir.destino(i), ir.operando1(i), ir.operando2(i)).custo
+                        + geral(Opcode.COPIA, destino, ir.destino(i), ProgramaIR.NENHUM).custo
+                : candidatos.get(0).custo;
+
+        String padrao = melhor.padrao + (fundida ? " (árvore com cópia)" : "");
+        int[] estatistica = padroes.computeIfAbsent(padrao, p -> new int[2]);
+        estatistica[0]++;
+        estatistica[1] += melhor.custo;
+        custoSelecionado += melhor.custo;
+        custoGeral += geral;
+        codigo.addAll(melhor.linhas);
+        return fundida ? 2 : 1;
+    }
+
+    /** Custo somado dos padrões escolhidos. */
+    int getCustoSelecionado() {
+        return custoSelecionado;
+    }
+
+    /** Custo que as mesmas instruções teriam só com a forma geral (por EAX, sem árvores). */
+    int getCustoGeral() {
+        return custoGeral;
+    }
+
+    /** Padrão -> {vezes, custo total}. */
+    Map<String, int[]> getPadroes() {
+        return padroes;
+    }
+
+    // =====================================================================
+    //  OPERANDOS
+    // =====================================================================
+
+    private boolean imediato(int operando) {
+        return ProgramaIR.ehConstante(operando) && ir.tipo(operando) != TipoDado.REAL;
+    }
+
+    private boolean memoria(int operando) {
+        return alocador.registrador(operando) == null && !imediato(operando);
+    }
+
+    /** Registrador, imediato ou [memória]. */
+    String valor(int operando) {
+        String registrador = alocador.registrador(operando);
+        if (registrador != null) {
+            return registrador;
+        }
+        return imediato(operando) ? ir.nome(operando) : "[" + ir.nome(operando) + "]";
+    }
+
+    /** Registrador ou [memória] de um destino. */
+    String local(int operando) {
+        String registrador = alocador.registrador(operando);
+        return registrador != null ? registrador : "[" + ir.nome(operando) + "]";
+    }
+
+    /** Operando com tamanho explícito, para instruções sem registrador que o defina. */
+    private String dword(int operando) {
+        return memoria(operando) ? "DWORD " + valor(operando) : valor(operando);
+    }
+
+    // =====================================================================
+    //  PADRÕES
+    // =====================================================================
+
+    private List<Candidato> candidatos(Opcode opcode, int destino, int a, int b) {
+        List<Candidato> candidatos = new ArrayList<>();
+        candidatos.add(geral(opcode, destino, a, b));
+        switch (opcode) {
+            case COPIA:
+                copia(destino, a, candidatos);
+                break;
+            case ADD:
+            case SUB:
+            case AND:
+                doisEnderecos(opcode, destino, a, b, candidatos);
+                break;
+            case MUL:
+                multiplicacao(destino, a, b, candidatos);
+                break;
+            case SHL:
+            case SAR:
+            case SHR:
+                deslocamento(opcode, destino, a, b, candidatos);
+                break;
+            default:
+                break;
+        }
+        return candidatos;
+    }
+
+    /** Forma geral: operandos passam por EAX (constante no divisor ou fator vai para ECX). */
+    private Candidato geral(Opcode opcode, int destino, int a, int b) {
+        List<String> linhas = new ArrayList<>();
+        String resultado = "EAX";
+        switch (opcode) {
+            case COPIA:
+                linhas.add("MOV EAX, " + valor(a));
+                break;
+            case ADD:
+            case SUB:
+            case AND:
+                linhas.add("MOV EAX, " + valor(a));
+                linhas.add(opcode.name() + " EAX, " + valor(b));
+                break;
+            case MUL:
+                linhas.add("MOV EAX, " + valor(a));
+                linhas.add("IMUL " + fonteEmECX(b, linhas));
+                break;
+            case DIV:
+            case RESTO:
+                // CDQ estende o sinal de EAX para EDX (o dividendo de IDIV é EDX:EAX)
+                linhas.add("MOV EAX, " + valor(a));
+                String divisor = fonteEmECX(b, linhas);
+                linhas.add("CDQ");
+                linhas.add("IDIV " + divisor);
+                resultado = opcode == Opcode.RESTO ? "EDX" : "EAX";
+                break;
+            case SHL:
+            case SAR:
+            case SHR: {
+                // Deslocamento por constante usa imediato; por variável, o contador vai em CL
+                String contador = valor(b);
+                if (!imediato(b)) {
+                    linhas.add("MOV ECX, " + valor(b));
+                    contador = "CL";
+                }
+                linhas.add("MOV EAX, " + valor(a));
+                linhas.add(opcode.getMnemonico() + " EAX, " + contador);
+                break;
+            }
+            case MULHI:
+                // EDX:EAX = EAX * ECX; a parte alta (EDX) é o resultado
+                linhas.add("MOV EAX, " + valor(a));
+                linhas.add("MOV ECX, " + valor(b));
+                linhas.add("IMUL ECX");
+                resultado = "EDX";
+                break;
+            default:
+                throw new IllegalArgumentException("Opcode sem padrão: " + opcode);
+        }
+        linhas.add("MOV " + local(destino) + ", " + resultado);
+        return new Candidato("geral (" + opcode.getMnemonico() + " por EAX)", linhas);
+    }
+
+    /** Operando de IMUL/IDIV de um operando só: registrador, DWORD [memória] ou ECX com o imediato. */
+    private String fonteEmECX(int operando, List<String> linhas) {
+        if (imediato(operando)) {
+            linhas.add("MOV ECX, " + valor(operando));
+            return "ECX";
+        }
+        return dword(operando);
+    }
+
+    private void copia(int destino, int a, List<Candidato> candidatos) {
+        if (alocador.registrador(destino) == null && memoria(a)) {
+            return;
+        }
+        List<String> linhas = new ArrayList<>();
+        if (!local(destino).equals(valor(a))) {
+            linhas.add("MOV " + (imediato(a) ? dword(destino) : local(destino)) + ", " + valor(a));
+        }
+        candidatos.add(new Candidato("MOV direto", linhas));
+    }
+
+    private void doisEnderecos(Opcode opcode, int destino, int a, int b, List<Candidato> candidatos) {
+        String instrucao = opcode.name();
+        boolean comutativa = opcode != Opcode.SUB;
+        String registrador = alocador.registrador(destino);
+
+        // No registrador do destino
+        if (registrador != null && !registrador.equals(valor(b))) {
+            List<String> linhas = new ArrayList<>();
+            if (!registrador.equals(valor(a))) {
+                linhas.add("MOV " + registrador + ", " + valor(a));
+            }
+            linhas.add(instrucao + " " + registrador + ", " + valor(b));
+            candidatos.add(new Candidato(instrucao + " r, " + tipo(b), linhas));
+        }
+        // No próprio destino (leitura-modificação-escrita se ele está na memória)
+        if (destino == a && !(memoria(destino) && memoria(b))) {
+            candidatos.add(new Candidato(instrucao + " " + tipo(destino) + ", " + tipo(b),
+                    List.of(instrucao + " " + (imediato(b) ? dword(destino) : local(destino)) + ", " + valor(b))));
+            if (opcode != Opcode.AND && imediato(b) && Math.abs(ir.valorInteiro(b)) == 1) {
+                boolean incrementa = (ir.valorInteiro(b) == 1) == (opcode == Opcode.ADD);
+                String mnemonico = incrementa ? "INC" : "DEC";
+                candidatos.add(new Candidato(mnemonico + " " + tipo(destino), List.of(mnemonico + " " + dword(destino))));
+            }
+        }
+        if (comutativa && destino == b && destino != a && !(memoria(destino) && memoria(a))) {
+            candidatos.add(new Candidato(instrucao + " " + tipo(destino) + ", " + tipo(a) + " (comutada)",
+                    List.of(instrucao + " " + (imediato(a) ? dword(destino) : local(destino)) + ", " + valor(a))));
+        }
+        // LEA: soma de três endereços sem tocar nas flags nem nos operandos
+        if (registrador != null && opcode != Opcode.AND) {
+            String base = alocador.registrador(a);
+            int outro = b;
+            if (base == null && comutativa) {
+                base = alocador.registrador(b);
+                outro = a;
+            }
+            if (base != null && (alocador.registrador(outro) != null || imediato(outro))) {
+                String endereco;
+                if (imediato(outro)) {
+                    long deslocamento = opcode == Opcode.SUB ? -(long) ir.valorInteiro(outro) : ir.valorInteiro(outro);
+                    if (deslocamento != (int) deslocamento) {
+                        return;
+                    }
+                    endereco = base + (deslocamento < 0 ? " - " + -deslocamento : " + " + deslocamento);
+                } else if (opcode == Opcode.ADD) {
+                    endereco = base + " + " + alocador.registrador(outro);
+                } else {
+                    return;
+                }
+                candidatos.add(new Candidato("LEA (" + instrucao + ")", List.of("LEA " + registrador + ", [" + endereco + "]")));
+            }
+        }
+    }
+
+    private void multiplicacao(int destino, int a, int b, List<Candidato> candidatos) {
+        String registrador = alocador.registrador(destino);
+        String alvo = registrador != null ? registrador : "EAX";
+        String guardar = registrador != null ? null : "MOV " + local(destino) + ", EAX";
+
+        if (imediato(a) || imediato(b)) {
+            int fator = imediato(b) ? b : a;
+            int outro = imediato(b) ? a : b;
+            if (!imediato(outro)) {
+                // IMUL r, r/m, imm
+                List<String> linhas = new ArrayList<>();
+                linhas.add("IMUL " + alvo + ", " + dword(outro) + ", " + valor(fator));
+                if (guardar != null) {
+                    linhas.add(guardar);
+                }
+                candidatos.add(new Candidato("IMUL r, " + tipo(outro) + ", imm", linhas));
+
+                // LEA para 2, 3, 5 e 9 (base + índice * escala)
+                String base = alocador.registrador(outro);
+                int k = ir.valorInteiro(fator);
+                if (registrador != null && base != null && (k == 2 || k == 3 || k == 5 || k == 9)) {
+                    String endereco = k == 2 ? base + " + " + base : base + " + " + base + "*" + (k - 1);
+                    candidatos.add(new Candidato("LEA (MUL)", List.of("LEA " + registrador + ", [" + endereco + "]")));
+                }
+            }
+            return;
+        }
+        // IMUL r, r/m
+        List<String> linhas = new ArrayList<>();
+        if (alvo.equals(valor(b))) {
+            linhas.add("IMUL " + alvo + ", " + valor(a));
+        } else {
+            if (!alvo.equals(valor(a))) {
+                linhas.add("MOV " + alvo + ", " + valor(a));
+            }
+            linhas.add("IMUL " + alvo + ", " + valor(b));
+        }
+        if (guardar != null) {
+            linhas.add(guardar);
+        }
+        candidatos.add(new Candidato("IMUL r, " + tipo(b), linhas));
+    }
+
+    private void deslocamento(Opcode opcode, int destino, int a, int b, List<Candidato> candidatos) {
+        String instrucao = opcode.getMnemonico();
+        String registrador = alocador.registrador(destino);
+        if (!imediato(b)) {
+            if (registrador != null) {
+                List<String> linhas = new ArrayList<>();
+                linhas.add("MOV ECX, " + valor(b));
+                if (!registrador.equals(valor(a))) {
+                    linhas.add("MOV " + registrador + ", " + valor(a));
+                }
+                linhas.add(instrucao + " " + registrador + ", CL");
+                candidatos.add(new Candidato(instrucao + " r, CL", linhas));
+            }
+            return;
+        }
+        if (registrador != null) {
+            List<String> linhas = new ArrayList<>();
+            if (!registrador.equals(valor(a))) {
+                linhas.add("MOV " + registrador + ", " + valor(a));
+            }
+            linhas.add(instrucao + " " + registrador + ", " + valor(b));
+            candidatos.add(new Candidato(instrucao + " r, imm", linhas));
+
+            String base = alocador.registrador(a);
+            int k = ir.valorInteiro(b) & 31;
+            if (opcode == Opcode.SHL && base != null && k >= 1 && k <= 3) {
+                String endereco = k == 1 ? base + " + " + base : base + "*" + (1 << k);
+                candidatos.add(new Candidato("LEA (SHL)", List.of("LEA " + registrador + ", [" + endereco + "]")));
+            }
+        }
+        if (destino == a && memoria(destino)) {
+            candidatos.add(new Candidato(instrucao + " m, imm", List.of(instrucao + " " + dword(destino) + ", " + valor(b))));
+        }
+    }
+
+    /** Classe do operando no nome do padrão: r, m ou imm. */
+    private String tipo(int operando) {
+        return imediato(operando) ? "imm" : (memoria(operando) ? "m" : "r");
+    }
+}
@@ -9,11 +9,19 @@ import org.example.Token; // Necessário para operadores
  * C3EGeneratorVisitor.java
  * Percorre a AST para gerar o Código de 3 Endereços (C3E).
  *
- * Atualização: Inclui o método visit(ExpressaoCompostaNode) para gerar C3E
- * para condições lógicas E/OR, usando saltos condicionais (curto-circuito).
+ * Condições de 'se' e 'enquanto' são traduzidas por gerarCondicao(), que
+ * recebe os rótulos de destino verdadeiro/falso e emite saltos com comparação
+ * (JMPLT a b L...) diretamente: E/OR em curto-circuito e NOT trocando os
+ * rótulos, sem guardar booleanos em temporários.
+ *
+ * As instruções são emitidas direto no IR ({@link GeradorC3E}), com opcodes e
+ * operandos tipados; o endereço de cada resultado é um operando do IR.
  */
 public class C3EGeneratorVisitor implements ASTVisitor {
 
+    // Rótulo ausente em gerarCondicao(): o caso segue para a instrução seguinte
+    private static final int SEGUE = ProgramaIR.NENHUM;
+
     private final GeradorC3E geradorC3E;
     private final AnalisadorSemantico analisadorSemantico;
 
@@ -26,6 +34,7 @@ public class C3EGeneratorVisitor implements ASTVisitor {
 
     @Override
     public ASTResult visit(ProgramaNode node) throws Exception {
+        geradorC3E.declararVariaveis(analisadorSemantico.getTabelaSimbolos());
         for (ASTNode comando : node.getComandos()) {
             comando.accept(this);
         }
@@ -38,27 +47,20 @@ public class C3EGeneratorVisitor implements ASTVisitor {
         // Esta lógica assume que CondicionalNode possui os métodos getCondicao(),
         // getComandoEntao() e getComandoSenao(), herdados por SeNode.
 
-        // 1. Visita a condição para obter o endereço do resultado booleano (Tx)
-        // NOTA: Para ExpressaoCompostaNode, o resultado não é um temporário,
-        // mas sim o conjunto de rótulos (Verdadeiro/Falso) que a expressão usa.
-        // No entanto, para simplificar, usaremos o padrão de JMPFALSE.
-        ASTResult condicaoResultado = node.getCondicao().accept(this);
-        String temporarioCondicao = condicaoResultado.getEndereco();
-
-        // 2. Criação dos Rótulos
-        String rotuloSenao = geradorC3E.novoRotulo();
-        String rotuloFim = geradorC3E.novoRotulo();
+        // 1. Criação dos Rótulos
+        int rotuloSenao = geradorC3E.novoRotulo();
+        int rotuloFim = geradorC3E.novoRotulo();
 
-        // 3. C3E: Salta se a condição for falsa
-        geradorC3E.emitir("JMPFALSE", temporarioCondicao, rotuloSenao, "");
+        // 2. C3E: Salta para o SENÃO se a condição for falsa (verdadeira segue em frente)
+        gerarCondicao(node.getCondicao(), SEGUE, rotuloSenao);
 
-        // 4. Bloco ENTÃO (Comando)
+        // 3. Bloco ENTÃO (Comando)
         node.getComandoEntao().accept(this);
 
-        // 5. Bloco SENÃO (Se existir)
+        // 4. Bloco SENÃO (Se existir)
         if (node.getComandoSenao() != null) {
             // C3E: Salto incondicional para o FIM (evita o bloco SENAO)
-            geradorC3E.emitir("JMP", rotuloFim, "", "");
+            geradorC3E.emitirSalto(rotuloFim);
 
             // C3E: Rótulo de início do SENAO
             geradorC3E.emitirRotulo(rotuloSenao);
@@ -83,26 +85,22 @@ public class C3EGeneratorVisitor implements ASTVisitor {
         // getCorpo(), herdados por EnquantoNode.
 
         // 1. Criação dos Rótulos
-        String rotuloInicio = geradorC3E.novoRotulo();
-        String rotuloFim = geradorC3E.novoRotulo();
+        int rotuloInicio = geradorC3E.novoRotulo();
+        int rotuloFim = geradorC3E.novoRotulo();
 
         // 2. C3E: Rótulo de início do loop
         geradorC3E.emitirRotulo(rotuloInicio);
 
-        // 3. Visita a condição para obter o endereço do resultado booleano (Tx)
-        ASTResult condicaoResultado = node.getCondicao().accept(this);
-        String temporarioCondicao = condicaoResultado.getEndereco();
-
-        // 4. C3E: Salta para o fim se a condição for falsa
-        geradorC3E.emitir("JMPFALSE", temporarioCondicao, rotuloFim, "");
+        // 3. C3E: Salta para o fim se a condição for falsa
+        gerarCondicao(node.getCondicao(), SEGUE, rotuloFim);
 
-        // 5. Bloco de comandos (Corpo do loop)
+        // 4. Bloco de comandos (Corpo do loop)
         node.getComandoCorpo().accept(this);
 
-        // 6. C3E: Salta incondicionalmente para o início do loop (volta para a condição)
-        geradorC3E.emitir("JMP", rotuloInicio, "", "");
+        // 5. C3E: Salta incondicionalmente para o início do loop (volta para a condição)
+        geradorC3E.emitirSalto(rotuloInicio);
 
-        // 7. C3E: Rótulo de fim do loop
+        // 6. C3E: Rótulo de fim do loop
         geradorC3E.emitirRotulo(rotuloFim);
 
         return new ASTResult(TipoDado.INDETERMINADO);
@@ -116,10 +114,11 @@ public class C3EGeneratorVisitor implements ASTVisitor {
 
         // 1. Visita o RHS (Expressão ou Valor) para gerar o código e obter o endereço
         ASTResult rhsResultado = node.getExpressaoRHS().accept(this);
-        String enderecoRHS = rhsResultado.getEndereco();
+        int enderecoRHS = rhsResultado.getOperando();
 
         // 2. C3E: Atribuição final: resultado do RHS -> identificador LHS
-        geradorC3E.emitir(idNode.getLexema(), enderecoRHS, "=", "");
+        int destino = idNode.accept(this).getOperando();
+        geradorC3E.emitir(Opcode.COPIA, destino, enderecoRHS, ProgramaIR.NENHUM);
 
         return new ASTResult(TipoDado.INDETERMINADO);
     }
@@ -128,9 +127,9 @@ public class C3EGeneratorVisitor implements ASTVisitor {
 
     @Override
     public ASTResult visit(ComandoLeiaNode node) throws Exception {
-        String identificador = node.getIdentificador().getLexema();
+        int identificador = node.getIdentificador().accept(this).getOperando();
         // C3E: READ identificador
-        geradorC3E.emitir("READ", identificador, "", "");
+        geradorC3E.emitir(Opcode.READ, identificador, ProgramaIR.NENHUM, ProgramaIR.NENHUM);
         return new ASTResult(TipoDado.INDETERMINADO);
     }
 
@@ -138,10 +137,10 @@ public class C3EGeneratorVisitor implements ASTVisitor {
     public ASTResult visit(ComandoEscrevaNode node) throws Exception {
         // 1. Visita a expressão para obter o endereço do valor a ser escrito
         ASTResult expressaoResultado = node.getExpressao().accept(this);
-        String endereco = expressaoResultado.getEndereco();
+        int endereco = expressaoResultado.getOperando();
 
         // 2. C3E: WRITE endereço
-        geradorC3E.emitir("WRITE", endereco, "", "");
+        geradorC3E.emitir(Opcode.WRITE, ProgramaIR.NENHUM, endereco, ProgramaIR.NENHUM);
         return new ASTResult(TipoDado.INDETERMINADO);
     }
 
@@ -152,183 +151,191 @@ public class C3EGeneratorVisitor implements ASTVisitor {
     public ASTResult visit(ExpressaoBinariaNode node) throws Exception {
         // 1. Visita o operando 1 (recursão na árvore)
         ASTResult resultadoE1 = node.getOperando1().accept(this);
-        String enderecoE1 = resultadoE1.getEndereco();
+        int enderecoE1 = resultadoE1.getOperando();
 
         // 2. Visita o operando 2
         ASTResult resultadoE2 = node.getOperando2().accept(this);
-        String enderecoE2 = resultadoE2.getEndereco();
+        int enderecoE2 = resultadoE2.getOperando();
 
         // 3. Obtém o operador
-        String operador = node.getOperador().getLexema();
-
-        // 4. C3E: Emite a instrução e armazena em um novo temporário
-        String temporario = geradorC3E.novoTemporario();
-        geradorC3E.emitir(temporario, enderecoE1, operador, enderecoE2);
+        Opcode operador = getOpcodeAritmetico(node.getOperador().getLexema());
 
-        // 5. Registra o tipo do temporário (necessário se houver atribuições futuras)
+        // 4. Tipo do resultado, que é o tipo do temporário (necessário se houver atribuições futuras)
         TipoDado tipoResultado = analisadorSemantico.determinarTipoExpressao(
                 resultadoE1.getTipo(),
                 resultadoE2.getTipo(),
                 node.getLinha(),
                 node.getColuna()
         );
-        analisadorSemantico.registrarTipoTemporario(temporario, tipoResultado);
+
+        // 5. C3E: Emite a instrução e armazena em um novo temporário
+        int temporario = geradorC3E.novoTemporario(tipoResultado);
+        geradorC3E.emitir(operador, temporario, enderecoE1, enderecoE2);
 
         // 6. Retorna o endereço e tipo do resultado
         return new ASTResult(tipoResultado, temporario);
     }
 
-    // NOVO MÉTODO: Visita a Expressão Lógica Composta (E/OR)
+    // Expressão lógica composta (E/OR) usada como valor: materializa 1/0
     @Override
     public ASTResult visit(ExpressaoCompostaNode node) throws Exception {
-        String operador = node.getOperadorComposto().getLexema();
-
-        // Em C3E, expressões lógicas compostas são traduzidas usando o conceito
-        // de rótulos de Verdadeiro (T) e Falso (F) e curto-circuito.
-        // O resultado da expressão será um temporário (Tx) que recebe 1 (True) ou 0 (False).
-
-        // Rótulos auxiliares para o curto-circuito
-        String rotuloProximaCondicao = geradorC3E.novoRotulo();
-        String rotuloFimExpressao = geradorC3E.novoRotulo();
-        String temporarioResultado = geradorC3E.novoTemporario(); // T_final
-
-        // 1. Visita Condição Esquerda (LHS)
-        ASTResult resultadoEsquerda = node.getCondicaoEsquerda().accept(this);
-        String enderecoEsquerda = resultadoEsquerda.getEndereco();
-
-        if ("OR".equalsIgnoreCase(operador)) {
-            // Lógica OR: Se LHS for TRUE, toda a expressão é TRUE.
-            // C3E: Se LHS é TRUE, salta para definir o resultado como TRUE (T_final = 1)
-            geradorC3E.emitir("JMPTRUE", enderecoEsquerda, rotuloFimExpressao, "");
-
-            // Se chegou aqui, LHS é FALSE. Salta para a próxima condição (RHS).
-            geradorC3E.emitir("JMP", rotuloProximaCondicao, "", "");
-
-        } else if ("E".equalsIgnoreCase(operador)) {
-            // Lógica E: Se LHS for FALSE, toda a expressão é FALSE.
-            // C3E: Se LHS é FALSE, salta para definir o resultado como FALSE (T_final = 0)
-            geradorC3E.emitir("JMPFALSE", enderecoEsquerda, rotuloProximaCondicao, "");
-
-            // Se chegou aqui, LHS é TRUE. Segue para a próxima condição (RHS).
-        }
-
-        // Rótulo para a próxima condição (RHS) (ou se a primeira falhou no caso do OR)
-        geradorC3E.emitirRotulo(rotuloProximaCondicao);
-
-        // 2. Visita Condição Direita (RHS)
-        ASTResult resultadoDireita = node.getCondicaoDireita().accept(this);
-        String enderecoDireita = resultadoDireita.getEndereco();
-
-        // Após a visita do RHS, o seu temporário (enderecoDireita) contém o valor
-        // booleano do RHS (1 ou 0). Este é o resultado final da Expressão Composta
-        // se o curto-circuito não ocorreu.
-
-        // C3E: Atribui o resultado do RHS ao temporário final
-        geradorC3E.emitir(temporarioResultado, enderecoDireita, "=", "");
-
-        // Rótulo de Fim da Expressão (onde o OR curto-circuitado salta)
-        geradorC3E.emitirRotulo(rotuloFimExpressao);
-
-        if ("OR".equalsIgnoreCase(operador)) {
-            // Se o OR curto-circuitou, o resultado deve ser 1 (TRUE).
-            // A instrução JMPTRUE lá em cima (linha 215) salta para rotuloFimExpressao.
-            // Precisamos que, quando ele saltar, o resultado final seja 1.
-            // Para simplificar, forçamos o resultado final para 1.
-            geradorC3E.emitir(temporarioResultado, "1", "=", "");
-        }
-        // Se for E, o resultado já foi atribuído corretamente pelo RHS ou o JMPFALSE
-        // na linha 223 direcionou o fluxo.
-
-
-        // NOTA: A lógica ideal do C3E/TAC para booleanos é complexa (uso de listas
-        // de backpatching/truelist/falselist). Esta implementação é uma abordagem
-        // mais simples usando um temporário final que recebe 1/0.
-
-        // Retorna o temporário que guarda o resultado booleano final (1 ou 0)
-        return new ASTResult(TipoDado.BOOLEANO, temporarioResultado);
+        return materializarCondicao(node);
     }
 
+    // NOT usado como valor: materializa 1/0
     @Override
     public ASTResult visit(NotNode node) throws Exception {
-        // 1. Gera C3E para a condição interna do NOT
-        ASTResult innerResult = node.getCondicao().accept(this);
-        String enderecoInner = innerResult.getEndereco();
+        return materializarCondicao(node);
+    }
 
-        // 2. Cria um temporário para armazenar o valor 0
-        String tempZero = geradorC3E.novoTemporario();
-        // tempZero = 0
-        geradorC3E.emitir(tempZero, "0", "=", "");
+    // Comparação usada como valor: o resultado (1 ou 0) vai para um temporário
+    @Override
+    public ASTResult visit(CondicaoBinariaNode node) throws Exception {
+        ASTResult[] operandos = visitarComparacao(node);
+        Opcode comparacao = getOpcodeComparacao(node.getOperador().getLexema());
 
-        // 3. Cria um temporário para o resultado de NOT
-        String tempResultado = geradorC3E.novoTemporario();
+        int temporarioCondicao = geradorC3E.novoTemporario(TipoDado.BOOLEANO);
+        geradorC3E.emitir(comparacao, temporarioCondicao, operandos[0].getOperando(), operandos[1].getOperando());
 
-        // 4. Implementa NOT como: resultado = (enderecoInner == 0) ? 1 : 0
-        //    Ou seja, compara o valor com zero usando CMPEQ (==)
-        String mnemonic = getMnemonicLogico("=="); // vai retornar "CMPEQ"
-        geradorC3E.emitir(tempResultado, enderecoInner, mnemonic, tempZero);
+        return new ASTResult(TipoDado.BOOLEANO, temporarioCondicao);
+    }
 
-        // 5. Registra o tipo do temporário como BOOLEANO
-        analisadorSemantico.registrarTipoTemporario(tempResultado, TipoDado.BOOLEANO);
+    // --- CONDIÇÕES EM CONTEXTO DE CONTROLE ---
+
+    /**
+     * Gera os saltos de uma condição: desvia para rotuloVerdadeiro quando ela
+     * é verdadeira e para rotuloFalso quando é falsa. Um dos rótulos pode ser
+     * SEGUE, indicando que esse caso segue para a instrução seguinte.
+     *   - comparação: JMPcc a b rotuloVerdadeiro (ou a comparação negada para rotuloFalso,
+     *     só entre inteiros: com REAL, NOT (a > b) não é a <= b quando há NaN);
+     *   - NOT: a mesma condição com os rótulos trocados;
+     *   - E: se a esquerda for falsa, a direita nem é avaliada;
+     *   - OR: se a esquerda for verdadeira, a direita nem é avaliada.
+     */
+    private void gerarCondicao(ASTNode condicao, int rotuloVerdadeiro, int rotuloFalso) throws Exception {
+        if (condicao instanceof NotNode notNode) {
+            gerarCondicao(notNode.getCondicao(), rotuloFalso, rotuloVerdadeiro);
+
+        } else if (condicao instanceof ExpressaoCompostaNode composta) {
+            String operador = composta.getOperadorComposto().getLexema();
+            if ("E".equalsIgnoreCase(operador)) {
+                int rotuloSaida = rotuloFalso != SEGUE ? rotuloFalso : geradorC3E.novoRotulo();
+                gerarCondicao(composta.getCondicaoEsquerda(), SEGUE, rotuloSaida);
+                gerarCondicao(composta.getCondicaoDireita(), rotuloVerdadeiro, rotuloFalso);
+                if (rotuloFalso == SEGUE) {
+                    geradorC3E.emitirRotulo(rotuloSaida);
+                }
+            } else {
+                int rotuloSaida = rotuloVerdadeiro != SEGUE ? rotuloVerdadeiro : geradorC3E.novoRotulo();
+                gerarCondicao(composta.getCondicaoEsquerda(), rotuloSaida, SEGUE);
+                gerarCondicao(composta.getCondicaoDireita(), rotuloVerdadeiro, rotuloFalso);
+                if (rotuloVerdadeiro == SEGUE) {
+                    geradorC3E.emitirRotulo(rotuloSaida);
+                }
+            }
+
+        } else if (condicao instanceof CondicaoBinariaNode comparacao) {
+            ASTResult[] operandos = visitarComparacao(comparacao);
+            int a = operandos[0].getOperando();
+            int b = operandos[1].getOperando();
+            Opcode comparacaoOp = getOpcodeComparacao(comparacao.getOperador().getLexema());
+            if (rotuloVerdadeiro != SEGUE) {
+                geradorC3E.emitir(comparacaoOp.saltoDaComparacao(), rotuloVerdadeiro, a, b);
+                if (rotuloFalso != SEGUE) {
+                    geradorC3E.emitirSalto(rotuloFalso);
+                }
+            } else if (rotuloFalso != SEGUE && operandos[0].getTipo() == TipoDado.INTEIRO
+                    && operandos[1].getTipo() == TipoDado.INTEIRO) {
+                geradorC3E.emitir(comparacaoOp.comparacaoNegada().saltoDaComparacao(), rotuloFalso, a, b);
+            } else if (rotuloFalso != SEGUE) {
+                // Reais: salta pela comparação original e desvia para o falso no resto (inclusive NaN)
+                int rotuloSegue = geradorC3E.novoRotulo();
+                geradorC3E.emitir(comparacaoOp.saltoDaComparacao(), rotuloSegue, a, b);
+                geradorC3E.emitirSalto(rotuloFalso);
+                geradorC3E.emitirRotulo(rotuloSegue);
+            }
 
-        // 6. Retorna o endereço do temporário booleano
-        return new ASTResult(TipoDado.BOOLEANO, tempResultado);
+        } else {
+            // Outro tipo de valor usado como condição: testa o resultado (0 = falso)
+            int endereco = condicao.accept(this).getOperando();
+            if (rotuloVerdadeiro != SEGUE) {
+                geradorC3E.emitir(Opcode.JMPTRUE, rotuloVerdadeiro, endereco, ProgramaIR.NENHUM);
+                if (rotuloFalso != SEGUE) {
+                    geradorC3E.emitirSalto(rotuloFalso);
+                }
+            } else if (rotuloFalso != SEGUE) {
+                geradorC3E.emitir(Opcode.JMPFALSE, rotuloFalso, endereco, ProgramaIR.NENHUM);
+            }
+        }
     }
 
-    @Override
-    public ASTResult visit(CondicaoBinariaNode node) throws Exception {
-        // 1. Visita operando 1
+    /** Visita os dois lados de uma comparação e confere a compatibilidade dos tipos. */
+    private ASTResult[] visitarComparacao(CondicaoBinariaNode node) throws Exception {
         ASTResult resultadoE1 = node.getOperando1().accept(this);
-        String enderecoE1 = resultadoE1.getEndereco();
-
-        // 2. Visita operando 2
         ASTResult resultadoE2 = node.getOperando2().accept(this);
-        String enderecoE2 = resultadoE2.getEndereco();
-
-        // 3. Obtém o operador lógico
-        String operadorLogico = node.getOperador().getLexema();
-        String mnemonic = getMnemonicLogico(operadorLogico);
-
-        // 4. C3E: Geração da Comparação
-        // Compara os operandos e armazena o resultado booleano (1 ou 0) em um temporário
-        String temporarioCondicao = geradorC3E.novoTemporario();
-        geradorC3E.emitir(temporarioCondicao, enderecoE1, mnemonic, enderecoE2);
-
-        // 5. Determina o tipo (para fins de retorno, é BOOLEANO)
         analisadorSemantico.determinarTipoExpressao(
                 resultadoE1.getTipo(),
                 resultadoE2.getTipo(),
                 node.getLinha(),
                 node.getColuna()
         );
-        analisadorSemantico.registrarTipoTemporario(temporarioCondicao, TipoDado.BOOLEANO);
+        return new ASTResult[]{resultadoE1, resultadoE2};
+    }
 
-        // 6. Retorna o endereço do resultado booleano (o temporário)
-        return new ASTResult(TipoDado.BOOLEANO, temporarioCondicao);
+    /**
+     * Condição usada como valor: T = 1 se verdadeira, T = 0 se falsa, usando
+     * os mesmos saltos de gerarCondicao().
+     */
+    private ASTResult materializarCondicao(ASTNode condicao) throws Exception {
+        int temporarioResultado = geradorC3E.novoTemporario(TipoDado.BOOLEANO);
+        int rotuloFalso = geradorC3E.novoRotulo();
+        int rotuloFim = geradorC3E.novoRotulo();
+
+        gerarCondicao(condicao, SEGUE, rotuloFalso);
+        geradorC3E.emitir(Opcode.COPIA, temporarioResultado, geradorC3E.literal("1"), ProgramaIR.NENHUM);
+        geradorC3E.emitirSalto(rotuloFim);
+        geradorC3E.emitirRotulo(rotuloFalso);
+        geradorC3E.emitir(Opcode.COPIA, temporarioResultado, geradorC3E.literal("0"), ProgramaIR.NENHUM);
+        geradorC3E.emitirRotulo(rotuloFim);
+
+        return new ASTResult(TipoDado.BOOLEANO, temporarioResultado);
     }
 
     @Override
     public ASTResult visit(IdentificadorNode node) throws Exception {
-        // Retorna o nome do identificador como endereço
+        // Retorna o operando da variável como endereço
         TipoDado tipo = analisadorSemantico.getTabelaSimbolos().buscar(node.getLexema()).getTipo();
-        return new ASTResult(tipo, node.getLexema());
+        return new ASTResult(tipo, geradorC3E.variavel(node.getLexema(), tipo));
     }
 
     @Override
     public ASTResult visit(LiteralNode node) throws Exception {
-        // Retorna o valor literal como endereço
-        return new ASTResult(node.getTipoInferido(), node.getValor());
+        // Retorna a constante (imediato ou tabela de constantes) como endereço
+        return new ASTResult(node.getTipoInferido(), geradorC3E.literal(node.getValor()));
+    }
+
+    // Mapeamento de Operadores Aritméticos para Opcodes
+    private Opcode getOpcodeAritmetico(String operador) throws Exception {
+        return switch (operador) {
+            case "+" -> Opcode.ADD;
+            case "-" -> Opcode.SUB;
+            case "*" -> Opcode.MUL;
+            case "/" -> Opcode.DIV;
+            case "RESTO" -> Opcode.RESTO;
+            default -> throw new Exception("Erro Interno (C3E): operador aritmético desconhecido: " + operador);
+        };
     }
 
-    // Mapeamento de Operadores Lógicos para Mnemônicos C3E
-    private String getMnemonicLogico(String operador) {
+    // Mapeamento de Operadores Lógicos para Opcodes de comparação
+    private Opcode getOpcodeComparacao(String operador) throws Exception {
         return switch (operador) {
-            case ">" -> "CMPGT";
-            case "<" -> "CMPLT";
-            case "==" -> "CMPEQ";
-            case "!=" -> "CMPNE";
-            case ">=" -> "CMPGE";
-            case "<=" -> "CMPLE";
-            default -> "ERRO_OP";
+            case ">" -> Opcode.CMPGT;
+            case "<" -> Opcode.CMPLT;
+            case "==" -> Opcode.CMPEQ;
+            case "!=" -> Opcode.CMPNE;
+            case ">=" -> Opcode.CMPGE;
+            case "<=" -> Opcode.CMPLE;
+            default -> throw new Exception("Erro Interno (C3E): operador relacional desconhecido: " + operador);
         };
     }
-}
\ No newline at end of file
+}
@@ -1,55 +1,97 @@
 package org.example.C3E;
 
+import org.example.EntradaTabelaSimbolos;
+import org.example.TabelaSimbolos;
+import org.example.TipoDado;
+
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 /**
  * GeradorC3E.java
  * Gerencia a emissão de instruções e a contagem de temporários/rótulos.
+ * As instruções vão direto para o {@link ProgramaIR} (opcodes + operandos
+ * tipados); a forma textual ({@link InstrucaoC3E}) só é produzida a partir
+ * dele, para exibição.
  */
 public class GeradorC3E {
-    private final List<InstrucaoC3E> codigo;
-    private int contadorTemporario;
+    private final ProgramaIR ir;
     private int contadorRotulo;
 
     public GeradorC3E() {
-        this.codigo = new ArrayList<>();
-        this.contadorTemporario = 0;
+        this.ir = new ProgramaIR();
         this.contadorRotulo = 0;
     }
 
     /**
-     * Gera e retorna um novo temporário (ex: T1, T2).
+     * Registra as variáveis declaradas (inclusive as não usadas) em ordem
+     * estável, antes da geração, para que os slots não dependam da ordem de uso.
+     */
+    public void declararVariaveis(TabelaSimbolos tabelaSimbolos) {
+        List<EntradaTabelaSimbolos> entradas = new ArrayList<>(tabelaSimbolos.getEntradas());
+        entradas.sort(Comparator.comparing(EntradaTabelaSimbolos::getLexema));
+        for (EntradaTabelaSimbolos entrada : entradas) {
+            if (!"temp".equals(entrada.getEscopo())) {
+                ir.variavel(entrada.getLexema(), entrada.getTipo());
+            }
+        }
+    }
+
+    /** Operando da variável do usuário (registrada na primeira referência, se não declarada antes). */
+    public int variavel(String nome, TipoDado tipo) {
+        return ir.variavel(nome, tipo);
+    }
+
+    /**
+     * Operando de um literal do fonte: com ponto decimal é REAL, senão INTEIRO
+     * (imediato ou tabela de constantes).
+     */
+    public int literal(String texto) {
+        if (texto.contains(".")) {
+            return ir.constanteReal(Double.parseDouble(texto));
+        }
+        return ir.constanteInteira(Integer.parseInt(texto));
+    }
+
+    /**
+     * Gera e retorna um novo temporário (T1, T2, ...) do tipo informado.
      * Usado para armazenar resultados de sub-expressões.
      */
-    public String novoTemporario() {
-        contadorTemporario++;
-        return "T" + contadorTemporario;
+    public int novoTemporario(TipoDado tipo) {
+        return ir.novoTemporario(tipo);
     }
 
     /**
-     * Gera e retorna um novo rótulo (ex: L1, L2).
-     * Usado para controle de fluxo (condicionais e laços).
+     * Gera e retorna um novo rótulo (L1, L2, ...).
+     * Usado para controle de fluxo (condicionais e laços). O rótulo só passa a
+     * contar no IR quando é emitido, então rótulos reservados e nunca usados
+     * (ex: o fim de um 'se' sem 'senao') não ocupam ids.
      */
-    public String novoRotulo() {
+    public int novoRotulo() {
         contadorRotulo++;
-        return "L" + contadorRotulo;
+        return ProgramaIR.operando(ProgramaIR.ROTULO, contadorRotulo);
     }
 
     /**
-     * Emite uma instrução no Código de 3 Endereços.
-     * Ex: emitir("T1", "a", "+", "1") -> T1 = a + 1
+     * Emite uma instrução no Código de 3 Endereços (convenção de operandos em {@link Opcode}).
+     * Ex: emitir(ADD, T1, a, 1) -> T1 = a + 1
      */
-    public void emitir(String resultado, String operando1, String operador, String operando2) {
-        codigo.add(new InstrucaoC3E(resultado, operando1, operador, operando2));
+    public void emitir(Opcode opcode, int destino, int operando1, int operando2) {
+        ir.adicionar(opcode, destino, operando1, operando2);
     }
 
     /**
      * Emite um rótulo no código.
-     * Ex: emitirRotulo("L1") -> L1:
+     * Ex: emitirRotulo(L1) -> L1:
      */
-    public void emitirRotulo(String rotulo) {
-        emitir(rotulo + ":", "", "", "");
+    public void emitirRotulo(int rotulo) {
+        ir.adicionar(Opcode.ROTULO, ir.rotulo(ProgramaIR.valorOperando(rotulo)), ProgramaIR.NENHUM, ProgramaIR.NENHUM);
+    }
+
+    /** Emite um salto incondicional: JMP rótulo. */
+    public void emitirSalto(int rotulo) {
+        ir.adicionar(Opcode.JMP, rotulo, ProgramaIR.NENHUM, ProgramaIR.NENHUM);
     }
 
     /**
@@ -58,14 +100,15 @@ public class GeradorC3E {
     public void imprimirCodigo() {
         System.out.println("\n--- Código de 3 Endereços (C3E) ---");
         int linha = 0;
-        for (InstrucaoC3E instr : codigo) {
+        for (InstrucaoC3E instr : ir.paraC3E()) {
             System.out.println(linha + ": " + instr);
             linha++;
         }
         System.out.println("------------------------------------");
     }
 
-    public List<InstrucaoC3E> getCodigo() {
-        return codigo;
+    /** O IR gerado (opcodes + operandos tipados). */
+    public ProgramaIR getIR() {
+        return ir;
     }
 }
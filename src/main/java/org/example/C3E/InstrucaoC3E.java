@@ -2,49 +2,59 @@ package org.example.C3E;
 
 /**
  * InstrucaoC3E.java
- * Representa uma instrução no Código de 3 Endereços (TAC).
+ * Representa uma instrução no Código de 3 Endereços (TAC) na forma textual.
+ * É produzida a partir do {@link ProgramaIR} ({@link ProgramaIR#paraInstrucaoC3E})
+ * só para exibição: o opcode decide o formato, e os operandos já vêm com os
+ * nomes do IR.
  */
 public class InstrucaoC3E {
-    private final String resultado;
+    private final Opcode opcode;
+    private final String destino;
     private final String operando1;
-    private final String operador;
     private final String operando2;
 
-    public InstrucaoC3E(String resultado, String operando1, String operador, String operando2) {
-        this.resultado = resultado;
+    public InstrucaoC3E(Opcode opcode, String destino, String operando1, String operando2) {
+        this.opcode = opcode;
+        this.destino = destino;
         this.operando1 = operando1;
-        this.operador = operador;
         this.operando2 = operando2;
     }
 
     /**
-     * Formata a instrução para exibição, adaptando-se a diferentes mnemônicos.
-     * Ex: T1 = a + 1; LABEL L1; JMPFALSE T1, L2
+     * Formata a instrução para exibição, conforme o opcode.
+     * Ex: T1 = a + 1; L1:; JMP L1; JMPFALSE L2 T1; JMPLT L2 a b
      */
     @Override
     public String toString() {
-        if (operador.isEmpty() && operando1.isEmpty() && operando2.isEmpty()) {
-            // Instrução de rótulo (LABEL)
-            return String.format("%s", resultado);
-        } else if (operador.isEmpty()) {
-            // Instrução de atribuição simples ou salto (JMP L1, T1 = a)
-            if (resultado.startsWith("JMP") || resultado.startsWith("LABEL")) { // Rótulo ou Salto simples
-                return String.format("%s %s", resultado, operando1);
-            } else { // Atribuição T1 = a
-                return String.format("%s = %s", resultado, operando1);
-            }
-        } else if (operando2.isEmpty()) {
-            // Instruções unárias, atribuição direta (=) ou CALL, etc.
-            return String.format("%s %s %s", resultado, operador, operando1);
-        } else {
-            // Instruções binárias (ADD, SUB, CMP)
-            return String.format("%s = %s %s %s", resultado, operando1, operador, operando2);
+        switch (opcode) {
+            case ROTULO:
+                return destino + ":";
+            case NOP:
+                return "NOP";
+            case JMP:
+                return "JMP " + destino;
+            case JMPFALSE:
+            case JMPTRUE:
+                return String.format("%s %s %s", opcode.getMnemonico(), destino, operando1);
+            case READ:
+                return "READ = " + destino;
+            case WRITE:
+                return "WRITE = " + operando1;
+            case COPIA:
+                return String.format("%s = %s", destino, operando1);
+            default:
+                if (opcode.ehSaltoComparacao()) {
+                    // Comparação e salto: JMPLT L1 a b (salta para L1 se a < b)
+                    return String.format("%s %s %s %s", opcode.getMnemonico(), destino, operando1, operando2);
+                }
+                // Instruções binárias (aritméticas e comparações)
+                return String.format("%s = %s %s %s", destino, operando1, opcode.getMnemonico(), operando2);
         }
     }
 
     // Getters
-    public String getResultado() { return resultado; }
+    public Opcode getOpcode() { return opcode; }
+    public String getDestino() { return destino; }
     public String getOperando1() { return operando1; }
-    public String getOperador() { return operador; }
     public String getOperando2() { return operando2; }
 }
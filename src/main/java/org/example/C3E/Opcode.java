@@ -0,0 +1,197 @@
+package org.example.C3E;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opcode.java
+ * Enumeração dos códigos de operação do IR (ProgramaIR).
+ *
+ * Convenção de operandos de uma instrução (destino, operando1, operando2):
+ *   - aritméticas/comparações: destino = operando1 OP operando2
+ *   - COPIA:                   destino = operando1
+ *   - ROTULO:                  destino = rótulo
+ *   - JMP:                     destino = rótulo alvo
+ *   - JMPFALSE/JMPTRUE:        destino = rótulo alvo, operando1 = condição
+ *   - JMPEQ ... JMPGE:         destino = rótulo alvo, salta se operando1 OP operando2
+ *   - READ:                    destino = variável lida
+ *   - WRITE:                   operando1 = valor escrito
+ */
+public enum Opcode {
+    NOP("NOP"),
+    ROTULO("LABEL"),
+    COPIA("="),
+
+    // Aritméticas
+    ADD("+"),
+    SUB("-"),
+    MUL("*"),
+    DIV("/"),
+    RESTO("RESTO"),
+
+    // Operações de bits e multiplicação alta (só INTEIRO; geradas pela redução de força)
+    SHL("SHL"),       // deslocamento à esquerda
+    SAR("SAR"),       // deslocamento aritmético à direita (preserva o sinal)
+    SHR("SHR"),       // deslocamento lógico à direita
+    AND("AND"),
+    MULHI("MULHI"),   // 32 bits altos do produto de 64 bits com sinal
+
+    // Comparações (resultado 1 ou 0)
+    CMPEQ("CMPEQ"),
+    CMPNE("CMPNE"),
+    CMPLT("CMPLT"),
+    CMPLE("CMPLE"),
+    CMPGT("CMPGT"),
+    CMPGE("CMPGE"),
+
+    // Controle de fluxo
+    JMP("JMP"),
+    JMPFALSE("JMPFALSE"),
+    JMPTRUE("JMPTRUE"),
+
+    // Comparação e salto (salta se operando1 OP operando2)
+    JMPEQ("JMPEQ"),
+    JMPNE("JMPNE"),
+    JMPLT("JMPLT"),
+    JMPLE("JMPLE"),
+    JMPGT("JMPGT"),
+    JMPGE("JMPGE"),
+
+    // Entrada/Saída
+    READ("READ"),
+    WRITE("WRITE");
+
+    private static final Map<String, Opcode> POR_MNEMONICO = new HashMap<>();
+    static {
+        for (Opcode op : values()) {
+            POR_MNEMONICO.put(op.mnemonico, op);
+        }
+    }
+
+    private final String mnemonico;
+
+    Opcode(String mnemonico) {
+        this.mnemonico = mnemonico;
+    }
+
+    /** Texto usado na forma textual do C3E (ex: "+", "CMPLT", "JMPFALSE"). */
+    public String getMnemonico() {
+        return mnemonico;
+    }
+
+    /** Busca o opcode pelo mnemônico do C3E textual; retorna null se desconhecido. */
+    public static Opcode deMnemonico(String mnemonico) {
+        return POR_MNEMONICO.get(mnemonico);
+    }
+
+    public boolean ehAritmetico() {
+        return this == ADD || this == SUB || this == MUL || this == DIV || this == RESTO || ehBits();
+    }
+
+    /** Operações inteiras de bits e multiplicação alta (SHL, SAR, SHR, AND, MULHI). */
+    public boolean ehBits() {
+        return this.ordinal() >= SHL.ordinal() && this.ordinal() <= MULHI.ordinal();
+    }
+
+    public boolean ehComparacao() {
+        return this.ordinal() >= CMPEQ.ordinal() && this.ordinal() <= CMPGE.ordinal();
+    }
+
+    /** Operações binárias com destino (aritméticas e comparações). */
+    public boolean ehBinario() {
+        return ehAritmetico() || ehComparacao();
+    }
+
+    public boolean ehSalto() {
+        return this == JMP || ehSaltoCondicional();
+    }
+
+    public boolean ehSaltoCondicional() {
+        return this == JMPFALSE || this == JMPTRUE || ehSaltoComparacao();
+    }
+
+    /** Saltos que comparam os dois operandos (JMPEQ ... JMPGE). */
+    public boolean ehSaltoComparacao() {
+        return this.ordinal() >= JMPEQ.ordinal() && this.ordinal() <= JMPGE.ordinal();
+    }
+
+    /** Indica se o campo destino é um nome (variável/temporário) definido pela instrução. */
+    public boolean defineDestino() {
+        return this == COPIA || ehBinario() || this == READ;
+    }
+
+    /** Quantos operandos (operando1, operando2) a instrução lê. */
+    public int numeroOperandosLidos() {
+        if (ehBinario() || ehSaltoComparacao()) {
+            return 2;
+        }
+        if (this == COPIA || ehSaltoCondicional() || this == WRITE) {
+            return 1;
+        }
+        return 0;
+    }
+
+    /** Instruções que podem interromper a execução (divisão por zero). */
+    public boolean podeFalhar() {
+        return this == DIV || this == RESTO;
+    }
+
+    /** Instruções com efeito observável além do destino (E/S). */
+    public boolean temEfeitoColateral() {
+        return this == READ || this == WRITE;
+    }
+
+    /**
+     * Comparação equivalente com os operandos trocados (a OP b == b OP' a).
+     */
+    public Opcode comparacaoEspelhada() {
+        return switch (this) {
+            case CMPLT -> CMPGT;
+            case CMPLE -> CMPGE;
+            case CMPGT -> CMPLT;
+            case CMPGE -> CMPLE;
+            default -> this;
+        };
+    }
+
+    /**
+     * Comparação com o resultado negado (NOT (a OP b) == a OP' b).
+     */
+    public Opcode comparacaoNegada() {
+        return switch (this) {
+            case CMPEQ -> CMPNE;
+            case CMPNE -> CMPEQ;
+            case CMPLT -> CMPGE;
+            case CMPLE -> CMPGT;
+            case CMPGT -> CMPLE;
+            case CMPGE -> CMPLT;
+            default -> this;
+        };
+    }
+
+    /** Comparação feita por um salto JMPEQ ... JMPGE (JMPLT -> CMPLT). */
+    public Opcode comparacaoDoSalto() {
+        return switch (this) {
+            case JMPEQ -> CMPEQ;
+            case JMPNE -> CMPNE;
+            case JMPLT -> CMPLT;
+            case JMPLE -> CMPLE;
+            case JMPGT -> CMPGT;
+            case JMPGE -> CMPGE;
+            default -> throw new IllegalArgumentException("Não é salto com comparação: " + this);
+        };
+    }
+
+    /** Salto que desvia quando a comparação é verdadeira (CMPLT -> JMPLT). */
+    public Opcode saltoDaComparacao() {
+        return switch (this) {
+            case CMPEQ -> JMPEQ;
+            case CMPNE -> JMPNE;
+            case CMPLT -> JMPLT;
+            case CMPLE -> JMPLE;
+            case CMPGT -> JMPGT;
+            case CMPGE -> JMPGE;
+            default -> throw new IllegalArgumentException("Não é comparação: " + this);
+        };
+    }
+}
@@ -0,0 +1,471 @@
+package org.example.C3E;
+
+import org.example.TipoDado;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ProgramaIR.java
+ * Representação intermediária compacta do Código de 3 Endereços.
+ *
+ * Cada instrução ocupa uma posição em quatro arrays paralelos de int:
+ * opcode (ordinal de {@link Opcode}), destino, operando1 e operando2.
+ * Um operando é um int com o tipo nos 3 bits menos significativos e o valor
+ * nos bits restantes:
+ *   VARIAVEL   -> slot da variável do usuário (nomesVariaveis)
+ *   TEMPORARIO -> id do temporário (T1, T2, ...)
+ *   IMEDIATO   -> inteiro pequeno embutido no próprio operando
+ *   CONSTANTE  -> índice na tabela de constantes (REAL ou inteiro grande)
+ *   ROTULO     -> id do rótulo (L1, L2, ...)
+ *
+ * O C3EGeneratorVisitor emite as instruções direto neste formato (via
+ * GeradorC3E), e os passos seguintes (otimizações, geração de Assembly)
+ * trabalham sobre os opcodes. A forma textual ({@link InstrucaoC3E}) só é
+ * produzida a partir daqui, para exibição ({@link #paraC3E()}).
+ */
+public class ProgramaIR {
+
+    // --- Tipos de operando ---
+    public static final int NENHUM = 0;
+    public static final int VARIAVEL = 1;
+    public static final int TEMPORARIO = 2;
+    public static final int IMEDIATO = 3;
+    public static final int CONSTANTE = 4;
+    public static final int ROTULO = 5;
+
+    private static final int BITS_TIPO = 3;
+    private static final int MASCARA_TIPO = (1 << BITS_TIPO) - 1;
+    private static final int IMEDIATO_MIN = -(1 << (31 - BITS_TIPO));
+    private static final int IMEDIATO_MAX = (1 << (31 - BITS_TIPO)) - 1;
+
+    private static final Opcode[] OPCODES = Opcode.values();
+
+    // --- Instruções (arrays paralelos) ---
+    private int tamanho;
+    private int[] opcodes;
+    private int[] destinos;
+    private int[] operandos1;
+    private int[] operandos2;
+
+    // --- Variáveis do usuário (slot -> nome/tipo) ---
+    private final List<String> nomesVariaveis = new ArrayList<>();
+    private final List<TipoDado> tiposVariaveis = new ArrayList<>();
+    private final Map<String, Integer> slotsVariaveis = new HashMap<>();
+
+    // --- Temporários (id -> tipo); o id 0 não é usado ---
+    private TipoDado[] tiposTemporarios = new TipoDado[16];
+    private int maiorTemporario;
+
+    // --- Rótulos ---
+    private int maiorRotulo;
+
+    // --- Tabela de constantes ---
+    private double[] valoresConstantes = new double[8];
+    private TipoDado[] tiposConstantes = new TipoDado[8];
+    private int totalConstantes;
+    private final Map<String, Integer> indiceConstantes = new HashMap<>();
+
+    public ProgramaIR() {
+        this(64);
+    }
+
+    public ProgramaIR(int capacidade) {
+        int c = Math.max(capacidade, 4);
+        this.opcodes = new int[c];
+        this.destinos = new int[c];
+        this.operandos1 = new int[c];
+        this.operandos2 = new int[c];
+    }
+
+    // =====================================================================
+    //  CODIFICAÇÃO DE OPERANDOS
+    // =====================================================================
+
+    public static int operando(int tipo, int valor) {
+        return (valor << BITS_TIPO) | tipo;
+    }
+
+    public static int tipoOperando(int operando) {
+        return operando & MASCARA_TIPO;
+    }
+
+    public static int valorOperando(int operando) {
+        return operando >> BITS_TIPO;
+    }
+
+    /** Variáveis e temporários: operandos que nomeiam uma posição de memória. */
+    public static boolean ehNome(int operando) {
+        int tipo = tipoOperando(operando);
+        return tipo == VARIAVEL || tipo == TEMPORARIO;
+    }
+
+    public static boolean ehConstante(int operando) {
+        int tipo = tipoOperando(operando);
+        return tipo == IMEDIATO || tipo == CONSTANTE;
+    }
+
+    public static boolean ehTemporario(int operando) {
+        return tipoOperando(operando) == TEMPORARIO;
+    }
+
+    public static boolean ehVariavel(int operando) {
+        return tipoOperando(operando) == VARIAVEL;
+    }
+
+    public static boolean ehRotulo(int operando) {
+        return tipoOperando(operando) == ROTULO;
+    }
+
+    // =====================================================================
+    //  NOMES, CONSTANTES E RÓTULOS
+    // =====================================================================
+
+    /** Retorna o operando da variável, registrando-a se ainda não existir. */
+    public int variavel(String nome, TipoDado tipo) {
+        Integer slot = slotsVariaveis.get(nome);
+        if (slot == null) {
+            slot = nomesVariaveis.size();
+            nomesVariaveis.add(nome);
+            tiposVariaveis.add(tipo);
+            slotsVariaveis.put(nome, slot);
+        }
+        return operando(VARIAVEL, slot);
+    }
+
+    /** Busca uma variável já registrada; retorna NENHUM se não existir. */
+    public int buscarVariavel(String nome) {
+        Integer slot = slotsVariaveis.get(nome);
+        return slot == null ? NENHUM : operando(VARIAVEL, slot);
+    }
+
+    public int temporario(int id) {
+        return operando(TEMPORARIO, id);
+    }
+
+    public int novoTemporario(TipoDado tipo) {
+        int id = maiorTemporario + 1;
+        registrarTemporario(id, tipo);
+        return operando(TEMPORARIO, id);
+    }
+
+    private void registrarTemporario(int id, TipoDado tipo) {
+        if (id >= tiposTemporarios.length) {
+            tiposTemporarios = Arrays.copyOf(tiposTemporarios, Math.max(id + 1, tiposTemporarios.length * 2));
+        }
+        if (tiposTemporarios[id] == null || tipo != TipoDado.INDETERMINADO) {
+            tiposTemporarios[id] = tipo;
+        }
+        maiorTemporario = Math.max(maiorTemporario, id);
+    }
+
+    public int rotulo(int id) {
+        maiorRotulo = Math.max(maiorRotulo, id);
+        return operando(ROTULO, id);
+    }
+
+    public int novoRotulo() {
+        return rotulo(maiorRotulo + 1);
+    }
+
+    /** Constante inteira: embutida no operando se couber, senão vai para a tabela. */
+    public int constanteInteira(int valor) {
+        if (valor >= IMEDIATO_MIN && valor <= IMEDIATO_MAX) {
+            return operando(IMEDIATO, valor);
+        }
+        return constanteTabela(valor, TipoDado.INTEIRO);
+    }
+
+    public int constanteReal(double valor) {
+        return constanteTabela(valor, TipoDado.REAL);
+    }
+
+    /** Constante do tipo informado (INTEIRO/BOOLEANO viram inteiros, REAL fica double). */
+    public int constante(double valor, TipoDado tipo) {
+        return tipo == TipoDado.REAL ? constanteReal(valor) : constanteInteira((int) valor);
+    }
+
+    private int constanteTabela(double valor, TipoDado tipo) {
+        String chave = tipo.name() + ":" + Double.doubleToLongBits(valor);
+        Integer indice = indiceConstantes.get(chave);
+        if (indice == null) {
+            if (totalConstantes == valoresConstantes.length) {
+                valoresConstantes = Arrays.copyOf(valoresConstantes, totalConstantes * 2);
+                tiposConstantes = Arrays.copyOf(tiposConstantes, totalConstantes * 2);
+            }
+            indice = totalConstantes++;
+            valoresConstantes[indice] = valor;
+            tiposConstantes[indice] = tipo;
+            indiceConstantes.put(chave, indice);
+        }
+        return operando(CONSTANTE, indice);
+    }
+
+    /** Valor de um operando constante (IMEDIATO ou CONSTANTE). */
+    public double valorConstante(int operando) {
+        if (tipoOperando(operando) == IMEDIATO) {
+            return valorOperando(operando);
+        }
+        return valoresConstantes[valorOperando(operando)];
+    }
+
+    public int valorInteiro(int operando) {
+        return (int) valorConstante(operando);
+    }
+
+    /** Tipo de dado de um operando. */
+    public TipoDado tipo(int operando) {
+        int valor = valorOperando(operando);
+        switch (tipoOperando(operando)) {
+            case VARIAVEL:
+                return tiposVariaveis.get(valor);
+            case TEMPORARIO: {
+                TipoDado tipo = valor < tiposTemporarios.length ? tiposTemporarios[valor] : null;
+                return tipo != null ? tipo : TipoDado.INTEIRO;
+            }
+            case IMEDIATO:
+                return TipoDado.INTEIRO;
+            case CONSTANTE:
+                return tiposConstantes[valor];
+            default:
+                return TipoDado.INDETERMINADO;
+        }
+    }
+
+    /** Nome textual do operando, como aparece no C3E e no Assembly. */
+    public String nome(int operando) {
+        int valor = valorOperando(operando);
+        switch (tipoOperando(operando)) {
+            case VARIAVEL:
+                return nomesVariaveis.get(valor);
+            case TEMPORARIO:
+                return "T" + valor;
+            case IMEDIATO:
+                return Integer.toString(valor);
+            case CONSTANTE:
+                return tiposConstantes[valor] == TipoDado.REAL
+                        ? Double.toString(valoresConstantes[valor])
+                        : Integer.toString((int) valoresConstantes[valor]);
+            case ROTULO:
+                return "L" + valor;
+            default:
+                return "";
+        }
+    }
+
+    public int getNumeroVariaveis() {
+        return nomesVariaveis.size();
+    }
+
+    public String getNomeVariavel(int slot) {
+        return nomesVariaveis.get(slot);
+    }
+
+    public TipoDado getTipoVariavel(int slot) {
+        return tiposVariaveis.get(slot);
+    }
+
+    public int getMaiorTemporario() {
+        return maiorTemporario;
+    }
+
+    public int getMaiorRotulo() {
+        return maiorRotulo;
+    }
+
+    // =====================================================================
+    //  ÍNDICES DENSOS (variáveis seguidas dos temporários)
+    // =====================================================================
+
+    /** Quantidade de nomes (variáveis + temporários) no espaço denso. */
+    public int totalNomes() {
+        return nomesVariaveis.size() + maiorTemporario;
+    }
+
+    /** Índice denso de uma variável/temporário, ou -1 para outros operandos. */
+    public int indiceDenso(int operando) {
+        switch (tipoOperando(operando)) {
+            case VARIAVEL:
+                return valorOperando(operando);
+            case TEMPORARIO:
+                return nomesVariaveis.size() + valorOperando(operando) - 1;
+            default:
+                return -1;
+        }
+    }
+
+    /** Inverso de {@link #indiceDenso}. */
+    public int operandoDenso(int indice) {
+        int variaveis = nomesVariaveis.size();
+        return indice < variaveis ? operando(VARIAVEL, indice) : operando(TEMPORARIO, indice - variaveis + 1);
+    }
+
+    // =====================================================================
+    //  INSTRUÇÕES
+    // =====================================================================
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public Opcode opcode(int i) {
+        return OPCODES[opcodes[i]];
+    }
+
+    public int destino(int i) {
+        return destinos[i];
+    }
+
+    public int operando1(int i) {
+        return operandos1[i];
+    }
+
+    public int operando2(int i) {
+        return operandos2[i];
+    }
+
+    private void garantirCapacidade(int n) {
+        if (n > opcodes.length) {
+            int c = Math.max(n, opcodes.length * 2);
+            opcodes = Arrays.copyOf(opcodes, c);
+            destinos = Arrays.copyOf(destinos, c);
+            operandos1 = Arrays.copyOf(operandos1, c);
+            operandos2 = Arrays.copyOf(operandos2, c);
+        }
+    }
+
+    /** Acrescenta uma instrução ao final e retorna sua posição. */
+    public int adicionar(Opcode opcode, int destino, int operando1, int operando2) {
+        garantirCapacidade(tamanho + 1);
+        definir(tamanho, opcode, destino, operando1, operando2);
+        return tamanho++;
+    }
+
+    /** Insere uma instrução na posição informada, deslocando as seguintes. */
+    public void inserir(int posicao, Opcode opcode, int destino, int operando1, int operando2) {
+        garantirCapacidade(tamanho + 1);
+        int n = tamanho - posicao;
+        System.arraycopy(opcodes, posicao, opcodes, posicao + 1, n);
+        System.arraycopy(destinos, posicao, destinos, posicao + 1, n);
+        System.arraycopy(operandos1, posicao, operandos1, posicao + 1, n);
+        System.arraycopy(operandos2, posicao, operandos2, posicao + 1, n);
+        tamanho++;
+        definir(posicao, opcode, destino, operando1, operando2);
+    }
+
+    /** Substitui a instrução da posição informada. */
+    public void definir(int i, Opcode opcode, int destino, int operando1, int operando2) {
+        opcodes[i] = opcode.ordinal();
+        destinos[i] = destino;
+        operandos1[i] = operando1;
+        operandos2[i] = operando2;
+    }
+
+    public void definirOperando1(int i, int operando) {
+        operandos1[i] = operando;
+    }
+
+    public void definirOperando2(int i, int operando) {
+        operandos2[i] = operando;
+    }
+
+    /** Transforma a instrução em NOP (removida de fato por {@link #compactar()}). */
+    public void remover(int i) {
+        definir(i, Opcode.NOP, NENHUM, NENHUM, NENHUM);
+    }
+
+    /**
+     * Descarta todas as instruções, mantendo variáveis, temporários, rótulos e
+     * constantes (usado por passos que reconstroem o código do zero).
+     */
+    public void limparInstrucoes() {
+        tamanho = 0;
+    }
+
+    /** Remove os NOPs, preservando a ordem das demais instruções. */
+    public void compactar() {
+        int j = 0;
+        for (int i = 0; i < tamanho; i++) {
+            if (opcodes[i] != Opcode.NOP.ordinal()) {
+                opcodes[j] = opcodes[i];
+                destinos[j] = destinos[i];
+                operandos1[j] = operandos1[i];
+                operandos2[j] = operandos2[i];
+                j++;
+            }
+        }
+        tamanho = j;
+    }
+
+    /**
+     * Mapa rótulo -> posição da instrução ROTULO (-1 se o rótulo não aparece).
+     */
+    public int[] posicoesRotulos() {
+        int[] posicoes = new int[maiorRotulo + 1];
+        Arrays.fill(posicoes, -1);
+        for (int i = 0; i < tamanho; i++) {
+            if (opcodes[i] == Opcode.ROTULO.ordinal()) {
+                posicoes[valorOperando(destinos[i])] = i;
+            }
+        }
+        return posicoes;
+    }
+
+    /** Cópia independente (instruções e tabelas de nomes). */
+    public ProgramaIR copiar() {
+        ProgramaIR copia = new ProgramaIR(tamanho);
+        copia.copiarDe(this);
+        return copia;
+    }
+
+    /**
+     * Substitui todo o conteúdo deste programa por uma cópia do outro (usado por
+     * passos que constroem um programa novo, como a volta da forma SSA).
+     */
+    public void copiarDe(ProgramaIR outro) {
+        tamanho = 0;
+        garantirCapacidade(outro.tamanho);
+        tamanho = outro.tamanho;
+        System.arraycopy(outro.opcodes, 0, opcodes, 0, tamanho);
+        System.arraycopy(outro.destinos, 0, destinos, 0, tamanho);
+        System.arraycopy(outro.operandos1, 0, operandos1, 0, tamanho);
+        System.arraycopy(outro.operandos2, 0, operandos2, 0, tamanho);
+        nomesVariaveis.clear();
+        nomesVariaveis.addAll(outro.nomesVariaveis);
+        tiposVariaveis.clear();
+        tiposVariaveis.addAll(outro.tiposVariaveis);
+        slotsVariaveis.clear();
+        slotsVariaveis.putAll(outro.slotsVariaveis);
+        tiposTemporarios = outro.tiposTemporarios.clone();
+        maiorTemporario = outro.maiorTemporario;
+        maiorRotulo = outro.maiorRotulo;
+        valoresConstantes = outro.valoresConstantes.clone();
+        tiposConstantes = outro.tiposConstantes.clone();
+        totalConstantes = outro.totalConstantes;
+        indiceConstantes.clear();
+        indiceConstantes.putAll(outro.indiceConstantes);
+    }
+
+    // =====================================================================
+    //  FORMA TEXTUAL (exibição)
+    // =====================================================================
+
+    /** Forma textual da instrução da posição informada. */
+    public InstrucaoC3E paraInstrucaoC3E(int i) {
+        return new InstrucaoC3E(opcode(i), nome(destinos[i]), nome(operandos1[i]), nome(operandos2[i]));
+    }
+
+    /** Lista textual equivalente (NOPs são omitidos). */
+    public List<InstrucaoC3E> paraC3E() {
+        List<InstrucaoC3E> lista = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            if (opcode(i) != Opcode.NOP) {
+                lista.add(paraInstrucaoC3E(i));
+            }
+        }
+        return lista;
+    }
+}
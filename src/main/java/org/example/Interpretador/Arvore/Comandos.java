@@ -0,0 +1,272 @@
+package org.example.Interpretador.Arvore;
+
+import org.example.AST.ASTNode;
+import org.example.AST.AtribuicaoNode;
+import org.example.AST.ComandoEscrevaNode;
+import org.example.AST.ComandoLeiaNode;
+import org.example.AST.CondicionalNode;
+import org.example.AST.IterativoNode;
+import org.example.Interpretador.ErroExecucao;
+
+import java.util.List;
+
+/**
+ * Comandos.java
+ * Nós de comando do {@link InterpretadorAST}. Como as expressões, cada
+ * comando começa como {@link NaoInicializado} e se troca pelo nó definitivo
+ * na primeira execução; atribuições e 'leia' resolvem nessa hora a posição e o
+ * tipo da variável de destino.
+ */
+final class Comandos {
+
+    private Comandos() {
+    }
+
+    private static NoComando criar(ASTNode no, Quadro quadro) {
+        if (no instanceof AtribuicaoNode atribuicao) {
+            String nome = atribuicao.getIdentificador().getLexema();
+            NoExpressao expressao = new Expressoes.NaoInicializada(atribuicao.getExpressaoRHS());
+            int posicao = quadro.posicaoInteiro(nome);
+            return posicao >= 0
+                    ? new AtribuicaoInteira(posicao, expressao)
+                    : new AtribuicaoReal(quadro.posicaoReal(nome), expressao);
+        }
+        if (no instanceof CondicionalNode condicional) {
+            return new Se(new Expressoes.NaoInicializada(condicional.getCondicao()),
+                    new NaoInicializado(condicional.getComandoEntao()),
+                    condicional.getComandoSenao() != null ? new NaoInicializado(condicional.getComandoSenao()) : null);
+        }
+        if (no instanceof IterativoNode iterativo) {
+            return new Enquanto(new Expressoes.NaoInicializada(iterativo.getCondicao()),
+                    new NaoInicializado(iterativo.getComandoCorpo()));
+        }
+        if (no instanceof ComandoLeiaNode leia) {
+            String nome = leia.getIdentificador().getLexema();
+            int posicao = quadro.posicaoInteiro(nome);
+            return posicao >= 0 ? new LeiaInteiro(posicao) : new LeiaReal(quadro.posicaoReal(nome));
+        }
+        if (no instanceof ComandoEscrevaNode escreva) {
+            return new Escreva(new Expressoes.NaoInicializada(escreva.getExpressao()));
+        }
+        throw new IllegalStateException("Comando não suportado: " + no.getClass().getSimpleName());
+    }
+
+    /** Comando ainda não executado: na primeira vez, troca-se pelo nó de {@link #criar}. */
+    static final class NaoInicializado extends NoComando {
+        private final ASTNode no;
+
+        NaoInicializado(ASTNode no) {
+            this.no = no;
+        }
+
+        @Override
+        void executar(Quadro quadro) throws ErroExecucao {
+            substituir(criar(no, quadro), quadro).executar(quadro);
+        }
+    }
+
+    /** Sequência de comandos do programa (a raiz da árvore). */
+    static final class Bloco extends NoComando {
+        private final NoComando[] comandos;
+
+        Bloco(List<ASTNode> comandos) {
+            this.comandos = new NoComando[comandos.size()];
+            for (int i = 0; i < this.comandos.length; i++) {
+                this.comandos[i] = adotar(new NaoInicializado(comandos.get(i)));
+            }
+        }
+
+        @Override
+        void executar(Quadro quadro) throws ErroExecucao {
+            for (NoComando comando : comandos) {
+                comando.executar(quadro);
+            }
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            for (int i = 0; i < comandos.length; i++) {
+                if (comandos[i] == antigo) {
+                    comandos[i] = (NoComando) novo;
+                    return;
+                }
+            }
+        }
+    }
+
+    static final class AtribuicaoInteira extends NoComando {
+        private final int posicao;
+        private NoExpressao expressao;
+
+        AtribuicaoInteira(int posicao, NoExpressao expressao) {
+            this.posicao = posicao;
+            this.expressao = adotar(expressao);
+        }
+
+        @Override
+        void executar(Quadro quadro) throws ErroExecucao {
+            try {
+                quadro.inteiros[posicao] = expressao.executarInteiro(quadro);
+            } catch (ResultadoInesperado e) {
+                // Valor REAL numa variável inteira: trunca, como a cópia REAL -> INTEIRO do C3E
+                quadro.inteiros[posicao] = (int) NoExpressao.real(e.valor);
+                quadro.desotimizacoes++;
+                substituir(new AtribuicaoTruncada(posicao, expressao), quadro);
+            }
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            expressao = (NoExpressao) novo;
+        }
+    }
+
+    /** Atribuição a variável inteira de uma expressão que já deu REAL. */
+    static final class AtribuicaoTruncada extends NoComando {
+        private final int posicao;
+        private NoExpressao expressao;
+
+        AtribuicaoTruncada(int posicao, NoExpressao expressao) {
+            this.posicao = posicao;
+            this.expressao = adotar(expressao);
+        }
+
+        @Override
+        void executar(Quadro quadro) throws ErroExecucao {
+            quadro.inteiros[posicao] = (int) expressao.executarReal(quadro);
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            expressao = (NoExpressao) novo;
+        }
+    }
+
+    static final class AtribuicaoReal extends NoComando {
+        private final int posicao;
+        private NoExpressao expressao;
+
+        AtribuicaoReal(int posicao, NoExpressao expressao) {
+            this.posicao = posicao;
+            this.expressao = adotar(expressao);
+        }
+
+        @Override
+        void executar(Quadro quadro) throws ErroExecucao {
+            quadro.reais[posicao] = expressao.executarReal(quadro);
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            expressao = (NoExpressao) novo;
+        }
+    }
+
+    static final class Se extends NoComando {
+        private NoExpressao condicao;
+        private NoComando entao;
+        private NoComando senao;
+
+        Se(NoExpressao condicao, NoComando entao, NoComando senao) {
+            this.condicao = adotar(condicao);
+            this.entao = adotar(entao);
+            this.senao = adotar(senao);
+        }
+
+        @Override
+        void executar(Quadro quadro) throws ErroExecucao {
+            if (condicao.executarCondicao(quadro)) {
+                entao.executar(quadro);
+            } else if (senao != null) {
+                senao.executar(quadro);
+            }
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            if (condicao == antigo) {
+                condicao = (NoExpressao) novo;
+            } else if (entao == antigo) {
+                entao = (NoComando) novo;
+            } else {
+                senao = (NoComando) novo;
+            }
+        }
+    }
+
+    static final class Enquanto extends NoComando {
+        private NoExpressao condicao;
+        private NoComando corpo;
+
+        Enquanto(NoExpressao condicao, NoComando corpo) {
+            this.condicao = adotar(condicao);
+            this.corpo = adotar(corpo);
+        }
+
+        @Override
+        void executar(Quadro quadro) throws ErroExecucao {
+            while (condicao.executarCondicao(quadro)) {
+                quadro.iteracao();
+                corpo.executar(quadro);
+            }
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            if (condicao == antigo) {
+                condicao = (NoExpressao) novo;
+            } else {
+                corpo = (NoComando) novo;
+            }
+        }
+    }
+
+    static final class LeiaInteiro extends NoComando {
+        private final int posicao;
+
+        LeiaInteiro(int posicao) {
+            this.posicao = posicao;
+        }
+
+        @Override
+        void executar(Quadro quadro) throws ErroExecucao {
+            quadro.inteiros[posicao] = quadro.es.lerInteiro();
+        }
+    }
+
+    static final class LeiaReal extends NoComando {
+        private final int posicao;
+
+        LeiaReal(int posicao) {
+            this.posicao = posicao;
+        }
+
+        @Override
+        void executar(Quadro quadro) throws ErroExecucao {
+            quadro.reais[posicao] = quadro.es.lerReal();
+        }
+    }
+
+    static final class Escreva extends NoComando {
+        private NoExpressao expressao;
+
+        Escreva(NoExpressao expressao) {
+            this.expressao = adotar(expressao);
+        }
+
+        @Override
+        void executar(Quadro quadro) throws ErroExecucao {
+            Object valor = expressao.executar(quadro);
+            if (valor instanceof Integer inteiro) {
+                quadro.es.escreverInteiro(inteiro);
+            } else {
+                quadro.es.escreverReal((Double) valor);
+            }
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            expressao = (NoExpressao) novo;
+        }
+    }
+}
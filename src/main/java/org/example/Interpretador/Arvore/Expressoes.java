@@ -0,0 +1,711 @@
+package org.example.Interpretador.Arvore;
+
+import org.example.AST.ASTNode;
+import org.example.AST.CondicaoBinariaNode;
+import org.example.AST.ExpressaoBinariaNode;
+import org.example.AST.ExpressaoCompostaNode;
+import org.example.AST.IdentificadorNode;
+import org.example.AST.LiteralNode;
+import org.example.AST.NotNode;
+import org.example.Interpretador.ErroExecucao;
+import org.example.TipoDado;
+
+/**
+ * Expressoes.java
+ * Nós de expressão do {@link InterpretadorAST} e as regras de especialização.
+ *
+ * Toda expressão começa como {@link NaoInicializada}, que só guarda o nó da
+ * AST. Na primeira execução ela se troca pelo nó correspondente:
+ *   - LiteralNode vira uma constante já convertida (o texto não é mais lido);
+ *   - IdentificadorNode vira uma leitura direta da posição da variável;
+ *   - ExpressaoBinariaNode e CondicaoBinariaNode viram nós de perfil, que
+ *     observam os tipos dos dois valores na primeira execução e se trocam
+ *     pela versão só de inteiros ou só de reais (inteiros com constante à
+ *     direita, como 'i + 1' ou 'i < 100', ganham uma versão própria).
+ * A versão de inteiros supõe que os filhos continuam dando inteiros; se um
+ * deles não der ({@link ResultadoInesperado}), o nó se desotimiza para a
+ * versão de reais e termina a operação com o valor já calculado.
+ *
+ * Semântica igual à do C3E: aritmética inteira de 32 bits com estouro
+ * circular, REAL se um dos lados for REAL, erro em DIV/RESTO inteiros por
+ * zero e em MIN_VALUE / -1, RESTO real sobre as partes inteiras, E/OR em
+ * curto-circuito e condições usadas como valor dando 1 ou 0.
+ */
+final class Expressoes {
+
+    private Expressoes() {
+    }
+
+    static final int SOMA = 0;
+    static final int SUBTRACAO = 1;
+    static final int MULTIPLICACAO = 2;
+    static final int DIVISAO = 3;
+    static final int RESTO = 4;
+
+    static final int IGUAL = 0;
+    static final int DIFERENTE = 1;
+    static final int MENOR = 2;
+    static final int MENOR_IGUAL = 3;
+    static final int MAIOR = 4;
+    static final int MAIOR_IGUAL = 5;
+
+    private static final Integer VERDADEIRO = 1;
+    private static final Integer FALSO = 0;
+
+    /** Cria o nó especializado para 'no'; os filhos começam não inicializados. */
+    private static NoExpressao criar(ASTNode no, Quadro quadro) {
+        if (no instanceof LiteralNode literal) {
+            return literal.getTipoInferido() == TipoDado.REAL
+                    ? new ConstanteReal(Double.parseDouble(literal.getValor()))
+                    : new ConstanteInteira(Integer.parseInt(literal.getValor()));
+        }
+        if (no instanceof IdentificadorNode identificador) {
+            String nome = identificador.getLexema();
+            int posicao = quadro.posicaoInteiro(nome);
+            return posicao >= 0 ? new LeituraInteira(posicao) : new LeituraReal(quadro.posicaoReal(nome));
+        }
+        if (no instanceof ExpressaoBinariaNode binaria) {
+            return new Aritmetica(operadorAritmetico(binaria.getOperador().getLexema()),
+                    new NaoInicializada(binaria.getOperando1()), new NaoInicializada(binaria.getOperando2()));
+        }
+        if (no instanceof CondicaoBinariaNode comparacao) {
+            return new Comparacao(operadorComparacao(comparacao.getOperador().getLexema()),
+                    new NaoInicializada(comparacao.getOperando1()), new NaoInicializada(comparacao.getOperando2()));
+        }
+        if (no instanceof ExpressaoCompostaNode composta) {
+            NoExpressao esquerda = new NaoInicializada(composta.getCondicaoEsquerda());
+            NoExpressao direita = new NaoInicializada(composta.getCondicaoDireita());
+            return "E".equalsIgnoreCase(composta.getOperadorComposto().getLexema())
+                    ? new E(esquerda, direita)
+                    : new Ou(esquerda, direita);
+        }
+        if (no instanceof NotNode not) {
+            return new Nao(new NaoInicializada(not.getCondicao()));
+        }
+        throw new IllegalStateException("Expressão não suportada: " + no.getClass().getSimpleName());
+    }
+
+    private static int operadorAritmetico(String lexema) {
+        return switch (lexema) {
+            case "+" -> SOMA;
+            case "-" -> SUBTRACAO;
+            case "*" -> MULTIPLICACAO;
+            case "/" -> DIVISAO;
+            case "RESTO" -> RESTO;
+            default -> throw new IllegalStateException("Operador aritmético desconhecido: " + lexema);
+        };
+    }
+
+    private static int operadorComparacao(String lexema) {
+        return switch (lexema) {
+            case "==" -> IGUAL;
+            case "!=" -> DIFERENTE;
+            case "<" -> MENOR;
+            case "<=" -> MENOR_IGUAL;
+            case ">" -> MAIOR;
+            case ">=" -> MAIOR_IGUAL;
+            default -> throw new IllegalStateException("Operador relacional desconhecido: " + lexema);
+        };
+    }
+
+    static int calcular(int operador, int a, int b) throws ErroExecucao {
+        switch (operador) {
+            case SOMA:
+                return a + b;
+            case SUBTRACAO:
+                return a - b;
+            case MULTIPLICACAO:
+                return a * b;
+            case DIVISAO:
+                verificarDivisao(a, b);
+                return a / b;
+            default:
+                verificarDivisao(a, b);
+                return a % b;
+        }
+    }
+
+    static double calcular(int operador, double a, double b) throws ErroExecucao {
+        switch (operador) {
+            case SOMA:
+                return a + b;
+            case SUBTRACAO:
+                return a - b;
+            case MULTIPLICACAO:
+                return a * b;
+            case DIVISAO:
+                return a / b;
+            default: {
+                int x = (int) a;
+                int y = (int) b;
+                verificarDivisao(x, y);
+                return x % y;
+            }
+        }
+    }
+
+    static boolean comparar(int operador, int a, int b) {
+        switch (operador) {
+            case IGUAL: return a == b;
+            case DIFERENTE: return a != b;
+            case MENOR: return a < b;
+            case MENOR_IGUAL: return a <= b;
+            case MAIOR: return a > b;
+            default: return a >= b;
+        }
+    }
+
+    static boolean comparar(int operador, double a, double b) {
+        switch (operador) {
+            case IGUAL: return a == b;
+            case DIFERENTE: return a != b;
+            case MENOR: return a < b;
+            case MENOR_IGUAL: return a <= b;
+            case MAIOR: return a > b;
+            default: return a >= b;
+        }
+    }
+
+    private static void verificarDivisao(int dividendo, int divisor) throws ErroExecucao {
+        if (divisor == 0) {
+            throw new ErroExecucao("Divisão por zero.");
+        }
+        if (dividendo == Integer.MIN_VALUE && divisor == -1) {
+            throw new ErroExecucao("Estouro na divisão inteira (" + dividendo + " / -1).");
+        }
+    }
+
+    // --- ESTADO INICIAL ---
+
+    /** Expressão ainda não executada: na primeira vez, troca-se pelo nó de {@link #criar}. */
+    static final class NaoInicializada extends NoExpressao {
+        private final ASTNode no;
+
+        NaoInicializada(ASTNode no) {
+            this.no = no;
+        }
+
+        private NoExpressao especializar(Quadro quadro) {
+            return substituir(criar(no, quadro), quadro);
+        }
+
+        @Override
+        Object executar(Quadro quadro) throws ErroExecucao {
+            return especializar(quadro).executar(quadro);
+        }
+
+        @Override
+        int executarInteiro(Quadro quadro) throws ErroExecucao, ResultadoInesperado {
+            return especializar(quadro).executarInteiro(quadro);
+        }
+
+        @Override
+        double executarReal(Quadro quadro) throws ErroExecucao {
+            return especializar(quadro).executarReal(quadro);
+        }
+
+        @Override
+        boolean executarCondicao(Quadro quadro) throws ErroExecucao {
+            return especializar(quadro).executarCondicao(quadro);
+        }
+    }
+
+    // --- BASES ---
+
+    /** Expressão que normalmente dá inteiro: as outras formas saem de {@link #executarInteiro}. */
+    abstract static class ExpressaoInteira extends NoExpressao {
+        @Override
+        abstract int executarInteiro(Quadro quadro) throws ErroExecucao, ResultadoInesperado;
+
+        @Override
+        Object executar(Quadro quadro) throws ErroExecucao {
+            try {
+                return executarInteiro(quadro);
+            } catch (ResultadoInesperado e) {
+                return e.valor;
+            }
+        }
+
+        @Override
+        double executarReal(Quadro quadro) throws ErroExecucao {
+            try {
+                return executarInteiro(quadro);
+            } catch (ResultadoInesperado e) {
+                return real(e.valor);
+            }
+        }
+
+        @Override
+        boolean executarCondicao(Quadro quadro) throws ErroExecucao {
+            try {
+                return executarInteiro(quadro) != 0;
+            } catch (ResultadoInesperado e) {
+                return real(e.valor) != 0;
+            }
+        }
+    }
+
+    /** Expressão REAL: as outras formas saem de {@link #executarReal}. */
+    abstract static class ExpressaoReal extends NoExpressao {
+        @Override
+        abstract double executarReal(Quadro quadro) throws ErroExecucao;
+
+        @Override
+        Object executar(Quadro quadro) throws ErroExecucao {
+            return executarReal(quadro);
+        }
+
+        @Override
+        int executarInteiro(Quadro quadro) throws ErroExecucao, ResultadoInesperado {
+            throw new ResultadoInesperado(executarReal(quadro));
+        }
+
+        @Override
+        boolean executarCondicao(Quadro quadro) throws ErroExecucao {
+            return executarReal(quadro) != 0;
+        }
+    }
+
+    /** Comparações e E/OR/NOT: valem 1 ou 0 quando usadas como valor. */
+    abstract static class Condicao extends NoExpressao {
+        @Override
+        abstract boolean executarCondicao(Quadro quadro) throws ErroExecucao;
+
+        @Override
+        Object executar(Quadro quadro) throws ErroExecucao {
+            return executarCondicao(quadro) ? VERDADEIRO : FALSO;
+        }
+
+        @Override
+        int executarInteiro(Quadro quadro) throws ErroExecucao {
+            return executarCondicao(quadro) ? 1 : 0;
+        }
+
+        @Override
+        double executarReal(Quadro quadro) throws ErroExecucao {
+            return executarCondicao(quadro) ? 1 : 0;
+        }
+    }
+
+    // --- FOLHAS ---
+
+    static final class ConstanteInteira extends ExpressaoInteira {
+        final int valor;
+        private final Integer encaixotado;
+
+        ConstanteInteira(int valor) {
+            this.valor = valor;
+            this.encaixotado = valor;
+        }
+
+        @Override
+        int executarInteiro(Quadro quadro) {
+            return valor;
+        }
+
+        @Override
+        Object executar(Quadro quadro) {
+            return encaixotado;
+        }
+    }
+
+    static final class ConstanteReal extends ExpressaoReal {
+        private final double valor;
+        private final Double encaixotado;
+
+        ConstanteReal(double valor) {
+            this.valor = valor;
+            this.encaixotado = valor;
+        }
+
+        @Override
+        double executarReal(Quadro quadro) {
+            return valor;
+        }
+
+        @Override
+        Object executar(Quadro quadro) {
+            return encaixotado;
+        }
+    }
+
+    static final class LeituraInteira extends ExpressaoInteira {
+        private final int posicao;
+
+        LeituraInteira(int posicao) {
+            this.posicao = posicao;
+        }
+
+        @Override
+        int executarInteiro(Quadro quadro) {
+            return quadro.inteiros[posicao];
+        }
+    }
+
+    static final class LeituraReal extends ExpressaoReal {
+        private final int posicao;
+
+        LeituraReal(int posicao) {
+            this.posicao = posicao;
+        }
+
+        @Override
+        double executarReal(Quadro quadro) {
+            return quadro.reais[posicao];
+        }
+    }
+
+    // --- ARITMÉTICA ---
+
+    /** Operação aritmética ainda sem perfil: escolhe a versão pelos tipos da primeira execução. */
+    static final class Aritmetica extends NoExpressao {
+        private final int operador;
+        private NoExpressao esquerda;
+        private NoExpressao direita;
+
+        Aritmetica(int operador, NoExpressao esquerda, NoExpressao direita) {
+            this.operador = operador;
+            this.esquerda = adotar(esquerda);
+            this.direita = adotar(direita);
+        }
+
+        @Override
+        Object executar(Quadro quadro) throws ErroExecucao {
+            Object a = esquerda.executar(quadro);
+            Object b = direita.executar(quadro);
+            if (a instanceof Integer x && b instanceof Integer y) {
+                substituir(direita instanceof ConstanteInteira constante
+                        ? new AritmeticaInteiraConstante(operador, esquerda, constante.valor)
+                        : new AritmeticaInteira(operador, esquerda, direita), quadro);
+                return calcular(operador, (int) x, (int) y);
+            }
+            substituir(new AritmeticaReal(operador, esquerda, direita), quadro);
+            return calcular(operador, real(a), real(b));
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            if (esquerda == antigo) {
+                esquerda = (NoExpressao) novo;
+            } else {
+                direita = (NoExpressao) novo;
+            }
+        }
+    }
+
+    static final class AritmeticaInteira extends ExpressaoInteira {
+        private final int operador;
+        private NoExpressao esquerda;
+        private NoExpressao direita;
+
+        AritmeticaInteira(int operador, NoExpressao esquerda, NoExpressao direita) {
+            this.operador = operador;
+            this.esquerda = adotar(esquerda);
+            this.direita = adotar(direita);
+        }
+
+        @Override
+        int executarInteiro(Quadro quadro) throws ErroExecucao, ResultadoInesperado {
+            int a;
+            try {
+                a = esquerda.executarInteiro(quadro);
+            } catch (ResultadoInesperado e) {
+                throw new ResultadoInesperado(desotimizar(quadro).calcular(real(e.valor), direita.executarReal(quadro)));
+            }
+            int b;
+            try {
+                b = direita.executarInteiro(quadro);
+            } catch (ResultadoInesperado e) {
+                throw new ResultadoInesperado(desotimizar(quadro).calcular(a, real(e.valor)));
+            }
+            return calcular(operador, a, b);
+        }
+
+        private AritmeticaReal desotimizar(Quadro quadro) {
+            quadro.desotimizacoes++;
+            return substituir(new AritmeticaReal(operador, esquerda, direita), quadro);
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            if (esquerda == antigo) {
+                esquerda = (NoExpressao) novo;
+            } else {
+                direita = (NoExpressao) novo;
+            }
+        }
+    }
+
+    /** Operação inteira com constante à direita: um filho a menos para visitar. */
+    static final class AritmeticaInteiraConstante extends ExpressaoInteira {
+        private final int operador;
+        private NoExpressao esquerda;
+        private final int constante;
+
+        AritmeticaInteiraConstante(int operador, NoExpressao esquerda, int constante) {
+            this.operador = operador;
+            this.esquerda = adotar(esquerda);
+            this.constante = constante;
+        }
+
+        @Override
+        int executarInteiro(Quadro quadro) throws ErroExecucao, ResultadoInesperado {
+            int a;
+            try {
+                a = esquerda.executarInteiro(quadro);
+            } catch (ResultadoInesperado e) {
+                quadro.desotimizacoes++;
+                AritmeticaReal versaoReal = substituir(
+                        new AritmeticaReal(operador, esquerda, new ConstanteInteira(constante)), quadro);
+                throw new ResultadoInesperado(versaoReal.calcular(real(e.valor), constante));
+            }
+            return calcular(operador, a, constante);
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            esquerda = (NoExpressao) novo;
+        }
+    }
+
+    static final class AritmeticaReal extends ExpressaoReal {
+        private final int operador;
+        private NoExpressao esquerda;
+        private NoExpressao direita;
+
+        AritmeticaReal(int operador, NoExpressao esquerda, NoExpressao direita) {
+            this.operador = operador;
+            this.esquerda = adotar(esquerda);
+            this.direita = adotar(direita);
+        }
+
+        @Override
+        double executarReal(Quadro quadro) throws ErroExecucao {
+            return calcular(esquerda.executarReal(quadro), direita.executarReal(quadro));
+        }
+
+        /** A operação sobre valores já calculados (usada também por quem se desotimizou para este nó). */
+        double calcular(double a, double b) throws ErroExecucao {
+            return Expressoes.calcular(operador, a, b);
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            if (esquerda == antigo) {
+                esquerda = (NoExpressao) novo;
+            } else {
+                direita = (NoExpressao) novo;
+            }
+        }
+    }
+
+    // --- COMPARAÇÕES ---
+
+    /** Comparação ainda sem perfil: escolhe a versão pelos tipos da primeira execução. */
+    static final class Comparacao extends Condicao {
+        private final int operador;
+        private NoExpressao esquerda;
+        private NoExpressao direita;
+
+        Comparacao(int operador, NoExpressao esquerda, NoExpressao direita) {
+            this.operador = operador;
+            this.esquerda = adotar(esquerda);
+            this.direita = adotar(direita);
+        }
+
+        @Override
+        boolean executarCondicao(Quadro quadro) throws ErroExecucao {
+            Object a = esquerda.executar(quadro);
+            Object b = direita.executar(quadro);
+            if (a instanceof Integer x && b instanceof Integer y) {
+                substituir(direita instanceof ConstanteInteira constante
+                        ? new ComparacaoInteiraConstante(operador, esquerda, constante.valor)
+                        : new ComparacaoInteira(operador, esquerda, direita), quadro);
+                return comparar(operador, (int) x, (int) y);
+            }
+            substituir(new ComparacaoReal(operador, esquerda, direita), quadro);
+            return comparar(operador, real(a), real(b));
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            if (esquerda == antigo) {
+                esquerda = (NoExpressao) novo;
+            } else {
+                direita = (NoExpressao) novo;
+            }
+        }
+    }
+
+    static final class ComparacaoInteira extends Condicao {
+        private final int operador;
+        private NoExpressao esquerda;
+        private NoExpressao direita;
+
+        ComparacaoInteira(int operador, NoExpressao esquerda, NoExpressao direita) {
+            this.operador = operador;
+            this.esquerda = adotar(esquerda);
+            this.direita = adotar(direita);
+        }
+
+        @Override
+        boolean executarCondicao(Quadro quadro) throws ErroExecucao {
+            int a;
+            try {
+                a = esquerda.executarInteiro(quadro);
+            } catch (ResultadoInesperado e) {
+                return desotimizar(quadro).comparar(real(e.valor), direita.executarReal(quadro));
+            }
+            int b;
+            try {
+                b = direita.executarInteiro(quadro);
+            } catch (ResultadoInesperado e) {
+                return desotimizar(quadro).comparar(a, real(e.valor));
+            }
+            return comparar(operador, a, b);
+        }
+
+        private ComparacaoReal desotimizar(Quadro quadro) {
+            quadro.desotimizacoes++;
+            return substituir(new ComparacaoReal(operador, esquerda, direita), quadro);
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            if (esquerda == antigo) {
+                esquerda = (NoExpressao) novo;
+            } else {
+                direita = (NoExpressao) novo;
+            }
+        }
+    }
+
+    static final class ComparacaoInteiraConstante extends Condicao {
+        private final int operador;
+        private NoExpressao esquerda;
+        private final int constante;
+
+        ComparacaoInteiraConstante(int operador, NoExpressao esquerda, int constante) {
+            this.operador = operador;
+            this.esquerda = adotar(esquerda);
+            this.constante = constante;
+        }
+
+        @Override
+        boolean executarCondicao(Quadro quadro) throws ErroExecucao {
+            int a;
+            try {
+                a = esquerda.executarInteiro(quadro);
+            } catch (ResultadoInesperado e) {
+                quadro.desotimizacoes++;
+                ComparacaoReal versaoReal = substituir(
+                        new ComparacaoReal(operador, esquerda, new ConstanteInteira(constante)), quadro);
+                return versaoReal.comparar(real(e.valor), constante);
+            }
+            return comparar(operador, a, constante);
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            esquerda = (NoExpressao) novo;
+        }
+    }
+
+    static final class ComparacaoReal extends Condicao {
+        private final int operador;
+        private NoExpressao esquerda;
+        private NoExpressao direita;
+
+        ComparacaoReal(int operador, NoExpressao esquerda, NoExpressao direita) {
+            this.operador = operador;
+            this.esquerda = adotar(esquerda);
+            this.direita = adotar(direita);
+        }
+
+        @Override
+        boolean executarCondicao(Quadro quadro) throws ErroExecucao {
+            return comparar(esquerda.executarReal(quadro), direita.executarReal(quadro));
+        }
+
+        boolean comparar(double a, double b) {
+            return Expressoes.comparar(operador, a, b);
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            if (esquerda == antigo) {
+                esquerda = (NoExpressao) novo;
+            } else {
+                direita = (NoExpressao) novo;
+            }
+        }
+    }
+
+    // --- E / OR / NOT ---
+
+    static final class E extends Condicao {
+        private NoExpressao esquerda;
+        private NoExpressao direita;
+
+        E(NoExpressao esquerda, NoExpressao direita) {
+            this.esquerda = adotar(esquerda);
+            this.direita = adotar(direita);
+        }
+
+        @Override
+        boolean executarCondicao(Quadro quadro) throws ErroExecucao {
+            return esquerda.executarCondicao(quadro) && direita.executarCondicao(quadro);
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            if (esquerda == antigo) {
+                esquerda = (NoExpressao) novo;
+            } else {
+                direita = (NoExpressao) novo;
+            }
+        }
+    }
+
+    static final class Ou extends Condicao {
+        private NoExpressao esquerda;
+        private NoExpressao direita;
+
+        Ou(NoExpressao esquerda, NoExpressao direita) {
+            this.esquerda = adotar(esquerda);
+            this.direita = adotar(direita);
+        }
+
+        @Override
+        boolean executarCondicao(Quadro quadro) throws ErroExecucao {
+            return esquerda.executarCondicao(quadro) || direita.executarCondicao(quadro);
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            if (esquerda == antigo) {
+                esquerda = (NoExpressao) novo;
+            } else {
+                direita = (NoExpressao) novo;
+            }
+        }
+    }
+
+    static final class Nao extends Condicao {
+        private NoExpressao condicao;
+
+        Nao(NoExpressao condicao) {
+            this.condicao = adotar(condicao);
+        }
+
+        @Override
+        boolean executarCondicao(Quadro quadro) throws ErroExecucao {
+            return !condicao.executarCondicao(quadro);
+        }
+
+        @Override
+        void substituirFilho(No antigo, No novo) {
+            condicao = (NoExpressao) novo;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.Interpretador.Arvore;
+
+import org.example.AST.ProgramaNode;
+import org.example.EntradaTabelaSimbolos;
+import org.example.Interpretador.EntradaSaida;
+import org.example.Interpretador.ErroExecucao;
+import org.example.TabelaSimbolos;
+import org.example.TipoDado;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * InterpretadorAST.java
+ * Executa a AST diretamente, depois da análise semântica e sem gerar C3E:
+ * para rodar um programa uma vez, é o caminho com menos trabalho antes da
+ * primeira instrução.
+ *
+ * A AST vira uma árvore de execução paralela ({@link No}) que se reescreve
+ * enquanto roda: cada nó começa genérico e, na primeira execução, troca-se
+ * por uma versão especializada no que observou (constante já convertida,
+ * posição da variável resolvida, operação só de inteiros ou só de reais).
+ * Se uma suposição falha, o nó volta para uma versão mais geral
+ * (desotimização). A árvore reescrita é mantida entre execuções, então só a
+ * primeira paga pelas especializações.
+ *
+ * Mesma semântica do {@link org.example.Interpretador.InterpretadorC3E};
+ * veja {@link Expressoes}.
+ */
+public final class InterpretadorAST {
+
+    private final Comandos.Bloco raiz;
+    private final Map<String, Integer> posicoesInteiros = new HashMap<>();
+    private final Map<String, Integer> posicoesReais = new HashMap<>();
+    private long limiteIteracoes = Long.MAX_VALUE;
+    private Quadro ultimoQuadro;
+    private int reescritas;
+    private int desotimizacoes;
+
+    /** 'tabelaSimbolos' é a da análise semântica do programa (só as variáveis declaradas são usadas). */
+    public InterpretadorAST(ProgramaNode programa, TabelaSimbolos tabelaSimbolos) {
+        // Mesma ordem de variáveis do ProgramaIR
+        List<EntradaTabelaSimbolos> entradas = new ArrayList<>(tabelaSimbolos.getEntradas());
+        entradas.sort(Comparator.comparing(EntradaTabelaSimbolos::getLexema));
+        for (EntradaTabelaSimbolos entrada : entradas) {
+            if (!"temp".equals(entrada.getEscopo())) {
+                Map<String, Integer> posicoes = entrada.getTipo() == TipoDado.REAL ? posicoesReais : posicoesInteiros;
+                posicoes.putIfAbsent(entrada.getLexema(), posicoes.size());
+            }
+        }
+        this.raiz = new Comandos.Bloco(programa.getComandos());
+        this.ultimoQuadro = new Quadro(posicoesInteiros, posicoesReais, null, limiteIteracoes);
+    }
+
+    /** Interrompe a execução com erro depois de 'limite' voltas de 'enquanto' (útil contra laços infinitos). */
+    public void setLimiteIteracoes(long limite) {
+        this.limiteIteracoes = limite;
+    }
+
+    /** Executa com as variáveis zeradas. */
+    public void executar(EntradaSaida es) throws ErroExecucao {
+        Quadro quadro = new Quadro(posicoesInteiros, posicoesReais, es, limiteIteracoes);
+        ultimoQuadro = quadro;
+        try {
+            raiz.executar(quadro);
+        } finally {
+            reescritas += quadro.reescritas;
+            desotimizacoes += quadro.desotimizacoes;
+        }
+    }
+
+    /** Voltas de 'enquanto' na última chamada de {@link #executar}. */
+    public long getIteracoesExecutadas() {
+        return ultimoQuadro.iteracoes;
+    }
+
+    /** Nós trocados por outros desde a criação (especializações e desotimizações). */
+    public int getReescritas() {
+        return reescritas;
+    }
+
+    /** Especializações desfeitas porque a suposição delas falhou. */
+    public int getDesotimizacoes() {
+        return desotimizacoes;
+    }
+
+    /** Valor final de uma variável do programa, após {@link #executar}. */
+    public double valorVariavel(String nome) {
+        Integer posicao = posicoesInteiros.get(nome);
+        if (posicao != null) {
+            return ultimoQuadro.inteiros[posicao];
+        }
+        posicao = posicoesReais.get(nome);
+        if (posicao == null) {
+            throw new IllegalArgumentException("Variável não declarada: " + nome);
+        }
+        return ultimoQuadro.reais[posicao];
+    }
+}
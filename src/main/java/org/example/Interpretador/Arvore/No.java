@@ -0,0 +1,36 @@
+package org.example.Interpretador.Arvore;
+
+/**
+ * No.java
+ * Nó da árvore de execução do {@link InterpretadorAST}. Cada nó conhece o
+ * pai para poder se trocar, durante a execução, por uma versão especializada
+ * (ou de volta por uma genérica, quando uma suposição deixa de valer).
+ */
+abstract class No {
+
+    private No pai;
+
+    /** Registra 'filho' como filho deste nó; devolve o próprio filho. */
+    final <T extends No> T adotar(T filho) {
+        if (filho != null) {
+            ((No) filho).pai = this;
+        }
+        return filho;
+    }
+
+    /**
+     * Põe 'novo' no lugar deste nó e devolve 'novo', para que a execução em
+     * curso continue nele. Este nó deixa de fazer parte da árvore.
+     */
+    final <T extends No> T substituir(T novo, Quadro quadro) {
+        pai.substituirFilho(this, novo);
+        pai.adotar(novo);
+        quadro.reescritas++;
+        return novo;
+    }
+
+    /** Troca o filho 'antigo' por 'novo' (comparação por identidade). */
+    void substituirFilho(No antigo, No novo) {
+        throw new IllegalStateException(getClass().getSimpleName() + " não tem filhos substituíveis.");
+    }
+}
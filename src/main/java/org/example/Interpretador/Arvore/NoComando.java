@@ -0,0 +1,12 @@
+package org.example.Interpretador.Arvore;
+
+import org.example.Interpretador.ErroExecucao;
+
+/**
+ * NoComando.java
+ * Nó que executa um comando (atribuição, se, enquanto, leia, escreva).
+ */
+abstract class NoComando extends No {
+
+    abstract void executar(Quadro quadro) throws ErroExecucao;
+}
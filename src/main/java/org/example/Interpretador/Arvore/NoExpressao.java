@@ -0,0 +1,41 @@
+package org.example.Interpretador.Arvore;
+
+import org.example.Interpretador.ErroExecucao;
+
+/**
+ * NoExpressao.java
+ * Nó que calcula um valor: Integer (INTEIRO, CARACTER, BOOLEANO) ou Double
+ * (REAL). Comparações e E/OR/NOT também são expressões, de valor 1 ou 0.
+ *
+ * {@link #executar} é o caminho genérico, com o valor encaixotado. Os nós
+ * especializados sobrescrevem as versões primitivas, que são as usadas pelos
+ * pais também especializados; as implementações daqui só servem aos nós que
+ * ainda não se especializaram.
+ */
+abstract class NoExpressao extends No {
+
+    abstract Object executar(Quadro quadro) throws ErroExecucao;
+
+    /** O valor como int; se ele não for inteiro, lança {@link ResultadoInesperado} com o valor calculado. */
+    int executarInteiro(Quadro quadro) throws ErroExecucao, ResultadoInesperado {
+        Object valor = executar(quadro);
+        if (valor instanceof Integer inteiro) {
+            return inteiro;
+        }
+        throw new ResultadoInesperado(valor);
+    }
+
+    /** O valor como double (inteiros são convertidos, como em INTEIRO -> REAL no C3E). */
+    double executarReal(Quadro quadro) throws ErroExecucao {
+        return real(executar(quadro));
+    }
+
+    /** O valor usado como condição de 'se'/'enquanto': verdadeiro se diferente de zero. */
+    boolean executarCondicao(Quadro quadro) throws ErroExecucao {
+        return real(executar(quadro)) != 0;
+    }
+
+    static double real(Object valor) {
+        return valor instanceof Integer inteiro ? inteiro : (Double) valor;
+    }
+}
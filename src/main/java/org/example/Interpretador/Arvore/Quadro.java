@@ -0,0 +1,64 @@
+package org.example.Interpretador.Arvore;
+
+import org.example.Interpretador.EntradaSaida;
+import org.example.Interpretador.ErroExecucao;
+
+import java.util.Map;
+
+/**
+ * Quadro.java
+ * Estado de uma execução do {@link InterpretadorAST}: as variáveis, em dois
+ * vetores separados por tipo (INTEIRO, CARACTER e BOOLEANO em 'inteiros',
+ * REAL em 'reais'), o canal de E/S e os contadores.
+ *
+ * As posições das variáveis são as mesmas em todas as execuções; os nós de
+ * leitura e de atribuição consultam o nome uma única vez, na primeira
+ * execução, e guardam a posição.
+ */
+final class Quadro {
+
+    final int[] inteiros;
+    final double[] reais;
+    final EntradaSaida es;
+
+    private final Map<String, Integer> posicoesInteiros;
+    private final Map<String, Integer> posicoesReais;
+    private final long limiteIteracoes;
+    long iteracoes;
+    int reescritas;
+    int desotimizacoes;
+
+    Quadro(Map<String, Integer> posicoesInteiros, Map<String, Integer> posicoesReais,
+           EntradaSaida es, long limiteIteracoes) {
+        this.posicoesInteiros = posicoesInteiros;
+        this.posicoesReais = posicoesReais;
+        this.inteiros = new int[posicoesInteiros.size()];
+        this.reais = new double[posicoesReais.size()];
+        this.es = es;
+        this.limiteIteracoes = limiteIteracoes;
+    }
+
+    /** Posição da variável em 'inteiros', ou -1 se ela for REAL. */
+    int posicaoInteiro(String nome) {
+        Integer posicao = posicoesInteiros.get(nome);
+        if (posicao != null) {
+            return posicao;
+        }
+        if (!posicoesReais.containsKey(nome)) {
+            throw new IllegalStateException("Variável não declarada: " + nome);
+        }
+        return -1;
+    }
+
+    /** Posição da variável REAL 'nome' em 'reais'. */
+    int posicaoReal(String nome) {
+        return posicoesReais.get(nome);
+    }
+
+    /** Conta uma volta de 'enquanto': laços são o único jeito de um programa não terminar. */
+    void iteracao() throws ErroExecucao {
+        if (++iteracoes > limiteIteracoes) {
+            throw new ErroExecucao("Limite de " + limiteIteracoes + " iterações excedido.");
+        }
+    }
+}
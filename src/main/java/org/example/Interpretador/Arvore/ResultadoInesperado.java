@@ -0,0 +1,21 @@
+package org.example.Interpretador.Arvore;
+
+/**
+ * ResultadoInesperado.java
+ * Lançada por {@link NoExpressao#executarInteiro} quando o valor calculado não
+ * é inteiro. Leva o valor junto, para que o nó que pediu um inteiro possa se
+ * desotimizar e terminar a operação sem reavaliar nada.
+ *
+ * Sem pilha de chamadas: é controle de fluxo, não erro.
+ */
+final class ResultadoInesperado extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    final Object valor;
+
+    ResultadoInesperado(Object valor) {
+        super(null, null, false, false);
+        this.valor = valor;
+    }
+}
@@ -0,0 +1,356 @@
+package org.example.Interpretador;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+import org.example.TipoDado;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.example.Interpretador.ProgramaBytecode.*;
+
+/**
+ * CompiladorBytecode.java
+ * Traduz um ProgramaIR para o {@link ProgramaBytecode} da
+ * {@link MaquinaRegistradores}.
+ *
+ * A tradução base é a mesma do {@link InterpretadorC3E} (um registrador por
+ * nome, constantes em registradores preenchidos, opcodes especializados pelo
+ * tipo, conversões explícitas), mas com as instruções empacotadas em um long
+ * e com superinstruções para os padrões mais comuns do C3E gerado:
+ *   - comparação seguida de JMPFALSE/JMPTRUE sobre o seu temporário vira um
+ *     único salto com comparação (JMPFALSE só com inteiros: com reais, a
+ *     comparação negada difere para NaN);
+ *   - operação seguida de "x = t" (t temporário usado só ali) escreve direto
+ *     em x, o "carrega-soma-guarda" de uma máquina de pilha em uma instrução;
+ *   - soma e subtração com constante inteira de 16 bits levam o imediato na
+ *     própria instrução (ADD_IK), assim como comparações em saltos (SALTO_*_IK);
+ *   - "x = x + k" seguido de JMP, o fim típico de um 'enquanto', vira
+ *     INCREMENTO_SALTO.
+ */
+public final class CompiladorBytecode {
+
+    private final ProgramaIR ir;
+    private final int[] registradorDoNome;
+    private final int[] usos;                   // leituras por índice denso
+    private int[] inteiros = new int[16];
+    private double[] reais = new double[16];
+    private int totalInteiros;
+    private int totalReais;
+    private final Map<Double, Integer> constantesInteiras = new HashMap<>();
+    private final Map<Double, Integer> constantesReais = new HashMap<>();
+
+    private long[] codigo = new long[64];
+    private int tamanho;
+    private int inicioBloco;                    // posição do último rótulo: instruções antes dela não são fundidas
+    private int superinstrucoes;
+
+    private CompiladorBytecode(ProgramaIR ir) {
+        this.ir = ir;
+        this.registradorDoNome = new int[ir.totalNomes()];
+        for (int n = 0; n < ir.totalNomes(); n++) {
+            registradorDoNome[n] = ehReal(ir.operandoDenso(n)) ? novoReal(0) : novoInteiro(0);
+        }
+        this.usos = new int[ir.totalNomes()];
+        for (int i = 0; i < ir.tamanho(); i++) {
+            int lidos = ir.opcode(i).numeroOperandosLidos();
+            if (lidos >= 1 && ProgramaIR.ehNome(ir.operando1(i))) {
+                usos[ir.indiceDenso(ir.operando1(i))]++;
+            }
+            if (lidos >= 2 && ProgramaIR.ehNome(ir.operando2(i))) {
+                usos[ir.indiceDenso(ir.operando2(i))]++;
+            }
+        }
+    }
+
+    public static ProgramaBytecode compilar(ProgramaIR ir) {
+        return new CompiladorBytecode(ir).traduzir();
+    }
+
+    private ProgramaBytecode traduzir() {
+        int[] posicaoRotulo = new int[ir.getMaiorRotulo() + 1];
+        for (int i = 0; i < ir.tamanho(); i++) {
+            Opcode op = ir.opcode(i);
+            int destino = ir.destino(i);
+            int a = ir.operando1(i);
+            int b = ir.operando2(i);
+            switch (op) {
+                case NOP:
+                    break;
+                case ROTULO:
+                    posicaoRotulo[ProgramaIR.valorOperando(destino)] = tamanho;
+                    inicioBloco = tamanho;
+                    break;
+                case JMP:
+                    traduzirSalto(ProgramaIR.valorOperando(destino));
+                    break;
+                case JMPFALSE:
+                case JMPTRUE: {
+                    boolean real = ehReal(a);
+                    int codigo = op == Opcode.JMPFALSE
+                            ? (real ? SALTO_ZERO_R : SALTO_ZERO_I)
+                            : (real ? SALTO_NAO_ZERO_R : SALTO_NAO_ZERO_I);
+                    emitir(codigo, ProgramaIR.valorOperando(destino), slot(a, real), 0);
+                    break;
+                }
+                case WRITE:
+                    emitir(ehReal(a) ? ESCREVER_R : ESCREVER_I, 0, slot(a, ehReal(a)), 0);
+                    break;
+                default:
+                    if (op.ehSaltoComparacao()) {
+                        emitirSaltoComparacao(op.comparacaoDoSalto(), ProgramaIR.valorOperando(destino), a, b);
+                        break;
+                    }
+                    if (op.ehComparacao() && fundirComSalto(i)) {
+                        i++;
+                        break;
+                    }
+                    if (op.defineDestino() && absorverCopia(i)) {
+                        destino = ir.destino(i + 1);
+                        i++;
+                    }
+                    traduzirComDestino(op, destino, a, b);
+                    break;
+            }
+        }
+        emitir(FIM, 0, 0, 0);
+
+        if (totalInteiros > MAIOR_REGISTRADOR + 1 || totalReais > MAIOR_REGISTRADOR + 1 || tamanho > MAIOR_ALVO) {
+            throw new IllegalArgumentException("Programa grande demais para o bytecode: " + totalInteiros
+                    + " registradores inteiros, " + totalReais + " reais, " + tamanho + " instruções.");
+        }
+
+        // Alvos dos saltos: número do rótulo -> posição no código
+        for (int pc = 0; pc < tamanho; pc++) {
+            long w = codigo[pc];
+            if (ehSalto(ProgramaBytecode.codigo(w))) {
+                codigo[pc] = instrucao(ProgramaBytecode.codigo(w), posicaoRotulo[campoA(w)], campoB(w), campoC(w));
+            }
+        }
+        return new ProgramaBytecode(ir, Arrays.copyOf(codigo, tamanho), registradorDoNome,
+                Arrays.copyOf(inteiros, totalInteiros), Arrays.copyOf(reais, totalReais), superinstrucoes);
+    }
+
+    /** Instruções com destino: COPIA, READ, aritméticas e comparações. */
+    private void traduzirComDestino(Opcode op, int destino, int a, int b) {
+        if (op == Opcode.COPIA) {
+            boolean real = ehReal(destino);
+            emitir(real ? COPIA_R : COPIA_I, registrador(destino), slot(a, real), 0);
+        } else if (op == Opcode.READ) {
+            emitir(ehReal(destino) ? LER_R : LER_I, registrador(destino), 0, 0);
+        } else if (op.ehComparacao()) {
+            boolean real = ehReal(a) || ehReal(b);
+            int deslocamento = op.ordinal() - Opcode.CMPEQ.ordinal();
+            emitirInteiro((real ? CMP_EQ_R : CMP_EQ_I) + deslocamento, destino, slot(a, real), slot(b, real));
+        } else if (op.ehBinario()) {
+            traduzirAritmetica(op, destino, a, b);
+        } else {
+            throw new IllegalArgumentException("Opcode sem tradução no bytecode: " + op);
+        }
+    }
+
+    /**
+     * "t = a CMP b" seguido de JMPFALSE/JMPTRUE sobre t, sendo essa a única
+     * leitura de t: emite um só salto com comparação.
+     */
+    private boolean fundirComSalto(int i) {
+        if (i + 1 >= ir.tamanho() || !temporarioDeUsoUnico(ir.destino(i))) {
+            return false;
+        }
+        Opcode salto = ir.opcode(i + 1);
+        if ((salto != Opcode.JMPFALSE && salto != Opcode.JMPTRUE) || ir.operando1(i + 1) != ir.destino(i)) {
+            return false;
+        }
+        Opcode comparacao = ir.opcode(i);
+        if (salto == Opcode.JMPFALSE) {
+            if (ehReal(ir.operando1(i)) || ehReal(ir.operando2(i))) {
+                return false;
+            }
+            comparacao = comparacao.comparacaoNegada();
+        }
+        emitirSaltoComparacao(comparacao, ProgramaIR.valorOperando(ir.destino(i + 1)), ir.operando1(i), ir.operando2(i));
+        superinstrucoes++;
+        return true;
+    }
+
+    /** Instrução que define t seguida de "x = t", sendo essa a única leitura de t (e x do mesmo tipo). */
+    private boolean absorverCopia(int i) {
+        if (i + 1 >= ir.tamanho() || ir.opcode(i + 1) != Opcode.COPIA) {
+            return false;
+        }
+        int temporario = ir.destino(i);
+        int destino = ir.destino(i + 1);
+        if (ir.operando1(i + 1) != temporario || !temporarioDeUsoUnico(temporario)
+                || ir.tipo(destino) != ir.tipo(temporario)) {
+            return false;
+        }
+        superinstrucoes++;
+        return true;
+    }
+
+    private boolean temporarioDeUsoUnico(int operando) {
+        return ProgramaIR.ehTemporario(operando) && usos[ir.indiceDenso(operando)] == 1;
+    }
+
+    /** JMP logo depois de "x = x + k" (sem rótulo entre os dois) vira INCREMENTO_SALTO. */
+    private void traduzirSalto(int rotulo) {
+        if (tamanho > inicioBloco) {
+            long anterior = codigo[tamanho - 1];
+            if (ProgramaBytecode.codigo(anterior) == ADD_IK && campoA(anterior) == campoB(anterior)) {
+                codigo[tamanho - 1] = instrucao(INCREMENTO_SALTO, rotulo, campoB(anterior), imediato(anterior));
+                superinstrucoes++;
+                return;
+            }
+        }
+        emitir(SALTO, rotulo, 0, 0);
+    }
+
+    private void emitirSaltoComparacao(Opcode comparacao, int rotulo, int a, int b) {
+        boolean real = ehReal(a) || ehReal(b);
+        if (!real) {
+            if (cabeEmImediato(b)) {
+                emitir(SALTO_EQ_IK + (comparacao.ordinal() - Opcode.CMPEQ.ordinal()), rotulo, slot(a, false),
+                        ir.valorInteiro(b));
+                return;
+            }
+            if (cabeEmImediato(a)) {
+                Opcode espelhada = comparacao.comparacaoEspelhada();
+                emitir(SALTO_EQ_IK + (espelhada.ordinal() - Opcode.CMPEQ.ordinal()), rotulo, slot(b, false),
+                        ir.valorInteiro(a));
+                return;
+            }
+        }
+        int deslocamento = comparacao.ordinal() - Opcode.CMPEQ.ordinal();
+        emitir((real ? SALTO_EQ_R : SALTO_EQ_I) + deslocamento, rotulo, slot(a, real), slot(b, real));
+    }
+
+    private void traduzirAritmetica(Opcode op, int destino, int a, int b) {
+        boolean real = ehReal(destino) || ehReal(a) || ehReal(b);
+        if (!real) {
+            if (op == Opcode.ADD && cabeEmImediato(b)) {
+                emitirInteiro(ADD_IK, destino, slot(a, false), ir.valorInteiro(b));
+                return;
+            }
+            if (op == Opcode.ADD && cabeEmImediato(a)) {
+                emitirInteiro(ADD_IK, destino, slot(b, false), ir.valorInteiro(a));
+                return;
+            }
+            if (op == Opcode.SUB && cabeEmImediato(b) && ir.valorInteiro(b) != Short.MIN_VALUE) {
+                emitirInteiro(ADD_IK, destino, slot(a, false), -ir.valorInteiro(b));
+                return;
+            }
+            int codigo;
+            switch (op) {
+                case ADD: codigo = ADD_I; break;
+                case SUB: codigo = SUB_I; break;
+                case MUL: codigo = MUL_I; break;
+                case DIV: codigo = DIV_I; break;
+                case RESTO: codigo = RESTO_I; break;
+                case SHL: codigo = SHL_I; break;
+                case SAR: codigo = SAR_I; break;
+                case SHR: codigo = SHR_I; break;
+                case AND: codigo = AND_I; break;
+                case MULHI: codigo = MULHI_I; break;
+                default: throw new IllegalArgumentException("Opcode sem tradução no bytecode: " + op);
+            }
+            emitirInteiro(codigo, destino, slot(a, false), slot(b, false));
+            return;
+        }
+        int codigo;
+        switch (op) {
+            case ADD: codigo = ADD_R; break;
+            case SUB: codigo = SUB_R; break;
+            case MUL: codigo = MUL_R; break;
+            case DIV: codigo = DIV_R; break;
+            case RESTO: codigo = RESTO_R; break;
+            default: throw new IllegalArgumentException("Operação só inteira com operando REAL: " + op);
+        }
+        int ra = slot(a, true);
+        int rb = slot(b, true);
+        if (ehReal(destino)) {
+            emitir(codigo, registrador(destino), ra, rb);
+        } else {
+            int resultado = novoReal(0);
+            emitir(codigo, resultado, ra, rb);
+            emitir(REAL_PARA_INTEIRO, registrador(destino), resultado, 0);
+        }
+    }
+
+    /** Instrução cujo resultado é inteiro; destino REAL recebe a conversão. */
+    private void emitirInteiro(int codigo, int destino, int a, int b) {
+        if (!ehReal(destino)) {
+            emitir(codigo, registrador(destino), a, b);
+        } else {
+            int resultado = novoInteiro(0);
+            emitir(codigo, resultado, a, b);
+            emitir(INTEIRO_PARA_REAL, registrador(destino), resultado, 0);
+        }
+    }
+
+    /** Constante inteira que cabe no campo C com sinal. */
+    private boolean cabeEmImediato(int operando) {
+        if (!ProgramaIR.ehConstante(operando) || ehReal(operando)) {
+            return false;
+        }
+        int valor = ir.valorInteiro(operando);
+        return valor >= Short.MIN_VALUE && valor <= Short.MAX_VALUE;
+    }
+
+    private int registrador(int operando) {
+        return registradorDoNome[ir.indiceDenso(operando)];
+    }
+
+    /**
+     * Registrador do operando lido como real ou inteiro. Constantes ganham um
+     * registrador preenchido; um nome do outro tipo é convertido para um
+     * registrador auxiliar antes da instrução.
+     */
+    private int slot(int operando, boolean real) {
+        if (ProgramaIR.ehConstante(operando)) {
+            double valor = ir.valorConstante(operando);
+            return real
+                    ? constantesReais.computeIfAbsent(valor, this::novoReal)
+                    : constantesInteiras.computeIfAbsent((double) (int) valor, v -> novoInteiro(v.intValue()));
+        }
+        int registrador = registrador(operando);
+        if (ehReal(operando) == real) {
+            return registrador;
+        }
+        if (real) {
+            int auxiliar = novoReal(0);
+            emitir(INTEIRO_PARA_REAL, auxiliar, registrador, 0);
+            return auxiliar;
+        }
+        int auxiliar = novoInteiro(0);
+        emitir(REAL_PARA_INTEIRO, auxiliar, registrador, 0);
+        return auxiliar;
+    }
+
+    private boolean ehReal(int operando) {
+        return ir.tipo(operando) == TipoDado.REAL;
+    }
+
+    private int novoInteiro(int valor) {
+        if (totalInteiros == inteiros.length) {
+            inteiros = Arrays.copyOf(inteiros, inteiros.length * 2);
+        }
+        inteiros[totalInteiros] = valor;
+        return totalInteiros++;
+    }
+
+    private int novoReal(double valor) {
+        if (totalReais == reais.length) {
+            reais = Arrays.copyOf(reais, reais.length * 2);
+        }
+        reais[totalReais] = valor;
+        return totalReais++;
+    }
+
+    private void emitir(int c, int a, int b, int k) {
+        if (tamanho == codigo.length) {
+            codigo = Arrays.copyOf(codigo, codigo.length * 2);
+        }
+        codigo[tamanho++] = instrucao(c, a, b, k);
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.Interpretador;
+
+import org.example.C3E.ProgramaIR;
+
+/**
+ * CompiladorLacos.java
+ * Segunda camada da execução do {@link InterpretadorC3E}: compila um laço
+ * que ficou quente para que o interpretador passe a executá-lo compilado a
+ * partir da próxima volta (troca no meio da execução, como o OSR das JVMs).
+ */
+public interface CompiladorLacos {
+
+    /**
+     * Compila as instruções [inicio, fim] do IR (o cabeçalho do laço até o
+     * salto de volta). 'posicaoDoNome' dá, por índice denso, a posição de
+     * cada nome na memória de inteiros ou na de reais do interpretador.
+     * Devolve null se o laço não puder ser compilado.
+     */
+    LacoCompilado compilar(ProgramaIR ir, int inicio, int fim, int[] posicaoDoNome);
+
+    /** Um laço compilado por {@link #compilar}. */
+    interface LacoCompilado {
+
+        /**
+         * Executa a partir do cabeçalho com as memórias do interpretador e
+         * devolve a posição no IR em que a interpretação continua. saltos[0]
+         * traz os saltos para trás permitidos e volta com os que sobraram.
+         */
+        int executar(int[] inteiros, double[] reais, EntradaSaida es, long[] saltos) throws ErroExecucao;
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.Interpretador;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.StringTokenizer;
+
+/**
+ * EntradaSaida.java
+ * Canal usado pelos comandos 'leia' (READ) e 'escreva' (WRITE) durante a
+ * execução interpretada. Permite trocar o console por fluxos em memória, por
+ * exemplo para rodar muitos programas no mesmo processo.
+ */
+public interface EntradaSaida {
+
+    int lerInteiro() throws ErroExecucao;
+
+    double lerReal() throws ErroExecucao;
+
+    void escreverInteiro(int valor);
+
+    void escreverReal(double valor);
+
+    /**
+     * Lê números separados por espaços ou quebras de linha de 'entrada' e
+     * escreve um valor por linha em 'saida'.
+     */
+    static EntradaSaida deFluxos(InputStream entrada, PrintStream saida) {
+        return new Fluxos(entrada, saida);
+    }
+
+    /** Implementação de {@link #deFluxos}. */
+    final class Fluxos implements EntradaSaida {
+        private final BufferedReader leitor;
+        private final PrintStream saida;
+        private StringTokenizer linha = new StringTokenizer("");
+
+        private Fluxos(InputStream entrada, PrintStream saida) {
+            this.leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+            this.saida = saida;
+        }
+
+        private String proximoToken() throws ErroExecucao {
+            try {
+                while (!linha.hasMoreTokens()) {
+                    String texto = leitor.readLine();
+                    if (texto == null) {
+                        throw new ErroExecucao("Fim da entrada durante 'leia'.");
+                    }
+                    linha = new StringTokenizer(texto);
+                }
+            } catch (IOException e) {
+                throw new ErroExecucao("Erro ao ler a entrada: " + e.getMessage());
+            }
+            return linha.nextToken();
+        }
+
+        @Override
+        public int lerInteiro() throws ErroExecucao {
+            String token = proximoToken();
+            try {
+                return Integer.parseInt(token);
+            } catch (NumberFormatException e) {
+                throw new ErroExecucao("Valor inteiro inválido na entrada: '" + token + "'.");
+            }
+        }
+
+        @Override
+        public double lerReal() throws ErroExecucao {
+            String token = proximoToken();
+            try {
+                return Double.parseDouble(token);
+            } catch (NumberFormatException e) {
+                throw new ErroExecucao("Valor real inválido na entrada: '" + token + "'.");
+            }
+        }
+
+        @Override
+        public void escreverInteiro(int valor) {
+            saida.println(valor);
+        }
+
+        @Override
+        public void escreverReal(double valor) {
+            saida.println(valor);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.Interpretador;
+
+/**
+ * ErroExecucao.java
+ * Falha durante a execução interpretada de um programa (divisão por zero,
+ * entrada inválida, limite de instruções excedido...).
+ */
+public class ErroExecucao extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public ErroExecucao(String mensagem) {
+        super(mensagem);
+    }
+}
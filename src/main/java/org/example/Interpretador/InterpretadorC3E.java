@@ -0,0 +1,553 @@
+package org.example.Interpretador;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+import org.example.TipoDado;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * InterpretadorC3E.java
+ * Executa um ProgramaIR diretamente, sem passar pelo Assembly.
+ *
+ * O construtor traduz o IR uma única vez para um código interno compacto
+ * (int[] com 4 posições por instrução: código, destino, operando1, operando2):
+ *   - cada nome vira uma posição na memória de inteiros (INTEIRO, CARACTER,
+ *     BOOLEANO) ou na de reais (REAL); as constantes ganham posições próprias,
+ *     já preenchidas, para que toda instrução leia só posições de memória;
+ *   - rótulos viram o índice da instrução alvo, e ROTULO/NOP somem;
+ *   - cada opcode é especializado pelo tipo (ADD inteiro e ADD real são
+ *     códigos diferentes) e as conversões INTEIRO -> REAL viram instruções
+ *     explícitas. O laço de execução é um único switch denso sem consultas
+ *     ao tipo dos operandos.
+ *
+ * A memória começa zerada a cada execução, como a seção .data do Assembly.
+ * A aritmética inteira é de 32 bits com estouro circular; DIV e RESTO
+ * inteiros com divisor zero (ou MIN_VALUE / -1, que falha em IDIV) encerram a
+ * execução com {@link ErroExecucao}. RESTO com operandos reais usa as partes
+ * inteiras, como no dobramento de constantes.
+ *
+ * Execução em camadas: com um {@link CompiladorLacos}, cada JMP para trás
+ * (o fim de um 'enquanto') ganha um contador de voltas. Quando ele passa de
+ * {@link #setLimiarCompilacao o limiar}, o laço [rótulo do cabeçalho, JMP] é
+ * compilado e a execução entra nele ali mesmo, no cabeçalho, com as memórias
+ * do interpretador; o laço compilado devolve a instrução em que a
+ * interpretação continua. Execuções curtas não compilam nada, e o laço
+ * compilado é guardado para as próximas voltas e execuções.
+ */
+public class InterpretadorC3E {
+
+    // Códigos internos (valores consecutivos: o switch vira uma tabela de saltos)
+    private static final int FIM = 0;
+    private static final int SALTO = 1;
+    private static final int SALTO_ZERO_I = 2;
+    private static final int SALTO_NAO_ZERO_I = 3;
+    private static final int SALTO_ZERO_R = 4;
+    private static final int SALTO_NAO_ZERO_R = 5;
+    private static final int SALTO_EQ_I = 6;    // ... SALTO_GE_I = 11, na ordem de CMPEQ..CMPGE
+    private static final int SALTO_EQ_R = 12;   // ... SALTO_GE_R = 17
+    private static final int COPIA_I = 18;
+    private static final int COPIA_R = 19;
+    private static final int INTEIRO_PARA_REAL = 20;
+    private static final int REAL_PARA_INTEIRO = 21;
+    private static final int ADD_I = 22;
+    private static final int SUB_I = 23;
+    private static final int MUL_I = 24;
+    private static final int DIV_I = 25;
+    private static final int RESTO_I = 26;
+    private static final int SHL_I = 27;
+    private static final int SAR_I = 28;
+    private static final int SHR_I = 29;
+    private static final int AND_I = 30;
+    private static final int MULHI_I = 31;
+    private static final int ADD_R = 32;
+    private static final int SUB_R = 33;
+    private static final int MUL_R = 34;
+    private static final int DIV_R = 35;
+    private static final int RESTO_R = 36;
+    private static final int CMP_EQ_I = 37;     // ... CMP_GE_I = 42
+    private static final int CMP_EQ_R = 43;     // ... CMP_GE_R = 48
+    private static final int LER_I = 49;
+    private static final int LER_R = 50;
+    private static final int ESCREVER_I = 51;
+    private static final int ESCREVER_R = 52;
+    private static final int SALTO_LACO = 53;   // JMP para trás com contador (só com CompiladorLacos)
+
+    private static final int LIMIAR_PADRAO = 10_000;
+
+    private final ProgramaIR ir;
+    private final int[] codigo;
+    private final int[] slotDoNome;             // por índice denso; a memória depende do tipo
+    private final int[] inteirosIniciais;
+    private final double[] reaisIniciais;
+
+    private int[] inteiros;
+    private double[] reais;
+    private long instrucoesExecutadas;
+    private long limiteInstrucoes = Long.MAX_VALUE;
+
+    // Execução em camadas: um contador e um laço compilado por JMP para trás
+    private final CompiladorLacos compilador;
+    private final int[] pcDaInstrucao;          // posição no IR -> posição no código interno
+    private final int[] inicioLaco;
+    private final int[] fimLaco;
+    private final int[] voltasLaco;
+    private final CompiladorLacos.LacoCompilado[] lacosCompilados;
+    private int limiarCompilacao = LIMIAR_PADRAO;
+    private int totalCompilados;
+    private long entradasCompiladas;
+    private long saltosCompilados;              // da última entrada num laço compilado
+
+    public InterpretadorC3E(ProgramaIR ir) {
+        this(ir, null);
+    }
+
+    /** Com 'compilador' != null, compila os laços quentes (veja o comentário da classe). */
+    public InterpretadorC3E(ProgramaIR ir, CompiladorLacos compilador) {
+        this.ir = ir;
+        Tradutor tradutor = new Tradutor(ir, compilador != null);
+        this.codigo = tradutor.traduzir();
+        this.slotDoNome = tradutor.slotDoNome;
+        this.inteirosIniciais = Arrays.copyOf(tradutor.inteiros, tradutor.totalInteiros);
+        this.reaisIniciais = Arrays.copyOf(tradutor.reais, tradutor.totalReais);
+        this.inteiros = inteirosIniciais.clone();
+        this.reais = reaisIniciais.clone();
+        this.compilador = compilador;
+        this.pcDaInstrucao = tradutor.pcDaInstrucao;
+        this.inicioLaco = tradutor.inicioLaco.stream().mapToInt(Integer::intValue).toArray();
+        this.fimLaco = tradutor.fimLaco.stream().mapToInt(Integer::intValue).toArray();
+        this.voltasLaco = new int[inicioLaco.length];
+        this.lacosCompilados = new CompiladorLacos.LacoCompilado[inicioLaco.length];
+    }
+
+    /** Voltas de um laço antes de ele ser compilado (só com CompiladorLacos). */
+    public void setLimiarCompilacao(int limiar) {
+        this.limiarCompilacao = limiar;
+    }
+
+    /** Laços compilados até agora. */
+    public int getLacosCompilados() {
+        return totalCompilados;
+    }
+
+    /** Quantas vezes a execução passou do interpretador para um laço compilado. */
+    public long getEntradasCompiladas() {
+        return entradasCompiladas;
+    }
+
+    /** Interrompe a execução com erro depois de 'limite' instruções (útil contra laços infinitos). */
+    public void setLimiteInstrucoes(long limite) {
+        this.limiteInstrucoes = limite;
+    }
+
+    /**
+     * Instruções internas executadas na última chamada de {@link #executar}.
+     * Dentro de um laço compilado, só os saltos para trás são contados.
+     */
+    public long getInstrucoesExecutadas() {
+        return instrucoesExecutadas;
+    }
+
+    /** Número de instruções do código interno (sem rótulos e NOPs). */
+    public int getTamanhoCodigo() {
+        return codigo.length / 4;
+    }
+
+    /** Valor final de uma variável do programa, após {@link #executar}. */
+    public double valorVariavel(String nome) {
+        int operando = ir.buscarVariavel(nome);
+        if (operando == ProgramaIR.NENHUM) {
+            throw new IllegalArgumentException("Variável não declarada: " + nome);
+        }
+        int slot = slotDoNome[ir.indiceDenso(operando)];
+        return ir.tipo(operando) == TipoDado.REAL ? reais[slot] : inteiros[slot];
+    }
+
+    public void executar(EntradaSaida es) throws ErroExecucao {
+        int[] c = codigo;
+        int[] vi = inteirosIniciais.clone();
+        double[] vr = reaisIniciais.clone();
+        inteiros = vi;
+        reais = vr;
+        long limite = limiteInstrucoes;
+        long executadas = 0;
+        int pc = 0;
+        try {
+            while (true) {
+                executadas++;
+                int d = c[pc + 1];
+                int a = c[pc + 2];
+                int b = c[pc + 3];
+                switch (c[pc]) {
+                    case FIM:
+                        return;
+                    case SALTO:
+                        pc = saltar(d, executadas, limite);
+                        continue;
+                    case SALTO_LACO:
+                        pc = saltar(d, executadas, limite);
+                        if (++voltasLaco[a] >= limiarCompilacao) {
+                            int continuacao = executarCompilado(a, vi, vr, es, limite - executadas);
+                            if (continuacao >= 0) {
+                                executadas += saltosCompilados;
+                                pc = continuacao;
+                            }
+                        }
+                        continue;
+                    case SALTO_ZERO_I:
+                        if (vi[a] == 0) {
+                            pc = saltar(d, executadas, limite);
+                            continue;
+                        }
+                        break;
+                    case SALTO_NAO_ZERO_I:
+                        if (vi[a] != 0) {
+                            pc = saltar(d, executadas, limite);
+                            continue;
+                        }
+                        break;
+                    case SALTO_ZERO_R:
+                        if (vr[a] == 0) {
+                            pc = saltar(d, executadas, limite);
+                            continue;
+                        }
+                        break;
+                    case SALTO_NAO_ZERO_R:
+                        if (vr[a] != 0) {
+                            pc = saltar(d, executadas, limite);
+                            continue;
+                        }
+                        break;
+                    case SALTO_EQ_I:     if (vi[a] == vi[b]) { pc = saltar(d, executadas, limite); continue; } break;
+                    case SALTO_EQ_I + 1: if (vi[a] != vi[b]) { pc = saltar(d, executadas, limite); continue; } break;
+                    case SALTO_EQ_I + 2: if (vi[a] < vi[b]) { pc = saltar(d, executadas, limite); continue; } break;
+                    case SALTO_EQ_I + 3: if (vi[a] <= vi[b]) { pc = saltar(d, executadas, limite); continue; } break;
+                    case SALTO_EQ_I + 4: if (vi[a] > vi[b]) { pc = saltar(d, executadas, limite); continue; } break;
+                    case SALTO_EQ_I + 5: if (vi[a] >= vi[b]) { pc = saltar(d, executadas, limite); continue; } break;
+                    case SALTO_EQ_R:     if (vr[a] == vr[b]) { pc = saltar(d, executadas, limite); continue; } break;
+                    case SALTO_EQ_R + 1: if (vr[a] != vr[b]) { pc = saltar(d, executadas, limite); continue; } break;
+                    case SALTO_EQ_R + 2: if (vr[a] < vr[b]) { pc = saltar(d, executadas, limite); continue; } break;
+                    case SALTO_EQ_R + 3: if (vr[a] <= vr[b]) { pc = saltar(d, executadas, limite); continue; } break;
+                    case SALTO_EQ_R + 4: if (vr[a] > vr[b]) { pc = saltar(d, executadas, limite); continue; } break;
+                    case SALTO_EQ_R + 5: if (vr[a] >= vr[b]) { pc = saltar(d, executadas, limite); continue; } break;
+                    case COPIA_I: vi[d] = vi[a]; break;
+                    case COPIA_R: vr[d] = vr[a]; break;
+                    case INTEIRO_PARA_REAL: vr[d] = vi[a]; break;
+                    case REAL_PARA_INTEIRO: vi[d] = (int) vr[a]; break;
+                    case ADD_I: vi[d] = vi[a] + vi[b]; break;
+                    case SUB_I: vi[d] = vi[a] - vi[b]; break;
+                    case MUL_I: vi[d] = vi[a] * vi[b]; break;
+                    case DIV_I:
+                        verificarDivisao(vi[a], vi[b]);
+                        vi[d] = vi[a] / vi[b];
+                        break;
+                    case RESTO_I:
+                        verificarDivisao(vi[a], vi[b]);
+                        vi[d] = vi[a] % vi[b];
+                        break;
+                    case SHL_I: vi[d] = vi[a] << vi[b]; break;
+                    case SAR_I: vi[d] = vi[a] >> vi[b]; break;
+                    case SHR_I: vi[d] = vi[a] >>> vi[b]; break;
+                    case AND_I: vi[d] = vi[a] & vi[b]; break;
+                    case MULHI_I: vi[d] = (int) (((long) vi[a] * vi[b]) >> 32); break;
+                    case ADD_R: vr[d] = vr[a] + vr[b]; break;
+                    case SUB_R: vr[d] = vr[a] - vr[b]; break;
+                    case MUL_R: vr[d] = vr[a] * vr[b]; break;
+                    case DIV_R: vr[d] = vr[a] / vr[b]; break;
+                    case RESTO_R: {
+                        int x = (int) vr[a];
+                        int y = (int) vr[b];
+                        verificarDivisao(x, y);
+                        vr[d] = x % y;
+                        break;
+                    }
+                    case CMP_EQ_I:     vi[d] = vi[a] == vi[b] ? 1 : 0; break;
+                    case CMP_EQ_I + 1: vi[d] = vi[a] != vi[b] ? 1 : 0; break;
+                    case CMP_EQ_I + 2: vi[d] = vi[a] < vi[b] ? 1 : 0; break;
+                    case CMP_EQ_I + 3: vi[d] = vi[a] <= vi[b] ? 1 : 0; break;
+                    case CMP_EQ_I + 4: vi[d] = vi[a] > vi[b] ? 1 : 0; break;
+                    case CMP_EQ_I + 5: vi[d] = vi[a] >= vi[b] ? 1 : 0; break;
+                    case CMP_EQ_R:     vi[d] = vr[a] == vr[b] ? 1 : 0; break;
+                    case CMP_EQ_R + 1: vi[d] = vr[a] != vr[b] ? 1 : 0; break;
+                    case CMP_EQ_R + 2: vi[d] = vr[a] < vr[b] ? 1 : 0; break;
+                    case CMP_EQ_R + 3: vi[d] = vr[a] <= vr[b] ? 1 : 0; break;
+                    case CMP_EQ_R + 4: vi[d] = vr[a] > vr[b] ? 1 : 0; break;
+                    case CMP_EQ_R + 5: vi[d] = vr[a] >= vr[b] ? 1 : 0; break;
+                    case LER_I: vi[d] = es.lerInteiro(); break;
+                    case LER_R: vr[d] = es.lerReal(); break;
+                    case ESCREVER_I: es.escreverInteiro(vi[a]); break;
+                    case ESCREVER_R: es.escreverReal(vr[a]); break;
+                    default:
+                        throw new IllegalStateException("Código interno inválido: " + c[pc]);
+                }
+                pc += 4;
+            }
+        } finally {
+            instrucoesExecutadas = executadas;
+        }
+    }
+
+    /** Saltos são os únicos pontos em que um programa pode repetir instruções: o limite é conferido aqui. */
+    private static int saltar(int alvo, long executadas, long limite) throws ErroExecucao {
+        if (executadas > limite) {
+            throw new ErroExecucao("Limite de " + limite + " instruções excedido.");
+        }
+        return alvo;
+    }
+
+    /**
+     * Volta de um laço quente, já no cabeçalho: compila o laço na primeira vez
+     * e o executa. Devolve a posição no código interno em que a interpretação
+     * continua, ou -1 se o laço não puder ser compilado (ele segue
+     * interpretado e não é tentado de novo).
+     */
+    private int executarCompilado(int laco, int[] vi, double[] vr, EntradaSaida es, long saltosPermitidos)
+            throws ErroExecucao {
+        CompiladorLacos.LacoCompilado compilado = lacosCompilados[laco];
+        if (compilado == null) {
+            compilado = compilador.compilar(ir, inicioLaco[laco], fimLaco[laco], slotDoNome);
+            if (compilado == null) {
+                voltasLaco[laco] = Integer.MIN_VALUE;
+                return -1;
+            }
+            lacosCompilados[laco] = compilado;
+            totalCompilados++;
+        }
+        long[] saltos = {saltosPermitidos};
+        entradasCompiladas++;
+        try {
+            return pcDaInstrucao[compilado.executar(vi, vr, es, saltos)];
+        } finally {
+            saltosCompilados = saltosPermitidos - saltos[0];
+        }
+    }
+
+    private static void verificarDivisao(int dividendo, int divisor) throws ErroExecucao {
+        if (divisor == 0) {
+            throw new ErroExecucao("Divisão por zero.");
+        }
+        if (dividendo == Integer.MIN_VALUE && divisor == -1) {
+            throw new ErroExecucao("Estouro na divisão inteira (" + dividendo + " / -1).");
+        }
+    }
+
+    /** Tradução do IR para o código interno. */
+    private static final class Tradutor {
+        private final ProgramaIR ir;
+        private final boolean contarLacos;
+        private final int[] slotDoNome;
+        private final int[] pcDaInstrucao;
+        private final List<Integer> inicioLaco = new ArrayList<>();
+        private final List<Integer> fimLaco = new ArrayList<>();
+        private int[] inteiros = new int[16];
+        private double[] reais = new double[16];
+        private int totalInteiros;
+        private int totalReais;
+        private final Map<Double, Integer> constantesInteiras = new HashMap<>();
+        private final Map<Double, Integer> constantesReais = new HashMap<>();
+
+        private int[] codigo = new int[64];
+        private int tamanho;
+
+        Tradutor(ProgramaIR ir, boolean contarLacos) {
+            this.ir = ir;
+            this.contarLacos = contarLacos;
+            this.pcDaInstrucao = new int[ir.tamanho() + 1];
+            this.slotDoNome = new int[ir.totalNomes()];
+            for (int n = 0; n < ir.totalNomes(); n++) {
+                slotDoNome[n] = ehReal(ir.operandoDenso(n)) ? novoReal(0) : novoInteiro(0);
+            }
+        }
+
+        int[] traduzir() {
+            int[] posicaoRotulo = new int[ir.getMaiorRotulo() + 1];
+            int[] rotuloNoIR = ir.posicoesRotulos();
+            for (int i = 0; i < ir.tamanho(); i++) {
+                pcDaInstrucao[i] = tamanho;
+                Opcode op = ir.opcode(i);
+                int destino = ir.destino(i);
+                int a = ir.operando1(i);
+                int b = ir.operando2(i);
+                switch (op) {
+                    case NOP:
+                        break;
+                    case ROTULO:
+                        posicaoRotulo[ProgramaIR.valorOperando(destino)] = tamanho;
+                        break;
+                    case JMP: {
+                        int rotulo = ProgramaIR.valorOperando(destino);
+                        if (contarLacos && rotuloNoIR[rotulo] <= i) {
+                            emitir(SALTO_LACO, rotulo, inicioLaco.size(), 0);
+                            inicioLaco.add(rotuloNoIR[rotulo]);
+                            fimLaco.add(i);
+                        } else {
+                            emitir(SALTO, rotulo, 0, 0);
+                        }
+                        break;
+                    }
+                    case JMPFALSE:
+                    case JMPTRUE: {
+                        boolean real = ehReal(a);
+                        int codigo = op == Opcode.JMPFALSE
+                                ? (real ? SALTO_ZERO_R : SALTO_ZERO_I)
+                                : (real ? SALTO_NAO_ZERO_R : SALTO_NAO_ZERO_I);
+                        emitir(codigo, ProgramaIR.valorOperando(destino), slot(a, real), 0);
+                        break;
+                    }
+                    case COPIA:
+                        if (ehReal(destino)) {
+                            emitir(COPIA_R, slotDoNome[ir.indiceDenso(destino)], slot(a, true), 0);
+                        } else {
+                            emitir(COPIA_I, slotDoNome[ir.indiceDenso(destino)], slot(a, false), 0);
+                        }
+                        break;
+                    case READ:
+                        emitir(ehReal(destino) ? LER_R : LER_I, slotDoNome[ir.indiceDenso(destino)], 0, 0);
+                        break;
+                    case WRITE:
+                        emitir(ehReal(a) ? ESCREVER_R : ESCREVER_I, 0, slot(a, ehReal(a)), 0);
+                        break;
+                    default:
+                        if (op.ehSaltoComparacao()) {
+                            boolean real = ehReal(a) || ehReal(b);
+                            int deslocamento = op.comparacaoDoSalto().ordinal() - Opcode.CMPEQ.ordinal();
+                            emitir((real ? SALTO_EQ_R : SALTO_EQ_I) + deslocamento,
+                                    ProgramaIR.valorOperando(destino), slot(a, real), slot(b, real));
+                        } else if (op.ehComparacao()) {
+                            boolean real = ehReal(a) || ehReal(b);
+                            int deslocamento = op.ordinal() - Opcode.CMPEQ.ordinal();
+                            emitirInteiro((real ? CMP_EQ_R : CMP_EQ_I) + deslocamento, destino,
+                                    slot(a, real), slot(b, real));
+                        } else if (op.ehBinario()) {
+                            traduzirAritmetica(op, destino, a, b);
+                        } else {
+                            throw new IllegalArgumentException("Opcode sem tradução no interpretador: " + op);
+                        }
+                        break;
+                }
+            }
+            pcDaInstrucao[ir.tamanho()] = tamanho;
+            emitir(FIM, 0, 0, 0);
+
+            // Alvos dos saltos: número do rótulo -> posição no código interno
+            for (int pc = 0; pc < tamanho; pc += 4) {
+                int c = codigo[pc];
+                if (c >= SALTO && c <= SALTO_EQ_R + 5 || c == SALTO_LACO) {
+                    codigo[pc + 1] = posicaoRotulo[codigo[pc + 1]];
+                }
+            }
+            return Arrays.copyOf(codigo, tamanho);
+        }
+
+        private void traduzirAritmetica(Opcode op, int destino, int a, int b) {
+            boolean real = ehReal(destino) || ehReal(a) || ehReal(b);
+            if (!real) {
+                int codigo;
+                switch (op) {
+                    case ADD: codigo = ADD_I; break;
+                    case SUB: codigo = SUB_I; break;
+                    case MUL: codigo = MUL_I; break;
+                    case DIV: codigo = DIV_I; break;
+                    case RESTO: codigo = RESTO_I; break;
+                    case SHL: codigo = SHL_I; break;
+                    case SAR: codigo = SAR_I; break;
+                    case SHR: codigo = SHR_I; break;
+                    case AND: codigo = AND_I; break;
+                    case MULHI: codigo = MULHI_I; break;
+                    default: throw new IllegalArgumentException("Opcode sem tradução no interpretador: " + op);
+                }
+                emitirInteiro(codigo, destino, slot(a, false), slot(b, false));
+                return;
+            }
+            int codigo;
+            switch (op) {
+                case ADD: codigo = ADD_R; break;
+                case SUB: codigo = SUB_R; break;
+                case MUL: codigo = MUL_R; break;
+                case DIV: codigo = DIV_R; break;
+                case RESTO: codigo = RESTO_R; break;
+                default: throw new IllegalArgumentException("Operação só inteira com operando REAL: " + op);
+            }
+            int sa = slot(a, true);
+            int sb = slot(b, true);
+            if (ehReal(destino)) {
+                emitir(codigo, slotDoNome[ir.indiceDenso(destino)], sa, sb);
+            } else {
+                int resultado = novoReal(0);
+                emitir(codigo, resultado, sa, sb);
+                emitir(REAL_PARA_INTEIRO, slotDoNome[ir.indiceDenso(destino)], resultado, 0);
+            }
+        }
+
+        /** Instrução cujo resultado é inteiro; destino REAL recebe a conversão. */
+        private void emitirInteiro(int codigo, int destino, int a, int b) {
+            if (!ehReal(destino)) {
+                emitir(codigo, slotDoNome[ir.indiceDenso(destino)], a, b);
+            } else {
+                int resultado = novoInteiro(0);
+                emitir(codigo, resultado, a, b);
+                emitir(INTEIRO_PARA_REAL, slotDoNome[ir.indiceDenso(destino)], resultado, 0);
+            }
+        }
+
+        /**
+         * Posição de memória do operando lido como real ou inteiro. Constantes
+         * ganham uma posição preenchida; um nome do outro tipo é convertido
+         * para uma posição auxiliar antes da instrução.
+         */
+        private int slot(int operando, boolean real) {
+            if (ProgramaIR.ehConstante(operando)) {
+                double valor = ir.valorConstante(operando);
+                return real
+                        ? constantesReais.computeIfAbsent(valor, this::novoReal)
+                        : constantesInteiras.computeIfAbsent((double) (int) valor, v -> novoInteiro(v.intValue()));
+            }
+            int slot = slotDoNome[ir.indiceDenso(operando)];
+            if (ehReal(operando) == real) {
+                return slot;
+            }
+            if (real) {
+                int auxiliar = novoReal(0);
+                emitir(INTEIRO_PARA_REAL, auxiliar, slot, 0);
+                return auxiliar;
+            }
+            int auxiliar = novoInteiro(0);
+            emitir(REAL_PARA_INTEIRO, auxiliar, slot, 0);
+            return auxiliar;
+        }
+
+        private boolean ehReal(int operando) {
+            return ir.tipo(operando) == TipoDado.REAL;
+        }
+
+        private int novoInteiro(int valor) {
+            if (totalInteiros == inteiros.length) {
+                inteiros = Arrays.copyOf(inteiros, inteiros.length * 2);
+            }
+            inteiros[totalInteiros] = valor;
+            return totalInteiros++;
+        }
+
+        private int novoReal(double valor) {
+            if (totalReais == reais.length) {
+                reais = Arrays.copyOf(reais, reais.length * 2);
+            }
+            reais[totalReais] = valor;
+            return totalReais++;
+        }
+
+        private void emitir(int c, int d, int a, int b) {
+            if (tamanho + 4 > codigo.length) {
+                codigo = Arrays.copyOf(codigo, codigo.length * 2);
+            }
+            codigo[tamanho++] = c;
+            codigo[tamanho++] = d;
+            codigo[tamanho++] = a;
+            codigo[tamanho++] = b;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.example.Interpretador;
+
+import org.example.C3E.ProgramaIR;
+import org.example.TipoDado;
+
+import static org.example.Interpretador.ProgramaBytecode.*;
+
+/**
+ * MaquinaRegistradores.java
+ * Executa um {@link ProgramaBytecode}. Mesma semântica do
+ * {@link InterpretadorC3E} (registradores zerados a cada execução, aritmética
+ * inteira de 32 bits, erro em divisão por zero e em MIN_VALUE / -1), mas o
+ * laço lê um único long por instrução e as superinstruções fazem em um
+ * despacho o que o interpretador faz em dois ou três.
+ */
+public class MaquinaRegistradores {
+
+    private final ProgramaBytecode programa;
+    private int[] inteiros;
+    private double[] reais;
+    private long instrucoesExecutadas;
+    private long limiteInstrucoes = Long.MAX_VALUE;
+
+    public MaquinaRegistradores(ProgramaBytecode programa) {
+        this.programa = programa;
+        this.inteiros = programa.getInteirosIniciais().clone();
+        this.reais = programa.getReaisIniciais().clone();
+    }
+
+    /** Interrompe a execução com erro depois de 'limite' instruções (útil contra laços infinitos). */
+    public void setLimiteInstrucoes(long limite) {
+        this.limiteInstrucoes = limite;
+    }
+
+    /** Instruções de bytecode executadas na última chamada de {@link #executar}. */
+    public long getInstrucoesExecutadas() {
+        return instrucoesExecutadas;
+    }
+
+    /** Valor final de uma variável do programa, após {@link #executar}. */
+    public double valorVariavel(String nome) {
+        ProgramaIR ir = programa.getIR();
+        int operando = ir.buscarVariavel(nome);
+        if (operando == ProgramaIR.NENHUM) {
+            throw new IllegalArgumentException("Variável não declarada: " + nome);
+        }
+        int registrador = programa.registrador(ir.indiceDenso(operando));
+        return ir.tipo(operando) == TipoDado.REAL ? reais[registrador] : inteiros[registrador];
+    }
+
+    public void executar(EntradaSaida es) throws ErroExecucao {
+        long[] c = programa.getCodigo();
+        int[] vi = programa.getInteirosIniciais().clone();
+        double[] vr = programa.getReaisIniciais().clone();
+        inteiros = vi;
+        reais = vr;
+        long limite = limiteInstrucoes;
+        long executadas = 0;
+        int pc = 0;
+        try {
+            while (true) {
+                long w = c[pc++];
+                executadas++;
+                int a = (int) (w >>> 8) & MAIOR_ALVO;
+                int b = (int) (w >>> 32) & MAIOR_REGISTRADOR;
+                int k = (int) (w >> 48);            // imediato com sinal
+                int r = k & MAIOR_REGISTRADOR;      // ou registrador
+                switch ((int) w & 0xFF) {
+                    case FIM:
+                        return;
+                    case SALTO:
+                        pc = saltar(a, executadas, limite);
+                        break;
+                    case SALTO_ZERO_I:
+                        if (vi[b] == 0) {
+                            pc = saltar(a, executadas, limite);
+                        }
+                        break;
+                    case SALTO_NAO_ZERO_I:
+                        if (vi[b] != 0) {
+                            pc = saltar(a, executadas, limite);
+                        }
+                        break;
+                    case SALTO_ZERO_R:
+                        if (vr[b] == 0) {
+                            pc = saltar(a, executadas, limite);
+                        }
+                        break;
+                    case SALTO_NAO_ZERO_R:
+                        if (vr[b] != 0) {
+                            pc = saltar(a, executadas, limite);
+                        }
+                        break;
+                    case SALTO_EQ_I:     if (vi[b] == vi[r]) { pc = saltar(a, executadas, limite); } break;
+                    case SALTO_EQ_I + 1: if (vi[b] != vi[r]) { pc = saltar(a, executadas, limite); } break;
+                    case SALTO_EQ_I + 2: if (vi[b] < vi[r]) { pc = saltar(a, executadas, limite); } break;
+                    case SALTO_EQ_I + 3: if (vi[b] <= vi[r]) { pc = saltar(a, executadas, limite); } break;
+                    case SALTO_EQ_I + 4: if (vi[b] > vi[r]) { pc = saltar(a, executadas, limite); } break;
+                    case SALTO_EQ_I + 5: if (vi[b] >= vi[r]) { pc = saltar(a, executadas, limite); } break;
+                    case SALTO_EQ_R:     if (vr[b] == vr[r]) { pc = saltar(a, executadas, limite); } break;
+                    case SALTO_EQ_R + 1: if (vr[b] != vr[r]) { pc = saltar(a, executadas, limite); } break;
+                    case SALTO_EQ_R + 2: if (vr[b] < vr[r]) { pc = saltar(a, executadas, limite); } break;
+                    case SALTO_EQ_R + 3: if (vr[b] <= vr[r]) { pc = saltar(a, executadas, limite); } break;
+                    case SALTO_EQ_R + 4: if (vr[b] > vr[r]) { pc = saltar(a, executadas, limite); } break;
+                    case SALTO_EQ_R + 5: if (vr[b] >= vr[r]) { pc = saltar(a, executadas, limite); } break;
+                    case SALTO_EQ_IK:     if (vi[b] == k) { pc = saltar(a, executadas, limite); } break;
+                    case SALTO_EQ_IK + 1: if (vi[b] != k) { pc = saltar(a, executadas, limite); } break;
+                    case SALTO_EQ_IK + 2: if (vi[b] < k) { pc = saltar(a, executadas, limite); } break;
+                    case SALTO_EQ_IK + 3: if (vi[b] <= k) { pc = saltar(a, executadas, limite); } break;
+                    case SALTO_EQ_IK + 4: if (vi[b] > k) { pc = saltar(a, executadas, limite); } break;
+                    case SALTO_EQ_IK + 5: if (vi[b] >= k) { pc = saltar(a, executadas, limite); } break;
+                    case INCREMENTO_SALTO:
+                        vi[b] += k;
+                        pc = saltar(a, executadas, limite);
+                        break;
+                    case COPIA_I: vi[a] = vi[b]; break;
+                    case COPIA_R: vr[a] = vr[b]; break;
+                    case INTEIRO_PARA_REAL: vr[a] = vi[b]; break;
+                    case REAL_PARA_INTEIRO: vi[a] = (int) vr[b]; break;
+                    case ADD_I: vi[a] = vi[b] + vi[r]; break;
+                    case SUB_I: vi[a] = vi[b] - vi[r]; break;
+                    case MUL_I: vi[a] = vi[b] * vi[r]; break;
+                    case DIV_I:
+                        verificarDivisao(vi[b], vi[r]);
+                        vi[a] = vi[b] / vi[r];
+                        break;
+                    case RESTO_I:
+                        verificarDivisao(vi[b], vi[r]);
+                        vi[a] = vi[b] % vi[r];
+                        break;
+                    case SHL_I: vi[a] = vi[b] << vi[r]; break;
+                    case SAR_I: vi[a] = vi[b] >> vi[r]; break;
+                    case SHR_I: vi[a] = vi[b] >>> vi[r]; break;
+                    case AND_I: vi[a] = vi[b] & vi[r]; break;
+                    case MULHI_I: vi[a] = (int) (((long) vi[b] * vi[r]) >> 32); break;
+                    case ADD_IK: vi[a] = vi[b] + k; break;
+                    case ADD_R: vr[a] = vr[b] + vr[r]; break;
+                    case SUB_R: vr[a] = vr[b] - vr[r]; break;
+                    case MUL_R: vr[a] = vr[b] * vr[r]; break;
+                    case DIV_R: vr[a] = vr[b] / vr[r]; break;
+                    case RESTO_R: {
+                        int x = (int) vr[b];
+                        int y = (int) vr[r];
+                        verificarDivisao(x, y);
+                        vr[a] = x % y;
+                        break;
+                    }
+                    case CMP_EQ_I:     vi[a] = vi[b] == vi[r] ? 1 : 0; break;
+                    case CMP_EQ_I + 1: vi[a] = vi[b] != vi[r] ? 1 : 0; break;
+                    case CMP_EQ_I + 2: vi[a] = vi[b] < vi[r] ? 1 : 0; break;
+                    case CMP_EQ_I + 3: vi[a] = vi[b] <= vi[r] ? 1 : 0; break;
+                    case CMP_EQ_I + 4: vi[a] = vi[b] > vi[r] ? 1 : 0; break;
+                    case CMP_EQ_I + 5: vi[a] = vi[b] >= vi[r] ? 1 : 0; break;
+                    case CMP_EQ_R:     vi[a] = vr[b] == vr[r] ? 1 : 0; break;
+                    case CMP_EQ_R + 1: vi[a] = vr[b] != vr[r] ? 1 : 0; break;
+                    case CMP_EQ_R + 2: vi[a] = vr[b] < vr[r] ? 1 : 0; break;
+                    case CMP_EQ_R + 3: vi[a] = vr[b] <= vr[r] ? 1 : 0; break;
+                    case CMP_EQ_R + 4: vi[a] = vr[b] > vr[r] ? 1 : 0; break;
+                    case CMP_EQ_R + 5: vi[a] = vr[b] >= vr[r] ? 1 : 0; break;
+                    case LER_I: vi[a] = es.lerInteiro(); break;
+                    case LER_R: vr[a] = es.lerReal(); break;
+                    case ESCREVER_I: es.escreverInteiro(vi[b]); break;
+                    case ESCREVER_R: es.escreverReal(vr[b]); break;
+                    default:
+                        throw new IllegalStateException("Código de bytecode inválido: " + ((int) w & 0xFF));
+                }
+            }
+        } finally {
+            instrucoesExecutadas = executadas;
+        }
+    }
+
+    /** Saltos são os únicos pontos em que um programa pode repetir instruções: o limite é conferido aqui. */
+    private static int saltar(int alvo, long executadas, long limite) throws ErroExecucao {
+        if (executadas > limite) {
+            throw new ErroExecucao("Limite de " + limite + " instruções excedido.");
+        }
+        return alvo;
+    }
+
+    private static void verificarDivisao(int dividendo, int divisor) throws ErroExecucao {
+        if (divisor == 0) {
+            throw new ErroExecucao("Divisão por zero.");
+        }
+        if (dividendo == Integer.MIN_VALUE && divisor == -1) {
+            throw new ErroExecucao("Estouro na divisão inteira (" + dividendo + " / -1).");
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.example.Interpretador;
+
+import org.example.C3E.ProgramaIR;
+
+import java.io.PrintStream;
+
+/**
+ * ProgramaBytecode.java
+ * Resultado do {@link CompiladorBytecode}: código de registradores compacto
+ * executado pela {@link MaquinaRegistradores}.
+ *
+ * Cada instrução ocupa um único long:
+ *   bits  0..7   código da operação
+ *   bits  8..31  campo A: registrador de destino ou alvo do salto
+ *   bits 32..47  campo B: primeiro registrador lido
+ *   bits 48..63  campo C: segundo registrador lido ou imediato de 16 bits com sinal
+ * Os registradores ficam em dois bancos (inteiros e reais); as constantes
+ * ocupam registradores já preenchidos, exceto nas superinstruções com
+ * imediato (ADD_IK, SALTO_EQ_IK...).
+ */
+public final class ProgramaBytecode {
+
+    // Códigos (consecutivos; os saltos ficam juntos em SALTO..INCREMENTO_SALTO)
+    static final int FIM = 0;
+    static final int SALTO = 1;
+    static final int SALTO_ZERO_I = 2;
+    static final int SALTO_NAO_ZERO_I = 3;
+    static final int SALTO_ZERO_R = 4;
+    static final int SALTO_NAO_ZERO_R = 5;
+    static final int SALTO_EQ_I = 6;        // ... SALTO_GE_I = 11, na ordem de CMPEQ..CMPGE
+    static final int SALTO_EQ_R = 12;       // ... SALTO_GE_R = 17
+    static final int SALTO_EQ_IK = 18;      // ... SALTO_GE_IK = 23: registrador contra imediato
+    static final int INCREMENTO_SALTO = 24; // B = B + imediato; salta para A
+    static final int COPIA_I = 25;
+    static final int COPIA_R = 26;
+    static final int INTEIRO_PARA_REAL = 27;
+    static final int REAL_PARA_INTEIRO = 28;
+    static final int ADD_I = 29;
+    static final int SUB_I = 30;
+    static final int MUL_I = 31;
+    static final int DIV_I = 32;
+    static final int RESTO_I = 33;
+    static final int SHL_I = 34;
+    static final int SAR_I = 35;
+    static final int SHR_I = 36;
+    static final int AND_I = 37;
+    static final int MULHI_I = 38;
+    static final int ADD_IK = 39;           // A = B + imediato
+    static final int ADD_R = 40;
+    static final int SUB_R = 41;
+    static final int MUL_R = 42;
+    static final int DIV_R = 43;
+    static final int RESTO_R = 44;
+    static final int CMP_EQ_I = 45;         // ... CMP_GE_I = 50
+    static final int CMP_EQ_R = 51;         // ... CMP_GE_R = 56
+    static final int LER_I = 57;
+    static final int LER_R = 58;
+    static final int ESCREVER_I = 59;
+    static final int ESCREVER_R = 60;
+
+    static final int MAIOR_REGISTRADOR = 0xFFFF;
+    static final int MAIOR_ALVO = 0xFFFFFF;
+
+    private static final String[] COMPARACOES = {"EQ", "NE", "LT", "LE", "GT", "GE"};
+    private static final String[] MNEMONICOS = new String[ESCREVER_R + 1];
+    static {
+        String[] simples = {"FIM", "SALTO", "SALTO_ZERO_I", "SALTO_NAO_ZERO_I", "SALTO_ZERO_R", "SALTO_NAO_ZERO_R"};
+        System.arraycopy(simples, 0, MNEMONICOS, 0, simples.length);
+        for (int k = 0; k < COMPARACOES.length; k++) {
+            MNEMONICOS[SALTO_EQ_I + k] = "SALTO_" + COMPARACOES[k] + "_I";
+            MNEMONICOS[SALTO_EQ_R + k] = "SALTO_" + COMPARACOES[k] + "_R";
+            MNEMONICOS[SALTO_EQ_IK + k] = "SALTO_" + COMPARACOES[k] + "_IK";
+            MNEMONICOS[CMP_EQ_I + k] = "CMP_" + COMPARACOES[k] + "_I";
+            MNEMONICOS[CMP_EQ_R + k] = "CMP_" + COMPARACOES[k] + "_R";
+        }
+        String[] demais = {"INCREMENTO_SALTO", "COPIA_I", "COPIA_R", "INTEIRO_PARA_REAL", "REAL_PARA_INTEIRO",
+                "ADD_I", "SUB_I", "MUL_I", "DIV_I", "RESTO_I", "SHL_I", "SAR_I", "SHR_I", "AND_I", "MULHI_I",
+                "ADD_IK", "ADD_R", "SUB_R", "MUL_R", "DIV_R", "RESTO_R"};
+        System.arraycopy(demais, 0, MNEMONICOS, INCREMENTO_SALTO, demais.length);
+        MNEMONICOS[LER_I] = "LER_I";
+        MNEMONICOS[LER_R] = "LER_R";
+        MNEMONICOS[ESCREVER_I] = "ESCREVER_I";
+        MNEMONICOS[ESCREVER_R] = "ESCREVER_R";
+    }
+
+    private final ProgramaIR ir;
+    private final long[] codigo;
+    private final int[] registradorDoNome;      // por índice denso; o banco depende do tipo
+    private final int[] inteirosIniciais;
+    private final double[] reaisIniciais;
+    private final int superinstrucoes;
+
+    ProgramaBytecode(ProgramaIR ir, long[] codigo, int[] registradorDoNome, int[] inteirosIniciais,
+                     double[] reaisIniciais, int superinstrucoes) {
+        this.ir = ir;
+        this.codigo = codigo;
+        this.registradorDoNome = registradorDoNome;
+        this.inteirosIniciais = inteirosIniciais;
+        this.reaisIniciais = reaisIniciais;
+        this.superinstrucoes = superinstrucoes;
+    }
+
+    static long instrucao(int codigo, int a, int b, int c) {
+        return (codigo & 0xFFL)
+                | ((long) (a & MAIOR_ALVO) << 8)
+                | ((long) (b & MAIOR_REGISTRADOR) << 32)
+                | ((long) (c & MAIOR_REGISTRADOR) << 48);
+    }
+
+    static int codigo(long instrucao) {
+        return (int) instrucao & 0xFF;
+    }
+
+    static int campoA(long instrucao) {
+        return (int) (instrucao >>> 8) & MAIOR_ALVO;
+    }
+
+    static int campoB(long instrucao) {
+        return (int) (instrucao >>> 32) & MAIOR_REGISTRADOR;
+    }
+
+    static int campoC(long instrucao) {
+        return (int) (instrucao >>> 48);
+    }
+
+    /** Campo C lido como imediato com sinal. */
+    static int imediato(long instrucao) {
+        return (int) (instrucao >> 48);
+    }
+
+    static boolean ehSalto(int codigo) {
+        return codigo >= SALTO && codigo <= INCREMENTO_SALTO;
+    }
+
+    static boolean usaImediato(int codigo) {
+        return codigo == ADD_IK || codigo == INCREMENTO_SALTO
+                || (codigo >= SALTO_EQ_IK && codigo < SALTO_EQ_IK + COMPARACOES.length);
+    }
+
+    ProgramaIR getIR() {
+        return ir;
+    }
+
+    long[] getCodigo() {
+        return codigo;
+    }
+
+    int registrador(int indiceDenso) {
+        return registradorDoNome[indiceDenso];
+    }
+
+    int[] getInteirosIniciais() {
+        return inteirosIniciais;
+    }
+
+    double[] getReaisIniciais() {
+        return reaisIniciais;
+    }
+
+    /** Número de instruções (inclui o FIM). */
+    public int getTamanho() {
+        return codigo.length;
+    }
+
+    /** Instruções do IR que foram fundidas em superinstruções ou absorvidas por elas. */
+    public int getSuperinstrucoes() {
+        return superinstrucoes;
+    }
+
+    public int getTotalRegistradoresInteiros() {
+        return inteirosIniciais.length;
+    }
+
+    public int getTotalRegistradoresReais() {
+        return reaisIniciais.length;
+    }
+
+    /** Listagem legível do código, uma instrução por linha (imediatos aparecem como "#K"). */
+    public void listar(PrintStream saida) {
+        for (int pc = 0; pc < codigo.length; pc++) {
+            long w = codigo[pc];
+            int c = codigo(w);
+            String ultimo = usaImediato(c) ? "#" + imediato(w) : String.valueOf(campoC(w));
+            saida.println(String.format("  %04d  %-18s A=%-6d B=%-6d C=%s", pc, MNEMONICOS[c], campoA(w),
+                    campoB(w), ultimo));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.JVM;
+
+import org.example.C3E.ProgramaIR;
+import org.example.Interpretador.CompiladorLacos;
+import org.example.Interpretador.EntradaSaida;
+import org.example.Interpretador.ErroExecucao;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * CompiladorLacosJVM.java
+ * {@link CompiladorLacos} que traduz o laço com o {@link GeradorJVM#gerarLaco}
+ * e o carrega como classe oculta, como o {@link ProgramaJVM} faz com o
+ * programa inteiro. Cada laço vira uma classe própria.
+ */
+public final class CompiladorLacosJVM implements CompiladorLacos {
+
+    private static final MethodType TIPO_METODO = MethodType.methodType(int.class,
+            int[].class, double[].class, EntradaSaida.class, long[].class);
+
+    private long nanosCompilacao;
+    private int bytesGerados;
+
+    @Override
+    public LacoCompilado compilar(ProgramaIR ir, int inicio, int fim, int[] posicaoDoNome) {
+        long comeco = System.nanoTime();
+        byte[] bytes;
+        try {
+            bytes = new GeradorJVM(ir).gerarLaco(inicio, fim, posicaoDoNome);
+        } catch (IllegalArgumentException e) {
+            return null;                    // método ou salto grande demais para a JVM: segue interpretado
+        }
+        MethodHandle metodo;
+        try {
+            MethodHandles.Lookup classe = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            metodo = classe.findStatic(classe.lookupClass(), GeradorJVM.NOME_METODO, TIPO_METODO);
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalStateException("Falha ao carregar a classe gerada: " + e.getMessage(), e);
+        }
+        nanosCompilacao += System.nanoTime() - comeco;
+        bytesGerados += bytes.length;
+        return (inteiros, reais, es, saltos) -> {
+            try {
+                return (int) metodo.invokeExact(inteiros, reais, es, saltos);
+            } catch (ErroExecucao | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    /** Tempo total gasto gerando e carregando classes. */
+    public long getNanosCompilacao() {
+        return nanosCompilacao;
+    }
+
+    /** Soma dos tamanhos das classes geradas, em bytes. */
+    public int getBytesGerados() {
+        return bytesGerados;
+    }
+}
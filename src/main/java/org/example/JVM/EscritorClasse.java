@@ -0,0 +1,268 @@
+package org.example.JVM;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EscritorClasse.java
+ * Escritor mínimo de arquivos .class: pool de constantes, métodos com o
+ * atributo Code e nada mais (sem campos, interfaces ou atributos de classe).
+ *
+ * Gera a versão 49 (Java 5) do formato, a última verificada por inferência
+ * de tipos: assim não é preciso calcular a StackMapTable exigida a partir da
+ * versão 50, e qualquer JVM atual ainda carrega e verifica a classe.
+ */
+final class EscritorClasse {
+
+    private static final int VERSAO_PRINCIPAL = 49;
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_STATIC = 0x0008;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    private static final int CONSTANTE_UTF8 = 1;
+    private static final int CONSTANTE_INTEGER = 3;
+    private static final int CONSTANTE_DOUBLE = 6;
+    private static final int CONSTANTE_CLASS = 7;
+    private static final int CONSTANTE_METHODREF = 10;
+    private static final int CONSTANTE_INTERFACE_METHODREF = 11;
+    private static final int CONSTANTE_NAME_AND_TYPE = 12;
+
+    private final ByteArrayOutputStream bytesPool = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(bytesPool);
+    private final Map<String, Integer> indices = new HashMap<>();
+    private int totalPool = 1;                  // a entrada 0 não existe
+
+    private final int estaClasse;
+    private final int superClasse;
+    private final List<byte[]> metodos = new ArrayList<>();
+
+    /** 'nomeInterno' no formato da JVM (org/example/JVM/Programa). */
+    EscritorClasse(String nomeInterno) {
+        this.estaClasse = classe(nomeInterno);
+        this.superClasse = classe("java/lang/Object");
+    }
+
+    int utf8(String texto) {
+        return entrada("U" + texto, () -> {
+            pool.writeByte(CONSTANTE_UTF8);
+            pool.writeUTF(texto);
+        }, 1);
+    }
+
+    int classe(String nomeInterno) {
+        int nome = utf8(nomeInterno);
+        return entrada("C" + nomeInterno, () -> {
+            pool.writeByte(CONSTANTE_CLASS);
+            pool.writeShort(nome);
+        }, 1);
+    }
+
+    int metodo(String classe, String nome, String descritor) {
+        return referencia(CONSTANTE_METHODREF, classe, nome, descritor);
+    }
+
+    int metodoInterface(String classe, String nome, String descritor) {
+        return referencia(CONSTANTE_INTERFACE_METHODREF, classe, nome, descritor);
+    }
+
+    int inteiro(int valor) {
+        return entrada("I" + valor, () -> {
+            pool.writeByte(CONSTANTE_INTEGER);
+            pool.writeInt(valor);
+        }, 1);
+    }
+
+    /** Double ocupa duas entradas do pool. */
+    int real(double valor) {
+        return entrada("D" + Double.doubleToRawLongBits(valor), () -> {
+            pool.writeByte(CONSTANTE_DOUBLE);
+            pool.writeDouble(valor);
+        }, 2);
+    }
+
+    private int referencia(int tag, String classe, String nome, String descritor) {
+        int indiceClasse = classe(classe);
+        int nomeETipo = nomeETipo(nome, descritor);
+        return entrada(tag + ":" + classe + "." + nome + descritor, () -> {
+            pool.writeByte(tag);
+            pool.writeShort(indiceClasse);
+            pool.writeShort(nomeETipo);
+        }, 1);
+    }
+
+    private int nomeETipo(String nome, String descritor) {
+        int indiceNome = utf8(nome);
+        int indiceDescritor = utf8(descritor);
+        return entrada("N" + nome + ":" + descritor, () -> {
+            pool.writeByte(CONSTANTE_NAME_AND_TYPE);
+            pool.writeShort(indiceNome);
+            pool.writeShort(indiceDescritor);
+        }, 1);
+    }
+
+    private interface Escrita {
+        void escrever() throws IOException;
+    }
+
+    private int entrada(String chave, Escrita escrita, int tamanho) {
+        Integer existente = indices.get(chave);
+        if (existente != null) {
+            return existente;
+        }
+        try {
+            escrita.escrever();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int indice = totalPool;
+        totalPool += tamanho;
+        if (totalPool > 0xFFFF) {
+            throw new IllegalStateException("Pool de constantes cheio.");
+        }
+        indices.put(chave, indice);
+        return indice;
+    }
+
+    void adicionarMetodo(int acesso, String nome, String descritor, Codigo codigo) {
+        byte[] bytecode = codigo.finalizar();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream saida = new DataOutputStream(bytes)) {
+            saida.writeShort(acesso);
+            saida.writeShort(utf8(nome));
+            saida.writeShort(utf8(descritor));
+            saida.writeShort(1);                            // atributos: só Code
+            saida.writeShort(utf8("Code"));
+            saida.writeInt(12 + bytecode.length);
+            saida.writeShort(codigo.maximoPilha);
+            saida.writeShort(codigo.maximoLocais);
+            saida.writeInt(bytecode.length);
+            saida.write(bytecode);
+            saida.writeShort(0);                            // tabela de exceções
+            saida.writeShort(0);                            // atributos do Code
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        metodos.add(bytes.toByteArray());
+    }
+
+    byte[] gerar() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream saida = new DataOutputStream(bytes)) {
+            saida.writeInt(0xCAFEBABE);
+            saida.writeShort(0);
+            saida.writeShort(VERSAO_PRINCIPAL);
+            saida.writeShort(totalPool);
+            saida.write(bytesPool.toByteArray());
+            saida.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            saida.writeShort(estaClasse);
+            saida.writeShort(superClasse);
+            saida.writeShort(0);                            // interfaces
+            saida.writeShort(0);                            // campos
+            saida.writeShort(metodos.size());
+            for (byte[] metodo : metodos) {
+                saida.write(metodo);
+            }
+            saida.writeShort(0);                            // atributos da classe
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Posição no código, resolvida quando marcada. */
+    static final class Rotulo {
+        private int posicao = -1;
+    }
+
+    /**
+     * Corpo de um método: bytes das instruções e saltos pendentes. Os
+     * deslocamentos dos saltos são de 16 bits; o método inteiro tem no máximo
+     * 65535 bytes (limite da JVM).
+     */
+    static final class Codigo {
+        private byte[] bytes = new byte[256];
+        private int tamanho;
+        private final List<int[]> saltos = new ArrayList<>();     // {posição do opcode, posição do campo}
+        private final List<Rotulo> alvos = new ArrayList<>();
+        private final int maximoPilha;
+        private final int maximoLocais;
+
+        Codigo(int maximoPilha, int maximoLocais) {
+            this.maximoPilha = maximoPilha;
+            this.maximoLocais = maximoLocais;
+        }
+
+        int tamanho() {
+            return tamanho;
+        }
+
+        void op(int opcode) {
+            u1(opcode);
+        }
+
+        void u1(int valor) {
+            if (tamanho == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[tamanho++] = (byte) valor;
+        }
+
+        void u2(int valor) {
+            u1(valor >>> 8);
+            u1(valor);
+        }
+
+        /** Instrução com índice de variável local (iload, dstore...), com prefixo wide se preciso. */
+        void local(int opcode, int indice) {
+            if (indice > 0xFF) {
+                op(OpcodesJVM.WIDE);
+                op(opcode);
+                u2(indice);
+            } else {
+                op(opcode);
+                u1(indice);
+            }
+        }
+
+        void saltar(int opcode, Rotulo alvo) {
+            saltos.add(new int[]{tamanho, tamanho + 1});
+            alvos.add(alvo);
+            op(opcode);
+            u2(0);
+        }
+
+        void marcar(Rotulo rotulo) {
+            rotulo.posicao = tamanho;
+        }
+
+        private byte[] finalizar() {
+            if (tamanho > 0xFFFF) {
+                throw new IllegalArgumentException("Método grande demais para a JVM: " + tamanho + " bytes.");
+            }
+            for (int k = 0; k < saltos.size(); k++) {
+                int origem = saltos.get(k)[0];
+                int campo = saltos.get(k)[1];
+                int alvo = alvos.get(k).posicao;
+                if (alvo < 0) {
+                    throw new IllegalStateException("Rótulo não marcado.");
+                }
+                int deslocamento = alvo - origem;
+                if (deslocamento < Short.MIN_VALUE || deslocamento > Short.MAX_VALUE) {
+                    throw new IllegalArgumentException("Salto longo demais para a JVM: " + deslocamento + " bytes.");
+                }
+                bytes[campo] = (byte) (deslocamento >>> 8);
+                bytes[campo + 1] = (byte) deslocamento;
+            }
+            return Arrays.copyOf(bytes, tamanho);
+        }
+    }
+}
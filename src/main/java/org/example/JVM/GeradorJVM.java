@@ -0,0 +1,501 @@
+package org.example.JVM;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+import org.example.TipoDado;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.example.JVM.OpcodesJVM.*;
+
+/**
+ * GeradorJVM.java
+ * Backend que traduz o C3E (ProgramaIR) para uma classe da JVM com um único
+ * método estático:
+ *
+ *   static void executar(double[] variaveis, EntradaSaida es, long limiteSaltos)
+ *
+ * Cada nome (variável ou temporário) vira uma variável local: int para
+ * INTEIRO, CARACTER e BOOLEANO, double para REAL. As variáveis do programa
+ * são lidas de 'variaveis' (indexado pelo slot da variável) na entrada e
+ * escritas de volta no fim; os temporários começam em zero. JMP vira goto,
+ * JMPFALSE/JMPTRUE viram ifeq/ifne e os saltos com comparação viram
+ * if_icmpXX (ou dcmpl/dcmpg + ifXX com reais, escolhidos como o javac faz
+ * para que NaN torne a comparação falsa). DIV e RESTO inteiros chamam
+ * {@link SuporteJVM} para falhar como o IDIV do x86.
+ *
+ * Cada salto para trás decrementa 'limiteSaltos' e encerra a execução com
+ * {@link org.example.Interpretador.ErroExecucao} quando ele chega a zero:
+ * laços infinitos não prendem o processo.
+ *
+ * {@link #gerarLaco} traduz só um trecho do IR (um laço quente, para a
+ * execução em camadas do {@link org.example.Interpretador.InterpretadorC3E}):
+ *
+ *   static int executar(int[] inteiros, double[] reais, EntradaSaida es, long[] saltos)
+ *
+ * Os nomes vêm das memórias do interpretador e voltam para elas na saída;
+ * todo salto para fora do trecho (ou o fim dele) sai do método devolvendo a
+ * posição no IR em que o interpretador continua.
+ */
+public final class GeradorJVM {
+
+    static final String NOME_CLASSE = "org/example/JVM/ProgramaMLP";
+    static final String NOME_METODO = "executar";
+    private static final String DESCRITOR = "([DLorg/example/Interpretador/EntradaSaida;J)V";
+    private static final String DESCRITOR_LACO = "([I[DLorg/example/Interpretador/EntradaSaida;[J)I";
+    private static final String ENTRADA_SAIDA = "org/example/Interpretador/EntradaSaida";
+    private static final String SUPORTE = "org/example/JVM/SuporteJVM";
+
+    private static final int LOCAL_VARIAVEIS = 0;
+    private static final int LOCAL_ES = 1;
+    private static final int LOCAL_SALTOS = 2;           // long: ocupa 2 e 3
+    private static final int PRIMEIRO_LOCAL_NOME = 4;
+
+    // Locais do método de um laço (gerarLaco)
+    private static final int LACO_LOCAL_INTEIROS = 0;
+    private static final int LACO_LOCAL_REAIS = 1;
+    private static final int LACO_LOCAL_ES = 2;
+    private static final int LACO_LOCAL_CONTADOR = 3;    // long[]: saltos restantes, lido e devolvido
+    private static final int LACO_LOCAL_SALTOS = 4;      // long: ocupa 4 e 5
+    private static final int LACO_LOCAL_SAIDA = 6;       // posição no IR devolvida ao interpretador
+    private static final int LACO_PRIMEIRO_LOCAL_NOME = 7;
+    private static final int MAXIMO_PILHA = 6;           // MULHI: dois long e o deslocamento
+
+    private final ProgramaIR ir;
+    private final EscritorClasse classe = new EscritorClasse(NOME_CLASSE);
+    private final int[] localDoNome;
+    private EscritorClasse.Codigo codigo;
+    private EscritorClasse.Rotulo[] rotulos;
+    private int localES = LOCAL_ES;
+    private int localSaltos = LOCAL_SALTOS;
+
+    // Trecho traduzido; fora de gerarLaco, o programa inteiro
+    private int inicio;
+    private int fim;
+    private final Map<Integer, EscritorClasse.Rotulo> saidas = new TreeMap<>();
+    private EscritorClasse.Rotulo epilogo;
+
+    public GeradorJVM(ProgramaIR ir) {
+        this.ir = ir;
+        this.localDoNome = new int[ir.totalNomes()];
+    }
+
+    /** Bytes do arquivo .class. */
+    public byte[] gerarClasse() {
+        prepararCodigo(PRIMEIRO_LOCAL_NOME);
+        inicio = 0;
+        fim = ir.tamanho() - 1;
+
+        // Prólogo: variáveis vêm do vetor, temporários começam em zero
+        for (int n = 0; n < ir.totalNomes(); n++) {
+            int operando = ir.operandoDenso(n);
+            if (ProgramaIR.ehVariavel(operando)) {
+                codigo.local(ALOAD, LOCAL_VARIAVEIS);
+                empilharInteiro(ProgramaIR.valorOperando(operando));
+                codigo.op(DALOAD);
+                guardar(operando, true);
+            } else if (ehReal(operando)) {
+                codigo.op(DCONST_0);
+                guardar(operando, true);
+            } else {
+                codigo.op(ICONST_0);
+                guardar(operando, false);
+            }
+        }
+
+        int[] posicaoRotulo = ir.posicoesRotulos();
+        for (int i = 0; i < ir.tamanho(); i++) {
+            traduzir(i, posicaoRotulo);
+        }
+
+        // Epílogo: valores finais das variáveis de volta no vetor
+        for (int slot = 0; slot < ir.getNumeroVariaveis(); slot++) {
+            codigo.local(ALOAD, LOCAL_VARIAVEIS);
+            empilharInteiro(slot);
+            carregar(ProgramaIR.operando(ProgramaIR.VARIAVEL, slot), true);
+            codigo.op(DASTORE);
+        }
+        codigo.op(RETURN);
+
+        classe.adicionarMetodo(EscritorClasse.ACC_PUBLIC | EscritorClasse.ACC_STATIC, NOME_METODO, DESCRITOR, codigo);
+        return classe.gerar();
+    }
+
+    /**
+     * Bytes de uma classe que executa as instruções [inicio, fim] do IR,
+     * entrando sempre por 'inicio'. 'posicaoDoNome' dá, por índice denso, a
+     * posição de cada nome em 'inteiros' ou em 'reais' (conforme o tipo).
+     */
+    public byte[] gerarLaco(int inicio, int fim, int[] posicaoDoNome) {
+        localES = LACO_LOCAL_ES;
+        localSaltos = LACO_LOCAL_SALTOS;
+        prepararCodigo(LACO_PRIMEIRO_LOCAL_NOME);
+        this.inicio = inicio;
+        this.fim = fim;
+        epilogo = new EscritorClasse.Rotulo();
+
+        // Nomes lidos ou escritos no trecho (só os escritos voltam na saída)
+        boolean[] usado = new boolean[ir.totalNomes()];
+        boolean[] escrito = new boolean[ir.totalNomes()];
+        for (int i = inicio; i <= fim; i++) {
+            Opcode op = ir.opcode(i);
+            if (op.defineDestino()) {
+                usado[ir.indiceDenso(ir.destino(i))] = true;
+                escrito[ir.indiceDenso(ir.destino(i))] = true;
+            }
+            int lidos = op.numeroOperandosLidos();
+            if (lidos >= 1 && ProgramaIR.ehNome(ir.operando1(i))) {
+                usado[ir.indiceDenso(ir.operando1(i))] = true;
+            }
+            if (lidos == 2 && ProgramaIR.ehNome(ir.operando2(i))) {
+                usado[ir.indiceDenso(ir.operando2(i))] = true;
+            }
+        }
+
+        // Prólogo: saltos restantes e nomes usados vêm do interpretador
+        codigo.local(ALOAD, LACO_LOCAL_CONTADOR);
+        codigo.op(ICONST_0);
+        codigo.op(LALOAD);
+        codigo.local(LSTORE, localSaltos);
+        for (int n = 0; n < usado.length; n++) {
+            if (usado[n]) {
+                int operando = ir.operandoDenso(n);
+                boolean real = ehReal(operando);
+                codigo.local(ALOAD, real ? LACO_LOCAL_REAIS : LACO_LOCAL_INTEIROS);
+                empilharInteiro(posicaoDoNome[n]);
+                codigo.op(real ? DALOAD : IALOAD);
+                guardar(operando, real);
+            }
+        }
+
+        int[] posicaoRotulo = ir.posicoesRotulos();
+        for (int i = inicio; i <= fim; i++) {
+            traduzir(i, posicaoRotulo);
+        }
+        sair(fim + 1);
+        for (Map.Entry<Integer, EscritorClasse.Rotulo> saida : saidas.entrySet()) {
+            codigo.marcar(saida.getValue());
+            sair(saida.getKey());
+        }
+
+        // Epílogo: nomes escritos e saltos restantes de volta
+        codigo.marcar(epilogo);
+        for (int n = 0; n < escrito.length; n++) {
+            if (escrito[n]) {
+                int operando = ir.operandoDenso(n);
+                boolean real = ehReal(operando);
+                codigo.local(ALOAD, real ? LACO_LOCAL_REAIS : LACO_LOCAL_INTEIROS);
+                empilharInteiro(posicaoDoNome[n]);
+                carregar(operando, real);
+                codigo.op(real ? DASTORE : IASTORE);
+            }
+        }
+        codigo.local(ALOAD, LACO_LOCAL_CONTADOR);
+        codigo.op(ICONST_0);
+        codigo.local(LLOAD, localSaltos);
+        codigo.op(LASTORE);
+        codigo.local(ILOAD, LACO_LOCAL_SAIDA);
+        codigo.op(IRETURN);
+
+        classe.adicionarMetodo(EscritorClasse.ACC_PUBLIC | EscritorClasse.ACC_STATIC, NOME_METODO, DESCRITOR_LACO,
+                codigo);
+        return classe.gerar();
+    }
+
+    /** Um local por nome (double ocupa dois), a partir de 'primeiroLocal', e um rótulo por rótulo do IR. */
+    private void prepararCodigo(int primeiroLocal) {
+        int proximoLocal = primeiroLocal;
+        for (int n = 0; n < ir.totalNomes(); n++) {
+            localDoNome[n] = proximoLocal;
+            proximoLocal += ehReal(ir.operandoDenso(n)) ? 2 : 1;
+        }
+        codigo = new EscritorClasse.Codigo(MAXIMO_PILHA, proximoLocal);
+        rotulos = new EscritorClasse.Rotulo[ir.getMaiorRotulo() + 1];
+        for (int r = 0; r < rotulos.length; r++) {
+            rotulos[r] = new EscritorClasse.Rotulo();
+        }
+    }
+
+    /** Destino de um salto para fora do trecho: um ponto que sai devolvendo 'posicao'. */
+    private EscritorClasse.Rotulo saida(int posicao) {
+        return saidas.computeIfAbsent(posicao, p -> new EscritorClasse.Rotulo());
+    }
+
+    private void sair(int posicao) {
+        empilharInteiro(posicao);
+        codigo.local(ISTORE, LACO_LOCAL_SAIDA);
+        codigo.saltar(GOTO, epilogo);
+    }
+
+    private boolean foraDoTrecho(int posicao) {
+        return posicao < inicio || posicao > fim;
+    }
+
+    private void traduzir(int i, int[] posicaoRotulo) {
+        Opcode op = ir.opcode(i);
+        int destino = ir.destino(i);
+        int a = ir.operando1(i);
+        int b = ir.operando2(i);
+        switch (op) {
+            case NOP:
+                break;
+            case ROTULO:
+                codigo.marcar(rotulos[ProgramaIR.valorOperando(destino)]);
+                break;
+            case JMP: {
+                int rotulo = ProgramaIR.valorOperando(destino);
+                if (foraDoTrecho(posicaoRotulo[rotulo])) {
+                    codigo.saltar(GOTO, saida(posicaoRotulo[rotulo]));
+                } else if (posicaoRotulo[rotulo] <= i) {
+                    contarSalto(rotulo);
+                } else {
+                    codigo.saltar(GOTO, rotulos[rotulo]);
+                }
+                break;
+            }
+            case JMPFALSE:
+            case JMPTRUE:
+                if (ehReal(a)) {
+                    carregar(a, true);
+                    codigo.op(DCONST_0);
+                    codigo.op(DCMPL);
+                } else {
+                    carregar(a, false);
+                }
+                saltarSe(op == Opcode.JMPFALSE ? IFEQ : IFNE, destino, i, posicaoRotulo);
+                break;
+            case COPIA:
+                carregar(a, ehReal(destino));
+                guardar(destino, ehReal(destino));
+                break;
+            case READ:
+                codigo.local(ALOAD, localES);
+                if (ehReal(destino)) {
+                    invocarEntradaSaida("lerReal", "()D", 1);
+                } else {
+                    invocarEntradaSaida("lerInteiro", "()I", 1);
+                }
+                guardar(destino, ehReal(destino));
+                break;
+            case WRITE:
+                codigo.local(ALOAD, localES);
+                carregar(a, ehReal(a));
+                if (ehReal(a)) {
+                    invocarEntradaSaida("escreverReal", "(D)V", 3);
+                } else {
+                    invocarEntradaSaida("escreverInteiro", "(I)V", 2);
+                }
+                break;
+            default:
+                if (op.ehSaltoComparacao()) {
+                    saltarSe(comparar(op.comparacaoDoSalto(), a, b), destino, i, posicaoRotulo);
+                } else if (op.ehComparacao()) {
+                    EscritorClasse.Rotulo verdadeiro = new EscritorClasse.Rotulo();
+                    EscritorClasse.Rotulo fim = new EscritorClasse.Rotulo();
+                    codigo.saltar(comparar(op, a, b), verdadeiro);
+                    codigo.op(ICONST_0);
+                    codigo.saltar(GOTO, fim);
+                    codigo.marcar(verdadeiro);
+                    codigo.op(ICONST_1);
+                    codigo.marcar(fim);
+                    guardar(destino, false);
+                } else if (op.ehBinario()) {
+                    traduzirAritmetica(op, destino, a, b);
+                } else {
+                    throw new IllegalArgumentException("Opcode sem tradução para a JVM: " + op);
+                }
+                break;
+        }
+    }
+
+    private void traduzirAritmetica(Opcode op, int destino, int a, int b) {
+        boolean real = ehReal(destino) || ehReal(a) || ehReal(b);
+        if (!real) {
+            carregar(a, false);
+            if (op == Opcode.MULHI) {
+                codigo.op(I2L);
+                carregar(b, false);
+                codigo.op(I2L);
+                codigo.op(LMUL);
+                codigo.op(BIPUSH);
+                codigo.u1(32);
+                codigo.op(LSHR);
+                codigo.op(L2I);
+                guardar(destino, false);
+                return;
+            }
+            carregar(b, false);
+            switch (op) {
+                case ADD: codigo.op(IADD); break;
+                case SUB: codigo.op(ISUB); break;
+                case MUL: codigo.op(IMUL); break;
+                case DIV: invocarSuporte("dividir", "(II)I"); break;
+                case RESTO: invocarSuporte("resto", "(II)I"); break;
+                case SHL: codigo.op(ISHL); break;
+                case SAR: codigo.op(ISHR); break;
+                case SHR: codigo.op(IUSHR); break;
+                case AND: codigo.op(IAND); break;
+                default: throw new IllegalArgumentException("Opcode sem tradução para a JVM: " + op);
+            }
+            guardar(destino, false);
+            return;
+        }
+        carregar(a, true);
+        carregar(b, true);
+        switch (op) {
+            case ADD: codigo.op(DADD); break;
+            case SUB: codigo.op(DSUB); break;
+            case MUL: codigo.op(DMUL); break;
+            case DIV: codigo.op(DDIV); break;
+            case RESTO: invocarSuporte("restoReal", "(DD)D"); break;
+            default: throw new IllegalArgumentException("Operação só inteira com operando REAL: " + op);
+        }
+        guardar(destino, true);
+    }
+
+    /**
+     * Empilha os operandos da comparação (e o dcmpX, com reais) e devolve o
+     * salto da JVM que desvia quando ela é verdadeira.
+     */
+    private int comparar(Opcode comparacao, int a, int b) {
+        boolean real = ehReal(a) || ehReal(b);
+        carregar(a, real);
+        carregar(b, real);
+        if (!real) {
+            switch (comparacao) {
+                case CMPEQ: return IF_ICMPEQ;
+                case CMPNE: return IF_ICMPNE;
+                case CMPLT: return IF_ICMPLT;
+                case CMPLE: return IF_ICMPLE;
+                case CMPGT: return IF_ICMPGT;
+                case CMPGE: return IF_ICMPGE;
+                default: throw new IllegalArgumentException("Não é comparação: " + comparacao);
+            }
+        }
+        // dcmpg dá 1 com NaN (LT/LE falsos); dcmpl dá -1 (GT/GE/EQ falsos, NE verdadeiro)
+        switch (comparacao) {
+            case CMPLT: codigo.op(DCMPG); return IFLT;
+            case CMPLE: codigo.op(DCMPG); return IFLE;
+            case CMPGT: codigo.op(DCMPL); return IFGT;
+            case CMPGE: codigo.op(DCMPL); return IFGE;
+            case CMPEQ: codigo.op(DCMPL); return IFEQ;
+            case CMPNE: codigo.op(DCMPL); return IFNE;
+            default: throw new IllegalArgumentException("Não é comparação: " + comparacao);
+        }
+    }
+
+    /** Salto condicional já com a condição na pilha; para trás, passa pelo contador; para fora do trecho, sai. */
+    private void saltarSe(int salto, int destino, int i, int[] posicaoRotulo) {
+        int rotulo = ProgramaIR.valorOperando(destino);
+        if (foraDoTrecho(posicaoRotulo[rotulo])) {
+            codigo.saltar(salto, saida(posicaoRotulo[rotulo]));
+            return;
+        }
+        if (posicaoRotulo[rotulo] > i) {
+            codigo.saltar(salto, rotulos[rotulo]);
+            return;
+        }
+        EscritorClasse.Rotulo pula = new EscritorClasse.Rotulo();
+        codigo.saltar(negado(salto), pula);
+        contarSalto(rotulo);
+        codigo.marcar(pula);
+    }
+
+    /** Salto para trás: decrementa o contador e só desvia enquanto ele for positivo. */
+    private void contarSalto(int rotulo) {
+        codigo.local(LLOAD, localSaltos);
+        codigo.op(LCONST_1);
+        codigo.op(LSUB);
+        codigo.op(DUP2);
+        codigo.local(LSTORE, localSaltos);
+        codigo.op(LCONST_0);
+        codigo.op(LCMP);
+        codigo.saltar(IFGT, rotulos[rotulo]);
+        invocarSuporte("limiteExcedido", "()V");    // sempre lança ErroExecucao
+    }
+
+    /** Empilha o operando como double ('real') ou int, convertendo se preciso. */
+    private void carregar(int operando, boolean real) {
+        if (ProgramaIR.ehConstante(operando)) {
+            double valor = ir.valorConstante(operando);
+            if (real) {
+                empilharReal(valor);
+            } else {
+                empilharInteiro((int) valor);
+            }
+            return;
+        }
+        int local = localDoNome[ir.indiceDenso(operando)];
+        if (ehReal(operando)) {
+            codigo.local(DLOAD, local);
+            if (!real) {
+                codigo.op(D2I);
+            }
+        } else {
+            codigo.local(ILOAD, local);
+            if (real) {
+                codigo.op(I2D);
+            }
+        }
+    }
+
+    /** Desempilha um valor double ('real') ou int para o nome, convertendo se preciso. */
+    private void guardar(int operando, boolean real) {
+        int local = localDoNome[ir.indiceDenso(operando)];
+        if (ehReal(operando)) {
+            if (!real) {
+                codigo.op(I2D);
+            }
+            codigo.local(DSTORE, local);
+        } else {
+            if (real) {
+                codigo.op(D2I);
+            }
+            codigo.local(ISTORE, local);
+        }
+    }
+
+    private void empilharInteiro(int valor) {
+        if (valor >= -1 && valor <= 5) {
+            codigo.op(ICONST_0 + valor);
+        } else if (valor >= Byte.MIN_VALUE && valor <= Byte.MAX_VALUE) {
+            codigo.op(BIPUSH);
+            codigo.u1(valor);
+        } else if (valor >= Short.MIN_VALUE && valor <= Short.MAX_VALUE) {
+            codigo.op(SIPUSH);
+            codigo.u2(valor);
+        } else {
+            codigo.op(LDC_W);
+            codigo.u2(classe.inteiro(valor));
+        }
+    }
+
+    private void empilharReal(double valor) {
+        if (Double.doubleToRawLongBits(valor) == 0L) {
+            codigo.op(DCONST_0);
+        } else if (valor == 1.0) {
+            codigo.op(DCONST_1);
+        } else {
+            codigo.op(LDC2_W);
+            codigo.u2(classe.real(valor));
+        }
+    }
+
+    private void invocarSuporte(String nome, String descritor) {
+        codigo.op(INVOKESTATIC);
+        codigo.u2(classe.metodo(SUPORTE, nome, descritor));
+    }
+
+    /** 'argumentos' conta as posições da pilha, incluindo o próprio objeto (double ocupa 2). */
+    private void invocarEntradaSaida(String nome, String descritor, int argumentos) {
+        codigo.op(INVOKEINTERFACE);
+        codigo.u2(classe.metodoInterface(ENTRADA_SAIDA, nome, descritor));
+        codigo.u1(argumentos);
+        codigo.u1(0);
+    }
+
+    private boolean ehReal(int operando) {
+        return ir.tipo(operando) == TipoDado.REAL;
+    }
+}
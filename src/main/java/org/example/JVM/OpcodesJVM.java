@@ -0,0 +1,81 @@
+package org.example.JVM;
+
+/**
+ * OpcodesJVM.java
+ * Opcodes da JVM usados pelo {@link GeradorJVM} (valores da especificação
+ * da JVM, capítulo 6).
+ */
+final class OpcodesJVM {
+
+    static final int ICONST_0 = 3;
+    static final int ICONST_1 = 4;
+    static final int LCONST_0 = 9;
+    static final int LCONST_1 = 10;
+    static final int DCONST_0 = 14;
+    static final int DCONST_1 = 15;
+    static final int BIPUSH = 16;
+    static final int SIPUSH = 17;
+    static final int LDC_W = 19;
+    static final int LDC2_W = 20;
+    static final int ILOAD = 21;
+    static final int LLOAD = 22;
+    static final int DLOAD = 24;
+    static final int ALOAD = 25;
+    static final int IALOAD = 46;
+    static final int LALOAD = 47;
+    static final int DALOAD = 49;
+    static final int ISTORE = 54;
+    static final int LSTORE = 55;
+    static final int DSTORE = 57;
+    static final int IASTORE = 79;
+    static final int LASTORE = 80;
+    static final int DASTORE = 82;
+    static final int DUP2 = 92;
+    static final int IADD = 96;
+    static final int DADD = 99;
+    static final int ISUB = 100;
+    static final int LSUB = 101;
+    static final int DSUB = 103;
+    static final int IMUL = 104;
+    static final int LMUL = 105;
+    static final int DMUL = 107;
+    static final int DDIV = 111;
+    static final int ISHL = 120;
+    static final int ISHR = 122;
+    static final int LSHR = 123;
+    static final int IUSHR = 124;
+    static final int IAND = 126;
+    static final int I2L = 133;
+    static final int I2D = 135;
+    static final int L2I = 136;
+    static final int D2I = 142;
+    static final int LCMP = 148;
+    static final int DCMPL = 151;
+    static final int DCMPG = 152;
+    static final int IFEQ = 153;             // IFEQ..IFLE e IF_ICMPEQ..IF_ICMPLE: pares (par, ímpar) negados
+    static final int IFNE = 154;
+    static final int IFLT = 155;
+    static final int IFGE = 156;
+    static final int IFGT = 157;
+    static final int IFLE = 158;
+    static final int IF_ICMPEQ = 159;
+    static final int IF_ICMPNE = 160;
+    static final int IF_ICMPLT = 161;
+    static final int IF_ICMPGE = 162;
+    static final int IF_ICMPGT = 163;
+    static final int IF_ICMPLE = 164;
+    static final int GOTO = 167;
+    static final int IRETURN = 172;
+    static final int RETURN = 177;
+    static final int INVOKESTATIC = 184;
+    static final int INVOKEINTERFACE = 185;
+    static final int WIDE = 196;
+
+    private OpcodesJVM() {
+    }
+
+    /** Salto condicional com a condição negada (IFLT -> IFGE, IF_ICMPEQ -> IF_ICMPNE...). */
+    static int negado(int salto) {
+        return ((salto - IFEQ) ^ 1) + IFEQ;
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.JVM;
+
+import org.example.C3E.ProgramaIR;
+import org.example.Interpretador.EntradaSaida;
+import org.example.Interpretador.ErroExecucao;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * ProgramaJVM.java
+ * Programa MLP compilado pelo {@link GeradorJVM} e carregado como classe
+ * oculta (MethodHandles.Lookup.defineHiddenClass) no pacote desta classe:
+ * nenhum arquivo .class é gravado, a classe some quando o ProgramaJVM deixa
+ * de ser usado e, depois de algumas execuções, o JIT do HotSpot compila o
+ * método gerado como qualquer outro código Java.
+ */
+public final class ProgramaJVM {
+
+    private static final MethodType TIPO_METODO =
+            MethodType.methodType(void.class, double[].class, EntradaSaida.class, long.class);
+
+    private final ProgramaIR ir;
+    private final MethodHandle metodo;
+    private final int tamanhoClasse;
+    private double[] variaveis;
+    private long limiteSaltos = Long.MAX_VALUE;
+
+    private ProgramaJVM(ProgramaIR ir, MethodHandle metodo, int tamanhoClasse) {
+        this.ir = ir;
+        this.metodo = metodo;
+        this.tamanhoClasse = tamanhoClasse;
+        this.variaveis = new double[ir.getNumeroVariaveis()];
+    }
+
+    public static ProgramaJVM carregar(ProgramaIR ir) {
+        byte[] bytes = new GeradorJVM(ir).gerarClasse();
+        try {
+            MethodHandles.Lookup classe = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            MethodHandle metodo = classe.findStatic(classe.lookupClass(), GeradorJVM.NOME_METODO, TIPO_METODO);
+            return new ProgramaJVM(ir, metodo, bytes.length);
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalStateException("Falha ao carregar a classe gerada: " + e.getMessage(), e);
+        }
+    }
+
+    /** Interrompe a execução com erro depois de 'limite' saltos para trás (útil contra laços infinitos). */
+    public void setLimiteSaltos(long limite) {
+        this.limiteSaltos = limite;
+    }
+
+    /** Tamanho do arquivo .class gerado, em bytes. */
+    public int getTamanhoClasse() {
+        return tamanhoClasse;
+    }
+
+    /**
+     * Executa com as variáveis zeradas. Se a execução falhar, as variáveis
+     * ficam como no início (os valores só voltam do método gerado no fim).
+     */
+    public void executar(EntradaSaida es) throws ErroExecucao {
+        double[] valores = new double[ir.getNumeroVariaveis()];
+        variaveis = valores;
+        try {
+            metodo.invokeExact(valores, es, limiteSaltos);
+        } catch (ErroExecucao | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Valor final de uma variável do programa, após {@link #executar}. */
+    public double valorVariavel(String nome) {
+        int operando = ir.buscarVariavel(nome);
+        if (operando == ProgramaIR.NENHUM) {
+            throw new IllegalArgumentException("Variável não declarada: " + nome);
+        }
+        return variaveis[ProgramaIR.valorOperando(operando)];
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.JVM;
+
+import org.example.Interpretador.ErroExecucao;
+
+/**
+ * SuporteJVM.java
+ * Rotinas chamadas pelo código gerado pelo {@link GeradorJVM} onde a
+ * semântica do MLP difere da instrução da JVM: IDIV da JVM não falha em
+ * MIN_VALUE / -1 (o IDIV do x86, sim) e lança ArithmeticException em vez de
+ * {@link ErroExecucao}. São chamadas estáticas pequenas: o JIT as expande no
+ * próprio laço.
+ */
+final class SuporteJVM {
+
+    private SuporteJVM() {
+    }
+
+    static int dividir(int dividendo, int divisor) throws ErroExecucao {
+        verificarDivisao(dividendo, divisor);
+        return dividendo / divisor;
+    }
+
+    static int resto(int dividendo, int divisor) throws ErroExecucao {
+        verificarDivisao(dividendo, divisor);
+        return dividendo % divisor;
+    }
+
+    /** RESTO com operandos reais usa as partes inteiras, como no interpretador. */
+    static double restoReal(double dividendo, double divisor) throws ErroExecucao {
+        return resto((int) dividendo, (int) divisor);
+    }
+
+    static void limiteExcedido() throws ErroExecucao {
+        throw new ErroExecucao("Limite de saltos para trás excedido.");
+    }
+
+    private static void verificarDivisao(int dividendo, int divisor) throws ErroExecucao {
+        if (divisor == 0) {
+            throw new ErroExecucao("Divisão por zero.");
+        }
+        if (dividendo == Integer.MIN_VALUE && divisor == -1) {
+            throw new ErroExecucao("Estouro na divisão inteira (" + dividendo + " / -1).");
+        }
+    }
+}
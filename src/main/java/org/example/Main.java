@@ -1,18 +1,37 @@
 package org.example;
 
 import org.example.AST.ASTSemanticAnalyzer;
+import org.example.AST.FormatoBinarioAST;
 import org.example.AST.ProgramaNode;
 import org.example.Assembly.AssemblyGenerator;
 import org.example.C3E.C3EGeneratorVisitor;
 import org.example.C3E.GeradorC3E;
 import org.example.C3E.InstrucaoC3E;
+import org.example.C3E.ProgramaIR;
+import org.example.Interpretador.EntradaSaida;
+import org.example.Interpretador.Arvore.InterpretadorAST;
+import org.example.Interpretador.ErroExecucao;
+import org.example.Interpretador.InterpretadorC3E;
+import org.example.JVM.CompiladorLacosJVM;
+import org.example.JVM.ProgramaJVM;
+import org.example.Otimizacao.FormaSSA;
+import org.example.Otimizacao.GerenciadorPassos;
+import org.example.Otimizacao.GrafoFluxoControle;
+import org.example.Otimizacao.Laco;
+import org.example.Otimizacao.NivelOtimizacao;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Main.java
@@ -22,12 +41,37 @@ import java.util.List;
 public class Main {
 
     private static final String NOME_ARQUIVO_ASSEMBLY = "programa.asm";
+    // Cache binário da AST + Tabela de Símbolos (reaproveitado enquanto o fonte não mudar)
+    private static final String NOME_ARQUIVO_AST_CACHE = "programa.ast";
+    // Grafo de Fluxo de Controle no formato DOT (visualizar com 'dot -Tpng programa.dot')
+    private static final String NOME_ARQUIVO_CFG = "programa.dot";
     // O arquivo deve estar na pasta 'src/main/resources' ou na raiz do classpath.
     private static final String NOME_ARQUIVO_FONTE = "teste8_validaçãoEscopo.txt";
+    // Limites da impressão da AST no console
+    private static final int PROFUNDIDADE_MAXIMA_AST = 24;
+    private static final int LIMITE_NOS_AST = 500;
+    // Executa o C3E otimizado com o interpretador (console como entrada e saída)
+    private static final String OPCAO_EXECUTAR = "--executar";
+    // Executa o C3E otimizado compilado para bytecode da JVM (classe oculta)
+    private static final String OPCAO_EXECUTAR_JVM = "--executar-jvm";
+    // Interpreta o C3E e compila para a JVM os laços que ficarem quentes
+    private static final String OPCAO_EXECUTAR_CAMADAS = "--executar-camadas";
+    // Executa direto na AST, logo após a análise semântica (sem C3E nem Assembly)
+    private static final String OPCAO_EXECUTAR_AST = "--executar-ast";
+    // Imprime a forma SSA do C3E (os passos que precisam dela a constroem por conta própria)
+    private static final String OPCAO_LISTAR_SSA = "--ssa";
+    // Evita que um laço infinito no programa prenda o compilador
+    private static final long LIMITE_INSTRUCOES_EXECUCAO = 1_000_000_000L;
 
     public static void main(String[] args) {
 
         String codigoFonte;
+        NivelOtimizacao nivel = lerNivelOtimizacao(args);
+        boolean executar = Arrays.asList(args).contains(OPCAO_EXECUTAR);
+        boolean executarJVM = Arrays.asList(args).contains(OPCAO_EXECUTAR_JVM);
+        boolean executarAST = Arrays.asList(args).contains(OPCAO_EXECUTAR_AST);
+        boolean executarCamadas = Arrays.asList(args).contains(OPCAO_EXECUTAR_CAMADAS);
+        boolean listarSSA = Arrays.asList(args).contains(OPCAO_LISTAR_SSA);
 
         try {
             // =========================================================
@@ -37,117 +81,148 @@ public class Main {
             codigoFonte = lerArquivo(NOME_ARQUIVO_FONTE);
 
             // =========================================================
-            // FASE 1: ANÁLISE LÉXICA
+            // FASES 1 E 2 (ou AST do cache binário, se o fonte não mudou)
             // =========================================================
-            System.out.println("\n--- 1. Análise Léxica ---");
-            System.out.println("Passo: O Analisador Léxico (Scanner) transforma o código-fonte em uma sequência de Tokens.");
-            AnalisadorLexico lexico = new AnalisadorLexico(codigoFonte);
-            List<Token> tokens = lexico.analisar();
-            System.out.println("Resultado: Análise Léxica concluída. Total de tokens: " + tokens.size());
-
-            // Exibir a lista de tokens em formato de tabela
-            System.out.println("\nTokens Identificados:");
-            System.out.println(String.format("  | %-20s | %-15s | Linha | Coluna |", "TIPO DO TOKEN", "LEXEMA"));
-            System.out.println("  |----------------------|-----------------|-------|--------|");
-            for (Token token : tokens) {
-                // Assumimos que Token possui os métodos getTipo(), getLexema(), getLinha(), getColuna()
-                System.out.println(String.format("  | %-20s | %-15s | %-5d | %-6d |",
-                        token.getTipo(),
-                        token.getLexema().replace("\n", "\\n").replace("\r", "\\r"), // Trata quebras de linha
-                        token.getLinha(),
-                        token.getColuna()));
-            }
-            System.out.println("----------------------------------------------------------");
+            long assinaturaFonte = FormatoBinarioAST.assinatura(codigoFonte);
+            ProgramaNode astRaiz;
+            AnalisadorSemantico analisadorSemantico;
+
+            FormatoBinarioAST.ASTSerializada cache = carregarCacheAST(assinaturaFonte);
+            if (cache != null) {
+                astRaiz = cache.getPrograma();
+                analisadorSemantico = new AnalisadorSemantico(cache.getTabelaSimbolos());
+            } else {
+                AnalisadorSintatico sintatico = analisarFonte(codigoFonte);
+                if (!sintatico.analiseBemSucedida()) {
+                    System.err.println("\nCompilação falhou devido a erros sintáticos.");
+                    return;
+                }
+                System.out.println("Resultado: Análise Sintática concluída. A estrutura do programa é válida.");
+                astRaiz = sintatico.getAstRaiz();
+                analisadorSemantico = sintatico.getAnalisadorSemantico();
+                gravarCacheAST(astRaiz, analisadorSemantico.getTabelaSimbolos(), assinaturaFonte);
+            }
 
+            // --- IMPRIMINDO A TABELA DE SÍMBOLOS ---
+            TabelaSimbolos ts = analisadorSemantico.getTabelaSimbolos();
+            ts.imprimirTabela();
+            // ---------------------------------------
 
             // =========================================================
-            // FASE 2: ANÁLISE SINTÁTICA E CONSTRUÇÃO DA AST
+            // IMPRESSÃO DA AST (streaming, com limites)
             // =========================================================
-            System.out.println("\n--- 2. Análise Sintática / Construção da AST ---");
-            System.out.println("Passo: O Analisador Sintático (Parser) verifica a gramática e constrói a Árvore Sintática Abstrata (AST).");
+            System.out.println("\n--- Estrutura da AST (Raiz: ProgramaNode) ---");
+            // A árvore é escrita direto no System.out; os limites evitam que
+            // programas muito grandes gastem o tempo de compilação imprimindo a AST.
+            if (astRaiz != null) {
+                astRaiz.imprimirArvore(System.out, PROFUNDIDADE_MAXIMA_AST, LIMITE_NOS_AST);
+            } else {
+                System.out.println("Erro: O nó raiz da AST é nulo.");
+            }
+            System.out.println("---------------------------------------------");
 
-            AnalisadorSintatico sintatico = new AnalisadorSintatico(tokens);
-            sintatico.analisar(); // Popula a AST e a Tabela de Símbolos com as declarações
 
-            if (sintatico.analiseBemSucedida()) {
+            // =========================================================
+            // FASE 3: ANÁLISE SEMÂNTICA (Checagem de Tipos)
+            // =========================================================
+            System.out.println("\n--- 3. Análise Semântica (Checagem de Tipos) ---");
+            System.out.println("Passo: O Analisador Semântico (Visitor na AST) verifica o uso correto de variáveis e compatibilidade de tipos.");
+            ASTSemanticAnalyzer semantico = new ASTSemanticAnalyzer(analisadorSemantico);
+            astRaiz.accept(semantico);
+            System.out.println("Resultado: Análise Semântica concluída sem erros de tipo.");
+
+            if (executarAST) {
+                executarNaAST(astRaiz, ts);
+                return;
+            }
 
-                System.out.println("Resultado: Análise Sintática concluída. A estrutura do programa é válida.");
+            // =========================================================
+            // FASE 4: GERAÇÃO DE CÓDIGO INTERMEDIÁRIO (C3E)
+            // =========================================================
+            System.out.println("\n--- 4. Geração de Código de 3 Endereços (C3E) ---");
+            System.out.println("Passo: O Gerador C3E percorre a AST e traduz comandos complexos em uma sequência de operações simples (instruções de 3 endereços).");
+            GeradorC3E geradorC3E = new GeradorC3E();
+            C3EGeneratorVisitor c3eVisitor = new C3EGeneratorVisitor(geradorC3E, analisadorSemantico);
+            astRaiz.accept(c3eVisitor);
+
+            // O gerador emite direto no IR compacto (opcodes + operandos tipados)
+            ProgramaIR ir = geradorC3E.getIR();
+
+            List<InstrucaoC3E> codigoC3E = ir.paraC3E();
+            System.out.println("Código C3E gerado (" + codigoC3E.size() + " instruções):");
+            int linha = 0;
+            for (InstrucaoC3E instrucao : codigoC3E) {
+                System.out.println(String.format("  [%02d] %s", linha++, instrucao));
+            }
+            System.out.println("--------------------------");
+
+            // Grafo de Fluxo de Controle: blocos básicos, dominadores e laços
+            GrafoFluxoControle cfg = new GrafoFluxoControle(ir);
+            imprimirResumoCFG(cfg);
+            salvarArquivoCFG(cfg);
+
+            // Forma SSA só para a listagem (os passos que dependem dela a constroem e desfazem internamente)
+            if (listarSSA) {
+                FormaSSA ssa = FormaSSA.construir(ir);
+                System.out.println("\nForma SSA (" + ssa.totalPhis() + " função(ões) phi):");
+                ssa.gerarListagem(System.out);
+            }
 
-                ProgramaNode astRaiz = sintatico.getAstRaiz();
-
-                // --- IMPRIMINDO A TABELA DE SÍMBOLOS ---
-                TabelaSimbolos ts = sintatico.getAnalisadorSemantico().getTabelaSimbolos();
-                ts.imprimirTabela();
-                // ---------------------------------------
-
-                // =========================================================
-                // CORREÇÃO AQUI: CHAMADA REAL DO MÉTODO imprimirArvore()
-                // =========================================================
-                System.out.println("\n--- Estrutura da AST (Raiz: ProgramaNode) ---");
-                // Chama o método imprimirArvore a partir do nó raiz
-                if (astRaiz != null) {
-                    System.out.println(astRaiz.imprimirArvore(""));
-                } else {
-                    System.out.println("Erro: O nó raiz da AST é nulo.");
-                }
-                System.out.println("---------------------------------------------");
-
-
-                // =========================================================
-                // FASE 3: ANÁLISE SEMÂNTICA (Checagem de Tipos)
-                // =========================================================
-                System.out.println("\n--- 3. Análise Semântica (Checagem de Tipos) ---");
-                System.out.println("Passo: O Analisador Semântico (Visitor na AST) verifica o uso correto de variáveis e compatibilidade de tipos.");
-                ASTSemanticAnalyzer semantico = new ASTSemanticAnalyzer(sintatico.getAnalisadorSemantico());
-                astRaiz.accept(semantico);
-                System.out.println("Resultado: Análise Semântica concluída sem erros de tipo.");
-
-                // =========================================================
-                // FASE 4: GERAÇÃO DE CÓDIGO INTERMEDIÁRIO (C3E)
-                // =========================================================
-                System.out.println("\n--- 4. Geração de Código de 3 Endereços (C3E) ---");
-                System.out.println("Passo: O Gerador C3E percorre a AST e traduz comandos complexos em uma sequência de operações simples (instruções de 3 endereços).");
-                GeradorC3E geradorC3E = new GeradorC3E();
-                C3EGeneratorVisitor c3eVisitor = new C3EGeneratorVisitor(geradorC3E, sintatico.getAnalisadorSemantico());
-                astRaiz.accept(c3eVisitor);
-
-                List<InstrucaoC3E> codigoC3E = geradorC3E.getCodigo();
-                System.out.println("Código C3E gerado (" + codigoC3E.size() + " instruções):");
-                int linha = 0;
-                for (InstrucaoC3E instrucao : codigoC3E) {
-                    System.out.println(String.format("  [%02d] %s", linha++, instrucao));
-                }
-                System.out.println("--------------------------");
-
-
-                // =========================================================
-                // FASE 5: GERAÇÃO DE CÓDIGO FINAL (ASSEMBLY)
-                // =========================================================
-                System.out.println("\n--- 5. Geração de Código Assembly ---");
-                System.out.println("Passo: O Gerador Assembly traduz o C3E para instruções de máquina (Assembly x86), usando a Tabela de Símbolos para alocação de memória.");
-                AssemblyGenerator assemblyGen = new AssemblyGenerator(codigoC3E, ts);
-                assemblyGen.gerarCodigo();
-                List<String> codigoAssembly = assemblyGen.getCodigoAssembly();
-
-                // ---------------------------------------------------------
-                // 6. IMPRIMIR O CÓDIGO ASSEMBLY NO CONSOLE (Adição/Ajuste)
-                // ---------------------------------------------------------
-                System.out.println("\n--- Código Assembly Gerado (" + codigoAssembly.size() + " linhas) ---");
-                for (String linha2 : codigoAssembly) {
-                    // Imprime cada linha do Assembly
-                    System.out.println("  " + linha2);
-                }
-                System.out.println("---------------------------------------------");
-                // ---------------------------------------------------------
+            // =========================================================
+            // OTIMIZAÇÃO DO C3E
+            // =========================================================
+            System.out.println("\n--- Otimização do C3E (-" + nivel + ") ---");
+            GerenciadorPassos gerenciador = GerenciadorPassos.paraNivel(nivel);
+            gerenciador.executar(ir);
+            gerenciador.imprimirRelatorio(System.out);
+
+            codigoC3E = ir.paraC3E();
+            System.out.println("\nCódigo C3E otimizado (" + codigoC3E.size() + " instruções):");
+            linha = 0;
+            for (InstrucaoC3E instrucao : codigoC3E) {
+                System.out.println(String.format("  [%02d] %s", linha++, instrucao));
+            }
+            System.out.println("--------------------------");
 
-                // 7. SALVAR O CÓDIGO ASSEMBLY
-                salvarArquivoAssembly(codigoAssembly);
 
-                System.out.println("\nCompilação concluída com sucesso!");
-                System.out.println("Código Assembly salvo em: " + NOME_ARQUIVO_ASSEMBLY);
+            // =========================================================
+            // FASE 5: GERAÇÃO DE CÓDIGO FINAL (ASSEMBLY)
+            // =========================================================
+            System.out.println("\n--- 5. Geração de Código Assembly ---");
+            System.out.println("Passo: O Gerador Assembly traduz o C3E para instruções de máquina (Assembly x86), usando a Tabela de Símbolos para alocação de memória.");
+            AssemblyGenerator assemblyGen = new AssemblyGenerator(ir);
+            assemblyGen.gerarCodigo();
+            List<String> codigoAssembly = assemblyGen.getCodigoAssembly();
+            System.out.println("\nSeleção de instruções (custo estático):");
+            for (String linhaCusto : assemblyGen.getRelatorioCustos()) {
+                System.out.println("  " + linhaCusto);
+            }
 
-            } else {
-                System.err.println("\nCompilação falhou devido a erros sintáticos.");
+            // ---------------------------------------------------------
+            // 6. IMPRIMIR O CÓDIGO ASSEMBLY NO CONSOLE (Adição/Ajuste)
+            // ---------------------------------------------------------
+            System.out.println("\n--- Código Assembly Gerado (" + codigoAssembly.size() + " linhas) ---");
+            for (String linha2 : codigoAssembly) {
+                // Imprime cada linha do Assembly
+                System.out.println("  " + linha2);
+            }
+            System.out.println("---------------------------------------------");
+            // ---------------------------------------------------------
+
+            // 7. SALVAR O CÓDIGO ASSEMBLY
+            salvarArquivoAssembly(codigoAssembly);
+
+            System.out.println("\nCompilação concluída com sucesso!");
+            System.out.println("Código Assembly salvo em: " + NOME_ARQUIVO_ASSEMBLY);
+
+            if (executar) {
+                executarInterpretado(ir, ts);
+            }
+            if (executarJVM) {
+                executarNaJVM(ir, ts);
+            }
+            if (executarCamadas) {
+                executarEmCamadas(ir, ts);
             }
 
         } catch (IOException e) {
@@ -159,6 +234,245 @@ public class Main {
             e.printStackTrace();
         }
     }
+    /**
+     * Executa as fases 1 (Léxica) e 2 (Sintática), imprimindo os tokens e o resultado.
+     */
+    private static AnalisadorSintatico analisarFonte(String codigoFonte) {
+        // =========================================================
+        // FASE 1: ANÁLISE LÉXICA
+        // =========================================================
+        System.out.println("\n--- 1. Análise Léxica ---");
+        System.out.println("Passo: O Analisador Léxico (Scanner) transforma o código-fonte em uma sequência de Tokens.");
+        AnalisadorLexico lexico = new AnalisadorLexico(codigoFonte);
+        List<Token> tokens = lexico.analisar();
+        System.out.println("Resultado: Análise Léxica concluída. Total de tokens: " + tokens.size());
+
+        // Exibir a lista de tokens em formato de tabela
+        System.out.println("\nTokens Identificados:");
+        System.out.println(String.format("  | %-20s | %-15s | Linha | Coluna |", "TIPO DO TOKEN", "LEXEMA"));
+        System.out.println("  |----------------------|-----------------|-------|--------|");
+        for (Token token : tokens) {
+            // Assumimos que Token possui os métodos getTipo(), getLexema(), getLinha(), getColuna()
+            System.out.println(String.format("  | %-20s | %-15s | %-5d | %-6d |",
+                    token.getTipo(),
+                    token.getLexema().replace("\n", "\\n").replace("\r", "\\r"), // Trata quebras de linha
+                    token.getLinha(),
+                    token.getColuna()));
+        }
+        System.out.println("----------------------------------------------------------");
+
+
+        // =========================================================
+        // FASE 2: ANÁLISE SINTÁTICA E CONSTRUÇÃO DA AST
+        // =========================================================
+        System.out.println("\n--- 2. Análise Sintática / Construção da AST ---");
+        System.out.println("Passo: O Analisador Sintático (Parser) verifica a gramática e constrói a Árvore Sintática Abstrata (AST).");
+
+        AnalisadorSintatico sintatico = new AnalisadorSintatico(tokens);
+        sintatico.analisar(); // Popula a AST e a Tabela de Símbolos com as declarações
+
+        return sintatico;
+    }
+
+    /**
+     * Executa o C3E otimizado com o {@link InterpretadorC3E} e imprime o valor
+     * final de cada variável declarada.
+     */
+    private static void executarInterpretado(ProgramaIR ir, TabelaSimbolos ts) {
+        System.out.println("\n--- Execução interpretada do C3E ---");
+        InterpretadorC3E interpretador = new InterpretadorC3E(ir);
+        interpretador.setLimiteInstrucoes(LIMITE_INSTRUCOES_EXECUCAO);
+        long inicio = System.nanoTime();
+        try {
+            interpretador.executar(EntradaSaida.deFluxos(System.in, System.out));
+        } catch (ErroExecucao e) {
+            System.err.println("ERRO DE EXECUÇÃO: " + e.getMessage());
+            return;
+        }
+        double ms = (System.nanoTime() - inicio) / 1e6;
+        imprimirVariaveis(ts, interpretador::valorVariavel);
+        System.out.println(String.format("%d instruções executadas em %.3f ms",
+                interpretador.getInstrucoesExecutadas(), ms));
+    }
+
+    /**
+     * Executa o C3E otimizado compilado pelo GeradorJVM e imprime o valor
+     * final de cada variável declarada.
+     */
+    private static void executarNaJVM(ProgramaIR ir, TabelaSimbolos ts) {
+        System.out.println("\n--- Execução do C3E compilado para a JVM ---");
+        ProgramaJVM programa = ProgramaJVM.carregar(ir);
+        programa.setLimiteSaltos(LIMITE_INSTRUCOES_EXECUCAO);
+        long inicio = System.nanoTime();
+        try {
+            programa.executar(EntradaSaida.deFluxos(System.in, System.out));
+        } catch (ErroExecucao e) {
+            System.err.println("ERRO DE EXECUÇÃO: " + e.getMessage());
+            return;
+        }
+        double ms = (System.nanoTime() - inicio) / 1e6;
+        imprimirVariaveis(ts, programa::valorVariavel);
+        System.out.println(String.format("Classe de %d bytes executada em %.3f ms", programa.getTamanhoClasse(), ms));
+    }
+
+    /**
+     * Executa o C3E otimizado no {@link InterpretadorC3E} com os laços quentes
+     * compilados pelo {@link CompiladorLacosJVM} e imprime o valor final de
+     * cada variável declarada.
+     */
+    private static void executarEmCamadas(ProgramaIR ir, TabelaSimbolos ts) {
+        System.out.println("\n--- Execução em camadas (interpretador + laços compilados para a JVM) ---");
+        CompiladorLacosJVM compilador = new CompiladorLacosJVM();
+        InterpretadorC3E interpretador = new InterpretadorC3E(ir, compilador);
+        interpretador.setLimiteInstrucoes(LIMITE_INSTRUCOES_EXECUCAO);
+        long inicio = System.nanoTime();
+        try {
+            interpretador.executar(EntradaSaida.deFluxos(System.in, System.out));
+        } catch (ErroExecucao e) {
+            System.err.println("ERRO DE EXECUÇÃO: " + e.getMessage());
+            return;
+        }
+        double ms = (System.nanoTime() - inicio) / 1e6;
+        imprimirVariaveis(ts, interpretador::valorVariavel);
+        System.out.println(String.format("%.3f ms; %d laço(s) compilado(s) em %.3f ms, %d entrada(s) no código compilado",
+                ms, interpretador.getLacosCompilados(), compilador.getNanosCompilacao() / 1e6,
+                interpretador.getEntradasCompiladas()));
+    }
+
+    /**
+     * Executa o programa direto na AST com o {@link InterpretadorAST} e
+     * imprime o valor final de cada variável declarada.
+     */
+    private static void executarNaAST(ProgramaNode astRaiz, TabelaSimbolos ts) {
+        System.out.println("\n--- Execução direta da AST ---");
+        InterpretadorAST interpretador = new InterpretadorAST(astRaiz, ts);
+        interpretador.setLimiteIteracoes(LIMITE_INSTRUCOES_EXECUCAO);
+        long inicio = System.nanoTime();
+        try {
+            interpretador.executar(EntradaSaida.deFluxos(System.in, System.out));
+        } catch (ErroExecucao e) {
+            System.err.println("ERRO DE EXECUÇÃO: " + e.getMessage());
+            return;
+        }
+        double ms = (System.nanoTime() - inicio) / 1e6;
+        imprimirVariaveis(ts, interpretador::valorVariavel);
+        System.out.println(String.format("%d iterações em %.3f ms (%d nós reescritos, %d desotimizações)",
+                interpretador.getIteracoesExecutadas(), ms, interpretador.getReescritas(),
+                interpretador.getDesotimizacoes()));
+    }
+
+    /**
+     * Valor final de cada variável declarada na Tabela de Símbolos (nem os
+     * temporários do C3E nem as versões criadas pela forma SSA, como "a_1",
+     * são variáveis do programa).
+     */
+    private static void imprimirVariaveis(TabelaSimbolos ts, ToDoubleFunction<String> valorVariavel) {
+        Map<String, TipoDado> variaveis = new TreeMap<>();
+        for (EntradaTabelaSimbolos entrada : ts.getEntradas()) {
+            if (!"temp".equals(entrada.getEscopo())) {
+                variaveis.putIfAbsent(entrada.getLexema(), entrada.getTipo());
+            }
+        }
+        for (Map.Entry<String, TipoDado> variavel : variaveis.entrySet()) {
+            System.out.println(String.format("  %-20s = %s", variavel.getKey(),
+                    formatarValor(valorVariavel.applyAsDouble(variavel.getKey()), variavel.getValue())));
+        }
+    }
+
+    private static String formatarValor(double valor, TipoDado tipo) {
+        return tipo == TipoDado.REAL ? Double.toString(valor) : Integer.toString((int) valor);
+    }
+
+    /**
+     * Lê o nível de otimização dos argumentos (-O0, -O1 ou -O2; o último vale).
+     * Sem nenhum, usa {@link NivelOtimizacao#PADRAO}.
+     */
+    private static NivelOtimizacao lerNivelOtimizacao(String[] args) {
+        NivelOtimizacao nivel = NivelOtimizacao.PADRAO;
+        for (String argumento : args) {
+            NivelOtimizacao lido = NivelOtimizacao.deArgumento(argumento);
+            if (lido != null) {
+                nivel = lido;
+            } else if (!argumento.equals(OPCAO_EXECUTAR) && !argumento.equals(OPCAO_EXECUTAR_JVM)
+                    && !argumento.equals(OPCAO_EXECUTAR_AST) && !argumento.equals(OPCAO_EXECUTAR_CAMADAS)
+                    && !argumento.equals(OPCAO_LISTAR_SSA)) {
+                System.err.println("Aviso: argumento ignorado: " + argumento);
+            }
+        }
+        return nivel;
+    }
+
+    /**
+     * Tenta carregar a AST do cache binário. Retorna null se o cache não existe,
+     * é de outra versão ou foi gerado a partir de um fonte diferente.
+     */
+    private static FormatoBinarioAST.ASTSerializada carregarCacheAST(long assinaturaFonte) {
+        Path caminho = Path.of(NOME_ARQUIVO_AST_CACHE);
+        if (!Files.exists(caminho)) {
+            return null;
+        }
+        try {
+            Long assinaturaCache = FormatoBinarioAST.lerAssinatura(caminho);
+            if (assinaturaCache == null || assinaturaCache != assinaturaFonte) {
+                return null;
+            }
+            long inicio = System.nanoTime();
+            FormatoBinarioAST.ASTSerializada cache = FormatoBinarioAST.carregar(caminho);
+            System.out.println(String.format("\n--- 1/2. AST carregada do cache '%s' (%.3f ms) ---",
+                    NOME_ARQUIVO_AST_CACHE, (System.nanoTime() - inicio) / 1e6));
+            System.out.println("Passo: O fonte não mudou desde a última compilação; as análises léxica e sintática foram puladas.");
+            return cache;
+        } catch (Exception e) {
+            // Cache corrompido: ignora e refaz as análises
+            System.err.println("Aviso: cache da AST ignorado (" + e.getMessage() + ").");
+            return null;
+        }
+    }
+
+    /**
+     * Grava a AST recém-construída no cache binário (falhas não interrompem a compilação).
+     */
+    private static void gravarCacheAST(ProgramaNode astRaiz, TabelaSimbolos ts, long assinaturaFonte) {
+        try {
+            FormatoBinarioAST.gravar(Path.of(NOME_ARQUIVO_AST_CACHE), astRaiz, ts, assinaturaFonte);
+        } catch (Exception e) {
+            System.err.println("Aviso: não foi possível gravar o cache da AST (" + e.getMessage() + ").");
+        }
+    }
+
+    /**
+     * Imprime os blocos básicos (com sucessores e dominador imediato) e os laços encontrados.
+     */
+    private static void imprimirResumoCFG(GrafoFluxoControle cfg) {
+        System.out.println("\nGrafo de Fluxo de Controle: " + cfg.getTotalBlocos() + " blocos, "
+                + cfg.totalArestas() + " arestas, " + cfg.getLacos().size() + " laço(s).");
+        for (int b = 0; b < cfg.getTotalBlocos(); b++) {
+            StringBuilder sucessores = new StringBuilder();
+            for (int s : cfg.sucessores(b)) {
+                sucessores.append(" B").append(s);
+            }
+            int idom = cfg.dominadorImediato(b);
+            System.out.println(String.format("  B%-3d [%02d..%02d] -> {%s } idom=%s prof.laço=%d",
+                    b, cfg.inicio(b), cfg.fim(b) - 1, sucessores,
+                    idom < 0 ? "-" : "B" + idom, cfg.profundidadeLaco(b)));
+        }
+        for (Laco laco : cfg.getLacos()) {
+            System.out.println("  " + laco);
+        }
+    }
+
+    /**
+     * Salva o CFG no formato DOT (falhas não interrompem a compilação).
+     */
+    private static void salvarArquivoCFG(GrafoFluxoControle cfg) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(NOME_ARQUIVO_CFG))) {
+            cfg.gerarDot(writer);
+            System.out.println("CFG salvo em: " + NOME_ARQUIVO_CFG);
+        } catch (IOException e) {
+            System.err.println("Aviso: não foi possível gravar o CFG (" + e.getMessage() + ").");
+        }
+    }
+
     /**
      * Função auxiliar para ler o conteúdo de um arquivo de texto
      * usando o ClassLoader, tornando o acesso ao arquivo independente do diretório de execução.
@@ -0,0 +1,56 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.ProgramaIR;
+
+/**
+ * Analises.java
+ * Cache das análises de um ProgramaIR (CFG e vivacidade), compartilhado pelos
+ * passos executados pelo {@link GerenciadorPassos}.
+ *
+ * Cada análise é calculada na primeira consulta e reaproveitada enquanto o
+ * código não muda. Quem altera o IR deve chamar {@link #invalidar()} antes da
+ * próxima consulta; o gerenciador faz isso depois de todo passo que informa
+ * alteração.
+ */
+public final class Analises {
+
+    private final ProgramaIR ir;
+    private GrafoFluxoControle cfg;
+    private Vivacidade vivacidade;
+    private int construcoes;
+
+    public Analises(ProgramaIR ir) {
+        this.ir = ir;
+    }
+
+    public ProgramaIR getIR() {
+        return ir;
+    }
+
+    public GrafoFluxoControle cfg() {
+        if (cfg == null) {
+            cfg = new GrafoFluxoControle(ir);
+            construcoes++;
+        }
+        return cfg;
+    }
+
+    Vivacidade vivacidade() {
+        if (vivacidade == null) {
+            vivacidade = new Vivacidade(ir, cfg());
+            construcoes++;
+        }
+        return vivacidade;
+    }
+
+    /** Descarta as análises calculadas (o IR mudou). */
+    public void invalidar() {
+        cfg = null;
+        vivacidade = null;
+    }
+
+    /** Quantas análises foram calculadas até agora (para o relatório). */
+    public int getConstrucoes() {
+        return construcoes;
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+import org.example.TipoDado;
+
+/**
+ * AritmeticaConstante.java
+ * Avaliação em tempo de compilação das operações do IR, com a mesma semântica
+ * do código gerado:
+ *   - INTEIRO: aritmética de 32 bits com estouro circular; DIV e RESTO truncam
+ *     em direção a zero (como IDIV).
+ *   - REAL: aritmética de ponto flutuante (double); RESTO não é dobrado.
+ *   - Comparações resultam em 1 ou 0.
+ * Operações que falhariam em tempo de execução (divisão por zero, MIN / -1)
+ * nunca são dobradas: o erro continua acontecendo no programa gerado.
+ */
+public final class AritmeticaConstante {
+
+    private AritmeticaConstante() {
+    }
+
+    /** Indica se a operação é feita em ponto flutuante. */
+    public static boolean ehReal(ProgramaIR ir, int destino, int a, int b) {
+        return ir.tipo(destino) == TipoDado.REAL || ir.tipo(a) == TipoDado.REAL
+                || (b != ProgramaIR.NENHUM && ir.tipo(b) == TipoDado.REAL);
+    }
+
+    /**
+     * Dobra 'destino = a OP b' com os dois operandos constantes.
+     * @return o operando constante do resultado, ou NENHUM se não pode ser dobrado
+     */
+    public static int dobrar(ProgramaIR ir, Opcode op, int destino, int a, int b) {
+        if (!op.ehBinario() || !ProgramaIR.ehConstante(a) || !ProgramaIR.ehConstante(b)) {
+            return ProgramaIR.NENHUM;
+        }
+        double x = ir.valorConstante(a);
+        double y = ir.valorConstante(b);
+
+        if (op.ehComparacao()) {
+            return ir.constanteInteira(comparar(op, x, y) ? 1 : 0);
+        }
+
+        if (ehReal(ir, destino, a, b)) {
+            if (ir.tipo(destino) != TipoDado.REAL) {
+                return ProgramaIR.NENHUM; // conversão REAL -> INTEIRO fica para o programa
+            }
+            switch (op) {
+                case ADD: return ir.constanteReal(x + y);
+                case SUB: return ir.constanteReal(x - y);
+                case MUL: return ir.constanteReal(x * y);
+                case DIV: return y == 0 ? ProgramaIR.NENHUM : ir.constanteReal(x / y);
+                default: return ProgramaIR.NENHUM;
+            }
+        }
+
+        int xi = (int) x;
+        int yi = (int) y;
+        switch (op) {
+            case ADD: return ir.constanteInteira(xi + yi);
+            case SUB: return ir.constanteInteira(xi - yi);
+            case MUL: return ir.constanteInteira(xi * yi);
+            case DIV:
+                return divisaoFalha(xi, yi) ? ProgramaIR.NENHUM : ir.constanteInteira(xi / yi);
+            case RESTO:
+                return divisaoFalha(xi, yi) ? ProgramaIR.NENHUM : ir.constanteInteira(xi % yi);
+            case SHL:
+            case SAR:
+            case SHR:
+            case AND:
+            case MULHI:
+                return ir.constanteInteira(bits(op, xi, yi));
+            default:
+                return ProgramaIR.NENHUM;
+        }
+    }
+
+    /** Semântica de SHL, SAR, SHR, AND e MULHI (deslocamentos usam os 5 bits baixos, como em x86). */
+    public static int bits(Opcode op, int x, int y) {
+        switch (op) {
+            case SHL: return x << y;
+            case SAR: return x >> y;
+            case SHR: return x >>> y;
+            case AND: return x & y;
+            case MULHI: return (int) (((long) x * (long) y) >> 32);
+            default: throw new IllegalArgumentException("Não é operação de bits: " + op);
+        }
+    }
+
+    /**
+     * Indica se a instrução pode interromper o programa em tempo de execução:
+     * DIV e RESTO só são seguros com divisor constante diferente de 0 e -1
+     * (x / -1 também falha em x86 quando x é o menor inteiro).
+     */
+    public static boolean podeFalhar(ProgramaIR ir, int i) {
+        if (!ir.opcode(i).podeFalhar()) {
+            return false;
+        }
+        int divisor = ir.operando2(i);
+        return !ProgramaIR.ehConstante(divisor) || ir.valorInteiro(divisor) == 0 || ir.valorInteiro(divisor) == -1;
+    }
+
+    /** IDIV gera exceção para divisor zero e para MIN_VALUE / -1. */
+    public static boolean divisaoFalha(int dividendo, int divisor) {
+        return divisor == 0 || (dividendo == Integer.MIN_VALUE && divisor == -1);
+    }
+
+    public static boolean comparar(Opcode op, double x, double y) {
+        switch (op) {
+            case CMPEQ: return x == y;
+            case CMPNE: return x != y;
+            case CMPLT: return x < y;
+            case CMPLE: return x <= y;
+            case CMPGT: return x > y;
+            case CMPGE: return x >= y;
+            default: throw new IllegalArgumentException("Não é comparação: " + op);
+        }
+    }
+
+    /**
+     * Identidades algébricas de 'destino = a OP b' (x + 0, x * 1, x * 0, x / 1,
+     * x RESTO 1, x - x...). As que descartam um operando só valem para INTEIRO,
+     * exceto as neutras (x + 0, x * 1, x / 1), válidas também em REAL.
+     * @return o operando equivalente ao resultado (nome ou constante), ou NENHUM
+     */
+    public static int simplificar(ProgramaIR ir, Opcode op, int destino, int a, int b) {
+        boolean real = ehReal(ir, destino, a, b);
+        if (real && ir.tipo(destino) != TipoDado.REAL) {
+            return ProgramaIR.NENHUM;
+        }
+        switch (op) {
+            case ADD:
+                if (ehValor(ir, b, 0)) {
+                    return a;
+                }
+                if (ehValor(ir, a, 0)) {
+                    return b;
+                }
+                break;
+            case SUB:
+                if (ehValor(ir, b, 0)) {
+                    return a;
+                }
+                if (!real && a == b) {
+                    return ir.constanteInteira(0);
+                }
+                break;
+            case MUL:
+                if (ehValor(ir, b, 1)) {
+                    return a;
+                }
+                if (ehValor(ir, a, 1)) {
+                    return b;
+                }
+                if (!real && (ehValor(ir, a, 0) || ehValor(ir, b, 0))) {
+                    return ir.constanteInteira(0);
+                }
+                break;
+            case DIV:
+                if (ehValor(ir, b, 1)) {
+                    return a;
+                }
+                break;
+            case RESTO:
+                if (!real && ehValor(ir, b, 1)) {
+                    return ir.constanteInteira(0);
+                }
+                break;
+            case CMPEQ:
+            case CMPLE:
+            case CMPGE:
+                if (!real && a == b && ProgramaIR.ehNome(a)) {
+                    return ir.constanteInteira(1);
+                }
+                break;
+            case CMPNE:
+            case CMPLT:
+            case CMPGT:
+                if (!real && a == b && ProgramaIR.ehNome(a)) {
+                    return ir.constanteInteira(0);
+                }
+                break;
+            default:
+                break;
+        }
+        return ProgramaIR.NENHUM;
+    }
+
+    private static boolean ehValor(ProgramaIR ir, int operando, double valor) {
+        return ProgramaIR.ehConstante(operando) && ir.valorConstante(operando) == valor;
+    }
+}
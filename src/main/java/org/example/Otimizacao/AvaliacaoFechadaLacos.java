@@ -0,0 +1,257 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+import org.example.TipoDado;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * AvaliacaoFechadaLacos.java
+ * Troca laços com número de voltas conhecido ({@link EvolucaoEscalar}) por
+ * código sem laço:
+ *   - forma fechada: se o corpo não faz E/S nem pode falhar e cada nome que
+ *     ele define é afim (indução, acumulação de variáveis de indução ou
+ *     sobrescrito a cada volta), o laço vira as atribuições dos valores finais.
+ *     'enquanto (a < 10) a = a + 1;' com a zerado vira 'a = 10';
+ *   - desenrolamento: senão, se o laço dá poucas voltas e o corpo é pequeno,
+ *     o corpo é repetido uma vez por volta, sem teste nem saltos.
+ * Laços com zero voltas são removidos. Os laços internos são tratados antes;
+ * depois de trocados, o laço de fora pode passar a ter corpo em linha reta.
+ */
+public class AvaliacaoFechadaLacos implements PassoOtimizacao {
+
+    /** Voltas máximas de um laço desenrolado. */
+    static final int LIMITE_VOLTAS_DESENROLAMENTO = 8;
+
+    /** Instruções máximas geradas pelo desenrolamento de um laço. */
+    static final int LIMITE_INSTRUCOES_DESENROLADAS = 64;
+
+    @Override
+    public String getNome() {
+        return "Avaliação de laços em forma fechada";
+    }
+
+    @Override
+    public boolean executar(ProgramaIR ir) {
+        return executar(ir, new Analises(ir));
+    }
+
+    @Override
+    public boolean executar(ProgramaIR ir, Analises analises) {
+        boolean alterou = false;
+        boolean mudou = true;
+        while (mudou) {
+            mudou = false;
+            GrafoFluxoControle cfg = analises.cfg();
+            int[] referencias = referencias(ir);
+            List<Laco> lacos = new ArrayList<>(cfg.getLacos());
+            lacos.sort(Comparator.comparingInt(Laco::getProfundidade).reversed());
+            for (Laco laco : lacos) {
+                // Um laço por vez: as posições mudam e o CFG é reconstruído
+                EvolucaoEscalar evolucao = EvolucaoEscalar.analisar(ir, cfg, laco, referencias);
+                if (evolucao != null && trocar(ir, evolucao, referencias)) {
+                    ir.compactar();
+                    analises.invalidar();
+                    mudou = true;
+                    alterou = true;
+                    break;
+                }
+            }
+        }
+        return alterou;
+    }
+
+    /** Quantos saltos apontam para cada rótulo. */
+    private static int[] referencias(ProgramaIR ir) {
+        int[] referencias = new int[ir.getMaiorRotulo() + 1];
+        for (int i = 0; i < ir.tamanho(); i++) {
+            if (ir.opcode(i).ehSalto()) {
+                referencias[ProgramaIR.valorOperando(ir.destino(i))]++;
+            }
+        }
+        return referencias;
+    }
+
+    private static boolean trocar(ProgramaIR ir, EvolucaoEscalar evolucao, int[] referencias) {
+        List<int[]> codigo = new ArrayList<>();
+        if (evolucao.voltas > 0) {
+            TreeMap<Integer, EvolucaoEscalar.FormaAfim> finais = evolucao.puro ? evolucao.valoresFinais() : null;
+            if (finais != null) {
+                atribuirFinais(ir, evolucao, finais, referencias, codigo);
+            } else if (!desenrolar(ir, evolucao, codigo)) {
+                return false;
+            }
+        }
+        int posicaoSaida = ir.posicoesRotulos()[ProgramaIR.valorOperando(evolucao.rotuloSaida)];
+        if (posicaoSaida != evolucao.fim + 1) {
+            codigo.add(PreCabecalho.instrucao(Opcode.JMP, evolucao.rotuloSaida, ProgramaIR.NENHUM, ProgramaIR.NENHUM));
+        } else if (saltosDeFora(ir, evolucao, referencias) == 0) {
+            // Só o teste do laço saltava para a saída: o rótulo some com ele
+            ir.remover(posicaoSaida);
+        }
+
+        // O rótulo do cabeçalho (evolucao.inicio) sai junto com o laço
+        for (int i = evolucao.inicio; i <= evolucao.fim; i++) {
+            ir.remover(i);
+        }
+        Opcode[] opcodes = Opcode.values();
+        for (int k = codigo.size() - 1; k >= 0; k--) {
+            int[] c = codigo.get(k);
+            ir.inserir(evolucao.inicio, opcodes[c[0]], c[1], c[2], c[3]);
+        }
+        return true;
+    }
+
+    /** Saltos para o rótulo de saída que não estão no laço trocado. */
+    private static int saltosDeFora(ProgramaIR ir, EvolucaoEscalar evolucao, int[] referencias) {
+        int saltos = referencias[ProgramaIR.valorOperando(evolucao.rotuloSaida)];
+        for (int i = evolucao.inicio; i <= evolucao.fim; i++) {
+            if (ir.opcode(i).ehSalto() && ir.destino(i) == evolucao.rotuloSaida) {
+                saltos--;
+            }
+        }
+        return saltos;
+    }
+
+    /**
+     * Gera as atribuições dos valores finais. Cada forma lê os valores da
+     * entrada do laço, então um nome só é sobrescrito depois que nenhuma outra
+     * forma pendente o lê. Não há ciclo: as formas só leem variáveis de
+     * indução, cuja forma final lê apenas a própria variável.
+     */
+    private static void atribuirFinais(ProgramaIR ir, EvolucaoEscalar evolucao,
+                                       TreeMap<Integer, EvolucaoEscalar.FormaAfim> finais,
+                                       int[] referencias, List<int[]> codigo) {
+        // Valores de entrada conhecidos viram constantes
+        Map<Integer, Integer> conhecidos = new HashMap<>();
+        for (EvolucaoEscalar.FormaAfim forma : finais.values()) {
+            for (int nome : forma.termos.keySet()) {
+                if (!conhecidos.containsKey(nome)) {
+                    conhecidos.put(nome, EvolucaoEscalar.valorNaEntrada(ir, evolucao.inicio, ir.operandoDenso(nome), referencias));
+                }
+            }
+        }
+        TreeMap<Integer, EvolucaoEscalar.FormaAfim> pendentes = new TreeMap<>();
+        for (Map.Entry<Integer, EvolucaoEscalar.FormaAfim> entrada : finais.entrySet()) {
+            EvolucaoEscalar.FormaAfim forma = entrada.getValue();
+            for (Map.Entry<Integer, Integer> conhecido : conhecidos.entrySet()) {
+                if (conhecido.getValue() != null) {
+                    forma = forma.substituir(conhecido.getKey(), EvolucaoEscalar.FormaAfim.constante(conhecido.getValue()));
+                }
+            }
+            int x = entrada.getKey();
+            boolean inalterado = forma.constante == 0 && forma.termos.size() == 1 && forma.coeficiente(x) == 1;
+            if (!inalterado) {
+                pendentes.put(x, forma);
+            }
+        }
+
+        while (!pendentes.isEmpty()) {
+            Integer livre = null;
+            for (int x : pendentes.keySet()) {
+                if (!lidoPorOutra(x, pendentes)) {
+                    livre = x;
+                    break;
+                }
+            }
+            if (livre == null) {
+                throw new IllegalStateException("Valores finais com dependência circular");
+            }
+            atribuir(ir, livre, pendentes.remove(livre), codigo);
+        }
+    }
+
+    private static boolean lidoPorOutra(int x, Map<Integer, EvolucaoEscalar.FormaAfim> pendentes) {
+        for (Map.Entry<Integer, EvolucaoEscalar.FormaAfim> outra : pendentes.entrySet()) {
+            if (outra.getKey() != x && outra.getValue().coeficiente(x) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** destino = forma, começando pelo próprio destino (a única leitura dele na forma). */
+    private static void atribuir(ProgramaIR ir, int indice, EvolucaoEscalar.FormaAfim forma, List<int[]> codigo) {
+        int destino = ir.operandoDenso(indice);
+        List<Map.Entry<Integer, Integer>> termos = new ArrayList<>(forma.termos.entrySet());
+        termos.sort(Comparator.comparingInt(termo -> termo.getKey() == indice ? 0 : 1));
+        boolean primeiro = true;
+        for (Map.Entry<Integer, Integer> termo : termos) {
+            int nome = ir.operandoDenso(termo.getKey());
+            int coeficiente = termo.getValue();
+            if (primeiro) {
+                if (coeficiente != 1) {
+                    codigo.add(PreCabecalho.instrucao(Opcode.MUL, destino, nome, ir.constanteInteira(coeficiente)));
+                } else if (nome != destino) {
+                    codigo.add(PreCabecalho.instrucao(Opcode.COPIA, destino, nome, ProgramaIR.NENHUM));
+                }
+                primeiro = false;
+            } else if (coeficiente == 1) {
+                codigo.add(PreCabecalho.instrucao(Opcode.ADD, destino, destino, nome));
+            } else if (coeficiente == -1) {
+                codigo.add(PreCabecalho.instrucao(Opcode.SUB, destino, destino, nome));
+            } else {
+                int produto = ir.novoTemporario(TipoDado.INTEIRO);
+                codigo.add(PreCabecalho.instrucao(Opcode.MUL, produto, nome, ir.constanteInteira(coeficiente)));
+                codigo.add(PreCabecalho.instrucao(Opcode.ADD, destino, destino, produto));
+            }
+        }
+        if (primeiro) {
+            codigo.add(PreCabecalho.instrucao(Opcode.COPIA, destino, ir.constanteInteira(forma.constante), ProgramaIR.NENHUM));
+        } else if (forma.constante != 0) {
+            codigo.add(PreCabecalho.instrucao(Opcode.ADD, destino, destino, ir.constanteInteira(forma.constante)));
+        }
+    }
+
+    /**
+     * Repete o corpo uma vez por volta. Os temporários definidos antes de
+     * serem lidos no corpo ganham nomes novos em cada cópia, menos na última
+     * (que deixa os valores que o código depois do laço pode ler).
+     */
+    private static boolean desenrolar(ProgramaIR ir, EvolucaoEscalar evolucao, List<int[]> codigo) {
+        int inicioCorpo = evolucao.inicio + 2;
+        int tamanhoCorpo = evolucao.fim - inicioCorpo;
+        if (evolucao.voltas > LIMITE_VOLTAS_DESENROLAMENTO
+                || (long) evolucao.voltas * tamanhoCorpo > LIMITE_INSTRUCOES_DESENROLADAS) {
+            return false;
+        }
+        List<Integer> locais = new ArrayList<>();
+        List<Integer> lidos = new ArrayList<>();
+        for (int i = inicioCorpo; i < evolucao.fim; i++) {
+            Opcode op = ir.opcode(i);
+            for (int k = 1; k <= op.numeroOperandosLidos(); k++) {
+                int operando = k == 1 ? ir.operando1(i) : ir.operando2(i);
+                if (ProgramaIR.ehTemporario(operando) && !locais.contains(operando)) {
+                    lidos.add(operando);
+                }
+            }
+            int destino = ir.destino(i);
+            if (op.defineDestino() && ProgramaIR.ehTemporario(destino) && !lidos.contains(destino) && !locais.contains(destino)) {
+                locais.add(destino);
+            }
+        }
+
+        for (int volta = 0; volta < evolucao.voltas; volta++) {
+            Map<Integer, Integer> nomes = new HashMap<>();
+            if (volta < evolucao.voltas - 1) {
+                for (int temporario : locais) {
+                    nomes.put(temporario, ir.novoTemporario(ir.tipo(temporario)));
+                }
+            }
+            for (int i = inicioCorpo; i < evolucao.fim; i++) {
+                Opcode op = ir.opcode(i);
+                int destino = op.defineDestino() ? nomes.getOrDefault(ir.destino(i), ir.destino(i)) : ir.destino(i);
+                int a = op.numeroOperandosLidos() >= 1 ? nomes.getOrDefault(ir.operando1(i), ir.operando1(i)) : ir.operando1(i);
+                int b = op.numeroOperandosLidos() == 2 ? nomes.getOrDefault(ir.operando2(i), ir.operando2(i)) : ir.operando2(i);
+                codigo.add(PreCabecalho.instrucao(op, destino, a, b));
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.Otimizacao;
+
+import java.util.Arrays;
+
+/**
+ * ConjuntoBits.java
+ * Operações sobre conjuntos representados como long[] (64 elementos por
+ * palavra), usados pelo {@link FluxoDados}. Os elementos são índices densos
+ * (ver ProgramaIR.indiceDenso) ou qualquer outra numeração 0..n-1.
+ */
+public final class ConjuntoBits {
+
+    private ConjuntoBits() {
+    }
+
+    /** Conjunto vazio com espaço para 'tamanho' elementos. */
+    public static long[] novo(int tamanho) {
+        return new long[(tamanho + 63) >>> 6];
+    }
+
+    public static boolean contem(long[] conjunto, int elemento) {
+        return (conjunto[elemento >>> 6] & (1L << elemento)) != 0;
+    }
+
+    public static void adicionar(long[] conjunto, int elemento) {
+        conjunto[elemento >>> 6] |= 1L << elemento;
+    }
+
+    public static void remover(long[] conjunto, int elemento) {
+        conjunto[elemento >>> 6] &= ~(1L << elemento);
+    }
+
+    /** Adiciona os elementos 0..tamanho-1. */
+    public static void preencher(long[] conjunto, int tamanho) {
+        int cheias = tamanho >>> 6;
+        Arrays.fill(conjunto, 0, cheias, -1L);
+        if ((tamanho & 63) != 0) {
+            conjunto[cheias] |= (1L << tamanho) - 1;
+        }
+    }
+
+    public static void unir(long[] destino, long[] outro) {
+        for (int k = 0; k < destino.length; k++) {
+            destino[k] |= outro[k];
+        }
+    }
+
+    public static void intersectar(long[] destino, long[] outro) {
+        for (int k = 0; k < destino.length; k++) {
+            destino[k] &= outro[k];
+        }
+    }
+
+    /** destino = gen ∪ (entrada − kill): a função de transferência clássica. */
+    public static void transferir(long[] destino, long[] entrada, long[] gen, long[] kill) {
+        for (int k = 0; k < destino.length; k++) {
+            destino[k] = gen[k] | (entrada[k] & ~kill[k]);
+        }
+    }
+
+    /** Próximo elemento >= de, ou -1. */
+    public static int proximo(long[] conjunto, int de) {
+        int k = de >>> 6;
+        if (k >= conjunto.length) {
+            return -1;
+        }
+        long palavra = conjunto[k] & (-1L << de);
+        while (palavra == 0) {
+            if (++k == conjunto.length) {
+                return -1;
+            }
+            palavra = conjunto[k];
+        }
+        return (k << 6) + Long.numberOfTrailingZeros(palavra);
+    }
+}
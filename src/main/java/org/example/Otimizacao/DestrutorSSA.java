@@ -0,0 +1,480 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * DestrutorSSA.java
+ * Tradução da forma SSA de volta para o IR comum.
+ *
+ * 1. Calcula a vivacidade (considerando as phis) e o grafo de interferência.
+ * 2. Agrupa, enquanto não houver interferência, o destino de cada phi com seus
+ *    argumentos e cada versão com o seu nome original. Cada grupo volta a usar um
+ *    único nome (de preferência o original), e as phis cujos argumentos caíram
+ *    no mesmo grupo do destino desaparecem sem custo.
+ * 3. As phis restantes viram cópias paralelas no fim do predecessor. Arestas
+ *    saindo de um salto condicional são divididas: o caminho sem salto recebe as
+ *    cópias logo após o salto, e o caminho do salto vai para um bloco novo no
+ *    fim do programa (cópias + JMP para o destino original).
+ */
+final class DestrutorSSA {
+
+    private final FormaSSA ssa;
+    private final GrafoFluxoControle cfg;
+    private final ProgramaIR trabalho; // cópia do IR SSA, renomeada no lugar
+    private final int totalBlocos;
+    private final int totalNomes;
+
+    // Arestas atuais (os passos sobre a SSA podem ter trocado saltos por JMP/NOP)
+    private final int[] sucessorSequencial; // bloco seguinte alcançado sem salto, ou -1
+    private final int[] sucessorSalto;      // bloco alvo do salto, ou -1
+    private final int[] ultimaInstrucao;    // última instrução que não é NOP, ou -1
+
+    private BitSet[] vivasNaSaida;
+    private BitSet[] interferencia;
+
+    // Union-find dos grupos de nomes
+    private int[] pai;
+    private BitSet[] membros;
+    private BitSet[] interferenciaGrupo;
+    private int[] nomeGrupo;
+
+    private ProgramaIR saida;
+
+    DestrutorSSA(FormaSSA ssa) {
+        this.ssa = ssa;
+        this.cfg = ssa.getCFG();
+        this.trabalho = ssa.getIR().copiar();
+        this.totalBlocos = cfg.getTotalBlocos();
+        this.totalNomes = trabalho.totalNomes();
+        this.sucessorSequencial = new int[totalBlocos];
+        this.sucessorSalto = new int[totalBlocos];
+        this.ultimaInstrucao = new int[totalBlocos];
+    }
+
+    ProgramaIR destruir() {
+        calcularArestas();
+        calcularVivacidade();
+        calcularInterferencia();
+        agrupar();
+        renomear();
+        return emitir();
+    }
+
+    // =====================================================================
+    //  ARESTAS E VIVACIDADE
+    // =====================================================================
+
+    private void calcularArestas() {
+        for (int b = 0; b < totalBlocos; b++) {
+            int ultima = -1;
+            for (int i = cfg.fim(b) - 1; i >= cfg.inicio(b); i--) {
+                if (trabalho.opcode(i) != Opcode.NOP) {
+                    ultima = i;
+                    break;
+                }
+            }
+            ultimaInstrucao[b] = ultima;
+            Opcode op = ultima >= 0 ? trabalho.opcode(ultima) : Opcode.NOP;
+            int seguinte = b + 1 < totalBlocos ? b + 1 : -1;
+            sucessorSequencial[b] = op == Opcode.JMP ? -1 : seguinte;
+            sucessorSalto[b] = op.ehSalto()
+                    ? cfg.blocoDoRotulo(ProgramaIR.valorOperando(trabalho.destino(ultima)))
+                    : -1;
+        }
+    }
+
+    /** Bloco cujo caminho sem salto termina o programa. */
+    private boolean ehSaida(int bloco) {
+        return sucessorSequencial[bloco] == -1 && (ultimaInstrucao[bloco] < 0
+                || trabalho.opcode(ultimaInstrucao[bloco]) != Opcode.JMP);
+    }
+
+    private boolean existeAresta(int de, int para) {
+        return sucessorSequencial[de] == para || sucessorSalto[de] == para;
+    }
+
+    private void calcularVivacidade() {
+        BitSet[] usados = new BitSet[totalBlocos];
+        BitSet[] definidos = new BitSet[totalBlocos];
+        BitSet[] definidosPhi = new BitSet[totalBlocos];
+        BitSet[] usadosPhi = new BitSet[totalBlocos]; // argumentos de phis dos sucessores e valores de saída
+        BitSet[] vivasNaEntrada = new BitSet[totalBlocos];
+        vivasNaSaida = new BitSet[totalBlocos];
+
+        for (int b = 0; b < totalBlocos; b++) {
+            usados[b] = new BitSet(totalNomes);
+            definidos[b] = new BitSet(totalNomes);
+            definidosPhi[b] = new BitSet(totalNomes);
+            usadosPhi[b] = new BitSet(totalNomes);
+            vivasNaEntrada[b] = new BitSet(totalNomes);
+            vivasNaSaida[b] = new BitSet(totalNomes);
+            for (int i = cfg.inicio(b); i < cfg.fim(b); i++) {
+                Opcode op = trabalho.opcode(i);
+                int lidos = op.numeroOperandosLidos();
+                if (lidos >= 1) {
+                    marcarUso(trabalho.operando1(i), usados[b], definidos[b]);
+                }
+                if (lidos == 2) {
+                    marcarUso(trabalho.operando2(i), usados[b], definidos[b]);
+                }
+                if (op.defineDestino() && ProgramaIR.ehNome(trabalho.destino(i))) {
+                    definidos[b].set(trabalho.indiceDenso(trabalho.destino(i)));
+                }
+            }
+        }
+        for (int b = 0; b < totalBlocos; b++) {
+            int[] predecessores = cfg.predecessores(b);
+            for (FormaSSA.Phi phi : ssa.phis(b)) {
+                definidosPhi[b].set(trabalho.indiceDenso(phi.getDestino()));
+                for (int j = 0; j < predecessores.length; j++) {
+                    int argumento = phi.getArgumento(j);
+                    if (ProgramaIR.ehNome(argumento) && existeAresta(predecessores[j], b)) {
+                        usadosPhi[predecessores[j]].set(trabalho.indiceDenso(argumento));
+                    }
+                }
+            }
+        }
+
+        for (int b = 0; b < totalBlocos; b++) {
+            if (ehSaida(b)) {
+                for (int slot = 0; slot < ssa.getVariaveisOriginais(); slot++) {
+                    int valor = ssa.valorNaSaida(slot);
+                    if (ProgramaIR.ehNome(valor)) {
+                        usadosPhi[b].set(trabalho.indiceDenso(valor));
+                    }
+                }
+            }
+        }
+
+        int[] rpo = cfg.ordemRPO();
+        BitSet novaEntrada = new BitSet(totalNomes);
+        boolean mudou = true;
+        while (mudou) {
+            mudou = false;
+            for (int k = rpo.length - 1; k >= 0; k--) {
+                int b = rpo[k];
+                BitSet saidaBloco = vivasNaSaida[b];
+                saidaBloco.or(usadosPhi[b]);
+                for (int s : new int[]{sucessorSequencial[b], sucessorSalto[b]}) {
+                    if (s >= 0) {
+                        BitSet entradaSucessor = (BitSet) vivasNaEntrada[s].clone();
+                        entradaSucessor.andNot(definidosPhi[s]);
+                        saidaBloco.or(entradaSucessor);
+                    }
+                }
+                novaEntrada.clear();
+                novaEntrada.or(saidaBloco);
+                novaEntrada.andNot(definidos[b]);
+                novaEntrada.or(usados[b]);
+                novaEntrada.or(definidosPhi[b]);
+                if (!novaEntrada.equals(vivasNaEntrada[b])) {
+                    vivasNaEntrada[b].clear();
+                    vivasNaEntrada[b].or(novaEntrada);
+                    mudou = true;
+                }
+            }
+        }
+    }
+
+    private void marcarUso(int operando, BitSet usados, BitSet definidos) {
+        if (ProgramaIR.ehNome(operando)) {
+            int d = trabalho.indiceDenso(operando);
+            if (!definidos.get(d)) {
+                usados.set(d);
+            }
+        }
+    }
+
+    private void calcularInterferencia() {
+        interferencia = new BitSet[totalNomes];
+        for (int n = 0; n < totalNomes; n++) {
+            interferencia[n] = new BitSet(totalNomes);
+        }
+        BitSet vivas = new BitSet(totalNomes);
+        for (int b : cfg.ordemRPO()) {
+            vivas.clear();
+            vivas.or(vivasNaSaida[b]);
+            for (int i = cfg.fim(b) - 1; i >= cfg.inicio(b); i--) {
+                Opcode op = trabalho.opcode(i);
+                if (op.defineDestino() && ProgramaIR.ehNome(trabalho.destino(i))) {
+                    int d = trabalho.indiceDenso(trabalho.destino(i));
+                    // Uma cópia não interfere com a origem: os dois guardam o mesmo valor
+                    int origem = op == Opcode.COPIA && ProgramaIR.ehNome(trabalho.operando1(i))
+                            ? trabalho.indiceDenso(trabalho.operando1(i)) : -1;
+                    for (int v = vivas.nextSetBit(0); v >= 0; v = vivas.nextSetBit(v + 1)) {
+                        if (v != d && v != origem) {
+                            interferir(d, v);
+                        }
+                    }
+                    vivas.clear(d);
+                }
+                int lidos = op.numeroOperandosLidos();
+                if (lidos >= 1 && ProgramaIR.ehNome(trabalho.operando1(i))) {
+                    vivas.set(trabalho.indiceDenso(trabalho.operando1(i)));
+                }
+                if (lidos == 2 && ProgramaIR.ehNome(trabalho.operando2(i))) {
+                    vivas.set(trabalho.indiceDenso(trabalho.operando2(i)));
+                }
+            }
+            // As phis do bloco são definidas juntas, no início
+            List<FormaSSA.Phi> phisBloco = ssa.phis(b);
+            for (FormaSSA.Phi phi : phisBloco) {
+                vivas.clear(trabalho.indiceDenso(phi.getDestino()));
+            }
+            for (FormaSSA.Phi phi : phisBloco) {
+                int d = trabalho.indiceDenso(phi.getDestino());
+                for (int v = vivas.nextSetBit(0); v >= 0; v = vivas.nextSetBit(v + 1)) {
+                    interferir(d, v);
+                }
+                for (FormaSSA.Phi outra : phisBloco) {
+                    if (outra != phi) {
+                        interferir(d, trabalho.indiceDenso(outra.getDestino()));
+                    }
+                }
+            }
+        }
+    }
+
+    private void interferir(int a, int b) {
+        interferencia[a].set(b);
+        interferencia[b].set(a);
+    }
+
+    // =====================================================================
+    //  AGRUPAMENTO E RENOMEAÇÃO
+    // =====================================================================
+
+    private int encontrar(int n) {
+        while (pai[n] != n) {
+            pai[n] = pai[pai[n]];
+            n = pai[n];
+        }
+        return n;
+    }
+
+    private void unir(int a, int b) {
+        int ra = encontrar(a);
+        int rb = encontrar(b);
+        if (ra == rb || interferenciaGrupo[ra].intersects(membros[rb])) {
+            return;
+        }
+        // Nomes de tipos diferentes ocupam posições de memória diferentes (db/dd)
+        if (trabalho.tipo(trabalho.operandoDenso(ra)) != trabalho.tipo(trabalho.operandoDenso(rb))) {
+            return;
+        }
+        pai[rb] = ra;
+        membros[ra].or(membros[rb]);
+        interferenciaGrupo[ra].or(interferenciaGrupo[rb]);
+        membros[rb] = null;
+        interferenciaGrupo[rb] = null;
+    }
+
+    private void agrupar() {
+        pai = new int[totalNomes];
+        membros = new BitSet[totalNomes];
+        interferenciaGrupo = new BitSet[totalNomes];
+        for (int n = 0; n < totalNomes; n++) {
+            pai[n] = n;
+            membros[n] = new BitSet(totalNomes);
+            membros[n].set(n);
+            interferenciaGrupo[n] = interferencia[n];
+        }
+
+        // 1. Destino de cada phi com seus argumentos
+        for (int b = 0; b < totalBlocos; b++) {
+            int[] predecessores = cfg.predecessores(b);
+            for (FormaSSA.Phi phi : ssa.phis(b)) {
+                int d = trabalho.indiceDenso(phi.getDestino());
+                for (int j = 0; j < predecessores.length; j++) {
+                    int argumento = phi.getArgumento(j);
+                    if (ProgramaIR.ehNome(argumento) && existeAresta(predecessores[j], b)) {
+                        unir(d, trabalho.indiceDenso(argumento));
+                    }
+                }
+            }
+        }
+
+        // 2. Cada versão com o nome original
+        for (int n = 0; n < totalNomes; n++) {
+            unir(trabalho.indiceDenso(ssa.origem(trabalho.operandoDenso(n))), n);
+        }
+    }
+
+    private void renomear() {
+        // Cada grupo usa o nome original que contém (todo nome original está em
+        // algum grupo); versões que não puderam se juntar a ele mantêm o próprio nome.
+        nomeGrupo = new int[totalNomes];
+        for (int n = 0; n < totalNomes; n++) {
+            int operando = trabalho.operandoDenso(n);
+            int grupo = encontrar(n);
+            if (ssa.origem(operando) == operando && nomeGrupo[grupo] == ProgramaIR.NENHUM) {
+                nomeGrupo[grupo] = operando;
+            }
+        }
+        for (int n = 0; n < totalNomes; n++) {
+            int grupo = encontrar(n);
+            if (nomeGrupo[grupo] == ProgramaIR.NENHUM) {
+                nomeGrupo[grupo] = trabalho.operandoDenso(n);
+            }
+        }
+
+        for (int i = 0; i < trabalho.tamanho(); i++) {
+            Opcode op = trabalho.opcode(i);
+            int destino = trabalho.destino(i);
+            if (op.defineDestino() && ProgramaIR.ehNome(destino)) {
+                destino = nomeFinal(destino);
+            }
+            int a = trabalho.operando1(i);
+            int b = trabalho.operando2(i);
+            int lidos = op.numeroOperandosLidos();
+            if (lidos >= 1) {
+                a = nomeFinal(a);
+            }
+            if (lidos == 2) {
+                b = nomeFinal(b);
+            }
+            trabalho.definir(i, op, destino, a, b);
+        }
+    }
+
+    private int nomeFinal(int operando) {
+        return ProgramaIR.ehNome(operando) ? nomeGrupo[encontrar(trabalho.indiceDenso(operando))] : operando;
+    }
+
+    // =====================================================================
+    //  EMISSÃO
+    // =====================================================================
+
+    /**
+     * Cópias (destino, origem) exigidas pelas phis de 'para' na aresta vinda de
+     * 'de'. Com 'para' = -1 (fim do programa), devolve as variáveis do usuário
+     * cujo valor final não ficou no nome original.
+     */
+    private List<int[]> copiasDaAresta(int de, int para) {
+        List<int[]> copias = new ArrayList<>();
+        if (para < 0) {
+            if (ehSaida(de)) {
+                for (int slot = 0; slot < ssa.getVariaveisOriginais(); slot++) {
+                    int destino = ProgramaIR.operando(ProgramaIR.VARIAVEL, slot);
+                    int origem = nomeFinal(ssa.valorNaSaida(slot));
+                    if (origem != ProgramaIR.NENHUM && origem != destino) {
+                        copias.add(new int[]{destino, origem});
+                    }
+                }
+            }
+            return copias;
+        }
+        int[] predecessores = cfg.predecessores(para);
+        for (int j = 0; j < predecessores.length; j++) {
+            if (predecessores[j] != de) {
+                continue;
+            }
+            for (FormaSSA.Phi phi : ssa.phis(para)) {
+                int destino = nomeFinal(phi.getDestino());
+                int origem = nomeFinal(phi.getArgumento(j));
+                if (origem != ProgramaIR.NENHUM && origem != destino) {
+                    copias.add(new int[]{destino, origem});
+                }
+            }
+        }
+        return copias;
+    }
+
+    private ProgramaIR emitir() {
+        saida = trabalho.copiar();
+        saida.limparInstrucoes();
+        List<int[]> blocosNovos = new ArrayList<>();       // {rótulo novo, rótulo alvo}
+        List<List<int[]>> copiasBlocosNovos = new ArrayList<>();
+
+        for (int b = 0; b < totalBlocos; b++) {
+            int ultima = ultimaInstrucao[b];
+            Opcode terminador = ultima >= 0 ? trabalho.opcode(ultima) : Opcode.NOP;
+            boolean saltoNoFim = terminador.ehSalto();
+
+            for (int i = cfg.inicio(b); i < cfg.fim(b); i++) {
+                boolean copiaInutil = trabalho.opcode(i) == Opcode.COPIA && trabalho.destino(i) == trabalho.operando1(i);
+                if (trabalho.opcode(i) != Opcode.NOP && !copiaInutil && !(saltoNoFim && i == ultima)) {
+                    saida.adicionar(trabalho.opcode(i), trabalho.destino(i), trabalho.operando1(i), trabalho.operando2(i));
+                }
+            }
+
+            List<int[]> copiasSalto = copiasDaAresta(b, sucessorSalto[b]);
+            List<int[]> copiasSequenciais = copiasDaAresta(b, sucessorSequencial[b]);
+            if (terminador == Opcode.JMP) {
+                emitirCopiasParalelas(copiasSalto);
+                saida.adicionar(Opcode.JMP, trabalho.destino(ultima), ProgramaIR.NENHUM, ProgramaIR.NENHUM);
+            } else if (terminador.ehSaltoCondicional()) {
+                int alvo = trabalho.destino(ultima);
+                if (!copiasSalto.isEmpty()) {
+                    int rotuloNovo = saida.novoRotulo();
+                    blocosNovos.add(new int[]{rotuloNovo, alvo});
+                    copiasBlocosNovos.add(copiasSalto);
+                    alvo = rotuloNovo;
+                }
+                saida.adicionar(terminador, alvo, trabalho.operando1(ultima), trabalho.operando2(ultima));
+                emitirCopiasParalelas(copiasSequenciais);
+            } else {
+                emitirCopiasParalelas(copiasSequenciais);
+            }
+        }
+
+        if (!blocosNovos.isEmpty()) {
+            int rotuloFim = -1;
+            if (saida.tamanho() == 0 || saida.opcode(saida.tamanho() - 1) != Opcode.JMP) {
+                rotuloFim = saida.novoRotulo();
+                saida.adicionar(Opcode.JMP, rotuloFim, ProgramaIR.NENHUM, ProgramaIR.NENHUM);
+            }
+            for (int k = 0; k < blocosNovos.size(); k++) {
+                saida.adicionar(Opcode.ROTULO, blocosNovos.get(k)[0], ProgramaIR.NENHUM, ProgramaIR.NENHUM);
+                emitirCopiasParalelas(copiasBlocosNovos.get(k));
+                saida.adicionar(Opcode.JMP, blocosNovos.get(k)[1], ProgramaIR.NENHUM, ProgramaIR.NENHUM);
+            }
+            if (rotuloFim != -1) {
+                saida.adicionar(Opcode.ROTULO, rotuloFim, ProgramaIR.NENHUM, ProgramaIR.NENHUM);
+            }
+        }
+        return saida;
+    }
+
+    /**
+     * Sequencializa um conjunto de cópias que devem acontecer "ao mesmo tempo".
+     * Uma cópia só é emitida quando seu destino não é mais lido por outra
+     * pendente; ciclos (a troca x <-> y) são quebrados com um temporário.
+     */
+    private void emitirCopiasParalelas(List<int[]> copias) {
+        List<int[]> pendentes = new ArrayList<>(copias);
+        while (!pendentes.isEmpty()) {
+            boolean emitiu = false;
+            for (int k = 0; k < pendentes.size() && !emitiu; k++) {
+                int destino = pendentes.get(k)[0];
+                boolean lido = false;
+                for (int[] outra : pendentes) {
+                    if (outra != pendentes.get(k) && outra[1] == destino) {
+                        lido = true;
+                        break;
+                    }
+                }
+                if (!lido) {
+                    saida.adicionar(Opcode.COPIA, destino, pendentes.get(k)[1], ProgramaIR.NENHUM);
+                    pendentes.remove(k);
+                    emitiu = true;
+                }
+            }
+            if (!emitiu) {
+                int destino = pendentes.get(0)[0];
+                int salvo = saida.novoTemporario(saida.tipo(destino));
+                saida.adicionar(Opcode.COPIA, salvo, destino, ProgramaIR.NENHUM);
+                for (int[] copia : pendentes) {
+                    if (copia[1] == destino) {
+                        copia[1] = salvo;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+
+import java.util.Arrays;
+
+/**
+ * DobramentoConstantes.java
+ * Dobramento de constantes, propagação local de constantes e identidades algébricas.
+ *
+ * Percorre cada bloco básico em ordem, lembrando quais nomes guardam uma
+ * constante conhecida (COPIA de constante ou operação já dobrada). Os usos
+ * desses nomes são trocados pela constante, operações com operandos
+ * constantes viram COPIA do resultado (ver {@link AritmeticaConstante}) e
+ * identidades como 'x + 0' viram COPIA de 'x'. O conhecimento é descartado no
+ * início de cada bloco, pois outro caminho pode chegar com outro valor.
+ *
+ * Ao final, temporários que recebem uma constante e não são mais lidos em
+ * lugar nenhum são removidos (variáveis do usuário são mantidas: seu valor
+ * final é o resultado do programa).
+ */
+public class DobramentoConstantes implements PassoOtimizacao {
+
+    @Override
+    public String getNome() {
+        return "Dobramento e propagação de constantes";
+    }
+
+    @Override
+    public boolean executar(ProgramaIR ir) {
+        boolean alterou = false;
+        int[] constanteDe = new int[ir.totalNomes()];
+        Arrays.fill(constanteDe, ProgramaIR.NENHUM);
+        int[] conhecidos = new int[ir.totalNomes()];
+        int totalConhecidos = 0;
+
+        for (int i = 0; i < ir.tamanho(); i++) {
+            Opcode op = ir.opcode(i);
+
+            // Início de bloco: esquece as constantes conhecidas
+            if (op == Opcode.ROTULO) {
+                for (int k = 0; k < totalConhecidos; k++) {
+                    constanteDe[conhecidos[k]] = ProgramaIR.NENHUM;
+                }
+                totalConhecidos = 0;
+                continue;
+            }
+
+            // 1. Propagação: usos de nomes com valor conhecido
+            int lidos = op.numeroOperandosLidos();
+            if (lidos >= 1) {
+                int valor = constanteConhecida(ir, constanteDe, ir.operando1(i));
+                if (valor != ProgramaIR.NENHUM) {
+                    ir.definirOperando1(i, valor);
+                    alterou = true;
+                }
+            }
+            if (lidos == 2) {
+                int valor = constanteConhecida(ir, constanteDe, ir.operando2(i));
+                if (valor != ProgramaIR.NENHUM) {
+                    ir.definirOperando2(i, valor);
+                    alterou = true;
+                }
+            }
+
+            // 2. Dobramento e identidades
+            if (op.ehBinario()) {
+                int destino = ir.destino(i);
+                int resultado = AritmeticaConstante.dobrar(ir, op, destino, ir.operando1(i), ir.operando2(i));
+                if (resultado == ProgramaIR.NENHUM) {
+                    resultado = AritmeticaConstante.simplificar(ir, op, destino, ir.operando1(i), ir.operando2(i));
+                }
+                if (resultado != ProgramaIR.NENHUM) {
+                    ir.definir(i, Opcode.COPIA, destino, resultado, ProgramaIR.NENHUM);
+                    op = Opcode.COPIA;
+                    alterou = true;
+                }
+            }
+
+            // 3. Atualiza o conhecimento sobre o destino
+            if (op.defineDestino() && ProgramaIR.ehNome(ir.destino(i))) {
+                int d = ir.indiceDenso(ir.destino(i));
+                boolean eraConhecido = constanteDe[d] != ProgramaIR.NENHUM;
+                if (op == Opcode.COPIA && ProgramaIR.ehConstante(ir.operando1(i))) {
+                    constanteDe[d] = ir.operando1(i);
+                    if (!eraConhecido) {
+                        conhecidos[totalConhecidos++] = d;
+                    }
+                } else {
+                    constanteDe[d] = ProgramaIR.NENHUM;
+                }
+            }
+
+            // Fim de bloco: o próximo bloco pode ser alcançado por outro caminho
+            if (op.ehSalto()) {
+                for (int k = 0; k < totalConhecidos; k++) {
+                    constanteDe[conhecidos[k]] = ProgramaIR.NENHUM;
+                }
+                totalConhecidos = 0;
+            }
+        }
+
+        if (alterou) {
+            removerTemporariosSemUso(ir);
+        }
+        return alterou;
+    }
+
+    private static int constanteConhecida(ProgramaIR ir, int[] constanteDe, int operando) {
+        return ProgramaIR.ehNome(operando) ? constanteDe[ir.indiceDenso(operando)] : ProgramaIR.NENHUM;
+    }
+
+    /** Remove 'Tn = constante' quando Tn não é lido por nenhuma instrução. */
+    private static void removerTemporariosSemUso(ProgramaIR ir) {
+        boolean[] lido = new boolean[ir.totalNomes()];
+        for (int i = 0; i < ir.tamanho(); i++) {
+            int lidos = ir.opcode(i).numeroOperandosLidos();
+            if (lidos >= 1 && ProgramaIR.ehNome(ir.operando1(i))) {
+                lido[ir.indiceDenso(ir.operando1(i))] = true;
+            }
+            if (lidos == 2 && ProgramaIR.ehNome(ir.operando2(i))) {
+                lido[ir.indiceDenso(ir.operando2(i))] = true;
+            }
+        }
+        boolean removeu = false;
+        for (int i = 0; i < ir.tamanho(); i++) {
+            if (ir.opcode(i) == Opcode.COPIA && ProgramaIR.ehTemporario(ir.destino(i))
+                    && ProgramaIR.ehConstante(ir.operando1(i)) && !lido[ir.indiceDenso(ir.destino(i))]) {
+                ir.remover(i);
+                removeu = true;
+            }
+        }
+        if (removeu) {
+            ir.compactar();
+        }
+    }
+}
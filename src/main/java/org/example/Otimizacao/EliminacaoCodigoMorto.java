@@ -0,0 +1,102 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+
+import java.util.BitSet;
+
+/**
+ * EliminacaoCodigoMorto.java
+ * Eliminação de código morto e de atribuições mortas guiada por vivacidade.
+ *
+ * Calcula quais nomes estão vivos na saída de cada bloco (ver
+ * {@link Vivacidade}) e percorre cada bloco de trás para frente removendo
+ * instruções cujo destino está morto, como temporários sobrescritos e atribuições a
+ * variáveis que são redefinidas antes de qualquer leitura. Instruções que
+ * podem falhar (DIV e RESTO sem divisor constante diferente de 0 e -1) ou que
+ * têm efeito colateral são mantidas. Blocos inalcançáveis são descartados.
+ *
+ * Remover uma instrução pode matar as que a alimentavam em outro bloco, então
+ * o processo se repete até não haver mudanças.
+ */
+public class EliminacaoCodigoMorto implements PassoOtimizacao {
+
+    @Override
+    public String getNome() {
+        return "Eliminação de código morto";
+    }
+
+    @Override
+    public boolean executar(ProgramaIR ir) {
+        return executar(ir, new Analises(ir));
+    }
+
+    @Override
+    public boolean executar(ProgramaIR ir, Analises analises) {
+        boolean alterou = false;
+        boolean mudou = true;
+        while (mudou) {
+            GrafoFluxoControle cfg = analises.cfg();
+            Vivacidade vivacidade = analises.vivacidade();
+            mudou = removerInalcancaveis(ir, cfg);
+            mudou |= removerMortas(ir, cfg, vivacidade);
+            if (mudou) {
+                ir.compactar();
+                analises.invalidar();
+                alterou = true;
+            }
+        }
+        if (alterou && new SimplificacaoSaltos().executar(ir)) {
+            analises.invalidar();
+        }
+        return alterou;
+    }
+
+    private static boolean removerInalcancaveis(ProgramaIR ir, GrafoFluxoControle cfg) {
+        boolean mudou = false;
+        for (int b = 0; b < cfg.getTotalBlocos(); b++) {
+            if (cfg.alcancavel(b)) {
+                continue;
+            }
+            for (int i = cfg.inicio(b); i < cfg.fim(b); i++) {
+                if (ir.opcode(i) != Opcode.NOP) {
+                    ir.remover(i);
+                    mudou = true;
+                }
+            }
+        }
+        return mudou;
+    }
+
+    private static boolean removerMortas(ProgramaIR ir, GrafoFluxoControle cfg, Vivacidade vivacidade) {
+        boolean mudou = false;
+        for (int b : cfg.ordemRPO()) {
+            BitSet vivas = vivacidade.vivasNaSaida(b);
+            for (int i = cfg.fim(b) - 1; i >= cfg.inicio(b); i--) {
+                Opcode op = ir.opcode(i);
+                if (op.defineDestino() && ProgramaIR.ehNome(ir.destino(i))) {
+                    int d = ir.indiceDenso(ir.destino(i));
+                    if (!vivas.get(d) && podeRemover(ir, i)) {
+                        ir.remover(i);
+                        mudou = true;
+                        continue;
+                    }
+                    vivas.clear(d);
+                }
+                int lidos = op.numeroOperandosLidos();
+                if (lidos >= 1 && ProgramaIR.ehNome(ir.operando1(i))) {
+                    vivas.set(ir.indiceDenso(ir.operando1(i)));
+                }
+                if (lidos == 2 && ProgramaIR.ehNome(ir.operando2(i))) {
+                    vivas.set(ir.indiceDenso(ir.operando2(i)));
+                }
+            }
+        }
+        return mudou;
+    }
+
+    /** Uma definição morta só some se não tiver efeito além do destino. */
+    private static boolean podeRemover(ProgramaIR ir, int i) {
+        return !ir.opcode(i).temEfeitoColateral() && !AritmeticaConstante.podeFalhar(ir, i);
+    }
+}
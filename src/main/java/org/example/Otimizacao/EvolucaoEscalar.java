@@ -0,0 +1,363 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+import org.example.TipoDado;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * EvolucaoEscalar.java
+ * Evolução escalar de um laço simples: como cada nome muda a cada volta e
+ * quantas voltas o laço dá.
+ *
+ * Só trata o formato de um 'enquanto' com condição simples:
+ *   L:  JMPcc Lsaida i n       (teste no cabeçalho)
+ *       ...                    (corpo em linha reta: sem rótulos nem saltos)
+ *       JMP L                  (única aresta de retorno; nada mais salta para L)
+ * O corpo é executado simbolicamente: o valor de cada nome definido, no fim da
+ * volta, vira uma {@link FormaAfim} dos valores no início da volta. Um nome
+ * com forma 'i + c' (c constante) é variável de indução. Se o teste compara
+ * uma variável de indução com um limite, e o valor inicial dela e o limite são
+ * constantes conhecidas na entrada do laço, o número de voltas sai por
+ * divisão, sem simular o laço. Laços em que a variável estouraria os 32 bits
+ * antes de sair não têm número de voltas.
+ */
+final class EvolucaoEscalar {
+
+    /**
+     * Forma afim: constante + soma de coeficiente * nome (índice denso), com
+     * a aritmética circular de 32 bits do INTEIRO. Imutável.
+     */
+    static final class FormaAfim {
+        final int constante;
+        final TreeMap<Integer, Integer> termos; // índice denso -> coeficiente (nunca 0)
+
+        private FormaAfim(int constante, TreeMap<Integer, Integer> termos) {
+            this.constante = constante;
+            this.termos = termos;
+        }
+
+        static FormaAfim constante(int valor) {
+            return new FormaAfim(valor, new TreeMap<>());
+        }
+
+        static FormaAfim nome(int indice) {
+            TreeMap<Integer, Integer> termos = new TreeMap<>();
+            termos.put(indice, 1);
+            return new FormaAfim(0, termos);
+        }
+
+        FormaAfim somar(FormaAfim outra) {
+            TreeMap<Integer, Integer> soma = new TreeMap<>(termos);
+            for (Map.Entry<Integer, Integer> termo : outra.termos.entrySet()) {
+                int coeficiente = soma.getOrDefault(termo.getKey(), 0) + termo.getValue();
+                if (coeficiente == 0) {
+                    soma.remove(termo.getKey());
+                } else {
+                    soma.put(termo.getKey(), coeficiente);
+                }
+            }
+            return new FormaAfim(constante + outra.constante, soma);
+        }
+
+        FormaAfim multiplicar(int fator) {
+            TreeMap<Integer, Integer> produto = new TreeMap<>();
+            if (fator != 0) {
+                for (Map.Entry<Integer, Integer> termo : termos.entrySet()) {
+                    if (termo.getValue() * fator != 0) {
+                        produto.put(termo.getKey(), termo.getValue() * fator);
+                    }
+                }
+            }
+            return new FormaAfim(constante * fator, produto);
+        }
+
+        /** Troca o nome 'indice' pela forma 'valor'. */
+        FormaAfim substituir(int indice, FormaAfim valor) {
+            Integer coeficiente = termos.get(indice);
+            if (coeficiente == null) {
+                return this;
+            }
+            TreeMap<Integer, Integer> resto = new TreeMap<>(termos);
+            resto.remove(indice);
+            return new FormaAfim(constante, resto).somar(valor.multiplicar(coeficiente));
+        }
+
+        int coeficiente(int indice) {
+            return termos.getOrDefault(indice, 0);
+        }
+
+        boolean ehConstante() {
+            return termos.isEmpty();
+        }
+    }
+
+    final int inicio;           // posição do rótulo do cabeçalho
+    final int fim;              // posição do JMP de retorno
+    final int rotuloSaida;
+    final int voltas;           // número exato de voltas (o laço sai depois da última)
+    final boolean puro;         // corpo sem E/S e sem operação que pode falhar
+    // Nome definido no corpo -> valor no fim de uma volta (null: não é afim)
+    final TreeMap<Integer, FormaAfim> formas;
+
+    private EvolucaoEscalar(int inicio, int fim, int rotuloSaida, int voltas, boolean puro,
+                            TreeMap<Integer, FormaAfim> formas) {
+        this.inicio = inicio;
+        this.fim = fim;
+        this.rotuloSaida = rotuloSaida;
+        this.voltas = voltas;
+        this.puro = puro;
+        this.formas = formas;
+    }
+
+    /**
+     * Analisa o laço.
+     * @param referencias quantos saltos apontam para cada rótulo
+     * @return a evolução, ou null se o laço não tem o formato ou o número de voltas não é conhecido
+     */
+    static EvolucaoEscalar analisar(ProgramaIR ir, GrafoFluxoControle cfg, Laco laco, int[] referencias) {
+        if (!PreCabecalho.suportado(ir, cfg, laco) || laco.getOrigensRetorno().size() != 1) {
+            return null;
+        }
+        int inicio = cfg.inicio(laco.getCabecalho());
+        int fim = cfg.fim(laco.getOrigensRetorno().get(0)) - 1;
+        int rotulo = ir.destino(inicio);
+        if (fim <= inicio + 1 || ir.opcode(fim) != Opcode.JMP || ir.destino(fim) != rotulo
+                || referencias[ProgramaIR.valorOperando(rotulo)] != 1) {
+            return null;
+        }
+        int instrucoes = 0;
+        for (int b = laco.getBlocos().nextSetBit(0); b >= 0; b = laco.getBlocos().nextSetBit(b + 1)) {
+            if (cfg.inicio(b) < inicio || cfg.fim(b) > fim + 1) {
+                return null;
+            }
+            instrucoes += cfg.fim(b) - cfg.inicio(b);
+        }
+        if (instrucoes != fim - inicio + 1) {
+            return null;
+        }
+
+        int teste = inicio + 1;
+        if (!ir.opcode(teste).ehSaltoComparacao()) {
+            return null;
+        }
+        int rotuloSaida = ir.destino(teste);
+        int posicaoSaida = ir.posicoesRotulos()[ProgramaIR.valorOperando(rotuloSaida)];
+        if (posicaoSaida >= inicio && posicaoSaida <= fim) {
+            return null;
+        }
+
+        // Execução simbólica do corpo
+        TreeMap<Integer, FormaAfim> formas = new TreeMap<>();
+        boolean puro = true;
+        for (int i = teste + 1; i < fim; i++) {
+            Opcode op = ir.opcode(i);
+            if (op == Opcode.ROTULO || op.ehSalto()) {
+                return null;
+            }
+            if (op.temEfeitoColateral() || AritmeticaConstante.podeFalhar(ir, i)) {
+                puro = false;
+            }
+            if (op.defineDestino() && ProgramaIR.ehNome(ir.destino(i))) {
+                formas.put(ir.indiceDenso(ir.destino(i)), executar(ir, i, formas));
+            }
+        }
+
+        // Teste: variável de indução de um lado, limite conhecido do outro
+        Opcode comparacao = ir.opcode(teste).comparacaoDoSalto();
+        int inducao = ir.operando1(teste);
+        int limite = ir.operando2(teste);
+        if (passo(ir, limite, formas) != null) {
+            comparacao = comparacao.comparacaoEspelhada();
+            inducao = ir.operando2(teste);
+            limite = ir.operando1(teste);
+        }
+        Integer passo = passo(ir, inducao, formas);
+        if (passo == null || ir.tipo(limite) != TipoDado.INTEIRO
+                || (ProgramaIR.ehNome(limite) && formas.containsKey(ir.indiceDenso(limite)))) {
+            return null;
+        }
+        Integer valorInicial = valorNaEntrada(ir, inicio, inducao, referencias);
+        Integer valorLimite = ProgramaIR.ehConstante(limite)
+                ? Integer.valueOf(ir.valorInteiro(limite))
+                : valorNaEntrada(ir, inicio, limite, referencias);
+        if (valorInicial == null || valorLimite == null) {
+            return null;
+        }
+        long voltas = voltas(comparacao, valorInicial, valorLimite, passo);
+        if (voltas < 0 || voltas > Integer.MAX_VALUE) {
+            return null;
+        }
+        return new EvolucaoEscalar(inicio, fim, rotuloSaida, (int) voltas, puro, formas);
+    }
+
+    /** Forma do destino da instrução i, ou null se a operação não é afim. */
+    private static FormaAfim executar(ProgramaIR ir, int i, Map<Integer, FormaAfim> formas) {
+        if (ir.tipo(ir.destino(i)) != TipoDado.INTEIRO) {
+            return null;
+        }
+        FormaAfim a = ler(ir, ir.operando1(i), formas);
+        FormaAfim b = ir.opcode(i).numeroOperandosLidos() == 2 ? ler(ir, ir.operando2(i), formas) : null;
+        switch (ir.opcode(i)) {
+            case COPIA:
+                return a;
+            case ADD:
+                return a != null && b != null ? a.somar(b) : null;
+            case SUB:
+                return a != null && b != null ? a.somar(b.multiplicar(-1)) : null;
+            case MUL:
+                if (a != null && b != null && b.ehConstante()) {
+                    return a.multiplicar(b.constante);
+                }
+                return a != null && b != null && a.ehConstante() ? b.multiplicar(a.constante) : null;
+            case SHL:
+                return a != null && b != null && b.ehConstante() ? a.multiplicar(1 << b.constante) : null;
+            default:
+                return null;
+        }
+    }
+
+    private static FormaAfim ler(ProgramaIR ir, int operando, Map<Integer, FormaAfim> formas) {
+        if (ir.tipo(operando) != TipoDado.INTEIRO) {
+            return null;
+        }
+        if (ProgramaIR.ehConstante(operando)) {
+            return FormaAfim.constante(ir.valorInteiro(operando));
+        }
+        int indice = ir.indiceDenso(operando);
+        return formas.containsKey(indice) ? formas.get(indice) : FormaAfim.nome(indice);
+    }
+
+    /** Passo c se o operando é variável de indução do corpo (forma 'i + c'), senão null. */
+    private static Integer passo(ProgramaIR ir, int operando, Map<Integer, FormaAfim> formas) {
+        if (!ProgramaIR.ehNome(operando)) {
+            return null;
+        }
+        return passo(ir.indiceDenso(operando), formas.get(ir.indiceDenso(operando)));
+    }
+
+    private static Integer passo(int indice, FormaAfim forma) {
+        if (forma == null || forma.termos.size() != 1 || forma.coeficiente(indice) != 1) {
+            return null;
+        }
+        return forma.constante;
+    }
+
+    /**
+     * Número de voltas de um laço que sai quando 'i OP n' é verdadeiro, com i
+     * começando em 'inicial' e somando 'passo' a cada volta; -1 se o laço não
+     * sai antes de i estourar os 32 bits (ou nunca sai).
+     */
+    static long voltas(Opcode comparacao, long inicial, long limite, long passo) {
+        if (AritmeticaConstante.comparar(comparacao, inicial, limite)) {
+            return 0;
+        }
+        long voltas;
+        switch (comparacao) {
+            case CMPGE:
+                voltas = passo > 0 ? Math.floorDiv(limite - inicial + passo - 1, passo) : -1;
+                break;
+            case CMPGT:
+                voltas = passo > 0 ? Math.floorDiv(limite - inicial, passo) + 1 : -1;
+                break;
+            case CMPLE:
+                voltas = passo < 0 ? Math.floorDiv(inicial - limite - passo - 1, -passo) : -1;
+                break;
+            case CMPLT:
+                voltas = passo < 0 ? Math.floorDiv(inicial - limite, -passo) + 1 : -1;
+                break;
+            case CMPEQ:
+                voltas = passo != 0 && (limite - inicial) % passo == 0 && (limite - inicial) / passo > 0
+                        ? (limite - inicial) / passo : -1;
+                break;
+            case CMPNE:
+                voltas = passo != 0 ? 1 : -1;
+                break;
+            default:
+                voltas = -1;
+        }
+        if (voltas <= 0) {
+            return -1;
+        }
+        // Sem estouro até o valor que faz o laço sair
+        long ultimo = inicial + voltas * passo;
+        if (ultimo < Integer.MIN_VALUE || ultimo > Integer.MAX_VALUE
+                || !AritmeticaConstante.comparar(comparacao, ultimo, limite)
+                || AritmeticaConstante.comparar(comparacao, ultimo - passo, limite)) {
+            return -1;
+        }
+        return voltas;
+    }
+
+    /**
+     * Valor constante do nome logo antes da posição, se ele é conhecido por
+     * um trecho em linha reta: a última definição antes dela é 'nome = constante',
+     * ou o trecho vai até o início do programa sem definir a variável (variáveis
+     * começam zeradas). O trecho para em rótulos que são alvo de salto.
+     */
+    static Integer valorNaEntrada(ProgramaIR ir, int posicao, int nome, int[] referencias) {
+        for (int i = posicao - 1; i >= 0; i--) {
+            Opcode op = ir.opcode(i);
+            if ((op == Opcode.ROTULO && referencias[ProgramaIR.valorOperando(ir.destino(i))] > 0) || op == Opcode.JMP) {
+                return null;
+            }
+            if (op.defineDestino() && ir.destino(i) == nome) {
+                int valor = ir.operando1(i);
+                return op == Opcode.COPIA && ProgramaIR.ehConstante(valor) && ir.tipo(valor) == TipoDado.INTEIRO
+                        ? Integer.valueOf(ir.valorInteiro(valor)) : null;
+            }
+        }
+        return ProgramaIR.ehVariavel(nome) && ir.tipo(nome) == TipoDado.INTEIRO ? Integer.valueOf(0) : null;
+    }
+
+    /**
+     * Valor de cada nome definido no corpo depois da última volta, como forma
+     * afim dos valores na entrada do laço; null se algum nome não tem forma
+     * fechada. Com N voltas e T = N(N-1)/2:
+     *   - 'x = x + c + k*i' (i de indução com passo p): x + N*c + k*(N*i + p*T)
+     *   - 'x = c + k*i' (sobrescrito a cada volta):      c + k*(i + p*(N-1))
+     * em que c só tem constantes e nomes que o laço não altera.
+     */
+    TreeMap<Integer, FormaAfim> valoresFinais() {
+        long n = voltas;
+        int triangular = (int) (n % 2 == 0 ? (n / 2) * (n - 1) : n * ((n - 1) / 2));
+        TreeMap<Integer, FormaAfim> finais = new TreeMap<>();
+        for (Map.Entry<Integer, FormaAfim> entrada : formas.entrySet()) {
+            int x = entrada.getKey();
+            FormaAfim forma = entrada.getValue();
+            if (forma == null) {
+                return null;
+            }
+            int proprio = forma.coeficiente(x);
+            if (proprio != 0 && proprio != 1) {
+                return null;
+            }
+            // Parte que não depende de nomes alterados pelo laço
+            FormaAfim fixa = FormaAfim.constante(forma.constante);
+            FormaAfim variavel = proprio == 1 ? FormaAfim.nome(x) : FormaAfim.constante(0);
+            for (Map.Entry<Integer, Integer> termo : forma.termos.entrySet()) {
+                int y = termo.getKey();
+                int k = termo.getValue();
+                if (y == x) {
+                    continue;
+                }
+                if (!formas.containsKey(y)) {
+                    fixa = fixa.somar(FormaAfim.nome(y).multiplicar(k));
+                    continue;
+                }
+                Integer p = passo(y, formas.get(y));
+                if (p == null) {
+                    return null;
+                }
+                FormaAfim soma = proprio == 1
+                        ? FormaAfim.nome(y).multiplicar((int) n).somar(FormaAfim.constante(p * triangular))
+                        : FormaAfim.nome(y).somar(FormaAfim.constante(p * (int) (n - 1)));
+                variavel = variavel.somar(soma.multiplicar(k));
+            }
+            finais.put(x, variavel.somar(fixa.multiplicar(proprio == 1 ? (int) n : 1)));
+        }
+        return finais;
+    }
+}
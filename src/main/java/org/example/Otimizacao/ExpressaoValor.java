@@ -0,0 +1,58 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+
+/**
+ * ExpressaoValor.java
+ * Chave das tabelas de numeração de valores: operação + números de valor (ou
+ * operandos) dos dois lados. Operações comutativas (+, *, AND, ==, !=...) têm os
+ * operandos ordenados e comparações espelháveis são normalizadas (a > b vira
+ * b < a), para que 'a*b' e 'b*a' caiam na mesma entrada. O indicador 'real'
+ * separa a divisão inteira da divisão em ponto flutuante.
+ */
+final class ExpressaoValor {
+
+    private final Opcode opcode;
+    private final int a;
+    private final int b;
+    private final boolean real;
+
+    ExpressaoValor(Opcode opcode, int a, int b, boolean real) {
+        if (opcode == Opcode.CMPGT || opcode == Opcode.CMPGE) {
+            opcode = opcode.comparacaoEspelhada();
+            int t = a;
+            a = b;
+            b = t;
+        } else if (ehComutativa(opcode) && a > b) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        this.opcode = opcode;
+        this.a = a;
+        this.b = b;
+        this.real = real;
+    }
+
+    static boolean ehComutativa(Opcode op) {
+        return op == Opcode.ADD || op == Opcode.MUL || op == Opcode.AND || op == Opcode.MULHI
+                || op == Opcode.CMPEQ || op == Opcode.CMPNE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof ExpressaoValor)) {
+            return false;
+        }
+        ExpressaoValor e = (ExpressaoValor) o;
+        return opcode == e.opcode && a == e.a && b == e.b && real == e.real;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = opcode.ordinal();
+        h = h * 31 + a;
+        h = h * 31 + b;
+        return h * 2 + (real ? 1 : 0);
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.Otimizacao;
+
+import java.util.Arrays;
+
+/**
+ * FluxoDados.java
+ * Solucionador genérico de problemas de fluxo de dados sobre o CFG (ver
+ * {@link ProblemaFluxoDados}).
+ *
+ * Guarda, por bloco, o valor no início e no fim como long[]. A lista de
+ * trabalho é um conjunto de bits sobre as posições da ordem de visita: pós-
+ * ordem reversa (RPO) para problemas para frente, pós-ordem para problemas
+ * para trás. Cada rodada varre as posições pendentes em ordem crescente, então
+ * um bloco só é visitado depois dos que o alimentam, exceto pelas arestas de
+ * retorno; em CFGs estruturados (os do 'enquanto') isso converge em poucas
+ * rodadas, com custo proporcional a blocos x palavras. Blocos inalcançáveis
+ * não são visitados e ficam com o valor inicial do reticulado.
+ */
+public final class FluxoDados {
+
+    private final long[][] inicio;
+    private final long[][] fim;
+    private int visitas;
+
+    private FluxoDados(int totalBlocos) {
+        inicio = new long[totalBlocos][];
+        fim = new long[totalBlocos][];
+    }
+
+    public static FluxoDados resolver(GrafoFluxoControle cfg, ProblemaFluxoDados problema) {
+        int totalBlocos = cfg.getTotalBlocos();
+        FluxoDados resultado = new FluxoDados(totalBlocos);
+        boolean paraFrente = problema.direcao() == ProblemaFluxoDados.Direcao.PARA_FRENTE;
+        boolean uniao = problema.juncao() == ProblemaFluxoDados.Juncao.UNIAO;
+        int tamanho = problema.tamanho();
+
+        // 'antes' recebe a junção dos vizinhos; 'depois' é o resultado da transferência
+        long[][] antes = paraFrente ? resultado.inicio : resultado.fim;
+        long[][] depois = paraFrente ? resultado.fim : resultado.inicio;
+        for (int b = 0; b < totalBlocos; b++) {
+            antes[b] = ConjuntoBits.novo(tamanho);
+            depois[b] = ConjuntoBits.novo(tamanho);
+            if (!uniao) {
+                ConjuntoBits.preencher(antes[b], tamanho);
+                ConjuntoBits.preencher(depois[b], tamanho);
+            }
+        }
+
+        int[] rpo = cfg.ordemRPO();
+        int[] ordem = new int[rpo.length];
+        int[] posicao = new int[totalBlocos];
+        Arrays.fill(posicao, -1);
+        for (int k = 0; k < rpo.length; k++) {
+            ordem[k] = paraFrente ? rpo[k] : rpo[rpo.length - 1 - k];
+            posicao[ordem[k]] = k;
+        }
+        int entrada = rpo.length > 0 ? rpo[0] : -1;
+
+        long[] pendentes = ConjuntoBits.novo(ordem.length);
+        ConjuntoBits.preencher(pendentes, ordem.length);
+        long[] novo = ConjuntoBits.novo(tamanho);
+        boolean restam = ordem.length > 0;
+        while (restam) {
+            restam = false;
+            for (int p = ConjuntoBits.proximo(pendentes, 0); p >= 0; p = ConjuntoBits.proximo(pendentes, p + 1)) {
+                ConjuntoBits.remover(pendentes, p);
+                int b = ordem[p];
+                resultado.visitas++;
+
+                // Junção: fronteira (se for o caso) e o valor de cada vizinho alcançável
+                int[] vizinhos = paraFrente ? cfg.predecessores(b) : cfg.sucessores(b);
+                long[] valor = antes[b];
+                boolean ehFronteira = paraFrente ? b == entrada : vizinhos.length == 0;
+                boolean primeiro = true;
+                if (ehFronteira) {
+                    Arrays.fill(valor, 0L);
+                    problema.fronteira(b, valor);
+                    primeiro = false;
+                }
+                for (int v : vizinhos) {
+                    if (posicao[v] < 0) {
+                        continue;
+                    }
+                    if (primeiro) {
+                        System.arraycopy(depois[v], 0, valor, 0, valor.length);
+                        primeiro = false;
+                    } else if (uniao) {
+                        ConjuntoBits.unir(valor, depois[v]);
+                    } else {
+                        ConjuntoBits.intersectar(valor, depois[v]);
+                    }
+                }
+
+                problema.transferir(b, valor, novo);
+                if (!Arrays.equals(novo, depois[b])) {
+                    System.arraycopy(novo, 0, depois[b], 0, novo.length);
+                    for (int s : paraFrente ? cfg.sucessores(b) : cfg.predecessores(b)) {
+                        int q = posicao[s];
+                        if (q >= 0) {
+                            ConjuntoBits.adicionar(pendentes, q);
+                            // Vizinho já passado nesta varredura: precisa de outra rodada
+                            restam |= q <= p;
+                        }
+                    }
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /** Valor no início do bloco (não modificar). */
+    public long[] inicio(int bloco) {
+        return inicio[bloco];
+    }
+
+    /** Valor no fim do bloco (não modificar). */
+    public long[] fim(int bloco) {
+        return fim[bloco];
+    }
+
+    /** Total de visitas a blocos até a convergência (para medir o custo). */
+    public int getVisitas() {
+        return visitas;
+    }
+}
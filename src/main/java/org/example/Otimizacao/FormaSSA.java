@@ -0,0 +1,500 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * FormaSSA.java
+ * Forma de Atribuição Única Estática (SSA) do IR.
+ *
+ * A construção segue Cytron et al.: funções phi são colocadas na fronteira de
+ * dominância dos blocos que definem cada nome (variante "semi-podada": só
+ * variáveis do usuário, que são lidas na saída, e nomes lidos em mais de um
+ * bloco recebem phi) e a renomeação percorre a árvore de
+ * dominadores. Cada definição ganha um nome novo: versões de variáveis do
+ * usuário se chamam "x_1", "x_2"... (o '_' não é aceito pelo léxico, então não
+ * colide com identificadores do fonte) e versões de temporários são novos
+ * temporários. O nome original representa o valor inicial (versão 0).
+ *
+ * As phis não são instruções do IR: ficam numa tabela por bloco, com um
+ * argumento para cada predecessor do bloco no CFG (na mesma ordem de
+ * {@link GrafoFluxoControle#predecessores}). O valor de cada variável do
+ * usuário ao fim do programa também é registrado (um "uso" implícito na
+ * saída), para que a tradução de volta deixe o resultado no nome original.
+ *
+ * Passos que trabalham sobre esta forma podem substituir instruções e trocá-las
+ * por NOP, mas não devem inserir ou remover posições, pois os limites dos
+ * blocos do CFG continuam valendo. {@link #paraIR()} traduz de volta para o IR
+ * comum.
+ */
+public class FormaSSA {
+
+    /**
+     * Função phi no início de um bloco:
+     * destino = PHI(argumento[i] vindo do predecessor i).
+     */
+    public static final class Phi {
+        private final int original;
+        private int destino;
+        private final int[] argumentos;
+
+        Phi(int original, int totalPredecessores) {
+            this.original = original;
+            this.destino = original;
+            this.argumentos = new int[totalPredecessores];
+        }
+
+        /** Nome original (antes da renomeação) do qual a phi é versão. */
+        public int getOriginal() {
+            return original;
+        }
+
+        public int getDestino() {
+            return destino;
+        }
+
+        public int getTotalArgumentos() {
+            return argumentos.length;
+        }
+
+        public int getArgumento(int i) {
+            return argumentos[i];
+        }
+
+        public void definirArgumento(int i, int operando) {
+            argumentos[i] = operando;
+        }
+    }
+
+    private final ProgramaIR ir;
+    private final GrafoFluxoControle cfg;
+    private final List<List<Phi>> phis;
+
+    // Versão de cada variável original que chega ao fim do programa (NENHUM se o fim é inalcançável)
+    private final int[] valoresSaida;
+
+    // Nome original de cada variável/temporário criado na renomeação (NENHUM = é original)
+    private int[] origemVariavel;
+    private int[] origemTemporario;
+
+    // Espaço de nomes anterior à renomeação
+    private final int variaveisOriginais;
+    private final int temporariosOriginais;
+
+    private FormaSSA(ProgramaIR ir, GrafoFluxoControle cfg) {
+        this.ir = ir;
+        this.cfg = cfg;
+        this.variaveisOriginais = ir.getNumeroVariaveis();
+        this.temporariosOriginais = ir.getMaiorTemporario();
+        this.valoresSaida = new int[variaveisOriginais];
+        this.origemVariavel = new int[variaveisOriginais];
+        this.origemTemporario = new int[temporariosOriginais + 1];
+        this.phis = new ArrayList<>(cfg.getTotalBlocos());
+        for (int b = 0; b < cfg.getTotalBlocos(); b++) {
+            phis.add(new ArrayList<>(0));
+        }
+    }
+
+    /**
+     * Constrói a forma SSA de uma cópia do IR (o programa recebido não é alterado).
+     * Blocos inalcançáveis são descartados antes da construção.
+     */
+    public static FormaSSA construir(ProgramaIR programa) {
+        ProgramaIR ir = programa.copiar();
+        GrafoFluxoControle cfg = new GrafoFluxoControle(ir);
+
+        boolean removeu = false;
+        for (int b = 0; b < cfg.getTotalBlocos(); b++) {
+            if (!cfg.alcancavel(b)) {
+                for (int i = cfg.inicio(b); i < cfg.fim(b); i++) {
+                    ir.remover(i);
+                }
+                removeu = true;
+            }
+        }
+        if (removeu) {
+            ir.compactar();
+            cfg = new GrafoFluxoControle(ir);
+        }
+
+        // A entrada não pode ter predecessores (um laço no início do programa):
+        // um NOP inicial cria um bloco de entrada próprio para as phis do cabeçalho.
+        if (cfg.predecessores(0).length > 0) {
+            ir.inserir(0, Opcode.NOP, ProgramaIR.NENHUM, ProgramaIR.NENHUM, ProgramaIR.NENHUM);
+            cfg = new GrafoFluxoControle(ir);
+        }
+
+        FormaSSA ssa = new FormaSSA(ir, cfg);
+        ssa.inserirPhis();
+        ssa.renomear();
+        return ssa;
+    }
+
+    // =====================================================================
+    //  CONSTRUÇÃO
+    // =====================================================================
+
+    private int indiceOriginal(int operando) {
+        int valor = ProgramaIR.valorOperando(operando);
+        switch (ProgramaIR.tipoOperando(operando)) {
+            case ProgramaIR.VARIAVEL:
+                return valor < variaveisOriginais ? valor : -1;
+            case ProgramaIR.TEMPORARIO:
+                return valor <= temporariosOriginais ? variaveisOriginais + valor - 1 : -1;
+            default:
+                return -1;
+        }
+    }
+
+    private int operandoOriginal(int indice) {
+        return indice < variaveisOriginais
+                ? ProgramaIR.operando(ProgramaIR.VARIAVEL, indice)
+                : ProgramaIR.operando(ProgramaIR.TEMPORARIO, indice - variaveisOriginais + 1);
+    }
+
+    private void inserirPhis() {
+        int totalNomes = variaveisOriginais + temporariosOriginais;
+        BitSet[] blocosDefinicao = new BitSet[totalNomes];
+        BitSet globais = new BitSet(totalNomes);
+        BitSet definidosNoBloco = new BitSet(totalNomes);
+        globais.set(0, variaveisOriginais); // o valor final das variáveis é lido na saída
+
+        for (int b : cfg.ordemRPO()) {
+            definidosNoBloco.clear();
+            for (int i = cfg.inicio(b); i < cfg.fim(b); i++) {
+                Opcode op = ir.opcode(i);
+                int lidos = op.numeroOperandosLidos();
+                if (lidos >= 1) {
+                    marcarGlobal(ir.operando1(i), definidosNoBloco, globais);
+                }
+                if (lidos == 2) {
+                    marcarGlobal(ir.operando2(i), definidosNoBloco, globais);
+                }
+                if (op.defineDestino() && ProgramaIR.ehNome(ir.destino(i))) {
+                    int d = indiceOriginal(ir.destino(i));
+                    definidosNoBloco.set(d);
+                    if (blocosDefinicao[d] == null) {
+                        blocosDefinicao[d] = new BitSet();
+                    }
+                    blocosDefinicao[d].set(b);
+                }
+            }
+        }
+
+        int[] pilha = new int[cfg.getTotalBlocos()];
+        BitSet temPhi = new BitSet();
+        BitSet naLista = new BitSet();
+        for (int d = globais.nextSetBit(0); d >= 0; d = globais.nextSetBit(d + 1)) {
+            if (blocosDefinicao[d] == null) {
+                continue; // só lido: sempre a versão 0
+            }
+            temPhi.clear();
+            naLista.clear();
+            naLista.or(blocosDefinicao[d]);
+            int topo = 0;
+            for (int b = naLista.nextSetBit(0); b >= 0; b = naLista.nextSetBit(b + 1)) {
+                pilha[topo++] = b;
+            }
+            while (topo > 0) {
+                int b = pilha[--topo];
+                for (int f : cfg.fronteiraDominancia(b)) {
+                    if (!temPhi.get(f)) {
+                        temPhi.set(f);
+                        phis.get(f).add(new Phi(operandoOriginal(d), cfg.predecessores(f).length));
+                        if (!naLista.get(f)) {
+                            naLista.set(f);
+                            pilha[topo++] = f;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void marcarGlobal(int operando, BitSet definidosNoBloco, BitSet globais) {
+        if (ProgramaIR.ehNome(operando)) {
+            int d = indiceOriginal(operando);
+            if (!definidosNoBloco.get(d)) {
+                globais.set(d);
+            }
+        }
+    }
+
+    // Pilhas de versões (por nome original) usadas durante a renomeação
+    private int[][] pilhasVersoes;
+    private int[] topoVersoes;
+    private int[] contadorVersoes;
+    // Nomes que ganharam versão, na ordem em que foram empilhados (desfeitos ao sair de cada bloco)
+    private int[] empilhados;
+    private int totalEmpilhados;
+
+    /**
+     * Percorre a árvore de dominadores em pré-ordem com uma pilha explícita
+     * (uma cadeia longa de 'se' gera uma árvore funda demais para recursão).
+     * Cada quadro guarda o bloco, o próximo filho a visitar e quantos nomes
+     * estavam empilhados ao entrar; ao terminar a subárvore, as versões
+     * criadas nela são desempilhadas.
+     */
+    private void renomear() {
+        int totalNomes = variaveisOriginais + temporariosOriginais;
+        pilhasVersoes = new int[totalNomes][4];
+        topoVersoes = new int[totalNomes];
+        contadorVersoes = new int[totalNomes];
+        empilhados = new int[16];
+        totalEmpilhados = 0;
+        if (cfg.ordemRPO().length > 0) {
+            int totalBlocos = cfg.getTotalBlocos();
+            int[] blocos = new int[totalBlocos];
+            int[] proximoFilho = new int[totalBlocos];
+            int[] empilhadosNaEntrada = new int[totalBlocos];
+            blocos[0] = cfg.ordemRPO()[0];
+            empilhadosNaEntrada[0] = totalEmpilhados;
+            renomearBloco(blocos[0]);
+            int topo = 1;
+            while (topo > 0) {
+                int[] filhos = cfg.filhosDominador(blocos[topo - 1]);
+                if (proximoFilho[topo - 1] < filhos.length) {
+                    int filho = filhos[proximoFilho[topo - 1]++];
+                    blocos[topo] = filho;
+                    proximoFilho[topo] = 0;
+                    empilhadosNaEntrada[topo] = totalEmpilhados;
+                    topo++;
+                    renomearBloco(filho);
+                } else {
+                    topo--;
+                    while (totalEmpilhados > empilhadosNaEntrada[topo]) {
+                        topoVersoes[empilhados[--totalEmpilhados]]--;
+                    }
+                }
+            }
+        }
+        pilhasVersoes = null;
+        topoVersoes = null;
+        contadorVersoes = null;
+        empilhados = null;
+    }
+
+    /** Renomeia as phis e instruções do bloco e preenche os argumentos das phis dos sucessores. */
+    private void renomearBloco(int bloco) {
+        for (Phi phi : phis.get(bloco)) {
+            int d = indiceOriginal(phi.original);
+            phi.destino = novaVersao(d);
+            empilhar(d);
+        }
+
+        for (int i = cfg.inicio(bloco); i < cfg.fim(bloco); i++) {
+            Opcode op = ir.opcode(i);
+            int lidos = op.numeroOperandosLidos();
+            if (lidos >= 1 && ProgramaIR.ehNome(ir.operando1(i))) {
+                ir.definirOperando1(i, versaoAtual(indiceOriginal(ir.operando1(i))));
+            }
+            if (lidos == 2 && ProgramaIR.ehNome(ir.operando2(i))) {
+                ir.definirOperando2(i, versaoAtual(indiceOriginal(ir.operando2(i))));
+            }
+            if (op.defineDestino() && ProgramaIR.ehNome(ir.destino(i))) {
+                int d = indiceOriginal(ir.destino(i));
+                ir.definir(i, op, novaVersao(d), ir.operando1(i), ir.operando2(i));
+                empilhar(d);
+            }
+        }
+
+        for (int s : cfg.sucessores(bloco)) {
+            int[] predecessores = cfg.predecessores(s);
+            for (int j = 0; j < predecessores.length; j++) {
+                if (predecessores[j] == bloco) {
+                    for (Phi phi : phis.get(s)) {
+                        phi.argumentos[j] = versaoAtual(indiceOriginal(phi.original));
+                    }
+                }
+            }
+        }
+
+        if (cfg.sucessores(bloco).length == 0) {
+            for (int slot = 0; slot < variaveisOriginais; slot++) {
+                valoresSaida[slot] = versaoAtual(slot);
+            }
+        }
+    }
+
+    private void empilhar(int d) {
+        if (totalEmpilhados == empilhados.length) {
+            empilhados = Arrays.copyOf(empilhados, totalEmpilhados * 2);
+        }
+        empilhados[totalEmpilhados++] = d;
+    }
+
+    private int versaoAtual(int d) {
+        return topoVersoes[d] == 0 ? operandoOriginal(d) : pilhasVersoes[d][topoVersoes[d] - 1];
+    }
+
+    private int novaVersao(int d) {
+        int original = operandoOriginal(d);
+        int versao;
+        if (ProgramaIR.ehVariavel(original)) {
+            String nome;
+            do {
+                nome = ir.nome(original) + "_" + (++contadorVersoes[d]);
+            } while (ir.buscarVariavel(nome) != ProgramaIR.NENHUM);
+            versao = ir.variavel(nome, ir.tipo(original));
+            int slot = ProgramaIR.valorOperando(versao);
+            if (slot >= origemVariavel.length) {
+                origemVariavel = Arrays.copyOf(origemVariavel, Math.max(slot + 1, origemVariavel.length * 2));
+            }
+            origemVariavel[slot] = original;
+        } else {
+            versao = ir.novoTemporario(ir.tipo(original));
+            int id = ProgramaIR.valorOperando(versao);
+            if (id >= origemTemporario.length) {
+                origemTemporario = Arrays.copyOf(origemTemporario, Math.max(id + 1, origemTemporario.length * 2));
+            }
+            origemTemporario[id] = original;
+        }
+
+        if (topoVersoes[d] == pilhasVersoes[d].length) {
+            pilhasVersoes[d] = Arrays.copyOf(pilhasVersoes[d], pilhasVersoes[d].length * 2);
+        }
+        pilhasVersoes[d][topoVersoes[d]++] = versao;
+        return versao;
+    }
+
+    // =====================================================================
+    //  CONSULTAS
+    // =====================================================================
+
+    public ProgramaIR getIR() {
+        return ir;
+    }
+
+    public GrafoFluxoControle getCFG() {
+        return cfg;
+    }
+
+    /** Phis do início do bloco (lista vazia se não houver). */
+    public List<Phi> phis(int bloco) {
+        return Collections.unmodifiableList(phis.get(bloco));
+    }
+
+    /** Remove a phi do bloco (ex.: quando um passo prova que todos os argumentos são iguais). */
+    public void removerPhi(int bloco, Phi phi) {
+        phis.get(bloco).remove(phi);
+    }
+
+    public int totalPhis() {
+        int total = 0;
+        for (List<Phi> lista : phis) {
+            total += lista.size();
+        }
+        return total;
+    }
+
+    /** Quantidade de variáveis do usuário existentes antes da renomeação. */
+    public int getVariaveisOriginais() {
+        return variaveisOriginais;
+    }
+
+    /**
+     * Valor da variável original (slot) ao fim do programa, ou NENHUM se o fim
+     * do programa é inalcançável.
+     */
+    public int valorNaSaida(int slot) {
+        return valoresSaida[slot];
+    }
+
+    public void definirValorNaSaida(int slot, int operando) {
+        valoresSaida[slot] = operando;
+    }
+
+    /**
+     * Aplica a substituição a todos os usos: operandos lidos pelas instruções,
+     * argumentos das phis e valores de saída. Destinos não são alterados.
+     */
+    public void substituirUsos(IntUnaryOperator substituicao) {
+        for (int i = 0; i < ir.tamanho(); i++) {
+            int lidos = ir.opcode(i).numeroOperandosLidos();
+            if (lidos >= 1) {
+                ir.definirOperando1(i, substituicao.applyAsInt(ir.operando1(i)));
+            }
+            if (lidos == 2) {
+                ir.definirOperando2(i, substituicao.applyAsInt(ir.operando2(i)));
+            }
+        }
+        for (List<Phi> lista : phis) {
+            for (Phi phi : lista) {
+                for (int j = 0; j < phi.argumentos.length; j++) {
+                    if (phi.argumentos[j] != ProgramaIR.NENHUM) {
+                        phi.argumentos[j] = substituicao.applyAsInt(phi.argumentos[j]);
+                    }
+                }
+            }
+        }
+        for (int slot = 0; slot < valoresSaida.length; slot++) {
+            if (valoresSaida[slot] != ProgramaIR.NENHUM) {
+                valoresSaida[slot] = substituicao.applyAsInt(valoresSaida[slot]);
+            }
+        }
+    }
+
+    /**
+     * Nome original do qual o operando é versão; nomes que não foram criados
+     * pela renomeação (inclusive os criados por passos posteriores) são a
+     * própria origem.
+     */
+    public int origem(int operando) {
+        int valor = ProgramaIR.valorOperando(operando);
+        if (ProgramaIR.ehVariavel(operando) && valor < origemVariavel.length && origemVariavel[valor] != ProgramaIR.NENHUM) {
+            return origemVariavel[valor];
+        }
+        if (ProgramaIR.ehTemporario(operando) && valor < origemTemporario.length && origemTemporario[valor] != ProgramaIR.NENHUM) {
+            return origemTemporario[valor];
+        }
+        return operando;
+    }
+
+    /**
+     * Traduz de volta para o IR comum (sem phis). O programa SSA não é alterado.
+     */
+    public ProgramaIR paraIR() {
+        return new DestrutorSSA(this).destruir();
+    }
+
+    /**
+     * Escreve o programa em forma SSA, bloco a bloco, com as phis no início de cada bloco.
+     */
+    public void gerarListagem(Appendable saida) throws IOException {
+        for (int b = 0; b < cfg.getTotalBlocos(); b++) {
+            int[] predecessores = cfg.predecessores(b);
+            saida.append("  B").append(String.valueOf(b)).append(':');
+            if (predecessores.length > 0) {
+                saida.append("  ; predecessores:");
+                for (int p : predecessores) {
+                    saida.append(" B").append(String.valueOf(p));
+                }
+            }
+            saida.append('\n');
+            for (Phi phi : phis.get(b)) {
+                saida.append("        ").append(ir.nome(phi.destino)).append(" = PHI(");
+                for (int j = 0; j < phi.argumentos.length; j++) {
+                    if (j > 0) {
+                        saida.append(", ");
+                    }
+                    saida.append(phi.argumentos[j] == ProgramaIR.NENHUM ? "-" : ir.nome(phi.argumentos[j]))
+                            .append(" [B").append(String.valueOf(predecessores[j])).append(']');
+                }
+                saida.append(")\n");
+            }
+            for (int i = cfg.inicio(b); i < cfg.fim(b); i++) {
+                if (ir.opcode(i) != Opcode.NOP) {
+                    saida.append(String.format("   [%02d] %s%n", i, ir.paraInstrucaoC3E(i)));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.ProgramaIR;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * GerenciadorPassos.java
+ * Executa um pipeline de passos de otimização sobre o IR e mede cada um.
+ *
+ * Os passos compartilham um cache de análises ({@link Analises}): o CFG e a
+ * vivacidade calculados por um passo que não altera o código são
+ * reaproveitados pelo seguinte; qualquer alteração invalida o cache. Para
+ * cada passo fica registrado o tempo de parede, o tamanho do IR antes e
+ * depois, os bytes alocados pela thread (quando a JVM permite medir) e
+ * quantas análises precisaram ser calculadas.
+ */
+public class GerenciadorPassos {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final List<PassoOtimizacao> passos;
+    private final List<RegistroPasso> registros = new ArrayList<>();
+
+    public GerenciadorPassos(List<PassoOtimizacao> passos) {
+        this.passos = passos;
+    }
+
+    public static GerenciadorPassos paraNivel(NivelOtimizacao nivel) {
+        return new GerenciadorPassos(nivel.passos());
+    }
+
+    /**
+     * Aplica todos os passos, em ordem, ao programa.
+     * @return true se algum passo alterou o código
+     */
+    public boolean executar(ProgramaIR ir) {
+        registros.clear();
+        Analises analises = new Analises(ir);
+        boolean alterou = false;
+        for (PassoOtimizacao passo : passos) {
+            int antes = ir.tamanho();
+            int construcoesAntes = analises.getConstrucoes();
+            long bytesAntes = bytesAlocados();
+            long inicio = System.nanoTime();
+
+            boolean alterouPasso = passo.executar(ir, analises);
+
+            long nanos = System.nanoTime() - inicio;
+            long bytesDepois = bytesAlocados();
+            if (alterouPasso) {
+                analises.invalidar();
+                alterou = true;
+            }
+            registros.add(new RegistroPasso(passo.getNome(), alterouPasso, antes, ir.tamanho(), nanos,
+                    bytesAntes < 0 || bytesDepois < 0 ? -1 : bytesDepois - bytesAntes,
+                    analises.getConstrucoes() - construcoesAntes));
+        }
+        return alterou;
+    }
+
+    public List<RegistroPasso> getRegistros() {
+        return Collections.unmodifiableList(registros);
+    }
+
+    /** Imprime uma linha por passo e o total da última execução. */
+    public void imprimirRelatorio(PrintStream saida) {
+        long totalNanos = 0;
+        long totalBytes = 0;
+        for (RegistroPasso r : registros) {
+            saida.println(String.format("  %-45s %-15s %4d -> %-4d instruções %8.3f ms %10s %2d análise(s)",
+                    r.getNome(), r.alterou() ? "alterou" : "sem alterações", r.getInstrucoesAntes(),
+                    r.getInstrucoesDepois(), r.getNanos() / 1e6, formatarBytes(r.getBytesAlocados()),
+                    r.getAnalisesCalculadas()));
+            totalNanos += r.getNanos();
+            totalBytes = totalBytes < 0 || r.getBytesAlocados() < 0 ? -1 : totalBytes + r.getBytesAlocados();
+        }
+        if (!registros.isEmpty()) {
+            saida.println(String.format("  %-45s %-15s %4d -> %-4d instruções %8.3f ms %10s",
+                    "Total", "", registros.get(0).getInstrucoesAntes(),
+                    registros.get(registros.size() - 1).getInstrucoesDepois(), totalNanos / 1e6,
+                    formatarBytes(totalBytes)));
+        }
+    }
+
+    private static String formatarBytes(long bytes) {
+        return bytes < 0 ? "-" : String.format("%.1f KB", bytes / 1024.0);
+    }
+
+    /** Bytes alocados até agora pela thread corrente, ou -1 se a JVM não informa. */
+    private static long bytesAlocados() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /** Medidas de uma execução de um passo. */
+    public static final class RegistroPasso {
+        private final String nome;
+        private final boolean alterou;
+        private final int instrucoesAntes;
+        private final int instrucoesDepois;
+        private final long nanos;
+        private final long bytesAlocados;
+        private final int analisesCalculadas;
+
+        RegistroPasso(String nome, boolean alterou, int instrucoesAntes, int instrucoesDepois,
+                      long nanos, long bytesAlocados, int analisesCalculadas) {
+            this.nome = nome;
+            this.alterou = alterou;
+            this.instrucoesAntes = instrucoesAntes;
+            this.instrucoesDepois = instrucoesDepois;
+            this.nanos = nanos;
+            this.bytesAlocados = bytesAlocados;
+            this.analisesCalculadas = analisesCalculadas;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+
+        public boolean alterou() {
+            return alterou;
+        }
+
+        public int getInstrucoesAntes() {
+            return instrucoesAntes;
+        }
+
+        public int getInstrucoesDepois() {
+            return instrucoesDepois;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        /** Bytes alocados durante o passo, ou -1 se não foi possível medir. */
+        public long getBytesAlocados() {
+            return bytesAlocados;
+        }
+
+        /** Análises (CFG, vivacidade) que o passo precisou calcular por não estarem em cache. */
+        public int getAnalisesCalculadas() {
+            return analisesCalculadas;
+        }
+    }
+}
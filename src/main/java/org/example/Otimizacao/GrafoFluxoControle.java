@@ -0,0 +1,512 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * GrafoFluxoControle.java
+ * Divide o IR em blocos básicos e constrói o Grafo de Fluxo de Controle (CFG):
+ * arestas predecessor/sucessor, ordem pós-ordem reversa, árvore de dominadores
+ * (algoritmo iterativo de Cooper, Harvey e Kennedy) e aninhamento de laços
+ * naturais. Também exporta o grafo no formato DOT (Graphviz).
+ *
+ * Um bloco começa na primeira instrução, em cada ROTULO e na instrução seguinte
+ * a um salto. O grafo é uma fotografia do IR: qualquer passo que altere as
+ * instruções deve construir um novo grafo.
+ */
+public class GrafoFluxoControle {
+
+    private final ProgramaIR ir;
+
+    private final int totalBlocos;
+    private final int[] inicioBloco;     // primeira instrução do bloco
+    private final int[] fimBloco;        // uma posição após a última instrução
+    private final int[] blocoDaInstrucao;
+    private final int[] blocoDoRotulo;   // id do rótulo -> bloco (-1 se ausente)
+
+    private final int[][] sucessores;
+    private final int[][] predecessores;
+
+    // Ordem pós-ordem reversa dos blocos alcançáveis a partir da entrada
+    private final int[] ordemRPO;
+    private final int[] posicaoRPO;      // -1 para blocos inalcançáveis
+
+    private final int[] dominadorImediato; // -1 na entrada e em blocos inalcançáveis
+    private final int[] profundidadeDominador;
+
+    private final List<Laco> lacos;
+    private final Laco[] lacoMaisInterno; // laço mais interno de cada bloco (null fora de laços)
+
+    // Calculados sob demanda (usados pela construção da forma SSA)
+    private int[][] filhosDominador;
+    private int[][] fronteiraDominancia;
+
+    public GrafoFluxoControle(ProgramaIR ir) {
+        this.ir = ir;
+        int n = ir.tamanho();
+
+        // 1. Líderes de bloco
+        boolean[] lider = new boolean[n + 1];
+        lider[0] = true;
+        for (int i = 0; i < n; i++) {
+            Opcode op = ir.opcode(i);
+            if (op == Opcode.ROTULO) {
+                lider[i] = true;
+            } else if (op.ehSalto()) {
+                lider[i + 1] = true;
+            }
+        }
+
+        int blocos = 0;
+        for (int i = 0; i < n; i++) {
+            if (lider[i]) {
+                blocos++;
+            }
+        }
+        totalBlocos = Math.max(blocos, 1);
+        inicioBloco = new int[totalBlocos];
+        fimBloco = new int[totalBlocos];
+        blocoDaInstrucao = new int[n];
+        int b = -1;
+        for (int i = 0; i < n; i++) {
+            if (lider[i]) {
+                b++;
+                inicioBloco[b] = i;
+            }
+            blocoDaInstrucao[i] = b;
+            fimBloco[b] = i + 1;
+        }
+
+        blocoDoRotulo = new int[ir.getMaiorRotulo() + 1];
+        Arrays.fill(blocoDoRotulo, -1);
+        for (int i = 0; i < n; i++) {
+            if (ir.opcode(i) == Opcode.ROTULO) {
+                blocoDoRotulo[ProgramaIR.valorOperando(ir.destino(i))] = blocoDaInstrucao[i];
+            }
+        }
+
+        // 2. Arestas
+        sucessores = new int[totalBlocos][];
+        List<List<Integer>> preds = new ArrayList<>(totalBlocos);
+        for (int i = 0; i < totalBlocos; i++) {
+            preds.add(new ArrayList<>(2));
+        }
+        for (int bloco = 0; bloco < totalBlocos; bloco++) {
+            sucessores[bloco] = calcularSucessores(bloco);
+            for (int s : sucessores[bloco]) {
+                preds.get(s).add(bloco);
+            }
+        }
+        predecessores = new int[totalBlocos][];
+        for (int i = 0; i < totalBlocos; i++) {
+            predecessores[i] = preds.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // 3. Pós-ordem reversa
+        posicaoRPO = new int[totalBlocos];
+        ordemRPO = calcularRPO();
+
+        // 4. Dominadores
+        dominadorImediato = new int[totalBlocos];
+        profundidadeDominador = new int[totalBlocos];
+        calcularDominadores();
+
+        // 5. Laços naturais
+        lacoMaisInterno = new Laco[totalBlocos];
+        lacos = calcularLacos();
+    }
+
+    private int[] calcularSucessores(int bloco) {
+        int fim = fimBloco[bloco];
+        if (fim == inicioBloco[bloco] && ir.tamanho() == 0) {
+            return new int[0];
+        }
+        int ultima = fim - 1;
+        Opcode op = ir.opcode(ultima);
+        int seguinte = bloco + 1 < totalBlocos ? bloco + 1 : -1;
+
+        if (op == Opcode.JMP) {
+            return new int[]{blocoAlvo(ultima)};
+        }
+        if (op.ehSaltoCondicional()) {
+            int alvo = blocoAlvo(ultima);
+            if (seguinte == -1 || seguinte == alvo) {
+                return new int[]{alvo};
+            }
+            return new int[]{seguinte, alvo};
+        }
+        return seguinte == -1 ? new int[0] : new int[]{seguinte};
+    }
+
+    private int blocoAlvo(int instrucao) {
+        int rotulo = ProgramaIR.valorOperando(ir.destino(instrucao));
+        int alvo = rotulo < blocoDoRotulo.length ? blocoDoRotulo[rotulo] : -1;
+        if (alvo < 0) {
+            throw new IllegalStateException("Erro Interno (CFG): salto para rótulo inexistente L" + rotulo);
+        }
+        return alvo;
+    }
+
+    private int[] calcularRPO() {
+        Arrays.fill(posicaoRPO, -1);
+        int[] posOrdem = new int[totalBlocos];
+        int total = 0;
+
+        // DFS iterativa (evita estouro de pilha em programas grandes)
+        boolean[] visitado = new boolean[totalBlocos];
+        int[] pilha = new int[totalBlocos];
+        int[] proximoSucessor = new int[totalBlocos];
+        int topo = 0;
+        pilha[topo++] = 0;
+        visitado[0] = true;
+        while (topo > 0) {
+            int bloco = pilha[topo - 1];
+            if (proximoSucessor[bloco] < sucessores[bloco].length) {
+                int s = sucessores[bloco][proximoSucessor[bloco]++];
+                if (!visitado[s]) {
+                    visitado[s] = true;
+                    pilha[topo++] = s;
+                }
+            } else {
+                posOrdem[total++] = bloco;
+                topo--;
+            }
+        }
+
+        int[] rpo = new int[total];
+        for (int i = 0; i < total; i++) {
+            rpo[i] = posOrdem[total - 1 - i];
+            posicaoRPO[rpo[i]] = i;
+        }
+        return rpo;
+    }
+
+    private void calcularDominadores() {
+        Arrays.fill(dominadorImediato, -1);
+        if (ordemRPO.length == 0) {
+            return;
+        }
+        int entrada = ordemRPO[0];
+        dominadorImediato[entrada] = entrada;
+
+        boolean mudou = true;
+        while (mudou) {
+            mudou = false;
+            for (int i = 1; i < ordemRPO.length; i++) {
+                int bloco = ordemRPO[i];
+                int novo = -1;
+                for (int p : predecessores[bloco]) {
+                    if (dominadorImediato[p] == -1) {
+                        continue; // ainda não processado ou inalcançável
+                    }
+                    novo = (novo == -1) ? p : intersectar(p, novo);
+                }
+                if (novo != -1 && dominadorImediato[bloco] != novo) {
+                    dominadorImediato[bloco] = novo;
+                    mudou = true;
+                }
+            }
+        }
+        dominadorImediato[entrada] = -1;
+
+        for (int bloco : ordemRPO) {
+            int idom = dominadorImediato[bloco];
+            profundidadeDominador[bloco] = idom == -1 ? 0 : profundidadeDominador[idom] + 1;
+        }
+    }
+
+    private int intersectar(int a, int b) {
+        while (a != b) {
+            while (posicaoRPO[a] > posicaoRPO[b]) {
+                a = dominadorImediato[a];
+            }
+            while (posicaoRPO[b] > posicaoRPO[a]) {
+                b = dominadorImediato[b];
+            }
+        }
+        return a;
+    }
+
+    private List<Laco> calcularLacos() {
+        // Um laço por cabeçalho; arestas de retorno para o mesmo cabeçalho são unidas
+        Laco[] porCabecalho = new Laco[totalBlocos];
+        List<Laco> encontrados = new ArrayList<>();
+        for (int bloco : ordemRPO) {
+            for (int s : sucessores[bloco]) {
+                if (domina(s, bloco)) {
+                    Laco laco = porCabecalho[s];
+                    if (laco == null) {
+                        laco = new Laco(s);
+                        porCabecalho[s] = laco;
+                        encontrados.add(laco);
+                    }
+                    laco.adicionarArestaRetorno(bloco);
+                    coletarCorpo(laco, bloco);
+                }
+            }
+        }
+
+        // Aninhamento: o pai é o menor laço que contém o cabeçalho
+        for (Laco laco : encontrados) {
+            Laco pai = null;
+            for (Laco outro : encontrados) {
+                if (outro != laco && outro.contem(laco.getCabecalho())
+                        && outro.getTamanho() > laco.getTamanho()
+                        && (pai == null || outro.getTamanho() < pai.getTamanho())) {
+                    pai = outro;
+                }
+            }
+            laco.definirPai(pai);
+        }
+        for (Laco laco : encontrados) {
+            laco.calcularProfundidade();
+        }
+
+        // Laço mais interno de cada bloco (maior profundidade)
+        for (Laco laco : encontrados) {
+            BitSet corpo = laco.getBlocos();
+            for (int bloco = corpo.nextSetBit(0); bloco >= 0; bloco = corpo.nextSetBit(bloco + 1)) {
+                if (lacoMaisInterno[bloco] == null
+                        || lacoMaisInterno[bloco].getProfundidade() < laco.getProfundidade()) {
+                    lacoMaisInterno[bloco] = laco;
+                }
+            }
+        }
+        for (Laco laco : encontrados) {
+            laco.calcularSaidas(this);
+        }
+        return Collections.unmodifiableList(encontrados);
+    }
+
+    private void coletarCorpo(Laco laco, int origemRetorno) {
+        BitSet corpo = laco.getBlocos();
+        int[] pilha = new int[totalBlocos];
+        int topo = 0;
+        if (!corpo.get(origemRetorno)) {
+            corpo.set(origemRetorno);
+            pilha[topo++] = origemRetorno;
+        }
+        while (topo > 0) {
+            int bloco = pilha[--topo];
+            for (int p : predecessores[bloco]) {
+                if (posicaoRPO[p] >= 0 && !corpo.get(p)) {
+                    corpo.set(p);
+                    pilha[topo++] = p;
+                }
+            }
+        }
+    }
+
+    // =====================================================================
+    //  CONSULTAS
+    // =====================================================================
+
+    public ProgramaIR getIR() {
+        return ir;
+    }
+
+    public int getTotalBlocos() {
+        return totalBlocos;
+    }
+
+    public int inicio(int bloco) {
+        return inicioBloco[bloco];
+    }
+
+    public int fim(int bloco) {
+        return fimBloco[bloco];
+    }
+
+    public int blocoDaInstrucao(int instrucao) {
+        return blocoDaInstrucao[instrucao];
+    }
+
+    /** Bloco que começa com o rótulo informado (id numérico), ou -1. */
+    public int blocoDoRotulo(int rotulo) {
+        return rotulo < blocoDoRotulo.length ? blocoDoRotulo[rotulo] : -1;
+    }
+
+    public int[] sucessores(int bloco) {
+        return sucessores[bloco];
+    }
+
+    public int[] predecessores(int bloco) {
+        return predecessores[bloco];
+    }
+
+    /** Blocos alcançáveis em pós-ordem reversa (a entrada é o primeiro). */
+    public int[] ordemRPO() {
+        return ordemRPO;
+    }
+
+    public boolean alcancavel(int bloco) {
+        return posicaoRPO[bloco] >= 0;
+    }
+
+    public int posicaoRPO(int bloco) {
+        return posicaoRPO[bloco];
+    }
+
+    public int dominadorImediato(int bloco) {
+        return dominadorImediato[bloco];
+    }
+
+    /** Verifica se o bloco a domina o bloco b (todo bloco domina a si mesmo). */
+    public boolean domina(int a, int b) {
+        if (posicaoRPO[a] < 0 || posicaoRPO[b] < 0) {
+            return false;
+        }
+        while (profundidadeDominador[b] > profundidadeDominador[a]) {
+            b = dominadorImediato[b];
+        }
+        return a == b;
+    }
+
+    /** Filhos do bloco na árvore de dominadores. */
+    public int[] filhosDominador(int bloco) {
+        if (filhosDominador == null) {
+            int[] total = new int[totalBlocos];
+            for (int b : ordemRPO) {
+                if (dominadorImediato[b] >= 0) {
+                    total[dominadorImediato[b]]++;
+                }
+            }
+            filhosDominador = new int[totalBlocos][];
+            for (int b = 0; b < totalBlocos; b++) {
+                filhosDominador[b] = new int[total[b]];
+                total[b] = 0;
+            }
+            for (int b : ordemRPO) {
+                int idom = dominadorImediato[b];
+                if (idom >= 0) {
+                    filhosDominador[idom][total[idom]++] = b;
+                }
+            }
+        }
+        return filhosDominador[bloco];
+    }
+
+    /**
+     * Fronteira de dominância do bloco: blocos onde a dominância do bloco termina
+     * (algoritmo de Cooper, Harvey e Kennedy, percorrendo a árvore a partir de
+     * cada predecessor dos pontos de junção).
+     */
+    public int[] fronteiraDominancia(int bloco) {
+        if (fronteiraDominancia == null) {
+            BitSet[] fronteiras = new BitSet[totalBlocos];
+            for (int b = 0; b < totalBlocos; b++) {
+                fronteiras[b] = new BitSet();
+            }
+            for (int b : ordemRPO) {
+                if (predecessores[b].length < 2) {
+                    continue;
+                }
+                for (int p : predecessores[b]) {
+                    int corredor = p;
+                    while (corredor >= 0 && posicaoRPO[corredor] >= 0 && corredor != dominadorImediato[b]) {
+                        fronteiras[corredor].set(b);
+                        corredor = dominadorImediato[corredor];
+                    }
+                }
+            }
+            fronteiraDominancia = new int[totalBlocos][];
+            for (int b = 0; b < totalBlocos; b++) {
+                fronteiraDominancia[b] = fronteiras[b].stream().toArray();
+            }
+        }
+        return fronteiraDominancia[bloco];
+    }
+
+    public List<Laco> getLacos() {
+        return lacos;
+    }
+
+    /** Laço mais interno que contém o bloco, ou null. */
+    public Laco lacoDoBloco(int bloco) {
+        return lacoMaisInterno[bloco];
+    }
+
+    /** Profundidade de aninhamento do bloco (0 fora de laços). */
+    public int profundidadeLaco(int bloco) {
+        Laco laco = lacoMaisInterno[bloco];
+        return laco == null ? 0 : laco.getProfundidade();
+    }
+
+    /** Número total de arestas do grafo. */
+    public int totalArestas() {
+        int total = 0;
+        for (int[] s : sucessores) {
+            total += s.length;
+        }
+        return total;
+    }
+
+    // =====================================================================
+    //  EXPORTAÇÃO DOT
+    // =====================================================================
+
+    /**
+     * Escreve o CFG no formato DOT. Cada bloco lista suas instruções C3E;
+     * arestas de retorno de laço são destacadas e os blocos de cabeçalho
+     * indicam a profundidade do laço.
+     */
+    public void gerarDot(Appendable saida) throws IOException {
+        saida.append("digraph CFG {\n");
+        saida.append("    node [shape=box, fontname=\"monospace\"];\n");
+        for (int bloco = 0; bloco < totalBlocos; bloco++) {
+            saida.append("    B").append(String.valueOf(bloco)).append(" [label=\"B").append(String.valueOf(bloco));
+            Laco laco = lacoMaisInterno[bloco];
+            if (laco != null && laco.getCabecalho() == bloco) {
+                saida.append(" (laço, prof. ").append(String.valueOf(laco.getProfundidade())).append(')');
+            }
+            if (!alcancavel(bloco)) {
+                saida.append(" (inalcançável)");
+            }
+            saida.append("\\l");
+            for (int i = inicioBloco[bloco]; i < fimBloco[bloco]; i++) {
+                if (ir.opcode(i) != Opcode.NOP) {
+                    saida.append(escaparDot(ir.paraInstrucaoC3E(i).toString())).append("\\l");
+                }
+            }
+            saida.append('"');
+            if (!alcancavel(bloco)) {
+                saida.append(", style=dashed");
+            }
+            saida.append("];\n");
+        }
+        for (int bloco = 0; bloco < totalBlocos; bloco++) {
+            for (int s : sucessores[bloco]) {
+                saida.append("    B").append(String.valueOf(bloco)).append(" -> B").append(String.valueOf(s));
+                if (domina(s, bloco)) {
+                    saida.append(" [color=red, style=bold]");
+                }
+                saida.append(";\n");
+            }
+        }
+        saida.append("}\n");
+    }
+
+    /** Árvore de dominadores no formato DOT. */
+    public void gerarDotDominadores(Appendable saida) throws IOException {
+        saida.append("digraph Dominadores {\n");
+        for (int bloco : ordemRPO) {
+            saida.append("    B").append(String.valueOf(bloco)).append(";\n");
+            if (dominadorImediato[bloco] >= 0) {
+                saida.append("    B").append(String.valueOf(dominadorImediato[bloco]))
+                        .append(" -> B").append(String.valueOf(bloco)).append(";\n");
+            }
+        }
+        saida.append("}\n");
+    }
+
+    private static String escaparDot(String texto) {
+        return texto.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
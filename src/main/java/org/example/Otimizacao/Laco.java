@@ -0,0 +1,114 @@
+package org.example.Otimizacao;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Laco.java
+ * Laço natural do CFG: um cabeçalho que domina a origem de uma ou mais arestas
+ * de retorno, mais todos os blocos que alcançam essas origens sem passar pelo
+ * cabeçalho. Os laços gerados pelo IterativoNode ('enquanto') têm exatamente
+ * esse formato.
+ */
+public class Laco {
+
+    private final int cabecalho;
+    private final BitSet blocos = new BitSet();
+    private final List<Integer> origensRetorno = new ArrayList<>(1);
+    private Laco pai;
+    private int profundidade;
+
+    // Arestas que saem do laço: pares (bloco dentro, bloco fora)
+    private int[] saidasDe = new int[0];
+    private int[] saidasPara = new int[0];
+
+    Laco(int cabecalho) {
+        this.cabecalho = cabecalho;
+        this.blocos.set(cabecalho);
+    }
+
+    void adicionarArestaRetorno(int origem) {
+        origensRetorno.add(origem);
+    }
+
+    void definirPai(Laco pai) {
+        this.pai = pai;
+    }
+
+    void calcularProfundidade() {
+        int p = 1;
+        for (Laco l = pai; l != null; l = l.pai) {
+            p++;
+        }
+        profundidade = p;
+    }
+
+    void calcularSaidas(GrafoFluxoControle cfg) {
+        List<int[]> saidas = new ArrayList<>();
+        for (int b = blocos.nextSetBit(0); b >= 0; b = blocos.nextSetBit(b + 1)) {
+            for (int s : cfg.sucessores(b)) {
+                if (!blocos.get(s)) {
+                    saidas.add(new int[]{b, s});
+                }
+            }
+        }
+        saidasDe = new int[saidas.size()];
+        saidasPara = new int[saidas.size()];
+        for (int i = 0; i < saidas.size(); i++) {
+            saidasDe[i] = saidas.get(i)[0];
+            saidasPara[i] = saidas.get(i)[1];
+        }
+    }
+
+    public int getCabecalho() {
+        return cabecalho;
+    }
+
+    /** Conjunto de blocos do laço (inclui o cabeçalho e os laços internos). */
+    public BitSet getBlocos() {
+        return blocos;
+    }
+
+    public boolean contem(int bloco) {
+        return blocos.get(bloco);
+    }
+
+    public int getTamanho() {
+        return blocos.cardinality();
+    }
+
+    public List<Integer> getOrigensRetorno() {
+        return Collections.unmodifiableList(origensRetorno);
+    }
+
+    /** Laço imediatamente externo, ou null para laços de nível mais alto. */
+    public Laco getPai() {
+        return pai;
+    }
+
+    /** 1 para laços de nível mais alto, 2 para laços dentro deles, etc. */
+    public int getProfundidade() {
+        return profundidade;
+    }
+
+    public int getTotalSaidas() {
+        return saidasDe.length;
+    }
+
+    /** Bloco do laço de onde parte a i-ésima aresta de saída. */
+    public int getSaidaDe(int i) {
+        return saidasDe[i];
+    }
+
+    /** Bloco fora do laço onde chega a i-ésima aresta de saída. */
+    public int getSaidaPara(int i) {
+        return saidasPara[i];
+    }
+
+    @Override
+    public String toString() {
+        return "Laco(cabecalho=B" + cabecalho + ", blocos=" + blocos + ", profundidade=" + profundidade + ")";
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * MovimentacaoInvariantes.java
+ * Movimentação de código invariante de laço (LICM).
+ *
+ * Para cada laço natural do CFG (ver {@link Laco}), do mais interno para o
+ * mais externo, procura operações (aritméticas, comparações e cópias) cujos
+ * operandos não mudam dentro do laço: constantes, nomes sem definição no laço
+ * ou nomes definidos por outra instrução já movida. A instrução é movida para
+ * um pré-cabeçalho, executado uma única vez antes de entrar no laço, quando:
+ *   - é a única definição do destino dentro do laço;
+ *   - o destino não está vivo na entrada do cabeçalho (nenhum uso no laço lê
+ *     o valor de antes do laço);
+ *   - executá-la mesmo que o corpo não rode não muda o resultado: ou ela está
+ *     no cabeçalho (que sempre executa ao menos uma vez), ou o destino está
+ *     morto em todas as saídas do laço e a operação não pode falhar (DIV e
+ *     RESTO só com divisor constante seguro, ver {@link AritmeticaConstante}).
+ *
+ * O pré-cabeçalho é montado por {@link PreCabecalho}.
+ */
+public class MovimentacaoInvariantes implements PassoOtimizacao {
+
+    @Override
+    public String getNome() {
+        return "Movimentação de invariantes de laço (LICM)";
+    }
+
+    @Override
+    public boolean executar(ProgramaIR ir) {
+        return executar(ir, new Analises(ir));
+    }
+
+    @Override
+    public boolean executar(ProgramaIR ir, Analises analises) {
+        boolean alterou = false;
+        boolean mudou = true;
+        while (mudou) {
+            mudou = false;
+            GrafoFluxoControle cfg = analises.cfg();
+            Vivacidade vivacidade = analises.vivacidade();
+            List<Laco> lacos = new ArrayList<>(cfg.getLacos());
+            lacos.sort(Comparator.comparingInt(Laco::getProfundidade).reversed());
+            for (Laco laco : lacos) {
+                if (!PreCabecalho.suportado(ir, cfg, laco)) {
+                    continue;
+                }
+                List<Integer> invariantes = invariantesMoveis(ir, cfg, vivacidade, laco);
+                if (!invariantes.isEmpty()) {
+                    // As posições mudam: o CFG é reconstruído antes do próximo laço
+                    moverParaPreCabecalho(ir, cfg, laco, invariantes);
+                    analises.invalidar();
+                    mudou = true;
+                    alterou = true;
+                    break;
+                }
+            }
+        }
+        if (alterou) {
+            ir.compactar();
+            analises.invalidar();
+        }
+        return alterou;
+    }
+
+    /** Instruções do laço que podem ir para o pré-cabeçalho, em uma ordem que respeita as dependências. */
+    private static List<Integer> invariantesMoveis(ProgramaIR ir, GrafoFluxoControle cfg,
+                                                   Vivacidade vivacidade, Laco laco) {
+        int cabecalho = laco.getCabecalho();
+        int[] definicoes = new int[ir.totalNomes()];
+        for (int b = laco.getBlocos().nextSetBit(0); b >= 0; b = laco.getBlocos().nextSetBit(b + 1)) {
+            for (int i = cfg.inicio(b); i < cfg.fim(b); i++) {
+                if (ir.opcode(i).defineDestino() && ProgramaIR.ehNome(ir.destino(i))) {
+                    definicoes[ir.indiceDenso(ir.destino(i))]++;
+                }
+            }
+        }
+
+        // Nomes vivos em alguma saída: mover a definição mudaria o valor se o corpo não rodasse
+        BitSet vivasNasSaidas = new BitSet(ir.totalNomes());
+        for (int k = 0; k < laco.getTotalSaidas(); k++) {
+            int saida = laco.getSaidaPara(k);
+            for (int n = vivacidade.proximaVivaNaEntrada(saida, 0); n >= 0; n = vivacidade.proximaVivaNaEntrada(saida, n + 1)) {
+                vivasNasSaidas.set(n);
+            }
+        }
+
+        List<Integer> movidas = new ArrayList<>();
+        BitSet definidoPorMovida = new BitSet(ir.totalNomes());
+        boolean mudou = true;
+        while (mudou) {
+            mudou = false;
+            for (int b : cfg.ordemRPO()) {
+                if (!laco.contem(b)) {
+                    continue;
+                }
+                for (int i = cfg.inicio(b); i < cfg.fim(b); i++) {
+                    Opcode op = ir.opcode(i);
+                    if (!(op.ehBinario() || op == Opcode.COPIA) || movidas.contains(i)) {
+                        continue;
+                    }
+                    int d = ir.indiceDenso(ir.destino(i));
+                    boolean operandosInvariantes = invariante(ir, ir.operando1(i), definicoes, definidoPorMovida)
+                            && (op == Opcode.COPIA || invariante(ir, ir.operando2(i), definicoes, definidoPorMovida));
+                    boolean semEfeitoForaDoCorpo = b == cabecalho
+                            || (!vivasNasSaidas.get(d) && !AritmeticaConstante.podeFalhar(ir, i));
+                    if (operandosInvariantes && definicoes[d] == 1 && !vivacidade.vivaNaEntrada(cabecalho, d) && semEfeitoForaDoCorpo) {
+                        movidas.add(i);
+                        definidoPorMovida.set(d);
+                        mudou = true;
+                    }
+                }
+            }
+        }
+        return movidas;
+    }
+
+    private static boolean invariante(ProgramaIR ir, int operando, int[] definicoes, BitSet definidoPorMovida) {
+        if (!ProgramaIR.ehNome(operando)) {
+            return true;
+        }
+        int d = ir.indiceDenso(operando);
+        return definicoes[d] == 0 || definidoPorMovida.get(d);
+    }
+
+    private static void moverParaPreCabecalho(ProgramaIR ir, GrafoFluxoControle cfg, Laco laco, List<Integer> movidas) {
+        List<int[]> instrucoes = new ArrayList<>();
+        for (int i : movidas) {
+            instrucoes.add(PreCabecalho.instrucao(ir.opcode(i), ir.destino(i), ir.operando1(i), ir.operando2(i)));
+            ir.remover(i);
+        }
+        PreCabecalho.inserir(ir, cfg, laco, instrucoes);
+    }
+}
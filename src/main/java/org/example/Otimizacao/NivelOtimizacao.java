@@ -0,0 +1,62 @@
+package org.example.Otimizacao;
+
+import java.util.List;
+
+/**
+ * NivelOtimizacao.java
+ * Níveis de otimização selecionados na linha de comando (-O0, -O1, -O2).
+ *
+ *   O0: nenhum passo; o C3E gerado vai direto para o Assembly.
+ *   O1: passos locais e baratos (um bloco por vez) e limpeza de código morto.
+ *   O2: pipeline completo, com SSA, otimizações de laço e redução de força.
+ */
+public enum NivelOtimizacao {
+    O0,
+    O1,
+    O2;
+
+    /** Nível usado quando nenhum -O é informado. */
+    public static final NivelOtimizacao PADRAO = O2;
+
+    /** Passos do nível, na ordem de execução (instâncias novas a cada chamada). */
+    public List<PassoOtimizacao> passos() {
+        switch (this) {
+            case O1:
+                return List.of(
+                        new DobramentoConstantes(),
+                        new NumeracaoValoresLocal(),
+                        new PropagacaoCopias(),
+                        new EliminacaoCodigoMorto()
+                );
+            case O2:
+                return List.of(
+                        new DobramentoConstantes(),
+                        new PropagacaoConstantesCondicional(),
+                        new NumeracaoValoresLocal(),
+                        new NumeracaoValoresGlobal(),
+                        new PropagacaoCopias(),
+                        new Reassociacao(),
+                        new AvaliacaoFechadaLacos(),
+                        new MovimentacaoInvariantes(),
+                        new VariaveisInducao(),
+                        new ReducaoForca(),
+                        new EliminacaoCodigoMorto()
+                );
+            default:
+                return List.of();
+        }
+    }
+
+    /**
+     * Reconhece um argumento "-O0", "-O1" ou "-O2".
+     * @return o nível, ou null se o argumento não é uma opção de otimização
+     */
+    public static NivelOtimizacao deArgumento(String argumento) {
+        switch (argumento) {
+            case "-O0": return O0;
+            case "-O1": return O1;
+            case "-O2": return O2;
+            default: return null;
+        }
+    }
+}
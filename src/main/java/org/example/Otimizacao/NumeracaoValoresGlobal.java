@@ -0,0 +1,181 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NumeracaoValoresGlobal.java
+ * Numeração de valores baseada em dominadores (GVN), extensão global de
+ * {@link NumeracaoValoresLocal}.
+ *
+ * Na forma SSA cada nome tem uma única definição, então uma expressão
+ * calculada num bloco continua válida em todos os blocos que ele domina. A
+ * árvore de dominadores é percorrida em pré-ordem com uma tabela de
+ * expressões com escopo: o que um bloco acrescenta é desfeito ao voltar dele.
+ * O valor de cada nome é representado pelo primeiro nome (ou constante) que o
+ * calculou:
+ *   - COPIA dá ao destino o valor da origem;
+ *   - uma operação já presente na tabela dá ao destino o valor de quem a
+ *     calculou primeiro (um bloco dominador ou o próprio bloco);
+ *   - uma phi cujos argumentos têm todos o mesmo valor é esse valor.
+ * Usos são trocados pelo representante; definições de temporários que ficam
+ * sem uso são removidas e as de variáveis do usuário viram COPIA, pois o
+ * valor final delas é o resultado do programa.
+ */
+public class NumeracaoValoresGlobal implements PassoOtimizacao {
+
+    private FormaSSA ssa;
+    private ProgramaIR ir;
+    private GrafoFluxoControle cfg;
+
+    private int[] valor;                          // representante por índice denso (NENHUM = o próprio nome)
+    private final Map<ExpressaoValor, Integer> expressoes = new HashMap<>();
+    private final List<ExpressaoValor> inseridas = new ArrayList<>();  // na ordem de inserção, desfeitas por escopo
+    private boolean alterou;
+
+    @Override
+    public String getNome() {
+        return "Numeração de valores global (GVN)";
+    }
+
+    @Override
+    public boolean executar(ProgramaIR programa) {
+        ssa = FormaSSA.construir(programa);
+        ir = ssa.getIR();
+        cfg = ssa.getCFG();
+        valor = new int[ir.totalNomes()];
+        alterou = false;
+
+        if (cfg.ordemRPO().length > 0) {
+            percorrerDominadores(cfg.ordemRPO()[0]);
+        }
+        if (alterou) {
+            ssa.substituirUsos(this::representante);
+            programa.copiarDe(ssa.paraIR());
+        }
+        expressoes.clear();
+        inseridas.clear();
+        ssa = null;
+        ir = null;
+        cfg = null;
+        valor = null;
+        return alterou;
+    }
+
+    /**
+     * Pré-ordem da árvore de dominadores com pilha explícita (cadeias longas
+     * de 'se' geram árvores fundas demais para recursão). Cada quadro guarda
+     * o bloco, o próximo filho e o tamanho de 'inseridas' na entrada; ao
+     * terminar a subárvore, as expressões que ela inseriu saem da tabela.
+     */
+    private void percorrerDominadores(int raiz) {
+        int totalBlocos = cfg.getTotalBlocos();
+        int[] blocos = new int[totalBlocos];
+        int[] proximoFilho = new int[totalBlocos];
+        int[] inseridasNaEntrada = new int[totalBlocos];
+        blocos[0] = raiz;
+        visitar(raiz);
+        int topo = 1;
+        while (topo > 0) {
+            int[] filhos = cfg.filhosDominador(blocos[topo - 1]);
+            if (proximoFilho[topo - 1] < filhos.length) {
+                int filho = filhos[proximoFilho[topo - 1]++];
+                blocos[topo] = filho;
+                proximoFilho[topo] = 0;
+                inseridasNaEntrada[topo] = inseridas.size();
+                topo++;
+                visitar(filho);
+            } else {
+                topo--;
+                while (inseridas.size() > inseridasNaEntrada[topo]) {
+                    expressoes.remove(inseridas.remove(inseridas.size() - 1));
+                }
+            }
+        }
+    }
+
+    private void visitar(int bloco) {
+        for (FormaSSA.Phi phi : new ArrayList<>(ssa.phis(bloco))) {
+            int unico = argumentoUnico(phi);
+            if (unico != ProgramaIR.NENHUM) {
+                valor[ir.indiceDenso(phi.getDestino())] = unico;
+                ssa.removerPhi(bloco, phi);
+                alterou = true;
+            }
+        }
+
+        for (int i = cfg.inicio(bloco); i < cfg.fim(bloco); i++) {
+            Opcode op = ir.opcode(i);
+            int lidos = op.numeroOperandosLidos();
+            if (lidos >= 1) {
+                ir.definirOperando1(i, representante(ir.operando1(i)));
+            }
+            if (lidos == 2) {
+                ir.definirOperando2(i, representante(ir.operando2(i)));
+            }
+            if (!op.defineDestino() || !ProgramaIR.ehNome(ir.destino(i))) {
+                continue;
+            }
+
+            int destino = ir.destino(i);
+            int existente = ProgramaIR.NENHUM;
+            if (op == Opcode.COPIA) {
+                existente = ir.operando1(i);
+            } else if (op.ehBinario()) {
+                boolean real = AritmeticaConstante.ehReal(ir, destino, ir.operando1(i), ir.operando2(i));
+                ExpressaoValor chave = new ExpressaoValor(op, ir.operando1(i), ir.operando2(i), real);
+                Integer anterior = expressoes.get(chave);
+                if (anterior == null) {
+                    expressoes.put(chave, destino);
+                    inseridas.add(chave);
+                } else {
+                    existente = anterior;
+                }
+            }
+            if (existente == ProgramaIR.NENHUM || ir.tipo(existente) != ir.tipo(destino)) {
+                continue;
+            }
+
+            valor[ir.indiceDenso(destino)] = existente;
+            if (ProgramaIR.ehTemporario(destino)) {
+                ir.definir(i, Opcode.NOP, ProgramaIR.NENHUM, ProgramaIR.NENHUM, ProgramaIR.NENHUM);
+                alterou = true;
+            } else if (op != Opcode.COPIA) {
+                ir.definir(i, Opcode.COPIA, destino, existente, ProgramaIR.NENHUM);
+                alterou = true;
+            }
+        }
+    }
+
+    /** Valor comum a todos os argumentos da phi (ignorando ela mesma), ou NENHUM. */
+    private int argumentoUnico(FormaSSA.Phi phi) {
+        int unico = ProgramaIR.NENHUM;
+        for (int j = 0; j < phi.getTotalArgumentos(); j++) {
+            int argumento = phi.getArgumento(j);
+            if (argumento == ProgramaIR.NENHUM) {
+                continue;
+            }
+            argumento = representante(argumento);
+            if (argumento == phi.getDestino()) {
+                continue;
+            }
+            if (unico != ProgramaIR.NENHUM && unico != argumento) {
+                return ProgramaIR.NENHUM;
+            }
+            unico = argumento;
+        }
+        return unico != ProgramaIR.NENHUM && ir.tipo(unico) == ir.tipo(phi.getDestino()) ? unico : ProgramaIR.NENHUM;
+    }
+
+    private int representante(int operando) {
+        while (ProgramaIR.ehNome(operando) && valor[ir.indiceDenso(operando)] != ProgramaIR.NENHUM) {
+            operando = valor[ir.indiceDenso(operando)];
+        }
+        return operando;
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * NumeracaoValoresLocal.java
+ * Numeração de valores local (LVN): elimina subexpressões comuns dentro de
+ * cada bloco básico do IR comum.
+ *
+ * Cada nome recebe o número do valor que guarda no momento. Uma operação cujo
+ * par (operador, números dos operandos) já foi calculado no bloco vira uma
+ * cópia do nome que ainda guarda aquele resultado. Uma atribuição dá ao
+ * destino um número novo: as expressões que liam o valor antigo deixam de
+ * casar (a chave usa o número antigo) e, se o destino era quem guardava um
+ * resultado, esse resultado deixa de ser reaproveitável.
+ */
+public class NumeracaoValoresLocal implements PassoOtimizacao {
+
+    @Override
+    public String getNome() {
+        return "Numeração de valores local (LVN)";
+    }
+
+    @Override
+    public boolean executar(ProgramaIR ir) {
+        Tabela tabela = new Tabela(ir);
+        boolean alterou = false;
+
+        for (int i = 0; i < ir.tamanho(); i++) {
+            Opcode op = ir.opcode(i);
+            if (op == Opcode.ROTULO) {
+                tabela.limpar();    // novo bloco: outro caminho pode chegar aqui
+                continue;
+            }
+            if (op.ehSalto()) {
+                tabela.limpar();
+                continue;
+            }
+            if (!op.defineDestino() || !ProgramaIR.ehNome(ir.destino(i))) {
+                continue;
+            }
+
+            int destino = ir.destino(i);
+            int valor;
+            if (op == Opcode.COPIA && ir.tipo(ir.operando1(i)) == ir.tipo(destino)) {
+                valor = tabela.numero(ir.operando1(i));
+            } else if (op.ehBinario()) {
+                boolean real = AritmeticaConstante.ehReal(ir, destino, ir.operando1(i), ir.operando2(i));
+                ExpressaoValor chave = new ExpressaoValor(op,
+                        tabela.numero(ir.operando1(i)), tabela.numero(ir.operando2(i)), real);
+                Integer existente = tabela.expressoes.get(chave);
+                int dono = existente != null ? tabela.dono(existente) : ProgramaIR.NENHUM;
+                if (dono != ProgramaIR.NENHUM && dono != destino && ir.tipo(dono) == ir.tipo(destino)) {
+                    ir.definir(i, Opcode.COPIA, destino, dono, ProgramaIR.NENHUM);
+                    valor = existente;
+                    alterou = true;
+                } else {
+                    valor = tabela.novoValor();
+                    tabela.expressoes.put(chave, valor);
+                }
+            } else {
+                valor = tabela.novoValor();
+            }
+            tabela.atribuir(destino, valor);
+        }
+        return alterou;
+    }
+
+    /** Estado da numeração dentro do bloco corrente. */
+    private static final class Tabela {
+        private final ProgramaIR ir;
+        private final int[] valorDoNome;               // 0 = ainda sem número neste bloco
+        private int[] donoDoValor = new int[64];       // nome que recebeu o valor primeiro
+        private final Map<Integer, Integer> valorDaConstante = new HashMap<>();
+        private final Map<ExpressaoValor, Integer> expressoes = new HashMap<>();
+        private int proximoValor = 1;
+
+        Tabela(ProgramaIR ir) {
+            this.ir = ir;
+            this.valorDoNome = new int[ir.totalNomes()];
+        }
+
+        void limpar() {
+            Arrays.fill(valorDoNome, 0);
+            valorDaConstante.clear();
+            expressoes.clear();
+        }
+
+        int novoValor() {
+            if (proximoValor == donoDoValor.length) {
+                donoDoValor = Arrays.copyOf(donoDoValor, donoDoValor.length * 2);
+            }
+            donoDoValor[proximoValor] = ProgramaIR.NENHUM;
+            return proximoValor++;
+        }
+
+        /** Número de valor de um operando; nomes ainda não vistos no bloco recebem um número novo. */
+        int numero(int operando) {
+            if (ProgramaIR.ehNome(operando)) {
+                int d = ir.indiceDenso(operando);
+                if (valorDoNome[d] == 0) {
+                    atribuir(operando, novoValor());
+                }
+                return valorDoNome[d];
+            }
+            return valorDaConstante.computeIfAbsent(operando, c -> novoValor());
+        }
+
+        /** Nome que ainda guarda o valor, ou NENHUM se quem o guardava foi reatribuído. */
+        int dono(int valor) {
+            int nome = donoDoValor[valor];
+            return nome != ProgramaIR.NENHUM && valorDoNome[ir.indiceDenso(nome)] == valor ? nome : ProgramaIR.NENHUM;
+        }
+
+        void atribuir(int nome, int valor) {
+            valorDoNome[ir.indiceDenso(nome)] = valor;
+            if (dono(valor) == ProgramaIR.NENHUM) {
+                donoDoValor[valor] = nome;
+            }
+        }
+    }
+}
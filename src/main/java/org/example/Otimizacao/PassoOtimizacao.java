@@ -0,0 +1,28 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.ProgramaIR;
+
+/**
+ * PassoOtimizacao.java
+ * Interface comum dos passos de otimização sobre o IR.
+ */
+public interface PassoOtimizacao {
+
+    /** Nome exibido no relatório da fase de otimização. */
+    String getNome();
+
+    /**
+     * Aplica o passo ao programa (alterando-o no lugar).
+     * @return true se alguma instrução foi alterada
+     */
+    boolean executar(ProgramaIR ir);
+
+    /**
+     * Versão usada pelo {@link GerenciadorPassos}: os passos que precisam do
+     * CFG ou da vivacidade podem reaproveitar as análises em cache (válidas
+     * para o IR na entrada) e devem invalidá-las ao alterar o código.
+     */
+    default boolean executar(ProgramaIR ir, Analises analises) {
+        return executar(ir);
+    }
+}
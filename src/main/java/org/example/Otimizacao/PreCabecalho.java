@@ -0,0 +1,82 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PreCabecalho.java
+ * Criação do pré-cabeçalho de um laço: um bloco executado uma única vez antes
+ * de entrar no laço, onde os passos colocam código tirado do corpo.
+ *
+ * As instruções são inseridas logo antes do rótulo do cabeçalho. Os saltos
+ * que entram no laço por fora passam para um rótulo novo no início do
+ * pré-cabeçalho; os saltos de retorno continuam indo para o cabeçalho. Se um
+ * bloco do laço caía no cabeçalho pela ordem das instruções, ganha um JMP
+ * explícito para não passar pelo pré-cabeçalho.
+ */
+final class PreCabecalho {
+
+    private PreCabecalho() {
+    }
+
+    /** Indica se o laço tem o formato esperado (cabeçalho começando por rótulo). */
+    static boolean suportado(ProgramaIR ir, GrafoFluxoControle cfg, Laco laco) {
+        return ir.opcode(cfg.inicio(laco.getCabecalho())) == Opcode.ROTULO;
+    }
+
+    /**
+     * Insere as instruções ({opcode, destino, operando1, operando2}) no
+     * pré-cabeçalho do laço.
+     * @return quantas instruções foram inseridas na posição cfg.inicio(cabeçalho);
+     *         as instruções a partir dessa posição foram deslocadas desse total
+     */
+    static int inserir(ProgramaIR ir, GrafoFluxoControle cfg, Laco laco, List<int[]> instrucoes) {
+        int cabecalho = laco.getCabecalho();
+        int posicao = cfg.inicio(cabecalho);
+        int rotuloCabecalho = ir.destino(posicao);
+
+        int rotuloPreCabecalho = ProgramaIR.NENHUM;
+        for (int p : cfg.predecessores(cabecalho)) {
+            int ultima = cfg.fim(p) - 1;
+            if (!laco.contem(p) && ultima >= 0 && ir.opcode(ultima).ehSalto() && ir.destino(ultima) == rotuloCabecalho) {
+                if (rotuloPreCabecalho == ProgramaIR.NENHUM) {
+                    rotuloPreCabecalho = ir.novoRotulo();
+                }
+                ir.definir(ultima, ir.opcode(ultima), rotuloPreCabecalho, ir.operando1(ultima), ir.operando2(ultima));
+            }
+        }
+
+        List<int[]> codigo = new ArrayList<>();
+        int anterior = posicao > 0 ? cfg.blocoDaInstrucao(posicao - 1) : -1;
+        if (anterior >= 0 && laco.contem(anterior) && ultimaInstrucao(ir, cfg, anterior) != Opcode.JMP) {
+            codigo.add(instrucao(Opcode.JMP, rotuloCabecalho, ProgramaIR.NENHUM, ProgramaIR.NENHUM));
+        }
+        if (rotuloPreCabecalho != ProgramaIR.NENHUM) {
+            codigo.add(instrucao(Opcode.ROTULO, rotuloPreCabecalho, ProgramaIR.NENHUM, ProgramaIR.NENHUM));
+        }
+        codigo.addAll(instrucoes);
+
+        Opcode[] opcodes = Opcode.values();
+        for (int k = codigo.size() - 1; k >= 0; k--) {
+            int[] c = codigo.get(k);
+            ir.inserir(posicao, opcodes[c[0]], c[1], c[2], c[3]);
+        }
+        return codigo.size();
+    }
+
+    static int[] instrucao(Opcode opcode, int destino, int operando1, int operando2) {
+        return new int[]{opcode.ordinal(), destino, operando1, operando2};
+    }
+
+    private static Opcode ultimaInstrucao(ProgramaIR ir, GrafoFluxoControle cfg, int bloco) {
+        for (int i = cfg.fim(bloco) - 1; i >= cfg.inicio(bloco); i--) {
+            if (ir.opcode(i) != Opcode.NOP) {
+                return ir.opcode(i);
+            }
+        }
+        return Opcode.NOP;
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.Otimizacao;
+
+/**
+ * ProblemaFluxoDados.java
+ * Descrição de um problema de fluxo de dados sobre conjuntos de bits, para o
+ * {@link FluxoDados}.
+ *
+ * O reticulado é o dos subconjuntos de {0..tamanho-1}: com junção UNIAO
+ * (problemas "em algum caminho", como vivacidade e definições alcançantes) o
+ * valor inicial é o vazio; com INTERSECAO (problemas "em todo caminho", como
+ * expressões disponíveis) é o conjunto cheio. A transferência de cada bloco
+ * deve ser monótona.
+ */
+public interface ProblemaFluxoDados {
+
+    enum Direcao {
+        PARA_FRENTE,    // valor do início do bloco vem dos predecessores
+        PARA_TRAS       // valor do fim do bloco vem dos sucessores
+    }
+
+    enum Juncao {
+        UNIAO,
+        INTERSECAO
+    }
+
+    Direcao direcao();
+
+    Juncao juncao();
+
+    /** Número de elementos do universo. */
+    int tamanho();
+
+    /**
+     * Valor de fronteira: entrada do bloco inicial (PARA_FRENTE) ou saída de
+     * um bloco sem sucessores (PARA_TRAS). O conjunto chega vazio.
+     */
+    void fronteira(int bloco, long[] valor);
+
+    /**
+     * Aplica a transferência do bloco no sentido do problema: 'antes' é o
+     * valor do lado de onde o fluxo vem (início do bloco para frente, fim do
+     * bloco para trás); o resultado é escrito em 'depois'.
+     */
+    void transferir(int bloco, long[] antes, long[] depois);
+}
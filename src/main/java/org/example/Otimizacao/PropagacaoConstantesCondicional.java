@@ -0,0 +1,463 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PropagacaoConstantesCondicional.java
+ * Propagação esparsa de constantes condicional (SCCP, Wegman e Zadeck).
+ *
+ * Trabalha sobre a forma SSA com duas listas de trabalho: arestas do CFG que
+ * se tornaram executáveis e nomes SSA cujo valor mudou no reticulado
+ * (TOPO -> CONSTANTE -> VARIÁVEL). Um bloco só é avaliado quando alguma aresta
+ * que chega nele é executável, e um salto condicional cuja condição é
+ * constante só torna executável o caminho que de fato será seguido. Assim,
+ * constantes que só existem porque um ramo nunca executa também são achadas.
+ *
+ * Ao final:
+ *   - usos de nomes constantes viram a própria constante e as definições de
+ *     temporários constantes são removidas;
+ *   - saltos condicionais com condição constante viram JMP ou desaparecem;
+ *   - blocos inalcançáveis são removidos, assim como os saltos e rótulos que
+ *     ficaram sem função (ver {@link SimplificacaoSaltos}).
+ * O valor inicial das variáveis (versão 0) é tratado como desconhecido.
+ */
+public class PropagacaoConstantesCondicional implements PassoOtimizacao {
+
+    private static final byte TOPO = 0;
+    private static final byte CONSTANTE = 1;
+    private static final byte VARIAVEL = 2;
+
+    private FormaSSA ssa;
+    private ProgramaIR ir;
+    private GrafoFluxoControle cfg;
+
+    private byte[] estado;
+    private int[] constante;
+
+    private boolean[] blocoExecutavel;
+    private boolean[][] arestaExecutavel; // [bloco][índice do predecessor]
+
+    // Usos de cada nome: posição da instrução (>= 0) ou -(índice da phi + 1)
+    private int[][] usos;
+    private List<FormaSSA.Phi> todasPhis;
+    private int[] blocoDaPhi;
+
+    private final ArrayDeque<int[]> arestasPendentes = new ArrayDeque<>();
+    private final ArrayDeque<Integer> nomesPendentes = new ArrayDeque<>();
+
+    @Override
+    public String getNome() {
+        return "Propagação de constantes condicional (SCCP)";
+    }
+
+    @Override
+    public boolean executar(ProgramaIR programa) {
+        ssa = FormaSSA.construir(programa);
+        ir = ssa.getIR();
+        cfg = ssa.getCFG();
+        inicializar();
+        propagar();
+        boolean alterou = reescrever();
+        if (alterou) {
+            programa.copiarDe(ssa.paraIR());
+            // Ramos removidos deixam saltos para a instrução seguinte e rótulos sem uso
+            new SimplificacaoSaltos().executar(programa);
+        }
+        ssa = null;
+        ir = null;
+        cfg = null;
+        return alterou;
+    }
+
+    // =====================================================================
+    //  INICIALIZAÇÃO
+    // =====================================================================
+
+    private void inicializar() {
+        int totalNomes = ir.totalNomes();
+        estado = new byte[totalNomes];
+        constante = new int[totalNomes];
+
+        // Nomes que não são definidos no programa (versão 0) têm valor desconhecido
+        boolean[] definido = new boolean[totalNomes];
+        todasPhis = new ArrayList<>();
+        List<Integer> blocos = new ArrayList<>();
+        for (int b = 0; b < cfg.getTotalBlocos(); b++) {
+            for (FormaSSA.Phi phi : ssa.phis(b)) {
+                definido[ir.indiceDenso(phi.getDestino())] = true;
+                todasPhis.add(phi);
+                blocos.add(b);
+            }
+        }
+        blocoDaPhi = blocos.stream().mapToInt(Integer::intValue).toArray();
+        for (int i = 0; i < ir.tamanho(); i++) {
+            if (ir.opcode(i).defineDestino() && ProgramaIR.ehNome(ir.destino(i))) {
+                definido[ir.indiceDenso(ir.destino(i))] = true;
+            }
+        }
+        for (int n = 0; n < totalNomes; n++) {
+            if (!definido[n]) {
+                estado[n] = VARIAVEL;
+            }
+        }
+
+        // Cadeias definição-uso
+        int[] totalUsos = new int[totalNomes];
+        contarUsos(totalUsos, null);
+        usos = new int[totalNomes][];
+        for (int n = 0; n < totalNomes; n++) {
+            usos[n] = new int[totalUsos[n]];
+            totalUsos[n] = 0;
+        }
+        contarUsos(totalUsos, usos);
+
+        blocoExecutavel = new boolean[cfg.getTotalBlocos()];
+        arestaExecutavel = new boolean[cfg.getTotalBlocos()][];
+        for (int b = 0; b < cfg.getTotalBlocos(); b++) {
+            arestaExecutavel[b] = new boolean[cfg.predecessores(b).length];
+        }
+    }
+
+    private void contarUsos(int[] total, int[][] destino) {
+        for (int i = 0; i < ir.tamanho(); i++) {
+            int lidos = ir.opcode(i).numeroOperandosLidos();
+            if (lidos >= 1) {
+                registrarUso(ir.operando1(i), i, total, destino);
+            }
+            if (lidos == 2 && ir.operando2(i) != ir.operando1(i)) {
+                registrarUso(ir.operando2(i), i, total, destino);
+            }
+        }
+        for (int k = 0; k < todasPhis.size(); k++) {
+            FormaSSA.Phi phi = todasPhis.get(k);
+            for (int j = 0; j < phi.getTotalArgumentos(); j++) {
+                registrarUso(phi.getArgumento(j), -(k + 1), total, destino);
+            }
+        }
+    }
+
+    private void registrarUso(int operando, int local, int[] total, int[][] destino) {
+        if (ProgramaIR.ehNome(operando)) {
+            int n = ir.indiceDenso(operando);
+            if (destino != null) {
+                destino[n][total[n]] = local;
+            }
+            total[n]++;
+        }
+    }
+
+    // =====================================================================
+    //  PROPAGAÇÃO
+    // =====================================================================
+
+    private void propagar() {
+        if (cfg.ordemRPO().length == 0) {
+            return;
+        }
+        int entrada = cfg.ordemRPO()[0];
+        blocoExecutavel[entrada] = true;
+        visitarBloco(entrada);
+
+        while (!arestasPendentes.isEmpty() || !nomesPendentes.isEmpty()) {
+            while (!arestasPendentes.isEmpty()) {
+                int[] aresta = arestasPendentes.poll();
+                int de = aresta[0];
+                int para = aresta[1];
+                int j = indicePredecessor(para, de);
+                if (arestaExecutavel[para][j]) {
+                    continue;
+                }
+                arestaExecutavel[para][j] = true;
+                for (FormaSSA.Phi phi : ssa.phis(para)) {
+                    avaliarPhi(para, phi);
+                }
+                if (!blocoExecutavel[para]) {
+                    blocoExecutavel[para] = true;
+                    visitarBloco(para);
+                }
+            }
+            while (!nomesPendentes.isEmpty()) {
+                int n = nomesPendentes.poll();
+                for (int local : usos[n]) {
+                    if (local >= 0) {
+                        if (blocoExecutavel[cfg.blocoDaInstrucao(local)]) {
+                            visitarInstrucao(local);
+                        }
+                    } else {
+                        int k = -local - 1;
+                        if (blocoExecutavel[blocoDaPhi[k]]) {
+                            avaliarPhi(blocoDaPhi[k], todasPhis.get(k));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private int indicePredecessor(int bloco, int predecessor) {
+        int[] predecessores = cfg.predecessores(bloco);
+        for (int j = 0; j < predecessores.length; j++) {
+            if (predecessores[j] == predecessor) {
+                return j;
+            }
+        }
+        throw new IllegalStateException("Erro Interno (SCCP): aresta inexistente B" + predecessor + " -> B" + bloco);
+    }
+
+    private void visitarBloco(int bloco) {
+        for (int i = cfg.inicio(bloco); i < cfg.fim(bloco); i++) {
+            visitarInstrucao(i);
+        }
+        if (terminador(bloco) < 0 || !ir.opcode(terminador(bloco)).ehSalto()) {
+            seguirSequencial(bloco);
+        }
+    }
+
+    private int terminador(int bloco) {
+        for (int i = cfg.fim(bloco) - 1; i >= cfg.inicio(bloco); i--) {
+            if (ir.opcode(i) != Opcode.NOP) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void seguirSequencial(int bloco) {
+        if (bloco + 1 < cfg.getTotalBlocos()) {
+            arestasPendentes.add(new int[]{bloco, bloco + 1});
+        }
+    }
+
+    private void seguirSalto(int bloco, int instrucao) {
+        int alvo = cfg.blocoDoRotulo(ProgramaIR.valorOperando(ir.destino(instrucao)));
+        arestasPendentes.add(new int[]{bloco, alvo});
+    }
+
+    /** Estado da condição de um salto condicional: TOPO, CONSTANTE ou VARIAVEL. */
+    private byte estadoSalto(int i) {
+        byte a = estadoDe(ir.operando1(i));
+        if (!ir.opcode(i).ehSaltoComparacao()) {
+            return a;
+        }
+        byte b = estadoDe(ir.operando2(i));
+        if (a == VARIAVEL || b == VARIAVEL) {
+            return VARIAVEL;
+        }
+        return a == TOPO || b == TOPO ? TOPO : CONSTANTE;
+    }
+
+    /** Se um salto condicional de condição constante desvia. */
+    private boolean saltoTomado(int i) {
+        Opcode op = ir.opcode(i);
+        double a = ir.valorConstante(constanteDe(ir.operando1(i)));
+        if (op.ehSaltoComparacao()) {
+            double b = ir.valorConstante(constanteDe(ir.operando2(i)));
+            return AritmeticaConstante.comparar(op.comparacaoDoSalto(), a, b);
+        }
+        return (a != 0) == (op == Opcode.JMPTRUE);
+    }
+
+    private void visitarInstrucao(int i) {
+        Opcode op = ir.opcode(i);
+        int bloco = cfg.blocoDaInstrucao(i);
+        if (op == Opcode.JMP) {
+            seguirSalto(bloco, i);
+        } else if (op.ehSaltoCondicional()) {
+            byte e = estadoSalto(i);
+            if (e == CONSTANTE) {
+                if (saltoTomado(i)) {
+                    seguirSalto(bloco, i);
+                } else {
+                    seguirSequencial(bloco);
+                }
+            } else if (e == VARIAVEL) {
+                seguirSalto(bloco, i);
+                seguirSequencial(bloco);
+            }
+        } else if (op.defineDestino() && ProgramaIR.ehNome(ir.destino(i))) {
+            int d = ir.indiceDenso(ir.destino(i));
+            if (op == Opcode.COPIA) {
+                int a = ir.operando1(i);
+                atualizar(d, estadoDe(a), estadoDe(a) == CONSTANTE ? constanteDe(a) : ProgramaIR.NENHUM);
+            } else if (op.ehBinario()) {
+                avaliarBinaria(i, op, d);
+            } else {
+                atualizar(d, VARIAVEL, ProgramaIR.NENHUM);
+            }
+        }
+    }
+
+    private void avaliarBinaria(int i, Opcode op, int d) {
+        int a = ir.operando1(i);
+        int b = ir.operando2(i);
+        byte ea = estadoDe(a);
+        byte eb = estadoDe(b);
+        if (ea == TOPO || eb == TOPO) {
+            return;
+        }
+        int ca = ea == CONSTANTE ? constanteDe(a) : a;
+        int cb = eb == CONSTANTE ? constanteDe(b) : b;
+        int resultado = AritmeticaConstante.dobrar(ir, op, ir.destino(i), ca, cb);
+        if (resultado == ProgramaIR.NENHUM) {
+            resultado = AritmeticaConstante.simplificar(ir, op, ir.destino(i), ca, cb);
+        }
+        if (resultado != ProgramaIR.NENHUM && ProgramaIR.ehConstante(resultado)) {
+            atualizar(d, CONSTANTE, resultado);
+        } else {
+            atualizar(d, VARIAVEL, ProgramaIR.NENHUM);
+        }
+    }
+
+    private void avaliarPhi(int bloco, FormaSSA.Phi phi) {
+        byte novoEstado = TOPO;
+        int novaConstante = ProgramaIR.NENHUM;
+        for (int j = 0; j < phi.getTotalArgumentos() && novoEstado != VARIAVEL; j++) {
+            if (!arestaExecutavel[bloco][j]) {
+                continue;
+            }
+            int argumento = phi.getArgumento(j);
+            byte e = estadoDe(argumento);
+            if (e == VARIAVEL) {
+                novoEstado = VARIAVEL;
+            } else if (e == CONSTANTE) {
+                int c = constanteDe(argumento);
+                if (novoEstado == TOPO) {
+                    novoEstado = CONSTANTE;
+                    novaConstante = c;
+                } else if (novaConstante != c) {
+                    novoEstado = VARIAVEL;
+                }
+            }
+        }
+        atualizar(ir.indiceDenso(phi.getDestino()), novoEstado,
+                novoEstado == CONSTANTE ? novaConstante : ProgramaIR.NENHUM);
+    }
+
+    /** Desce no reticulado (nunca sobe) e agenda os usos quando o valor muda. */
+    private void atualizar(int n, byte novoEstado, int novaConstante) {
+        if (novoEstado == CONSTANTE && estado[n] == CONSTANTE && constante[n] != novaConstante) {
+            novoEstado = VARIAVEL;
+        }
+        if (novoEstado > estado[n]) {
+            estado[n] = novoEstado;
+            constante[n] = novaConstante;
+            nomesPendentes.add(n);
+        }
+    }
+
+    private byte estadoDe(int operando) {
+        if (ProgramaIR.ehConstante(operando)) {
+            return CONSTANTE;
+        }
+        return ProgramaIR.ehNome(operando) ? estado[ir.indiceDenso(operando)] : VARIAVEL;
+    }
+
+    private int constanteDe(int operando) {
+        return ProgramaIR.ehConstante(operando) ? operando : constante[ir.indiceDenso(operando)];
+    }
+
+    // =====================================================================
+    //  REESCRITA
+    // =====================================================================
+
+    private boolean reescrever() {
+        boolean alterou = false;
+
+        // 1. Blocos inalcançáveis e arestas mortas
+        for (int b = 0; b < cfg.getTotalBlocos(); b++) {
+            if (!blocoExecutavel[b]) {
+                for (int i = cfg.inicio(b); i < cfg.fim(b); i++) {
+                    if (ir.opcode(i) != Opcode.NOP) {
+                        ir.remover(i);
+                        alterou = true;
+                    }
+                }
+                for (FormaSSA.Phi phi : new ArrayList<>(ssa.phis(b))) {
+                    ssa.removerPhi(b, phi);
+                }
+                continue;
+            }
+            for (FormaSSA.Phi phi : ssa.phis(b)) {
+                for (int j = 0; j < phi.getTotalArgumentos(); j++) {
+                    if (!arestaExecutavel[b][j]) {
+                        phi.definirArgumento(j, ProgramaIR.NENHUM);
+                    }
+                }
+            }
+        }
+
+        // 2. Saltos condicionais com condição constante
+        for (int b = 0; b < cfg.getTotalBlocos(); b++) {
+            int t = terminador(b);
+            if (!blocoExecutavel[b] || t < 0 || !ir.opcode(t).ehSaltoCondicional()) {
+                continue;
+            }
+            if (estadoSalto(t) == CONSTANTE) {
+                if (saltoTomado(t)) {
+                    ir.definir(t, Opcode.JMP, ir.destino(t), ProgramaIR.NENHUM, ProgramaIR.NENHUM);
+                } else {
+                    ir.remover(t);
+                }
+                alterou = true;
+            }
+        }
+
+        // 3. Usos de nomes constantes e definições que ficaram sem função
+        boolean[] definidoPorInstrucao = new boolean[ir.totalNomes()];
+        for (int i = 0; i < ir.tamanho(); i++) {
+            Opcode op = ir.opcode(i);
+            int lidos = op.numeroOperandosLidos();
+            if (lidos >= 1 && ProgramaIR.ehNome(ir.operando1(i)) && estadoDe(ir.operando1(i)) == CONSTANTE) {
+                ir.definirOperando1(i, constanteDe(ir.operando1(i)));
+                alterou = true;
+            }
+            if (lidos == 2 && ProgramaIR.ehNome(ir.operando2(i)) && estadoDe(ir.operando2(i)) == CONSTANTE) {
+                ir.definirOperando2(i, constanteDe(ir.operando2(i)));
+                alterou = true;
+            }
+            int destino = ir.destino(i);
+            if (op.defineDestino() && ProgramaIR.ehNome(destino)) {
+                definidoPorInstrucao[ir.indiceDenso(destino)] = true;
+            }
+            if ((op == Opcode.COPIA || op.ehBinario()) && estadoDe(destino) == CONSTANTE) {
+                if (ProgramaIR.ehTemporario(ssa.origem(destino))) {
+                    definidoPorInstrucao[ir.indiceDenso(destino)] = false;
+                    ir.remover(i);
+                    alterou = true;
+                } else if (op != Opcode.COPIA || ir.operando1(i) != constanteDe(destino)) {
+                    // Variáveis do usuário mantêm a atribuição (agora de uma constante)
+                    ir.definir(i, Opcode.COPIA, destino, constanteDe(destino), ProgramaIR.NENHUM);
+                    alterou = true;
+                }
+            }
+        }
+        for (int b = 0; b < cfg.getTotalBlocos(); b++) {
+            for (FormaSSA.Phi phi : new ArrayList<>(ssa.phis(b))) {
+                for (int j = 0; j < phi.getTotalArgumentos(); j++) {
+                    int argumento = phi.getArgumento(j);
+                    if (ProgramaIR.ehNome(argumento) && estadoDe(argumento) == CONSTANTE) {
+                        phi.definirArgumento(j, constanteDe(argumento));
+                    }
+                }
+                if (estadoDe(phi.getDestino()) == CONSTANTE) {
+                    ssa.removerPhi(b, phi);
+                    alterou = true;
+                }
+            }
+        }
+        // Valores de saída: nomes cuja definição (phi) foi removida passam a ser a constante
+        for (int slot = 0; slot < ssa.getVariaveisOriginais(); slot++) {
+            int valor = ssa.valorNaSaida(slot);
+            if (ProgramaIR.ehNome(valor) && estadoDe(valor) == CONSTANTE
+                    && !definidoPorInstrucao[ir.indiceDenso(valor)]) {
+                ssa.definirValorNaSaida(slot, constanteDe(valor));
+            }
+        }
+        return alterou;
+    }
+}
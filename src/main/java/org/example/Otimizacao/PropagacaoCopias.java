@@ -0,0 +1,171 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+
+import java.util.Arrays;
+
+/**
+ * PropagacaoCopias.java
+ * Propagação de cópias e coalescência de temporários com o destino da atribuição.
+ *
+ * 1. Coalescência dirigida pelo destino: o par 'Tn = a op b; x = Tn' (gerado
+ *    para toda atribuição, e 'T_final = T_rhs' das expressões compostas) vira
+ *    'x = a op b' quando Tn tem uma única definição e um único uso, os dois
+ *    estão no mesmo bloco, os tipos coincidem e x não é lido nem escrito
+ *    entre eles. Isso elimina uma ida e volta à memória por atribuição.
+ * 2. Propagação local de cópias: depois de 'x = y', os usos de x no mesmo
+ *    bloco passam a ler y, enquanto nenhum dos dois for redefinido.
+ *
+ * As cópias que ficam sem uso são removidas pela {@link EliminacaoCodigoMorto}.
+ */
+public class PropagacaoCopias implements PassoOtimizacao {
+
+    @Override
+    public String getNome() {
+        return "Propagação de cópias e coalescência";
+    }
+
+    @Override
+    public boolean executar(ProgramaIR ir) {
+        boolean alterou = coalescer(ir);
+        alterou |= propagar(ir);
+        if (alterou) {
+            ir.compactar();
+        }
+        return alterou;
+    }
+
+    // =====================================================================
+    //  COALESCÊNCIA DIRIGIDA PELO DESTINO
+    // =====================================================================
+
+    private static boolean coalescer(ProgramaIR ir) {
+        int totalNomes = ir.totalNomes();
+        int[] definicoes = new int[totalNomes];
+        int[] usos = new int[totalNomes];
+        for (int i = 0; i < ir.tamanho(); i++) {
+            Opcode op = ir.opcode(i);
+            int lidos = op.numeroOperandosLidos();
+            if (lidos >= 1 && ProgramaIR.ehNome(ir.operando1(i))) {
+                usos[ir.indiceDenso(ir.operando1(i))]++;
+            }
+            if (lidos == 2 && ProgramaIR.ehNome(ir.operando2(i))) {
+                usos[ir.indiceDenso(ir.operando2(i))]++;
+            }
+            if (op.defineDestino() && ProgramaIR.ehNome(ir.destino(i))) {
+                definicoes[ir.indiceDenso(ir.destino(i))]++;
+            }
+        }
+
+        boolean alterou = false;
+        int[] definidoEm = new int[totalNomes];     // posição da definição no bloco corrente, ou -1
+        Arrays.fill(definidoEm, -1);
+        int inicioBloco = 0;
+        for (int j = 0; j < ir.tamanho(); j++) {
+            Opcode op = ir.opcode(j);
+            if (op == Opcode.ROTULO || op.ehSalto()) {
+                inicioBloco = j + 1;
+                continue;
+            }
+            if (op == Opcode.COPIA && ProgramaIR.ehTemporario(ir.operando1(j)) && ProgramaIR.ehNome(ir.destino(j))) {
+                int temporario = ir.operando1(j);
+                int destino = ir.destino(j);
+                int t = ir.indiceDenso(temporario);
+                int i = definidoEm[t];
+                if (i >= inicioBloco && definicoes[t] == 1 && usos[t] == 1 && destino != temporario
+                        && ir.tipo(temporario) == ir.tipo(destino) && !acessadoEntre(ir, destino, i, j)) {
+                    ir.definir(i, ir.opcode(i), destino, ir.operando1(i), ir.operando2(i));
+                    ir.remover(j);
+                    definidoEm[ir.indiceDenso(destino)] = i;
+                    alterou = true;
+                    continue;
+                }
+            }
+            if (op.defineDestino() && ProgramaIR.ehNome(ir.destino(j))) {
+                definidoEm[ir.indiceDenso(ir.destino(j))] = j;
+            }
+        }
+        return alterou;
+    }
+
+    /** Indica se o nome é lido ou escrito por alguma instrução entre as posições (exclusivo). */
+    private static boolean acessadoEntre(ProgramaIR ir, int nome, int de, int ate) {
+        for (int k = de + 1; k < ate; k++) {
+            Opcode op = ir.opcode(k);
+            int lidos = op.numeroOperandosLidos();
+            if ((lidos >= 1 && ir.operando1(k) == nome) || (lidos == 2 && ir.operando2(k) == nome)
+                    || (op.defineDestino() && ir.destino(k) == nome)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // =====================================================================
+    //  PROPAGAÇÃO LOCAL DE CÓPIAS
+    // =====================================================================
+
+    private static boolean propagar(ProgramaIR ir) {
+        boolean alterou = false;
+        int[] copiaDe = new int[ir.totalNomes()];   // nome de origem, ou NENHUM
+        int[] ativas = new int[ir.totalNomes()];
+        int totalAtivas = 0;
+
+        for (int i = 0; i < ir.tamanho(); i++) {
+            Opcode op = ir.opcode(i);
+            if (op == Opcode.ROTULO) {
+                totalAtivas = esquecer(copiaDe, ativas, totalAtivas);
+                continue;
+            }
+
+            int lidos = op.numeroOperandosLidos();
+            if (lidos >= 1 && origem(ir, copiaDe, ir.operando1(i)) != ir.operando1(i)) {
+                ir.definirOperando1(i, origem(ir, copiaDe, ir.operando1(i)));
+                alterou = true;
+            }
+            if (lidos == 2 && origem(ir, copiaDe, ir.operando2(i)) != ir.operando2(i)) {
+                ir.definirOperando2(i, origem(ir, copiaDe, ir.operando2(i)));
+                alterou = true;
+            }
+
+            if (op.defineDestino() && ProgramaIR.ehNome(ir.destino(i))) {
+                int destino = ir.destino(i);
+                int d = ir.indiceDenso(destino);
+                // A redefinição invalida as cópias de e para o destino
+                for (int k = 0; k < totalAtivas; k++) {
+                    int n = ativas[k];
+                    if (n == d || copiaDe[n] == destino) {
+                        copiaDe[n] = ProgramaIR.NENHUM;
+                        ativas[k--] = ativas[--totalAtivas];
+                    }
+                }
+                int fonte = ir.operando1(i);
+                if (op == Opcode.COPIA && ProgramaIR.ehNome(fonte) && fonte != destino
+                        && ir.tipo(fonte) == ir.tipo(destino)) {
+                    copiaDe[d] = fonte;
+                    ativas[totalAtivas++] = d;
+                }
+            }
+
+            if (op.ehSalto()) {
+                totalAtivas = esquecer(copiaDe, ativas, totalAtivas);
+            }
+        }
+        return alterou;
+    }
+
+    private static int origem(ProgramaIR ir, int[] copiaDe, int operando) {
+        if (ProgramaIR.ehNome(operando) && copiaDe[ir.indiceDenso(operando)] != ProgramaIR.NENHUM) {
+            return copiaDe[ir.indiceDenso(operando)];
+        }
+        return operando;
+    }
+
+    private static int esquecer(int[] copiaDe, int[] ativas, int totalAtivas) {
+        for (int k = 0; k < totalAtivas; k++) {
+            copiaDe[ativas[k]] = ProgramaIR.NENHUM;
+        }
+        return 0;
+    }
+}
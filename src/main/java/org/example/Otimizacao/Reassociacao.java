@@ -0,0 +1,375 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+import org.example.TipoDado;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reassociacao.java
+ * Reassociação de cadeias de '+' e '*' inteiros.
+ *
+ * O analisador sintático monta 'a + b + c + d' como uma árvore inclinada à
+ * esquerda, que vira no IR uma cadeia T1 = a + b; T2 = T1 + c; x = T2 + d, em
+ * que cada passo depende do anterior. Dentro de cada bloco, este passo junta a
+ * árvore de uma mesma operação (os temporários internos precisam ter uma única
+ * definição e um único uso, ambos na árvore) e a reconstrói:
+ *   - as constantes são dobradas em uma só (a + 1 + b + 2 vira a + b + 3);
+ *   - os operandos são ordenados por posto: o posto de um nome é o número de
+ *     laços, dentre os que contêm o bloco, que o redefinem. Nomes de posto
+ *     menor são combinados primeiro, de modo que a parte invariante de um laço
+ *     interno fica em uma instrução própria que {@link MovimentacaoInvariantes}
+ *     pode mover;
+ *   - operandos de mesmo posto são combinados em pares, formando uma árvore
+ *     balanceada ((a + b) + (c + d)) em vez de uma cadeia.
+ *
+ * Soma e produto inteiros de 32 bits são associativos e comutativos mesmo com
+ * transbordamento (aritmética módulo 2^32), então o resultado não muda. REAL
+ * não é tocado: em ponto flutuante a ordem altera o arredondamento.
+ */
+public class Reassociacao implements PassoOtimizacao {
+
+    @Override
+    public String getNome() {
+        return "Reassociação de somas e produtos";
+    }
+
+    @Override
+    public boolean executar(ProgramaIR ir) {
+        return executar(ir, new Analises(ir));
+    }
+
+    @Override
+    public boolean executar(ProgramaIR ir, Analises analises) {
+        GrafoFluxoControle cfg = analises.cfg();
+        Usos usos = new Usos(ir);
+        Map<Laco, BitSet> definidosNoLaco = new HashMap<>();
+
+        // Reescritas: a raiz recebe a sequência nova, as instruções internas somem
+        int[][][] reescrita = new int[ir.tamanho()][][];
+        boolean[] removida = new boolean[ir.tamanho()];
+        boolean alterou = false;
+
+        for (int b = 0; b < cfg.getTotalBlocos(); b++) {
+            for (int i = cfg.inicio(b); i < cfg.fim(b); i++) {
+                if (!candidata(ir, i) || usos.interna(ir, cfg, i)) {
+                    continue;
+                }
+                Arvore arvore = new Arvore(ir, i);
+                arvore.coletar(usos, cfg, i, i);
+                if (arvore.folhas.size() < 3 || !arvore.folhasIntactas(ir)) {
+                    continue;
+                }
+                int[] posto = new int[arvore.folhas.size()];
+                for (int k = 0; k < posto.length; k++) {
+                    posto[k] = posto(ir, cfg, definidosNoLaco, b, arvore.folhas.get(k));
+                }
+                int[][] nova = arvore.reconstruir(posto);
+                if (!arvore.igualA(nova)) {
+                    reescrita[i] = nova;
+                    for (int interna : arvore.internas) {
+                        removida[interna] = true;
+                    }
+                    alterou = true;
+                }
+            }
+        }
+
+        if (alterou) {
+            List<int[]> codigo = new ArrayList<>(ir.tamanho());
+            for (int i = 0; i < ir.tamanho(); i++) {
+                if (reescrita[i] != null) {
+                    for (int[] c : reescrita[i]) {
+                        codigo.add(c);
+                    }
+                } else if (!removida[i]) {
+                    codigo.add(PreCabecalho.instrucao(ir.opcode(i), ir.destino(i), ir.operando1(i), ir.operando2(i)));
+                }
+            }
+            ir.limparInstrucoes();
+            Opcode[] opcodes = Opcode.values();
+            for (int[] c : codigo) {
+                ir.adicionar(opcodes[c[0]], c[1], c[2], c[3]);
+            }
+            analises.invalidar();
+        }
+        return alterou;
+    }
+
+    /** ADD ou MUL inteiro com destino nomeado. */
+    private static boolean candidata(ProgramaIR ir, int i) {
+        Opcode op = ir.opcode(i);
+        return (op == Opcode.ADD || op == Opcode.MUL) && ProgramaIR.ehNome(ir.destino(i))
+                && !AritmeticaConstante.ehReal(ir, ir.destino(i), ir.operando1(i), ir.operando2(i));
+    }
+
+    /**
+     * Posto de um operando no bloco: -1 para constantes; para nomes, quantos
+     * dos laços que contêm o bloco têm alguma definição do nome.
+     */
+    private static int posto(ProgramaIR ir, GrafoFluxoControle cfg, Map<Laco, BitSet> definidosNoLaco,
+                             int bloco, int operando) {
+        if (!ProgramaIR.ehNome(operando)) {
+            return -1;
+        }
+        int d = ir.indiceDenso(operando);
+        int posto = 0;
+        for (Laco laco = cfg.lacoDoBloco(bloco); laco != null; laco = laco.getPai()) {
+            BitSet definidos = definidosNoLaco.computeIfAbsent(laco, l -> definidos(ir, cfg, l));
+            if (definidos.get(d)) {
+                posto++;
+            }
+        }
+        return posto;
+    }
+
+    private static BitSet definidos(ProgramaIR ir, GrafoFluxoControle cfg, Laco laco) {
+        BitSet definidos = new BitSet(ir.totalNomes());
+        for (int b = laco.getBlocos().nextSetBit(0); b >= 0; b = laco.getBlocos().nextSetBit(b + 1)) {
+            for (int i = cfg.inicio(b); i < cfg.fim(b); i++) {
+                if (ir.opcode(i).defineDestino() && ProgramaIR.ehNome(ir.destino(i))) {
+                    definidos.set(ir.indiceDenso(ir.destino(i)));
+                }
+            }
+        }
+        return definidos;
+    }
+
+    /** Contagem de definições e posição do uso único de cada nome. */
+    private static final class Usos {
+        private final int[] definicoes;
+        private final int[] leituras;
+        private final int[] definicao;   // posição da última definição
+        private final int[] leitura;     // posição da última leitura
+
+        Usos(ProgramaIR ir) {
+            definicoes = new int[ir.totalNomes()];
+            leituras = new int[ir.totalNomes()];
+            definicao = new int[ir.totalNomes()];
+            leitura = new int[ir.totalNomes()];
+            for (int i = 0; i < ir.tamanho(); i++) {
+                Opcode op = ir.opcode(i);
+                int lidos = op.numeroOperandosLidos();
+                if (lidos >= 1) {
+                    ler(ir, ir.operando1(i), i);
+                }
+                if (lidos == 2) {
+                    ler(ir, ir.operando2(i), i);
+                }
+                if (op.defineDestino() && ProgramaIR.ehNome(ir.destino(i))) {
+                    int d = ir.indiceDenso(ir.destino(i));
+                    definicoes[d]++;
+                    definicao[d] = i;
+                }
+            }
+        }
+
+        private void ler(ProgramaIR ir, int operando, int i) {
+            if (ProgramaIR.ehNome(operando)) {
+                int d = ir.indiceDenso(operando);
+                leituras[d]++;
+                leitura[d] = i;
+            }
+        }
+
+        /**
+         * Instrução que define o temporário lido por 'i', se ela pode ser
+         * absorvida na árvore de 'i'; -1 caso contrário.
+         */
+        int definicaoInterna(ProgramaIR ir, GrafoFluxoControle cfg, int i, int operando) {
+            if (!ProgramaIR.ehTemporario(operando)) {
+                return -1;
+            }
+            int d = ir.indiceDenso(operando);
+            int def = definicao[d];
+            if (definicoes[d] != 1 || leituras[d] != 1 || leitura[d] != i || def >= i
+                    || cfg.blocoDaInstrucao(def) != cfg.blocoDaInstrucao(i)
+                    || ir.opcode(def) != ir.opcode(i) || !candidata(ir, def)) {
+                return -1;
+            }
+            return def;
+        }
+
+        /** Indica se o destino de 'i' é absorvido pela árvore de quem o lê. */
+        boolean interna(ProgramaIR ir, GrafoFluxoControle cfg, int i) {
+            int destino = ir.destino(i);
+            if (!ProgramaIR.ehTemporario(destino)) {
+                return false;
+            }
+            int d = ir.indiceDenso(destino);
+            if (leituras[d] != 1) {
+                return false;
+            }
+            int uso = leitura[d];
+            return candidata(ir, uso)
+                    && (definicaoInterna(ir, cfg, uso, ir.operando1(uso)) == i
+                        || definicaoInterna(ir, cfg, uso, ir.operando2(uso)) == i);
+        }
+    }
+
+    /** Árvore de uma mesma operação com raiz na instrução 'raiz'. */
+    private static final class Arvore {
+        private final ProgramaIR ir;
+        private final Opcode opcode;
+        private final int raiz;
+        private final List<Integer> folhas = new ArrayList<>();
+        private final List<Integer> posicaoLeitura = new ArrayList<>();
+        private final List<Integer> internas = new ArrayList<>();
+
+        Arvore(ProgramaIR ir, int raiz) {
+            this.ir = ir;
+            this.opcode = ir.opcode(raiz);
+            this.raiz = raiz;
+        }
+
+        /** Folhas da esquerda para a direita; internas em ordem de posição. */
+        void coletar(Usos usos, GrafoFluxoControle cfg, int i, int raiz) {
+            for (int operando : new int[]{ir.operando1(i), ir.operando2(i)}) {
+                int def = usos.definicaoInterna(ir, cfg, i, operando);
+                if (def >= 0) {
+                    coletar(usos, cfg, def, raiz);
+                } else {
+                    folhas.add(operando);
+                    posicaoLeitura.add(i);
+                }
+            }
+            if (i != raiz) {
+                int k = 0;
+                while (k < internas.size() && internas.get(k) < i) {
+                    k++;
+                }
+                internas.add(k, i);
+            }
+        }
+
+        /** As folhas ainda têm, na raiz, o valor que tinham onde eram lidas. */
+        boolean folhasIntactas(ProgramaIR ir) {
+            for (int k = 0; k < folhas.size(); k++) {
+                int folha = folhas.get(k);
+                if (!ProgramaIR.ehNome(folha)) {
+                    continue;
+                }
+                for (int j = posicaoLeitura.get(k) + 1; j < raiz; j++) {
+                    if (ir.opcode(j).defineDestino() && ir.destino(j) == folha) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /** Sequência nova: constantes dobradas, grupos por posto, pares dentro de cada grupo. */
+        int[][] reconstruir(int[] posto) {
+            int neutro = opcode == Opcode.ADD ? 0 : 1;
+            int constante = neutro;
+            List<Integer> nomes = new ArrayList<>();
+            List<Integer> postos = new ArrayList<>();
+            for (int k = 0; k < folhas.size(); k++) {
+                int folha = folhas.get(k);
+                if (ProgramaIR.ehNome(folha)) {
+                    // Inserção estável: mesmo posto mantém a ordem original
+                    int p = 0;
+                    while (p < postos.size() && postos.get(p) <= posto[k]) {
+                        p++;
+                    }
+                    nomes.add(p, folha);
+                    postos.add(p, posto[k]);
+                } else {
+                    int valor = ir.valorInteiro(folha);
+                    constante = opcode == Opcode.ADD ? constante + valor : constante * valor;
+                }
+            }
+            if (opcode == Opcode.MUL && constante == 0) {
+                nomes.clear();
+                postos.clear();
+            }
+            if (constante != neutro || nomes.isEmpty()) {
+                // A constante fecha o primeiro grupo, como segundo operando (x + c)
+                int p = 0;
+                while (p < postos.size() && postos.get(p).equals(postos.get(0))) {
+                    p++;
+                }
+                nomes.add(p, ir.constanteInteira(constante));
+                postos.add(p, postos.isEmpty() ? -1 : postos.get(0));
+            }
+
+            int destino = ir.destino(raiz);
+            if (nomes.size() == 1) {
+                return new int[][]{PreCabecalho.instrucao(Opcode.COPIA, destino, nomes.get(0), ProgramaIR.NENHUM)};
+            }
+            Emissor emissor = new Emissor(nomes.size() - 1, destino);
+            int acumulado = ProgramaIR.NENHUM;
+            int inicio = 0;
+            while (inicio < nomes.size()) {
+                int fim = inicio;
+                while (fim < nomes.size() && postos.get(fim).equals(postos.get(inicio))) {
+                    fim++;
+                }
+                int grupo = emissor.balancear(nomes.subList(inicio, fim));
+                acumulado = acumulado == ProgramaIR.NENHUM ? grupo : emissor.emitir(acumulado, grupo);
+                inicio = fim;
+            }
+            return emissor.codigo.toArray(new int[0][]);
+        }
+
+        /** Compara com a sequência atual (internas em ordem e a raiz). */
+        boolean igualA(int[][] nova) {
+            if (nova.length != internas.size() + 1) {
+                return false;
+            }
+            for (int k = 0; k < nova.length; k++) {
+                int i = k < internas.size() ? internas.get(k) : raiz;
+                int[] c = nova[k];
+                if (c[0] != ir.opcode(i).ordinal() || c[1] != ir.destino(i)
+                        || c[2] != ir.operando1(i) || c[3] != ir.operando2(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /** Gera as operações reaproveitando os temporários internos; a última escreve no destino. */
+        private final class Emissor {
+            private final int totalOperacoes;
+            private final int destino;
+            private final List<int[]> codigo = new ArrayList<>();
+
+            Emissor(int totalOperacoes, int destino) {
+                this.totalOperacoes = totalOperacoes;
+                this.destino = destino;
+            }
+
+            int emitir(int a, int b) {
+                int n = codigo.size();
+                int d;
+                if (n == totalOperacoes - 1) {
+                    d = destino;
+                } else if (n < internas.size()) {
+                    d = ir.destino(internas.get(n));
+                } else {
+                    d = ir.novoTemporario(TipoDado.INTEIRO);
+                }
+                codigo.add(PreCabecalho.instrucao(opcode, d, a, b));
+                return d;
+            }
+
+            /** Combina os operandos em pares, nível a nível, preservando a ordem. */
+            int balancear(List<Integer> operandos) {
+                List<Integer> nivel = new ArrayList<>(operandos);
+                while (nivel.size() > 1) {
+                    List<Integer> proximo = new ArrayList<>((nivel.size() + 1) / 2);
+                    for (int k = 0; k < nivel.size(); k += 2) {
+                        proximo.add(k + 1 < nivel.size() ? emitir(nivel.get(k), nivel.get(k + 1)) : nivel.get(k));
+                    }
+                    nivel = proximo;
+                }
+                return nivel.get(0);
+            }
+        }
+    }
+}
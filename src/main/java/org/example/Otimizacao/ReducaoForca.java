@@ -0,0 +1,170 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+import org.example.TipoDado;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ReducaoForca.java
+ * Redução de força de multiplicação, divisão e resto por constantes inteiras.
+ *
+ *   x * 2^k      -> SHL x, k
+ *   x / 2^k      -> SAR (x + ajuste), k          ajuste = 2^k - 1 se x < 0, senão 0
+ *   x RESTO 2^k  -> x - AND(x + ajuste, -2^k)
+ *   x / d        -> MULHI(x, M) [+ x], SAR s, + 1 se x < 0   (número mágico M, s)
+ *   x RESTO d    -> x - (x / d) * d
+ *
+ * O ajuste para x negativo mantém a divisão truncando em direção a zero, como
+ * IDIV. O número mágico segue Hacker's Delight (Warren, cap. 10) e vale para
+ * todo x de 32 bits. Só INTEIRO: REAL não é alterado. Divisores zero,
+ * negativos e 1 não são tocados (o último já é tratado por
+ * {@link DobramentoConstantes}).
+ */
+public class ReducaoForca implements PassoOtimizacao {
+
+    @Override
+    public String getNome() {
+        return "Redução de força por constantes";
+    }
+
+    @Override
+    public boolean executar(ProgramaIR ir) {
+        List<int[]> codigo = new ArrayList<>(ir.tamanho());
+        boolean alterou = false;
+        for (int i = 0; i < ir.tamanho(); i++) {
+            if (!reduzir(ir, i, codigo)) {
+                codigo.add(PreCabecalho.instrucao(ir.opcode(i), ir.destino(i), ir.operando1(i), ir.operando2(i)));
+            } else {
+                alterou = true;
+            }
+        }
+        if (alterou) {
+            ir.limparInstrucoes();
+            Opcode[] opcodes = Opcode.values();
+            for (int[] c : codigo) {
+                ir.adicionar(opcodes[c[0]], c[1], c[2], c[3]);
+            }
+        }
+        return alterou;
+    }
+
+    /** Acrescenta ao código a sequência equivalente à instrução i; retorna false se não há redução. */
+    private static boolean reduzir(ProgramaIR ir, int i, List<int[]> codigo) {
+        Opcode op = ir.opcode(i);
+        if (op != Opcode.MUL && op != Opcode.DIV && op != Opcode.RESTO) {
+            return false;
+        }
+        int destino = ir.destino(i);
+        int x = ir.operando1(i);
+        int c = ir.operando2(i);
+        if (op == Opcode.MUL && constanteInteira(ir, x) && !constanteInteira(ir, c)) {
+            x = ir.operando2(i);
+            c = ir.operando1(i);
+        }
+        if (AritmeticaConstante.ehReal(ir, destino, x, c) || !constanteInteira(ir, c)) {
+            return false;
+        }
+        int d = ir.valorInteiro(c);
+        if (d < 2) {
+            return false;
+        }
+        boolean potencia = Integer.bitCount(d) == 1;
+        int k = Integer.numberOfTrailingZeros(d);
+
+        if (op == Opcode.MUL) {
+            if (!potencia) {
+                return false;   // IMUL por constante já é barato
+            }
+            emitir(codigo, Opcode.SHL, destino, x, ir.constanteInteira(k));
+            return true;
+        }
+
+        if (potencia) {
+            // ajuste = (x >> 31) >>> (32 - k): 2^k - 1 para x negativo, 0 caso contrário
+            int ajuste = ir.novoTemporario(TipoDado.INTEIRO);
+            if (k == 1) {
+                emitir(codigo, Opcode.SHR, ajuste, x, ir.constanteInteira(31));
+            } else {
+                emitir(codigo, Opcode.SAR, ajuste, x, ir.constanteInteira(31));
+                emitir(codigo, Opcode.SHR, ajuste, ajuste, ir.constanteInteira(32 - k));
+            }
+            int ajustado = ir.novoTemporario(TipoDado.INTEIRO);
+            emitir(codigo, Opcode.ADD, ajustado, x, ajuste);
+            if (op == Opcode.DIV) {
+                emitir(codigo, Opcode.SAR, destino, ajustado, ir.constanteInteira(k));
+            } else {
+                int multiplo = ir.novoTemporario(TipoDado.INTEIRO);
+                emitir(codigo, Opcode.AND, multiplo, ajustado, ir.constanteInteira(-d));
+                emitir(codigo, Opcode.SUB, destino, x, multiplo);
+            }
+            return true;
+        }
+
+        long[] magico = numeroMagico(d);
+        int m = (int) magico[0];
+        int s = (int) magico[1];
+        int quociente = op == Opcode.DIV ? destino : ir.novoTemporario(TipoDado.INTEIRO);
+        int t = ir.novoTemporario(TipoDado.INTEIRO);
+        emitir(codigo, Opcode.MULHI, t, x, ir.constanteInteira(m));
+        if (m < 0) {
+            emitir(codigo, Opcode.ADD, t, t, x);
+        }
+        if (s > 0) {
+            emitir(codigo, Opcode.SAR, t, t, ir.constanteInteira(s));
+        }
+        int sinal = ir.novoTemporario(TipoDado.INTEIRO);
+        emitir(codigo, Opcode.SHR, sinal, x, ir.constanteInteira(31));
+        emitir(codigo, Opcode.ADD, quociente, t, sinal);
+        if (op == Opcode.RESTO) {
+            int produto = ir.novoTemporario(TipoDado.INTEIRO);
+            emitir(codigo, Opcode.MUL, produto, quociente, c);
+            emitir(codigo, Opcode.SUB, destino, x, produto);
+        }
+        return true;
+    }
+
+    /**
+     * Número mágico para divisão com sinal por d >= 2 (Hacker's Delight, fig. 10-1).
+     * @return {M, s}: x / d = (MULHI(x, M) [+ x se M < 0]) >> s, mais 1 se x < 0
+     */
+    static long[] numeroMagico(int d) {
+        final long dois31 = 0x80000000L;
+        final long mascara = 0xFFFFFFFFL;
+        long ad = d;
+        long anc = dois31 - 1 - dois31 % ad;
+        int p = 31;
+        long q1 = dois31 / anc;
+        long r1 = dois31 - q1 * anc;
+        long q2 = dois31 / ad;
+        long r2 = dois31 - q2 * ad;
+        long delta;
+        do {
+            p++;
+            q1 = (2 * q1) & mascara;
+            r1 = (2 * r1) & mascara;
+            if (r1 >= anc) {
+                q1 = (q1 + 1) & mascara;
+                r1 -= anc;
+            }
+            q2 = (2 * q2) & mascara;
+            r2 = (2 * r2) & mascara;
+            if (r2 >= ad) {
+                q2 = (q2 + 1) & mascara;
+                r2 -= ad;
+            }
+            delta = ad - r2;
+        } while (q1 < delta || (q1 == delta && r1 == 0));
+        return new long[]{(int) (q2 + 1), p - 32};
+    }
+
+    private static boolean constanteInteira(ProgramaIR ir, int operando) {
+        return ProgramaIR.ehConstante(operando) && ir.tipo(operando) != TipoDado.REAL;
+    }
+
+    private static void emitir(List<int[]> codigo, Opcode op, int destino, int a, int b) {
+        codigo.add(PreCabecalho.instrucao(op, destino, a, b));
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+
+/**
+ * SimplificacaoSaltos.java
+ * Limpeza do fluxo de controle depois de passos que removem ramos:
+ *   - saltos (incondicionais ou condicionais) para o rótulo que vem logo em seguida;
+ *   - instruções entre um JMP e o próximo rótulo usado (nunca executam);
+ *   - rótulos que nenhum salto referencia.
+ * Repete até não haver mais mudanças, pois cada remoção pode expor outra.
+ */
+public class SimplificacaoSaltos implements PassoOtimizacao {
+
+    @Override
+    public String getNome() {
+        return "Simplificação de saltos e rótulos";
+    }
+
+    @Override
+    public boolean executar(ProgramaIR ir) {
+        boolean alterou = false;
+        boolean mudou = true;
+        while (mudou) {
+            mudou = removerSaltosParaSeguinte(ir);
+            mudou |= removerCodigoAposJMP(ir);
+            mudou |= removerRotulosSemUso(ir);
+            if (mudou) {
+                ir.compactar();
+                alterou = true;
+            }
+        }
+        return alterou;
+    }
+
+    private static boolean removerSaltosParaSeguinte(ProgramaIR ir) {
+        boolean mudou = false;
+        for (int i = 0; i < ir.tamanho(); i++) {
+            if (!ir.opcode(i).ehSalto()) {
+                continue;
+            }
+            int alvo = ProgramaIR.valorOperando(ir.destino(i));
+            for (int j = i + 1; j < ir.tamanho(); j++) {
+                Opcode op = ir.opcode(j);
+                if (op == Opcode.ROTULO && ProgramaIR.valorOperando(ir.destino(j)) == alvo) {
+                    ir.remover(i);
+                    mudou = true;
+                    break;
+                }
+                if (op != Opcode.ROTULO && op != Opcode.NOP) {
+                    break;
+                }
+            }
+        }
+        return mudou;
+    }
+
+    private static boolean removerCodigoAposJMP(ProgramaIR ir) {
+        boolean[] usado = rotulosUsados(ir);
+        boolean mudou = false;
+        boolean morto = false;
+        for (int i = 0; i < ir.tamanho(); i++) {
+            Opcode op = ir.opcode(i);
+            if (op == Opcode.ROTULO && usado[ProgramaIR.valorOperando(ir.destino(i))]) {
+                morto = false;
+            } else if (morto && op != Opcode.NOP) {
+                ir.remover(i);
+                mudou = true;
+                continue;
+            }
+            if (op == Opcode.JMP) {
+                morto = true;
+            }
+        }
+        return mudou;
+    }
+
+    private static boolean removerRotulosSemUso(ProgramaIR ir) {
+        boolean[] usado = rotulosUsados(ir);
+        boolean mudou = false;
+        for (int i = 0; i < ir.tamanho(); i++) {
+            if (ir.opcode(i) == Opcode.ROTULO && !usado[ProgramaIR.valorOperando(ir.destino(i))]) {
+                ir.remover(i);
+                mudou = true;
+            }
+        }
+        return mudou;
+    }
+
+    private static boolean[] rotulosUsados(ProgramaIR ir) {
+        boolean[] usado = new boolean[ir.getMaiorRotulo() + 1];
+        for (int i = 0; i < ir.tamanho(); i++) {
+            if (ir.opcode(i).ehSalto()) {
+                usado[ProgramaIR.valorOperando(ir.destino(i))] = true;
+            }
+        }
+        return usado;
+    }
+}
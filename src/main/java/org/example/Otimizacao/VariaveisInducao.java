@@ -0,0 +1,142 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+import org.example.TipoDado;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * VariaveisInducao.java
+ * Redução de força de variáveis de indução.
+ *
+ * Uma variável de indução básica de um laço é um nome INTEIRO cuja única
+ * definição no laço é 'i = i + c', com c constante (o contador de um
+ * 'enquanto'). Uma multiplicação 't = i * k' dentro do laço, com k constante
+ * ou invariante, é trocada por um acumulador s:
+ *   pré-cabeçalho:          s = i * k          (e inc = k * c se k é um nome)
+ *   depois de 'i = i + c':  s = s + c*k
+ *   no lugar da operação:   t = s
+ * Como i só muda nesse ponto, s vale i * k em todo o laço (inclusive com o
+ * estouro circular de 32 bits). Multiplicações por potência de dois ficam
+ * para {@link ReducaoForca}, que as troca por deslocamentos.
+ */
+public class VariaveisInducao implements PassoOtimizacao {
+
+    @Override
+    public String getNome() {
+        return "Redução de força de variáveis de indução";
+    }
+
+    @Override
+    public boolean executar(ProgramaIR ir) {
+        return executar(ir, new Analises(ir));
+    }
+
+    @Override
+    public boolean executar(ProgramaIR ir, Analises analises) {
+        boolean alterou = false;
+        boolean mudou = true;
+        while (mudou) {
+            mudou = false;
+            GrafoFluxoControle cfg = analises.cfg();
+            List<Laco> lacos = new ArrayList<>(cfg.getLacos());
+            lacos.sort(Comparator.comparingInt(Laco::getProfundidade).reversed());
+            for (Laco laco : lacos) {
+                // Uma redução por vez: as posições mudam e o CFG é reconstruído
+                if (PreCabecalho.suportado(ir, cfg, laco) && reduzirUma(ir, cfg, laco)) {
+                    analises.invalidar();
+                    mudou = true;
+                    alterou = true;
+                    break;
+                }
+            }
+        }
+        if (alterou) {
+            ir.compactar();
+            analises.invalidar();
+        }
+        return alterou;
+    }
+
+    private static boolean reduzirUma(ProgramaIR ir, GrafoFluxoControle cfg, Laco laco) {
+        int[] definicoes = new int[ir.totalNomes()];
+        int[] definidoEm = new int[ir.totalNomes()];
+        for (int b = laco.getBlocos().nextSetBit(0); b >= 0; b = laco.getBlocos().nextSetBit(b + 1)) {
+            for (int i = cfg.inicio(b); i < cfg.fim(b); i++) {
+                if (ir.opcode(i).defineDestino() && ProgramaIR.ehNome(ir.destino(i))) {
+                    int d = ir.indiceDenso(ir.destino(i));
+                    definicoes[d]++;
+                    definidoEm[d] = i;
+                }
+            }
+        }
+
+        for (int b = laco.getBlocos().nextSetBit(0); b >= 0; b = laco.getBlocos().nextSetBit(b + 1)) {
+            for (int m = cfg.inicio(b); m < cfg.fim(b); m++) {
+                if (ir.opcode(m) != Opcode.MUL || ir.tipo(ir.destino(m)) != TipoDado.INTEIRO) {
+                    continue;
+                }
+                for (int lado = 0; lado < 2; lado++) {
+                    int i = lado == 0 ? ir.operando1(m) : ir.operando2(m);
+                    int k = lado == 0 ? ir.operando2(m) : ir.operando1(m);
+                    int passo = passoInducao(ir, i, definicoes, definidoEm);
+                    if (passo == ProgramaIR.NENHUM || !fatorValido(ir, k, definicoes)) {
+                        continue;
+                    }
+                    reduzir(ir, cfg, laco, m, i, k, passo, definidoEm[ir.indiceDenso(i)]);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Constante c se o nome é variável de indução básica ('i = i + c' é sua única definição no laço), senão NENHUM. */
+    private static int passoInducao(ProgramaIR ir, int nome, int[] definicoes, int[] definidoEm) {
+        if (!ProgramaIR.ehNome(nome) || ir.tipo(nome) != TipoDado.INTEIRO || definicoes[ir.indiceDenso(nome)] != 1) {
+            return ProgramaIR.NENHUM;
+        }
+        int def = definidoEm[ir.indiceDenso(nome)];
+        if (ir.opcode(def) != Opcode.ADD) {
+            return ProgramaIR.NENHUM;
+        }
+        int a = ir.operando1(def);
+        int b = ir.operando2(def);
+        int passo = a == nome ? b : (b == nome ? a : ProgramaIR.NENHUM);
+        return ProgramaIR.ehConstante(passo) && ir.tipo(passo) == TipoDado.INTEIRO ? passo : ProgramaIR.NENHUM;
+    }
+
+    /** Fator k: constante inteira que não vira deslocamento, ou nome inteiro sem definição no laço. */
+    private static boolean fatorValido(ProgramaIR ir, int k, int[] definicoes) {
+        if (ProgramaIR.ehConstante(k)) {
+            int valor = ir.valorInteiro(k);
+            return ir.tipo(k) == TipoDado.INTEIRO && valor > 1 && Integer.bitCount(valor) != 1;
+        }
+        return ProgramaIR.ehNome(k) && ir.tipo(k) == TipoDado.INTEIRO && definicoes[ir.indiceDenso(k)] == 0;
+    }
+
+    private static void reduzir(ProgramaIR ir, GrafoFluxoControle cfg, Laco laco,
+                                int multiplicacao, int i, int k, int passo, int definicaoInducao) {
+        int acumulador = ir.novoTemporario(TipoDado.INTEIRO);
+        List<int[]> preCabecalho = new ArrayList<>();
+        preCabecalho.add(PreCabecalho.instrucao(Opcode.MUL, acumulador, i, k));
+        int incremento;
+        if (ProgramaIR.ehConstante(k)) {
+            incremento = ir.constanteInteira(ir.valorInteiro(passo) * ir.valorInteiro(k));
+        } else {
+            incremento = ir.novoTemporario(TipoDado.INTEIRO);
+            preCabecalho.add(PreCabecalho.instrucao(Opcode.MUL, incremento, k, passo));
+        }
+
+        ir.definir(multiplicacao, Opcode.COPIA, ir.destino(multiplicacao), acumulador, ProgramaIR.NENHUM);
+        int inicioCabecalho = cfg.inicio(laco.getCabecalho());
+        int inseridas = PreCabecalho.inserir(ir, cfg, laco, preCabecalho);
+        if (definicaoInducao >= inicioCabecalho) {
+            definicaoInducao += inseridas;
+        }
+        ir.inserir(definicaoInducao + 1, Opcode.ADD, acumulador, acumulador, incremento);
+    }
+}
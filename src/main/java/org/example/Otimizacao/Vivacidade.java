@@ -0,0 +1,203 @@
+package org.example.Otimizacao;
+
+import org.example.C3E.Opcode;
+import org.example.C3E.ProgramaIR;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Vivacidade.java
+ * Análise de vivacidade clássica sobre o CFG do IR comum (sem phis):
+ *   saída[b]   = união de entrada[s] para cada sucessor s
+ *   entrada[b] = usados[b] ∪ (saída[b] − definidos[b])
+ * As variáveis do usuário estão vivas no fim do programa, pois seu valor
+ * final é o resultado. Resolvida por {@link FluxoDados}.
+ *
+ * Só um nome lido em algum bloco antes de ser definido nele (ou uma variável
+ * do usuário) pode estar vivo na fronteira de um bloco; os demais, como os
+ * temporários de uma expressão, vivem dentro de um bloco só. Os conjuntos
+ * usam então um universo compacto só com esses nomes ("globais"), numerados
+ * na ordem dos índices densos, e as consultas recebem e devolvem índices
+ * densos. Os valores são os próprios arrays do {@link FluxoDados}.
+ */
+public final class Vivacidade {
+
+    private final FluxoDados fluxo;
+    private final int[] bitDoNome;      // índice denso -> bit no universo compacto (-1: local a um bloco)
+    private final int[] nomeDoBit;      // bit -> índice denso (crescente)
+
+    public Vivacidade(ProgramaIR ir, GrafoFluxoControle cfg) {
+        bitDoNome = new int[ir.totalNomes()];
+        Arrays.fill(bitDoNome, -1);
+        BitSet globais = globais(ir, cfg);
+        nomeDoBit = new int[globais.cardinality()];
+        int bit = 0;
+        for (int n = globais.nextSetBit(0); n >= 0; n = globais.nextSetBit(n + 1)) {
+            bitDoNome[n] = bit;
+            nomeDoBit[bit++] = n;
+        }
+        // O problema (usados/definidos por bloco) só vive durante a resolução
+        fluxo = FluxoDados.resolver(cfg, new Problema(ir, cfg, bitDoNome, nomeDoBit.length));
+    }
+
+    /** Indica se o nome (índice denso) está vivo no início do bloco. */
+    public boolean vivaNaEntrada(int bloco, int nome) {
+        return contem(fluxo.inicio(bloco), nome);
+    }
+
+    /** Indica se o nome (índice denso) está vivo no fim do bloco. */
+    public boolean vivaNaSaida(int bloco, int nome) {
+        return contem(fluxo.fim(bloco), nome);
+    }
+
+    /** Próximo nome (índice denso) >= de vivo no início do bloco, ou -1. */
+    public int proximaVivaNaEntrada(int bloco, int de) {
+        return proximo(fluxo.inicio(bloco), de);
+    }
+
+    /** Próximo nome (índice denso) >= de vivo no fim do bloco, ou -1. */
+    public int proximaVivaNaSaida(int bloco, int de) {
+        return proximo(fluxo.fim(bloco), de);
+    }
+
+    /** Cópia dos nomes vivos no fim do bloco, para quem percorre o bloco de trás para frente. */
+    public BitSet vivasNaSaida(int bloco) {
+        BitSet vivas = new BitSet(bitDoNome.length);
+        for (int n = proximaVivaNaSaida(bloco, 0); n >= 0; n = proximaVivaNaSaida(bloco, n + 1)) {
+            vivas.set(n);
+        }
+        return vivas;
+    }
+
+    private boolean contem(long[] conjunto, int nome) {
+        int bit = bitDoNome[nome];
+        return bit >= 0 && ConjuntoBits.contem(conjunto, bit);
+    }
+
+    private int proximo(long[] conjunto, int de) {
+        int bit = primeiroBitDesde(de);
+        if (bit < 0) {
+            return -1;
+        }
+        bit = ConjuntoBits.proximo(conjunto, bit);
+        return bit < 0 ? -1 : nomeDoBit[bit];
+    }
+
+    /** Menor bit cujo nome tem índice denso >= de (os bits seguem a ordem dos nomes). */
+    private int primeiroBitDesde(int de) {
+        int indice = Arrays.binarySearch(nomeDoBit, de);
+        indice = indice >= 0 ? indice : -indice - 1;
+        return indice < nomeDoBit.length ? indice : -1;
+    }
+
+    /**
+     * Palavras de 64 bits que um conjunto por bloco ocupa (blocos x palavras),
+     * para quem precisa decidir antes se a análise cabe na memória.
+     */
+    public static long palavrasNecessarias(ProgramaIR ir, GrafoFluxoControle cfg) {
+        return (long) cfg.getTotalBlocos() * ((globais(ir, cfg).cardinality() + 63) >>> 6);
+    }
+
+    /** Variáveis do usuário e nomes lidos em algum bloco antes de serem definidos nele. */
+    private static BitSet globais(ProgramaIR ir, GrafoFluxoControle cfg) {
+        BitSet globais = new BitSet(ir.totalNomes());
+        globais.set(0, ir.getNumeroVariaveis());
+        BitSet definidosNoBloco = new BitSet();
+        for (int b = 0; b < cfg.getTotalBlocos(); b++) {
+            definidosNoBloco.clear();
+            for (int i = cfg.inicio(b); i < cfg.fim(b); i++) {
+                Opcode op = ir.opcode(i);
+                int lidos = op.numeroOperandosLidos();
+                if (lidos >= 1) {
+                    marcarGlobal(ir, ir.operando1(i), definidosNoBloco, globais);
+                }
+                if (lidos == 2) {
+                    marcarGlobal(ir, ir.operando2(i), definidosNoBloco, globais);
+                }
+                if (op.defineDestino() && ProgramaIR.ehNome(ir.destino(i))) {
+                    definidosNoBloco.set(ir.indiceDenso(ir.destino(i)));
+                }
+            }
+        }
+        return globais;
+    }
+
+    private static void marcarGlobal(ProgramaIR ir, int operando, BitSet definidosNoBloco, BitSet globais) {
+        if (ProgramaIR.ehNome(operando) && !definidosNoBloco.get(ir.indiceDenso(operando))) {
+            globais.set(ir.indiceDenso(operando));
+        }
+    }
+
+    /** Problema para trás com união; usados = gen, definidos = kill (só nomes globais). */
+    private static final class Problema implements ProblemaFluxoDados {
+        private final int totalVariaveis;
+        private final int tamanho;
+        private final long[][] usados;
+        private final long[][] definidos;
+
+        Problema(ProgramaIR ir, GrafoFluxoControle cfg, int[] bitDoNome, int tamanho) {
+            this.totalVariaveis = ir.getNumeroVariaveis();
+            this.tamanho = tamanho;
+            int totalBlocos = cfg.getTotalBlocos();
+            usados = new long[totalBlocos][];
+            definidos = new long[totalBlocos][];
+            for (int b = 0; b < totalBlocos; b++) {
+                usados[b] = ConjuntoBits.novo(tamanho);
+                definidos[b] = ConjuntoBits.novo(tamanho);
+                for (int i = cfg.inicio(b); i < cfg.fim(b); i++) {
+                    Opcode op = ir.opcode(i);
+                    int lidos = op.numeroOperandosLidos();
+                    if (lidos >= 1) {
+                        marcarUso(ir, bitDoNome, ir.operando1(i), usados[b], definidos[b]);
+                    }
+                    if (lidos == 2) {
+                        marcarUso(ir, bitDoNome, ir.operando2(i), usados[b], definidos[b]);
+                    }
+                    if (op.defineDestino() && ProgramaIR.ehNome(ir.destino(i))) {
+                        int bit = bitDoNome[ir.indiceDenso(ir.destino(i))];
+                        if (bit >= 0) {
+                            ConjuntoBits.adicionar(definidos[b], bit);
+                        }
+                    }
+                }
+            }
+        }
+
+        private static void marcarUso(ProgramaIR ir, int[] bitDoNome, int operando, long[] usados, long[] definidos) {
+            if (ProgramaIR.ehNome(operando)) {
+                int bit = bitDoNome[ir.indiceDenso(operando)];
+                if (bit >= 0 && !ConjuntoBits.contem(definidos, bit)) {
+                    ConjuntoBits.adicionar(usados, bit);
+                }
+            }
+        }
+
+        @Override
+        public Direcao direcao() {
+            return Direcao.PARA_TRAS;
+        }
+
+        @Override
+        public Juncao juncao() {
+            return Juncao.UNIAO;
+        }
+
+        @Override
+        public int tamanho() {
+            return tamanho;
+        }
+
+        @Override
+        public void fronteira(int bloco, long[] valor) {
+            // Fim do programa: o valor final das variáveis é observável
+            // (as variáveis têm os primeiros índices densos, logo os primeiros bits)
+            ConjuntoBits.preencher(valor, totalVariaveis);
+        }
+
+        @Override
+        public void transferir(int bloco, long[] saida, long[] entrada) {
+            ConjuntoBits.transferir(entrada, saida, usados[bloco], definidos[bloco]);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.example;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Stack;
@@ -89,6 +91,21 @@ public class TabelaSimbolos {
         tabela.put(chave, new EntradaTabelaSimbolos(lexema, tipo, "temp"));
     }
 
+    /**
+     * Reinsere uma entrada já pronta (ex: carregada do cache binário da AST),
+     * preservando o escopo original da entrada.
+     */
+    public void inserirEntrada(EntradaTabelaSimbolos entrada) {
+        tabela.put(gerarChave(entrada.getLexema(), entrada.getEscopo()), entrada);
+    }
+
+    /**
+     * Retorna todas as entradas da tabela (sem ordem definida).
+     */
+    public Collection<EntradaTabelaSimbolos> getEntradas() {
+        return Collections.unmodifiableCollection(tabela.values());
+    }
+
     /**
      * Busca um identificador na tabela, **buscando do escopo atual para o global**.
      * Este é o coração da resolução de escopo.
@@ -0,0 +1,248 @@
+package org.example.Interpretador;
+
+import org.example.AST.ASTSemanticAnalyzer;
+import org.example.AST.ProgramaNode;
+import org.example.AnalisadorLexico;
+import org.example.AnalisadorSemantico;
+import org.example.AnalisadorSintatico;
+import org.example.C3E.C3EGeneratorVisitor;
+import org.example.C3E.GeradorC3E;
+import org.example.C3E.ProgramaIR;
+import org.example.Otimizacao.GerenciadorPassos;
+import org.example.Otimizacao.NivelOtimizacao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BancadaInterpretadores.java
+ * Compara o {@link InterpretadorC3E} com a {@link MaquinaRegistradores} nos
+ * programas de exemplo (src/main/resources), com os números inteiros das
+ * condições de 'enquanto' multiplicados por um fator para que os laços
+ * dominem o tempo.
+ *
+ * Uso: BancadaInterpretadores [fator] [-O0|-O1|-O2]
+ * Fica nas fontes de teste, fora do jar: depois de 'mvn test-compile', roda
+ * com target/classes e target/test-classes no classpath.
+ *
+ * Cada programa é medido numa JVM própria. Cada motor é aquecido antes da
+ * medição (o JIT precisa compilar o laço de despacho) e depois roda em
+ * rodadas de tempo fixo; vale a melhor rodada.
+ * Programas que não terminam dentro de {@link #LIMITE_REFERENCIA} instruções
+ * do interpretador, ou em que os dois motores discordam, são só reportados.
+ */
+public final class BancadaInterpretadores {
+
+    private static final String[] PROGRAMAS = {
+            "teste1_condicional.txt",
+            "teste2_real.txt",
+            "teste3_iterativo.txt",
+            "teste4_complexo.txt",
+            "teste5_atribuiçãoSimples.txt",
+            "teste6_condicionalSimples.txt",
+            "teste7_iterativoSimples.txt",
+            "teste8_validaçãoEscopo.txt",
+            "teste9_realNaN.txt",
+    };
+
+    private static final int FATOR_PADRAO = 1_000_000;
+    private static final long LIMITE_REFERENCIA = 500_000_000L;
+    private static final long NANOS_AQUECIMENTO = 1_000_000_000L;
+    private static final int EXECUCOES_AQUECIMENTO = 20;
+    private static final long NANOS_POR_RODADA = 200_000_000L;
+    private static final int RODADAS = 10;
+
+    private static final String OPCAO_PROGRAMA = "--programa";
+
+    private static final Pattern INTEIRO = Pattern.compile("(?<![\\w.])\\d+(?![\\w.])");
+
+    private BancadaInterpretadores() {
+    }
+
+    /** Um dos dois motores, visto só como "executa o programa uma vez". */
+    private interface Motor {
+        void executar() throws ErroExecucao;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int fator = FATOR_PADRAO;
+        NivelOtimizacao nivel = NivelOtimizacao.PADRAO;
+        String programa = null;
+        for (int i = 0; i < args.length; i++) {
+            NivelOtimizacao lido = NivelOtimizacao.deArgumento(args[i]);
+            if (lido != null) {
+                nivel = lido;
+            } else if (args[i].equals(OPCAO_PROGRAMA) && i + 1 < args.length) {
+                programa = args[++i];
+            } else {
+                fator = Integer.parseInt(args[i]);
+            }
+        }
+
+        if (programa != null) {
+            medir(programa, fator, nivel);
+            return;
+        }
+        System.out.println("Bancada: InterpretadorC3E x MaquinaRegistradores (-" + nivel + ", laços x" + fator + ")");
+        System.out.println(String.format("  %-30s %12s %12s %12s %12s %8s", "programa", "instr C3E", "instr VM",
+                "C3E ns/exec", "VM ns/exec", "ganho"));
+        for (String nome : PROGRAMAS) {
+            medirEmOutraJVM(nome, fator, nivel);
+        }
+    }
+
+    /**
+     * Cada programa roda numa JVM nova (como os forks do JMH): o perfil que o
+     * JIT coleta no laço de despacho de um programa não deve decidir o código
+     * compilado usado para medir o seguinte.
+     */
+    private static void medirEmOutraJVM(String nome, int fator, NivelOtimizacao nivel)
+            throws IOException, InterruptedException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        Process processo = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                BancadaInterpretadores.class.getName(), OPCAO_PROGRAMA, nome, Integer.toString(fator),
+                "-" + nivel)
+                .inheritIO()
+                .start();
+        if (processo.waitFor() != 0) {
+            System.out.println(String.format("  %-30s falhou (código %d)", nome, processo.exitValue()));
+        }
+    }
+
+    private static void medir(String nome, int fator, NivelOtimizacao nivel) throws Exception {
+        ProgramaIR ir = compilar(escalarLacos(lerRecurso(nome), fator));
+        if (ir == null) {
+            System.out.println(String.format("  %-30s erro de compilação", nome));
+            return;
+        }
+        GerenciadorPassos.paraNivel(nivel).executar(ir);
+        medir(nome, ir);
+    }
+
+    private static void medir(String nome, ProgramaIR ir) throws ErroExecucao {
+        InterpretadorC3E interpretador = new InterpretadorC3E(ir);
+        MaquinaRegistradores maquina = new MaquinaRegistradores(CompiladorBytecode.compilar(ir));
+        interpretador.setLimiteInstrucoes(LIMITE_REFERENCIA);
+        try {
+            interpretador.executar(null);
+        } catch (ErroExecucao e) {
+            System.out.println(String.format("  %-30s ignorado: %s", nome, e.getMessage()));
+            return;
+        }
+        maquina.executar(null);
+        for (int slot = 0; slot < ir.getNumeroVariaveis(); slot++) {
+            String variavel = ir.getNomeVariavel(slot);
+            if (Double.compare(interpretador.valorVariavel(variavel), maquina.valorVariavel(variavel)) != 0) {
+                System.out.println(String.format("  %-30s DIVERGÊNCIA em '%s'", nome, variavel));
+                return;
+            }
+        }
+
+        // Programas sem E/S: o canal nunca é usado
+        Motor c3e = () -> interpretador.executar(null);
+        Motor vm = () -> maquina.executar(null);
+        aquecer(c3e);
+        aquecer(vm);
+        double nanosC3E = melhorRodada(c3e);
+        double nanosVM = melhorRodada(vm);
+        System.out.println(String.format("  %-30s %12d %12d %12.1f %12.1f %7.2fx", nome,
+                interpretador.getInstrucoesExecutadas(), maquina.getInstrucoesExecutadas(),
+                nanosC3E, nanosVM, nanosC3E / nanosVM));
+    }
+
+    private static void aquecer(Motor motor) throws ErroExecucao {
+        long fim = System.nanoTime() + NANOS_AQUECIMENTO;
+        int execucoes = 0;
+        do {
+            motor.executar();
+            execucoes++;
+        } while (execucoes < EXECUCOES_AQUECIMENTO || System.nanoTime() < fim);
+    }
+
+    /** Menor tempo médio por execução entre as rodadas. */
+    private static double melhorRodada(Motor motor) throws ErroExecucao {
+        double melhor = Double.MAX_VALUE;
+        for (int r = 0; r < RODADAS; r++) {
+            long inicio = System.nanoTime();
+            long execucoes = 0;
+            long decorrido;
+            do {
+                motor.executar();
+                execucoes++;
+                decorrido = System.nanoTime() - inicio;
+            } while (decorrido < NANOS_POR_RODADA);
+            melhor = Math.min(melhor, (double) decorrido / execucoes);
+        }
+        return melhor;
+    }
+
+    /** Multiplica os literais inteiros dentro dos parênteses de cada 'enquanto'. */
+    static String escalarLacos(String fonte, int fator) {
+        StringBuilder resultado = new StringBuilder();
+        int copiado = 0;
+        int inicio = fonte.indexOf("enquanto");
+        while (inicio >= 0) {
+            int abre = fonte.indexOf('(', inicio);
+            if (abre < 0) {
+                break;
+            }
+            int profundidade = 0;
+            int fecha = abre;
+            for (; fecha < fonte.length(); fecha++) {
+                char ch = fonte.charAt(fecha);
+                if (ch == '(') {
+                    profundidade++;
+                } else if (ch == ')' && --profundidade == 0) {
+                    break;
+                }
+            }
+            resultado.append(fonte, copiado, abre);
+            Matcher literal = INTEIRO.matcher(fonte.substring(abre, Math.min(fecha + 1, fonte.length())));
+            StringBuilder condicao = new StringBuilder();
+            while (literal.find()) {
+                long escalado = Math.min((long) Integer.MAX_VALUE, Long.parseLong(literal.group()) * fator);
+                literal.appendReplacement(condicao, Long.toString(escalado));
+            }
+            literal.appendTail(condicao);
+            resultado.append(condicao);
+            copiado = Math.min(fecha + 1, fonte.length());
+            inicio = fonte.indexOf("enquanto", copiado);
+        }
+        return resultado.append(fonte.substring(copiado)).toString();
+    }
+
+    /** Fases 1 a 4 sem a saída de progresso do compilador; null se houver erro de sintaxe. */
+    private static ProgramaIR compilar(String fonte) throws Exception {
+        PrintStream saida = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            AnalisadorSintatico sintatico = new AnalisadorSintatico(new AnalisadorLexico(fonte).analisar());
+            sintatico.analisar();
+            if (!sintatico.analiseBemSucedida()) {
+                return null;
+            }
+            ProgramaNode raiz = sintatico.getAstRaiz();
+            AnalisadorSemantico semantico = sintatico.getAnalisadorSemantico();
+            raiz.accept(new ASTSemanticAnalyzer(semantico));
+            GeradorC3E gerador = new GeradorC3E();
+            raiz.accept(new C3EGeneratorVisitor(gerador, semantico));
+            return gerador.getIR();
+        } finally {
+            System.setOut(saida);
+        }
+    }
+
+    private static String lerRecurso(String nome) throws IOException {
+        try (InputStream entrada = BancadaInterpretadores.class.getClassLoader().getResourceAsStream(nome)) {
+            if (entrada == null) {
+                throw new IOException("Arquivo não encontrado no classpath: " + nome);
+            }
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}